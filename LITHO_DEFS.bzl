@@ -139,6 +139,10 @@ LITHO_ROBOLECTRIC_TARGET = make_dep_path("lib/robolectric3:robolectric3")
 
 LITHO_JUNIT_TARGET = make_dep_path("lib/junit:junit")
 
+LITHO_JMH_TARGET = make_dep_path("lib/jmh:jmh")
+
+LITHO_JMH_PROCESSOR_TARGET = make_dep_path("lib/jmh:processor")
+
 LITHO_HAMCREST_LIBRARY_TARGET = make_dep_path("lib/hamcrest:hamcrest")
 
 LITHO_HAMCREST_CORE_TARGET = make_dep_path("lib/hamcrest:hamcrest")
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+import static com.facebook.yoga.YogaEdge.ALL;
+
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.TestViewComponent;
+
+/** Component trees shared by the benchmark suites in this module. */
+public final class BenchmarkComponents {
+
+  public static final int ITEM_HEIGHT_PX = 40;
+
+  private BenchmarkComponents() {}
+
+  /**
+   * Creates a {@link Column} with {@code itemCount} rows, each holding a drawable, a view and a
+   * wrapped drawable, which is representative of a long feed rendered as a single component.
+   */
+  public static Component createWideTree(ComponentContext c, int itemCount) {
+    final Column.Builder column = Column.create(c);
+    for (int i = 0; i < itemCount; i++) {
+      column.child(
+          Row.create(c)
+              .heightPx(ITEM_HEIGHT_PX)
+              .paddingPx(ALL, 2)
+              .child(TestDrawableComponent.create(c).widthPx(ITEM_HEIGHT_PX).flexShrink(0))
+              .child(TestViewComponent.create(c).flexGrow(1))
+              .child(TestDrawableComponent.create(c).wrapInView().widthPx(ITEM_HEIGHT_PX)));
+    }
+    return column.build();
+  }
+
+  /**
+   * Creates a tree nesting {@code depth} alternating {@link Row}s and {@link Column}s, each level
+   * also holding a drawable sibling, so that Yoga and result collection have to recurse deeply.
+   */
+  public static Component createDeepTree(ComponentContext c, int depth) {
+    Component current = TestDrawableComponent.create(c).heightPx(ITEM_HEIGHT_PX).build();
+    for (int i = 0; i < depth; i++) {
+      final Component.ContainerBuilder<?> container =
+          (i % 2 == 0) ? Column.create(c) : Row.create(c);
+      current =
+          container
+              .paddingPx(ALL, 1)
+              .child(current)
+              .child(TestDrawableComponent.create(c).heightPx(ITEM_HEIGHT_PX).flexShrink(0))
+              .build();
+    }
+    return current;
+  }
+}
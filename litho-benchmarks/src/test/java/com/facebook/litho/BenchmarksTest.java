@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+import static org.junit.Assume.assumeTrue;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the JMH suites in this module. Benchmarks are skipped unless the {@link
+ * #BENCHMARKS_PROPERTY} system property holds a regular expression selecting which ones to run.
+ */
+@RunWith(ComponentsTestRunner.class)
+public class BenchmarksTest {
+
+  static final String BENCHMARKS_PROPERTY = "com.facebook.litho.benchmarks";
+
+  @Test
+  public void runBenchmarks() throws RunnerException {
+    final String include = System.getProperty(BENCHMARKS_PROPERTY);
+    assumeTrue(include != null && !include.isEmpty());
+
+    final Options options =
+        new OptionsBuilder()
+            .include(include)
+            // The benchmarks need the Robolectric sandbox and libyoga set up by this runner, which
+            // a forked JVM would not have.
+            .forks(0)
+            .warmupIterations(5)
+            .measurementIterations(10)
+            // Reports gc.alloc.rate.norm, i.e. the bytes allocated per operation.
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(options).run();
+  }
+}
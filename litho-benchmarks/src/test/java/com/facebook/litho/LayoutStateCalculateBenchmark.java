@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+
+import com.facebook.litho.LayoutState.CalculateLayoutSource;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Measures {@link LayoutState#calculate} on deep and wide trees, both from scratch and when a
+ * previous {@link DiffNode} tree is available for measurement reuse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LayoutStateCalculateBenchmark {
+
+  private static final int WIDTH_SPEC = SizeSpec.makeSizeSpec(1080, EXACTLY);
+  private static final int HEIGHT_SPEC = SizeSpec.makeSizeSpec(0, UNSPECIFIED);
+
+  @Param({"WIDE", "DEEP"})
+  public String shape;
+
+  @Param({"100", "500"})
+  public int size;
+
+  private ComponentContext mContext;
+  private Component mComponent;
+  private LayoutState mPreviousLayoutState;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    mComponent =
+        "WIDE".equals(shape)
+            ? BenchmarkComponents.createWideTree(mContext, size)
+            : BenchmarkComponents.createDeepTree(mContext, size);
+    mPreviousLayoutState = calculate(true, null);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    mPreviousLayoutState.releaseRef();
+    mPreviousLayoutState = null;
+  }
+
+  @Benchmark
+  public void calculate() {
+    calculate(false, null).releaseRef();
+  }
+
+  @Benchmark
+  public void calculateWithDiffNodeReuse() {
+    calculate(true, mPreviousLayoutState).releaseRef();
+  }
+
+  private LayoutState calculate(
+      boolean shouldGenerateDiffTree, LayoutState previousLayoutState) {
+    // The root can only be laid out once, ComponentTree does the same before each calculation.
+    return LayoutState.calculate(
+        mContext,
+        mComponent.makeShallowCopy(),
+        -1,
+        WIDTH_SPEC,
+        HEIGHT_SPEC,
+        shouldGenerateDiffTree,
+        previousLayoutState,
+        false /* canPrefetchDisplayLists */,
+        false /* canCacheDrawingDisplayLists */,
+        true /* clipChildren */,
+        false /* persistInternalNodeTree */,
+        CalculateLayoutSource.TEST,
+        null);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+
+import android.graphics.Rect;
+import com.facebook.litho.LayoutState.CalculateLayoutSource;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Measures {@link MountState#mount} of a full {@link LayoutState} and incremental mount while
+ * scrolling a viewport over it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MountStateBenchmark {
+
+  private static final int WIDTH = 1080;
+  private static final int VIEWPORT_HEIGHT = 1920;
+
+  @Param({"100", "500"})
+  public int itemCount;
+
+  /** Distance in pixels the viewport moves on every incremental mount. */
+  @Param({"16", "400"})
+  public int scrollStep;
+
+  private LithoView mLithoView;
+  private MountState mMountState;
+  private LayoutState mLayoutState;
+  private final Rect mVisibleRect = new Rect();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_TRUE);
+
+    final ComponentContext c = new ComponentContext(RuntimeEnvironment.application);
+    final Component component = BenchmarkComponents.createWideTree(c, itemCount);
+    final ComponentTree componentTree =
+        ComponentTree.create(c, component).incrementalMount(false).layoutDiffing(false).build();
+    mLithoView = new LithoView(c);
+    mLithoView.setComponentTree(componentTree);
+
+    mLayoutState =
+        LayoutState.calculate(
+            c,
+            component.makeShallowCopy(),
+            componentTree.mId,
+            SizeSpec.makeSizeSpec(WIDTH, EXACTLY),
+            SizeSpec.makeSizeSpec(0, UNSPECIFIED),
+            CalculateLayoutSource.TEST);
+    mMountState = new MountState(mLithoView);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    mMountState.unmountAllItems();
+    mLayoutState.releaseRef();
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+  }
+
+  @State(Scope.Thread)
+  public static class FullMount {
+
+    @Setup(Level.Invocation)
+    public void setUp(MountStateBenchmark benchmark) {
+      benchmark.mMountState.setDirty();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown(MountStateBenchmark benchmark) {
+      benchmark.mMountState.unmountAllItems();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class IncrementalMount {
+
+    @Setup(Level.Iteration)
+    public void setUp(MountStateBenchmark benchmark) {
+      benchmark.mMountState.unmountAllItems();
+      benchmark.mMountState.setDirty();
+      benchmark.mVisibleRect.set(0, 0, WIDTH, VIEWPORT_HEIGHT);
+      benchmark.mMountState.mount(benchmark.mLayoutState, benchmark.mVisibleRect, false);
+    }
+  }
+
+  @Benchmark
+  public void mount(FullMount fullMount) {
+    mMountState.mount(mLayoutState, null, false);
+  }
+
+  @Benchmark
+  public void incrementalMount(IncrementalMount incrementalMount) {
+    final int maxTop = Math.max(0, mLayoutState.getHeight() - VIEWPORT_HEIGHT);
+    int top = mVisibleRect.top + scrollStep;
+    if (top > maxTop) {
+      // Jump back to the top, this is still served by the incremental path.
+      top = 0;
+    }
+    mVisibleRect.offsetTo(0, top);
+    mMountState.mount(mLayoutState, mVisibleRect, false);
+  }
+}
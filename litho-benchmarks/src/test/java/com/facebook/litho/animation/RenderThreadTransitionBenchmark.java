@@ -0,0 +1,154 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.animation;
+
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import com.facebook.litho.OutputUnitType;
+import com.facebook.litho.OutputUnitsAffinityGroup;
+import com.facebook.litho.dataflow.ConstantNode;
+import com.facebook.litho.dataflow.DataFlowGraph;
+import com.facebook.litho.dataflow.GraphBinding;
+import com.facebook.litho.dataflow.InterpolatorNode;
+import com.facebook.litho.dataflow.MappingNode;
+import com.facebook.litho.dataflow.MockTimingSource;
+import com.facebook.litho.dataflow.SpringNode;
+import com.facebook.litho.dataflow.TimingNode;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Measures the UI thread time of an animation frame of the {@link DataFlowGraph} when transitions
+ * animate their Views from the graph, and when they are compiled into {@link
+ * RenderThreadTransition}s and the graph only shadows the values set on the RenderThread.
+ *
+ * <p>The animations are restarted every time they finish, so their setup is part of the measured
+ * time, spread over the frames of the animation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderThreadTransitionBenchmark {
+
+  private static final int DURATION_MS = 300;
+  private static final float DISTANCE = 300;
+
+  @Param({"10", "100"})
+  public int animationCount;
+
+  @Param({"timing", "spring"})
+  public String animator;
+
+  @Param({"false", "true"})
+  public boolean renderThread;
+
+  private final ArrayList<GraphBinding> mBindings = new ArrayList<>();
+  private MockTimingSource mTimingSource;
+  private DataFlowGraph mDataFlowGraph;
+  private AnimatedPropertyNode[] mAnimatedPropertyNodes;
+  private SpringInterpolator mSpringInterpolator;
+  private boolean mIsSpring;
+  private int mFramesPerAnimation;
+  private int mFrame;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    mTimingSource = new MockTimingSource();
+    mDataFlowGraph = DataFlowGraph.create(mTimingSource);
+    mAnimatedPropertyNodes = new AnimatedPropertyNode[animationCount];
+    for (int i = 0; i < animationCount; i++) {
+      final OutputUnitsAffinityGroup<Object> group = new OutputUnitsAffinityGroup<>();
+      group.add(OutputUnitType.HOST, new View(RuntimeEnvironment.application));
+      mAnimatedPropertyNodes[i] = new AnimatedPropertyNode(group, AnimatedProperties.X);
+    }
+
+    mIsSpring = "spring".equals(animator);
+    mSpringInterpolator = SpringInterpolator.create(null, DISTANCE);
+    final int durationMs = mIsSpring ? mSpringInterpolator.getDurationMs() : DURATION_MS;
+    // One extra frame for the first frame of the animation, which only sets the initial value.
+    mFramesPerAnimation = durationMs / MockTimingSource.FRAME_TIME_MS + 2;
+
+    startAnimations();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    stopAnimations();
+  }
+
+  @Benchmark
+  public void doFrame() {
+    if (mFrame == mFramesPerAnimation) {
+      startAnimations();
+    }
+    mTimingSource.step(1);
+    mFrame++;
+  }
+
+  private void startAnimations() {
+    stopAnimations();
+    mFrame = 0;
+
+    for (AnimatedPropertyNode animatedPropertyNode : mAnimatedPropertyNodes) {
+      animatedPropertyNode.setUsingRenderThread(renderThread);
+
+      final GraphBinding binding = GraphBinding.create(mDataFlowGraph);
+      final ConstantNode initial = new ConstantNode(0);
+      final ConstantNode end = new ConstantNode(DISTANCE);
+      if (mIsSpring && !renderThread) {
+        final SpringNode springNode = new SpringNode();
+        binding.addBinding(initial, springNode, SpringNode.INITIAL_INPUT);
+        binding.addBinding(end, springNode, SpringNode.END_INPUT);
+        binding.addBinding(springNode, animatedPropertyNode);
+      } else {
+        // The shadow graph of a RenderThreadTransition is the graph of a timing transition, with
+        // a spring replayed by a SpringInterpolator.
+        final TimingNode timingNode =
+            new TimingNode(mIsSpring ? mSpringInterpolator.getDurationMs() : DURATION_MS);
+        final InterpolatorNode interpolatorNode =
+            new InterpolatorNode(
+                mIsSpring ? mSpringInterpolator : new AccelerateDecelerateInterpolator());
+        final MappingNode mappingNode = new MappingNode();
+        binding.addBinding(timingNode, interpolatorNode);
+        binding.addBinding(interpolatorNode, mappingNode);
+        binding.addBinding(initial, mappingNode, MappingNode.INITIAL_INPUT);
+        binding.addBinding(end, mappingNode, MappingNode.END_INPUT);
+        binding.addBinding(mappingNode, animatedPropertyNode);
+      }
+      binding.activate();
+      mBindings.add(binding);
+    }
+  }
+
+  private void stopAnimations() {
+    for (int i = 0, size = mBindings.size(); i < size; i++) {
+      mBindings.get(i).deactivate();
+    }
+    mBindings.clear();
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho.sections.common;
+
+import com.facebook.litho.ThreadUtils;
+import com.facebook.litho.sections.SectionContext;
+import com.facebook.litho.sections.SectionTree;
+import com.facebook.litho.testing.sections.TestGroupSection;
+import com.facebook.litho.testing.sections.TestTarget;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Measures {@link DataDiffSectionSpec#onCreateChangeSet} by alternating the root of a {@link
+ * SectionTree} between two versions of the same list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataDiffSectionBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int size;
+
+  /**
+   * How the next list differs from the previous one: {@code UPDATE} changes the content of every
+   * 10th item, {@code SHIFT} inserts items at the head and removes as many from the tail, {@code
+   * MOVE} swaps the two halves of the list.
+   */
+  @Param({"UPDATE", "SHIFT", "MOVE"})
+  public String mutation;
+
+  private SectionContext mSectionContext;
+  private SectionTree mSectionTree;
+  private TestTarget mTestTarget;
+  private List<Item> mPreviousData;
+  private List<Item> mNextData;
+  private boolean mShowNext;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // Apply the ChangeSets on the calling thread instead of posting them to the main looper.
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_TRUE);
+    mSectionContext = new SectionContext(RuntimeEnvironment.application);
+    mTestTarget = new TestTarget();
+    mSectionTree = SectionTree.create(mSectionContext, mTestTarget).build();
+
+    mPreviousData = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      mPreviousData.add(new Item(i, 0));
+    }
+    mNextData = mutate(mPreviousData);
+
+    mSectionTree.setRoot(createSection(mPreviousData));
+    mShowNext = true;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+  }
+
+  @Setup(Level.Invocation)
+  public void clearTarget() {
+    mTestTarget.clear();
+  }
+
+  @Benchmark
+  public TestTarget onCreateChangeSet() {
+    mSectionTree.setRoot(createSection(mShowNext ? mNextData : mPreviousData));
+    mShowNext = !mShowNext;
+    return mTestTarget;
+  }
+
+  private TestGroupSection createSection(List<Item> data) {
+    return TestGroupSection.create(mSectionContext)
+        .data(data)
+        .isSameItemComparator(Item.SAME_ITEM)
+        .isSameContentComparator(Item.SAME_CONTENT)
+        .build();
+  }
+
+  private List<Item> mutate(List<Item> data) {
+    final int count = data.size();
+    final List<Item> next = new ArrayList<>(count);
+    switch (mutation) {
+      case "UPDATE":
+        for (int i = 0; i < count; i++) {
+          final Item item = data.get(i);
+          next.add(i % 10 == 0 ? new Item(item.mId, item.mVersion + 1) : item);
+        }
+        break;
+      case "SHIFT":
+        final int shift = Math.max(1, count / 100);
+        for (int i = 0; i < shift; i++) {
+          next.add(new Item(count + i, 0));
+        }
+        next.addAll(data.subList(0, count - shift));
+        break;
+      case "MOVE":
+        next.addAll(data.subList(count / 2, count));
+        next.addAll(data.subList(0, count / 2));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mutation: " + mutation);
+    }
+    return next;
+  }
+
+  private static class Item {
+
+    static final Comparator<Item> SAME_ITEM =
+        new Comparator<Item>() {
+          @Override
+          public int compare(Item lhs, Item rhs) {
+            return lhs.mId - rhs.mId;
+          }
+        };
+
+    static final Comparator<Item> SAME_CONTENT =
+        new Comparator<Item>() {
+          @Override
+          public int compare(Item lhs, Item rhs) {
+            return lhs.mVersion - rhs.mVersion;
+          }
+        };
+
+    final int mId;
+    final int mVersion;
+
+    Item(int id, int version) {
+      mId = id;
+      mVersion = version;
+    }
+
+    @Override
+    public String toString() {
+      return "Item " + mId + " v" + mVersion;
+    }
+  }
+}
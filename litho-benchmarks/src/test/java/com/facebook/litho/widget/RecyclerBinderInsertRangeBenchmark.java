@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho.widget;
+
+import com.facebook.litho.BenchmarkComponents;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ThreadUtils;
+import com.facebook.litho.testing.TestDrawableComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.robolectric.RuntimeEnvironment;
+
+/** Measures {@link RecyclerBinder#insertRangeAt(int, List)} into a populated binder. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecyclerBinderInsertRangeBenchmark {
+
+  @Param({"0", "1000"})
+  public int initialCount;
+
+  @Param({"10", "100", "1000"})
+  public int insertCount;
+
+  private ComponentContext mContext;
+  private List<RenderInfo> mInitialRenderInfos;
+  private List<RenderInfo> mInsertedRenderInfos;
+  private RecyclerBinder mRecyclerBinder;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_TRUE);
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    mInitialRenderInfos = createRenderInfos(initialCount);
+    mInsertedRenderInfos = createRenderInfos(insertCount);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+  }
+
+  @Setup(Level.Invocation)
+  public void createBinder() {
+    mRecyclerBinder = new RecyclerBinder.Builder().build(mContext);
+    if (initialCount > 0) {
+      mRecyclerBinder.insertRangeAt(0, mInitialRenderInfos);
+    }
+  }
+
+  @Benchmark
+  public RecyclerBinder insertRangeAt() {
+    mRecyclerBinder.insertRangeAt(initialCount / 2, mInsertedRenderInfos);
+    return mRecyclerBinder;
+  }
+
+  private List<RenderInfo> createRenderInfos(int count) {
+    final List<RenderInfo> renderInfos = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      renderInfos.add(
+          ComponentRenderInfo.create()
+              .component(
+                  TestDrawableComponent.create(mContext)
+                      .heightPx(BenchmarkComponents.ITEM_HEIGHT_PX)
+                      .build())
+              .build());
+    }
+    return renderInfos;
+  }
+}
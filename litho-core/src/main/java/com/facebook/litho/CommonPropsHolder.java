@@ -492,6 +492,78 @@ class CommonPropsHolder implements CommonProps, CommonPropsCopyable {
     }
   }
 
+  /**
+   * @return whether {@link #copyInto(ComponentContext, InternalNode)} would style a node in the
+   *     same way for this instance and {@param other}.
+   */
+  boolean isEquivalentTo(@Nullable CommonPropsHolder other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null) {
+      return false;
+    }
+    if (mPrivateFlags != other.mPrivateFlags
+        || mWidthPx != other.mWidthPx
+        || mHeightPx != other.mHeightPx
+        || mWrapInView != other.mWrapInView
+        || mDefStyleAttr != other.mDefStyleAttr
+        || mDefStyleRes != other.mDefStyleRes
+        || mPositionType != other.mPositionType
+        || !CommonUtils.equals(mTestKey, other.mTestKey)
+        || !areEdgesEquivalent(mPositions, other.mPositions)
+        || Reference.shouldUpdate(mBackground, other.mBackground)) {
+      return false;
+    }
+    if (mNodeInfo == null
+        ? other.mNodeInfo != null
+        : !mNodeInfo.isEquivalentTo(other.mNodeInfo)) {
+      return false;
+    }
+    return mOtherProps == null
+        ? other.mOtherProps == null
+        : mOtherProps.isEquivalentTo(other.mOtherProps);
+  }
+
+  private static boolean areEdgesEquivalent(
+      @Nullable YogaEdgesWithInts edges, @Nullable YogaEdgesWithInts otherEdges) {
+    if (edges == otherEdges) {
+      return true;
+    }
+    if (edges == null || otherEdges == null || edges.size() != otherEdges.size()) {
+      return false;
+    }
+    for (int i = 0, size = edges.size(); i < size; i++) {
+      if (edges.getEdge(i) != otherEdges.getEdge(i)
+          || edges.getValue(i) != otherEdges.getValue(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean areEdgesEquivalent(
+      @Nullable YogaEdgesWithFloats edges, @Nullable YogaEdgesWithFloats otherEdges) {
+    if (edges == otherEdges) {
+      return true;
+    }
+    if (edges == null || otherEdges == null || edges.mNumEntries != otherEdges.mNumEntries) {
+      return false;
+    }
+    for (int i = 0; i < edges.mNumEntries; i++) {
+      if (edges.mEdges[i] != otherEdges.mEdges[i]
+          || Float.compare(edges.mValues[i], otherEdges.mValues[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean areHandlersEquivalent(
+      @Nullable EventHandler handler, @Nullable EventHandler otherHandler) {
+    return handler == null ? otherHandler == null : handler.isEquivalentTo(otherHandler);
+  }
+
   private static class OtherProps {
     // Flags used to indicate that a certain attribute was explicitly set on the node.
     private static final long PFLAG_LAYOUT_DIRECTION_IS_SET = 1L << 0;
@@ -814,6 +886,56 @@ class CommonPropsHolder implements CommonProps, CommonPropsCopyable {
       mStateListAnimatorRes = resId;
     }
 
+    boolean isEquivalentTo(@Nullable OtherProps other) {
+      if (this == other) {
+        return true;
+      }
+      if (other == null) {
+        return false;
+      }
+      return mPrivateFlags == other.mPrivateFlags
+          && Float.compare(mVisibleHeightRatio, other.mVisibleHeightRatio) == 0
+          && Float.compare(mVisibleWidthRatio, other.mVisibleWidthRatio) == 0
+          && areHandlersEquivalent(mVisibleHandler, other.mVisibleHandler)
+          && areHandlersEquivalent(mFocusedHandler, other.mFocusedHandler)
+          && areHandlersEquivalent(mUnfocusedHandler, other.mUnfocusedHandler)
+          && areHandlersEquivalent(mFullImpressionHandler, other.mFullImpressionHandler)
+          && areHandlersEquivalent(mInvisibleHandler, other.mInvisibleHandler)
+          && areHandlersEquivalent(mVisibilityChangedHandler, other.mVisibilityChangedHandler)
+          && mLayoutDirection == other.mLayoutDirection
+          && mAlignSelf == other.mAlignSelf
+          && Float.compare(mFlex, other.mFlex) == 0
+          && Float.compare(mFlexGrow, other.mFlexGrow) == 0
+          && Float.compare(mFlexShrink, other.mFlexShrink) == 0
+          && mFlexBasisPx == other.mFlexBasisPx
+          && Float.compare(mFlexBasisPercent, other.mFlexBasisPercent) == 0
+          && mImportantForAccessibility == other.mImportantForAccessibility
+          && mDuplicateParentState == other.mDuplicateParentState
+          && areEdgesEquivalent(mMargins, other.mMargins)
+          && areEdgesEquivalent(mMarginPercents, other.mMarginPercents)
+          && CommonUtils.equals(mMarginAutos, other.mMarginAutos)
+          && areEdgesEquivalent(mPaddings, other.mPaddings)
+          && areEdgesEquivalent(mPaddingPercents, other.mPaddingPercents)
+          && areEdgesEquivalent(mPositionPercents, other.mPositionPercents)
+          && areEdgesEquivalent(mTouchExpansions, other.mTouchExpansions)
+          && Float.compare(mWidthPercent, other.mWidthPercent) == 0
+          && mMinWidthPx == other.mMinWidthPx
+          && Float.compare(mMinWidthPercent, other.mMinWidthPercent) == 0
+          && mMaxWidthPx == other.mMaxWidthPx
+          && Float.compare(mMaxWidthPercent, other.mMaxWidthPercent) == 0
+          && Float.compare(mHeightPercent, other.mHeightPercent) == 0
+          && mMinHeightPx == other.mMinHeightPx
+          && Float.compare(mMinHeightPercent, other.mMinHeightPercent) == 0
+          && mMaxHeightPx == other.mMaxHeightPx
+          && Float.compare(mMaxHeightPercent, other.mMaxHeightPercent) == 0
+          && Float.compare(mAspectRatio, other.mAspectRatio) == 0
+          && CommonUtils.equals(mForeground, other.mForeground)
+          && CommonUtils.equals(mTransitionKey, other.mTransitionKey)
+          && CommonUtils.equals(mBorder, other.mBorder)
+          && CommonUtils.equals(mStateListAnimator, other.mStateListAnimator)
+          && mStateListAnimatorRes == other.mStateListAnimatorRes;
+    }
+
     void copyInto(InternalNode node) {
       if ((mPrivateFlags & PFLAG_LAYOUT_DIRECTION_IS_SET) != 0L) {
         node.layoutDirection(mLayoutDirection);
@@ -69,7 +69,11 @@ public abstract class Component extends ComponentLifecycle
   private static final AtomicInteger sIdGenerator = new AtomicInteger(1);
   private int mId = sIdGenerator.getAndIncrement();
   @Nullable private String mOwnerGlobalKey;
+  private long mOwnerGlobalKeyHash;
+  private boolean mHasOwnerGlobalKeyHash;
   private String mGlobalKey;
+  private long mGlobalKeyHash;
+  private boolean mHasGlobalKeyHash;
   @Nullable private String mKey;
   private boolean mHasManualKey;
 
@@ -208,6 +212,9 @@ public abstract class Component extends ComponentLifecycle
 
   @Nullable
   String getOwnerGlobalKey() {
+    if (mOwnerGlobalKey == null && mHasOwnerGlobalKeyHash) {
+      mOwnerGlobalKey = ComponentKeyUtils.getKeyFromHash(mOwnerGlobalKeyHash);
+    }
     return mOwnerGlobalKey;
   }
 
@@ -216,9 +223,30 @@ public abstract class Component extends ComponentLifecycle
    * @return
    */
   String getGlobalKey() {
+    if (mGlobalKey == null && mHasGlobalKeyHash) {
+      // Numeric keys are only turned into strings for the maps that are still keyed by String.
+      mGlobalKey = ComponentKeyUtils.getKeyFromHash(mGlobalKeyHash);
+    }
     return mGlobalKey;
   }
 
+  boolean hasGlobalKey() {
+    return mHasGlobalKeyHash || mGlobalKey != null;
+  }
+
+  /**
+   * @return the numeric form of this component's global key, see {@link
+   *     ComponentsConfiguration#useNumericGlobalKeys}. Components that only have a string key get
+   *     it hashed on first access.
+   */
+  long getGlobalKeyHash() {
+    if (!mHasGlobalKeyHash && mGlobalKey != null) {
+      mGlobalKeyHash = ComponentKeyUtils.getKeyHash(mGlobalKey);
+      mHasGlobalKeyHash = true;
+    }
+    return mGlobalKeyHash;
+  }
+
   /**
    * Set a key for this component that is unique within its tree.
    * @param key
@@ -228,6 +256,19 @@ public abstract class Component extends ComponentLifecycle
   @ThreadSafe(enableChecks = false)
   private void setGlobalKey(String key) {
     mGlobalKey = key;
+    mHasGlobalKeyHash = false;
+  }
+
+  /**
+   * Set the numeric form of the global key for this component.
+   *
+   * @param readableKey the equivalent human readable key, only built in debug mode.
+   */
+  @ThreadSafe(enableChecks = false)
+  private void setGlobalKeyHash(long keyHash, @Nullable String readableKey) {
+    mGlobalKeyHash = keyHash;
+    mHasGlobalKeyHash = true;
+    mGlobalKey = readableKey;
   }
 
   /**
@@ -276,36 +317,94 @@ public abstract class Component extends ComponentLifecycle
 
     /** The component has a manual key set on it but that key is a duplicate * */
     if (component.mHasManualKey) {
-      final ComponentsLogger logger = mScopedContext.getLogger();
-      if (logger != null) {
-        logger.emitMessage(
-            ComponentsLogger.LogLevel.WARNING,
-            "The manual key "
-                + key
-                + " you are setting on this "
-                + component.getSimpleName()
-                + " is a duplicate and will be changed into a unique one. "
-                + "This will result in unexpected behavior if you don't change it.");
-      }
-    }
-
-    final String childType = component.getSimpleName();
-
-    if (mChildCounters == null) {
-      mChildCounters = new HashMap<>();
+      warnDuplicateManualKey(component, key);
     }
 
     /**
      * If the key is a duplicate, we append an index based on the child component's type that would
      * uniquely identify it.
      */
-    int childIndex = mChildCounters.containsKey(childType) ? mChildCounters.get(childType) : 0;
+    return ComponentKeyUtils.getKeyForChildPosition(
+        childKey, getNextChildIndex(component.getSimpleName()));
+  }
+
+  /**
+   * Numeric counterpart of {@link #generateUniqueGlobalKeyForChild(Component, String)}: derives the
+   * child's key hash from this component's one without building any strings, unless debug mode is
+   * enabled. Without readable keys a hash collision can't be told apart from a duplicate key, so
+   * both are resolved the same way and the resulting hash is always unique within the tree.
+   */
+  private void setUniqueGlobalKeyHashForChild(Component component) {
+    final boolean isDebugModeEnabled = ComponentsConfiguration.isDebugModeEnabled;
+    long childKeyHash = component.getKeyHash(getGlobalKeyHash());
+    String childKey =
+        isDebugModeEnabled
+            ? ComponentKeyUtils.getKeyWithSeparator(getGlobalKey(), component.getKey())
+            : null;
+    final KeyHandler keyHandler = mScopedContext.getKeyHandler();
+
+    /** Null check is for testing only, the keyHandler should never be null here otherwise. */
+    if (keyHandler == null) {
+      component.setGlobalKeyHash(childKeyHash, childKey);
+      return;
+    }
 
-    String uniqueKey = ComponentKeyUtils.getKeyForChildPosition(childKey, childIndex);
+    if (keyHandler.hasKey(childKeyHash)) {
+      // A readable key that is still unique means the hash collided, which only the hash has to
+      // be deduplicated for.
+      final boolean isCollision = isDebugModeEnabled && !keyHandler.hasKey(childKey);
+      if (isCollision) {
+        keyHandler.onKeyHashCollision(component, childKey);
+      } else if (component.mHasManualKey) {
+        warnDuplicateManualKey(component, component.getKey());
+      }
+
+      final long baseKeyHash = childKeyHash;
+      final String baseKey = childKey;
+      // The hash of a deduplicated key may be taken as well, keep going until it's unique.
+      do {
+        final int childIndex = getNextChildIndex(component.getSimpleName());
+        childKeyHash = ComponentKeyUtils.getKeyHashForChildPosition(baseKeyHash, childIndex);
+        if (isDebugModeEnabled && !isCollision) {
+          childKey = ComponentKeyUtils.getKeyForChildPosition(baseKey, childIndex);
+        }
+      } while (keyHandler.hasKey(childKeyHash));
+    }
+
+    component.setGlobalKeyHash(childKeyHash, childKey);
+  }
+
+  /** @return the hash of this component's key appended to the given parent key hash. */
+  private long getKeyHash(long parentKeyHash) {
+    return mHasManualKey
+        ? ComponentKeyUtils.getKeyHashWithSeparator(parentKeyHash, String.valueOf(mKey))
+        : ComponentKeyUtils.getKeyHashWithSeparator(parentKeyHash, getTypeId());
+  }
+
+  private void warnDuplicateManualKey(Component component, String key) {
+    final ComponentsLogger logger = mScopedContext.getLogger();
+    if (logger != null) {
+      logger.emitMessage(
+          ComponentsLogger.LogLevel.WARNING,
+          "The manual key "
+              + key
+              + " you are setting on this "
+              + component.getSimpleName()
+              + " is a duplicate and will be changed into a unique one. "
+              + "This will result in unexpected behavior if you don't change it.");
+    }
+  }
 
+  private int getNextChildIndex(String childType) {
+    if (mChildCounters == null) {
+      mChildCounters = new HashMap<>();
+    }
+
+    final int childIndex =
+        mChildCounters.containsKey(childType) ? mChildCounters.get(childType) : 0;
     mChildCounters.put(childType, childIndex + 1);
 
-    return uniqueKey;
+    return childIndex;
   }
 
   Component makeCopyWithNullContext() {
@@ -527,12 +626,19 @@ public abstract class Component extends ComponentLifecycle
   private void generateKey(ComponentContext parentContext) {
     if (ComponentsConfiguration.isDebugModeEnabled || ComponentsConfiguration.useGlobalKeys) {
       final Component parentScope = parentContext.getComponentScope();
+
+      if (ComponentsConfiguration.useNumericGlobalKeys
+          && (parentScope == null || parentScope.hasGlobalKey())) {
+        generateKeyHash(parentScope);
+        return;
+      }
+
       final String key = getKey();
 
       if (parentScope == null) {
         setGlobalKey(key);
       } else {
-        if (parentScope.getGlobalKey() == null) {
+        if (!parentScope.hasGlobalKey()) {
           final ComponentsLogger logger = parentContext.getLogger();
           if (logger != null) {
             logger.emitMessage(
@@ -554,6 +660,19 @@ public abstract class Component extends ComponentLifecycle
     }
   }
 
+  private void generateKeyHash(@Nullable Component parentScope) {
+    if (parentScope != null) {
+      parentScope.setUniqueGlobalKeyHashForChild(this);
+      return;
+    }
+
+    final long keyHash =
+        mHasManualKey
+            ? ComponentKeyUtils.getKeyHash(String.valueOf(mKey))
+            : ComponentKeyUtils.getKeyHash(getTypeId());
+    setGlobalKeyHash(keyHash, ComponentsConfiguration.isDebugModeEnabled ? getKey() : null);
+  }
+
   private void generateErrorEventHandler(ComponentContext parentContext) {
     if (ComponentsConfiguration.enableOnErrorHandling && mErrorEventHandler == null) {
       HasEventDispatcher parentEventDispatcherProvider = parentContext.getComponentScope();
@@ -688,7 +807,13 @@ public abstract class Component extends ComponentLifecycle
 
       final Component owner = getOwner();
       if (owner != null) {
-        mComponent.mOwnerGlobalKey = owner.getGlobalKey();
+        if (owner.mHasGlobalKeyHash && !ComponentsConfiguration.isDebugModeEnabled) {
+          // Avoid encoding the owner's key on the hot path, it's only needed on demand.
+          mComponent.mOwnerGlobalKeyHash = owner.mGlobalKeyHash;
+          mComponent.mHasOwnerGlobalKeyHash = true;
+        } else {
+          mComponent.mOwnerGlobalKey = owner.getGlobalKey();
+        }
       }
 
       if (defStyleAttr != 0 || defStyleRes != 0) {
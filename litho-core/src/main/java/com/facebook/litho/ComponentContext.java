@@ -55,6 +55,14 @@ public class ComponentContext extends ContextWrapper {
   @ThreadConfined(ThreadConfined.ANY)
   private ComponentTree mComponentTree;
 
+  @ThreadConfined(ThreadConfined.ANY)
+  @Nullable
+  private LayoutCancellationToken mLayoutCancellationToken;
+
+  @ThreadConfined(ThreadConfined.ANY)
+  @Nullable
+  private LayoutCache mLayoutCache;
+
   // Used to hold styling information applied to components
   @StyleRes
   @ThreadConfined(ThreadConfined.ANY)
@@ -124,6 +132,8 @@ public class ComponentContext extends ContextWrapper {
       mHeightSpec = componentContext.mHeightSpec;
       mComponentScope = componentContext.mComponentScope;
       mComponentTree = componentContext.mComponentTree;
+      mLayoutCancellationToken = componentContext.mLayoutCancellationToken;
+      mLayoutCache = componentContext.mLayoutCache;
     } else {
       mResourceCache = ResourceCache.getLatest(context.getResources().getConfiguration());
     }
@@ -269,6 +279,26 @@ public class ComponentContext extends ContextWrapper {
     return mComponentTree;
   }
 
+  void setLayoutCancellationToken(@Nullable LayoutCancellationToken layoutCancellationToken) {
+    mLayoutCancellationToken = layoutCancellationToken;
+  }
+
+  /**
+   * @return whether the layout calculation this context belongs to has been superseded and should
+   *     stop creating and measuring components.
+   */
+  boolean isLayoutCancelled() {
+    return mLayoutCancellationToken != null && mLayoutCancellationToken.isCancelled();
+  }
+
+  /**
+   * Sets the cache of the previous layout of the ComponentTree, which is consulted before creating
+   * the layout of every child component.
+   */
+  void setLayoutCache(@Nullable LayoutCache layoutCache) {
+    mLayoutCache = layoutCache;
+  }
+
   protected void setTreeProps(TreeProps treeProps) {
     mTreeProps = treeProps;
   }
@@ -319,6 +349,10 @@ public class ComponentContext extends ContextWrapper {
       return layoutCreatedInWillRender;
     }
 
+    if (isLayoutCancelled()) {
+      return NULL_LAYOUT;
+    }
+
     component = component.getThreadSafeInstance();
 
     component.updateInternalChildState(this);
@@ -327,6 +361,13 @@ public class ComponentContext extends ContextWrapper {
       DebugComponent.applyOverrides(this, component);
     }
 
+    if (mLayoutCache != null) {
+      final InternalNode cachedNode = mLayoutCache.take(component);
+      if (cachedNode != null) {
+        return cachedNode;
+      }
+    }
+
     final InternalNode node = component.createLayout(component.getScopedContext(), false);
 
     if (node != NULL_LAYOUT) {
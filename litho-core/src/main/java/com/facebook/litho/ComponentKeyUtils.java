@@ -15,6 +15,8 @@
  */
 package com.facebook.litho;
 
+import com.facebook.litho.config.ComponentsConfiguration;
+
 public class ComponentKeyUtils {
 
   /**
@@ -40,6 +42,20 @@ public class ComponentKeyUtils {
     return sb.toString();
   }
 
+  /**
+   * @return the global key a child of the given component with the given manual key would have,
+   *     unless it had to be deduplicated. Works for both string and numeric global keys.
+   */
+  static String getChildGlobalKey(Component parent, String key) {
+    if (ComponentsConfiguration.useNumericGlobalKeys
+        && !ComponentsConfiguration.isDebugModeEnabled
+        && parent.hasGlobalKey()) {
+      return getKeyFromHash(getKeyHashWithSeparator(parent.getGlobalKeyHash(), key));
+    }
+
+    return getKeyWithSeparator(parent.getGlobalKey(), key);
+  }
+
   public static String getKeyForChildPosition(String currentKey, int index) {
     // Index will almost always be under 3 digits
     final StringBuilder sb = new StringBuilder(currentKey.length() + 4);
@@ -47,4 +63,62 @@ public class ComponentKeyUtils {
 
     return sb.toString();
   }
+
+  // Numeric counterparts of the methods above, used when
+  // ComponentsConfiguration.useNumericGlobalKeys is enabled. Each global key is a 64-bit FNV-1a
+  // rolling hash of the type, key and index path from the root, so deriving a child's key is a few
+  // multiplications instead of building and hashing a string that grows with the depth of the
+  // tree.
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  // Tags mixed in ahead of each path segment, mirroring the ',' and '!' separators above. Key
+  // strings and type ids are tagged differently so a manual key can't alias an automatic one.
+  private static final long KEY_SEPARATOR = ',';
+  private static final long TYPE_SEPARATOR = '#';
+  private static final long INDEX_SEPARATOR = '!';
+
+  /** @return the hash of a root key. */
+  public static long getKeyHash(String key) {
+    return getKeyHashWithSeparator(FNV_OFFSET_BASIS, key);
+  }
+
+  /** @return the hash of a root key for a component without a manual key. */
+  public static long getKeyHash(int typeId) {
+    return getKeyHashWithSeparator(FNV_OFFSET_BASIS, typeId);
+  }
+
+  /** @return the hash of the global key of a child with the given key. */
+  public static long getKeyHashWithSeparator(long parentKeyHash, String key) {
+    long hash = mix(parentKeyHash, KEY_SEPARATOR);
+    final int length = key.length();
+    for (int i = 0; i < length; i++) {
+      hash = mix(hash, key.charAt(i));
+    }
+
+    return mix(hash, length);
+  }
+
+  /** @return the hash of the global key of a child without a manual key, given its type id. */
+  public static long getKeyHashWithSeparator(long parentKeyHash, int typeId) {
+    return mix(mix(parentKeyHash, TYPE_SEPARATOR), typeId);
+  }
+
+  /** @return the hash of the global key of the index-th duplicate of the given child key. */
+  public static long getKeyHashForChildPosition(long keyHash, int index) {
+    return mix(mix(keyHash, INDEX_SEPARATOR), index);
+  }
+
+  /**
+   * @return a compact string encoding of a key hash, for the places where keys are still used as
+   *     String map keys. It's at most 13 characters long regardless of the depth of the tree.
+   */
+  public static String getKeyFromHash(long keyHash) {
+    return Long.toString(keyHash, Character.MAX_RADIX);
+  }
+
+  private static long mix(long hash, long value) {
+    return (hash ^ value) * FNV_PRIME;
+  }
 }
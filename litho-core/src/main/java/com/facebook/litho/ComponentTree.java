@@ -145,8 +145,10 @@ public class ComponentTree {
   private final boolean mCanCacheDrawingDisplayLists;
   private final boolean mShouldClipChildren;
   private final boolean mPersistInternalNodeTree;
+  @Nullable private final LayoutCache mLayoutCache;
 
   @Nullable private LayoutHandler mPreAllocateMountContentHandler;
+  @Nullable private final WarmUpPlan.Warmer mWarmer;
 
   // These variables are only accessed from the main thread.
   @ThreadConfined(ThreadConfined.UI)
@@ -268,6 +270,7 @@ public class ComponentTree {
     mLayoutThreadHandler = builder.layoutThreadHandler;
     mShouldPreallocatePerMountSpec = builder.shouldPreallocatePerMountSpec;
     mPreAllocateMountContentHandler = builder.preAllocateMountContentHandler;
+    mWarmer = builder.warmer;
 
     mLayoutLock = builder.layoutLock;
     mIsAsyncUpdateStateEnabled = builder.asyncStateUpdates;
@@ -278,6 +281,13 @@ public class ComponentTree {
     mMeasureListener = builder.mMeasureListener;
     mSplitLayoutTag = builder.splitLayoutTag;
     mPersistInternalNodeTree = builder.persistInternalNodeTree;
+    // The persisted tree is handed over to the cache, so it can't be kept on the LayoutState too.
+    mLayoutCache =
+        builder.useLayoutCache
+                && !builder.persistInternalNodeTree
+                && !ComponentsConfiguration.isDebugModeEnabled
+            ? new LayoutCache()
+            : null;
     mUseSharedLayoutStateFuture = builder.useSharedLayoutStateFuture;
 
     ensureLayoutThreadHandler();
@@ -325,6 +335,11 @@ public class ComponentTree {
     return mSplitLayoutTag;
   }
 
+  @Nullable
+  WarmUpPlan.Warmer getWarmer() {
+    return mWarmer;
+  }
+
   @Nullable
   @ThreadConfined(ThreadConfined.UI)
   LayoutState getMainThreadLayoutState() {
@@ -936,6 +951,7 @@ public class ComponentTree {
         }
 
         localLayoutState.clearComponents();
+        updateLayoutCache(localLayoutState);
         mMainThreadLayoutState = localLayoutState;
         localLayoutState = null;
       }
@@ -1102,7 +1118,7 @@ public class ComponentTree {
           mLayoutThreadHandler.removeCallbacks(mUpdateStateSyncRunnable);
         }
         mUpdateStateSyncRunnable = new UpdateStateSyncRunnable(attribution);
-        mLayoutThreadHandler.post(mUpdateStateSyncRunnable);
+        postLayoutRunnable(mUpdateStateSyncRunnable, CalculateLayoutSource.UPDATE_STATE);
       }
       return;
     }
@@ -1423,18 +1439,16 @@ public class ComponentTree {
       int yOffset) {
     assertMainThread();
 
-    final Map<String, Rect> componentKeysToBounds;
+    final Rect anchorBounds;
     synchronized (this) {
-      componentKeysToBounds =
-          mMainThreadLayoutState.getComponentKeyToBounds();
+      anchorBounds = mMainThreadLayoutState.getComponentBounds(anchorGlobalKey);
     }
 
-    if (!componentKeysToBounds.containsKey(anchorGlobalKey)) {
+    if (anchorBounds == null) {
       throw new IllegalArgumentException(
           "Cannot find a component with key " + anchorGlobalKey + " to use as anchor.");
     }
 
-    final Rect anchorBounds = componentKeysToBounds.get(anchorGlobalKey);
     LithoTooltipController.showOnAnchor(
         tooltip,
         anchorBounds,
@@ -1447,17 +1461,16 @@ public class ComponentTree {
   void showTooltip(LithoTooltip lithoTooltip, String anchorGlobalKey, int xOffset, int yOffset) {
     assertMainThread();
 
-    final Map<String, Rect> componentKeysToBounds;
+    final Rect anchorBounds;
     synchronized (this) {
-      componentKeysToBounds = mMainThreadLayoutState.getComponentKeyToBounds();
+      anchorBounds = mMainThreadLayoutState.getComponentBounds(anchorGlobalKey);
     }
 
-    if (!componentKeysToBounds.containsKey(anchorGlobalKey)) {
+    if (anchorBounds == null) {
       throw new IllegalArgumentException(
           "Cannot find a component with key " + anchorGlobalKey + " to use as anchor.");
     }
 
-    final Rect anchorBounds = componentKeysToBounds.get(anchorGlobalKey);
     lithoTooltip.showLithoTooltip(mLithoView, anchorBounds, xOffset, yOffset);
   }
 
@@ -1588,13 +1601,25 @@ public class ComponentTree {
           mLayoutThreadHandler.removeCallbacks(mCurrentCalculateLayoutRunnable);
         }
         mCurrentCalculateLayoutRunnable = new CalculateLayoutRunnable(source, treeProps);
-        mLayoutThreadHandler.post(mCurrentCalculateLayoutRunnable);
+        postLayoutRunnable(mCurrentCalculateLayoutRunnable, source);
       }
     } else {
       calculateLayout(output, source, extraAttribution, treeProps);
     }
   }
 
+  /**
+   * Posts a layout calculation to the layout thread handler, letting a {@link
+   * PriorityLayoutHandler} rank it by its source.
+   */
+  private void postLayoutRunnable(Runnable runnable, @CalculateLayoutSource int source) {
+    if (mLayoutThreadHandler instanceof PriorityLayoutHandler) {
+      ((PriorityLayoutHandler) mLayoutThreadHandler).post(runnable, source);
+    } else {
+      mLayoutThreadHandler.post(runnable);
+    }
+  }
+
   /**
    * Calculates the layout.
    *
@@ -1684,6 +1709,7 @@ public class ComponentTree {
     }
 
     List<Component> components = null;
+    WarmUpPlan warmUpPlan = null;
 
     final boolean noCompatibleComponent;
     int rootWidth = 0;
@@ -1712,6 +1738,8 @@ public class ComponentTree {
 
           components = new ArrayList<>(localLayoutState.getComponents());
           localLayoutState.clearComponents();
+          updateLayoutCache(localLayoutState);
+          warmUpPlan = localLayoutState.getWarmUpPlan();
         }
 
         // Set the new layout state, and remember the old layout state so we
@@ -1740,6 +1768,10 @@ public class ComponentTree {
       postBackgroundLayoutStateUpdated();
     }
 
+    if (warmUpPlan != null && warmUpPlan.size() > 0 && mWarmer != null) {
+      mWarmer.warmUp(warmUpPlan);
+    }
+
     if (mPreAllocateMountContentHandler != null) {
       mPreAllocateMountContentHandler.removeCallbacks(mPreAllocateMountContentRunnable);
       mPreAllocateMountContentHandler.post(mPreAllocateMountContentRunnable);
@@ -1848,11 +1880,19 @@ public class ComponentTree {
     }
 
     if (mainThreadLayoutState != null) {
+      // The LayoutState may outlive the tree if it's still referenced elsewhere, but its content
+      // won't be drawn by this tree anymore.
+      mainThreadLayoutState.cancelWarmUpPlan();
       mainThreadLayoutState.releaseRef();
       mainThreadLayoutState = null;
     }
 
+    if (mLayoutCache != null) {
+      mLayoutCache.clear();
+    }
+
     if (backgroundLayoutState != null) {
+      backgroundLayoutState.cancelWarmUpPlan();
       backgroundLayoutState.releaseRef();
       backgroundLayoutState = null;
     }
@@ -2032,7 +2072,8 @@ public class ComponentTree {
           previousLayoutState,
           treeProps,
           source,
-          extraAttribution);
+          extraAttribution,
+          null);
     }
   }
 
@@ -2046,7 +2087,8 @@ public class ComponentTree {
       @Nullable LayoutState previousLayoutState,
       @Nullable TreeProps treeProps,
       @CalculateLayoutSource int source,
-      @Nullable String extraAttribution) {
+      @Nullable String extraAttribution,
+      @Nullable LayoutCancellationToken cancellationToken) {
     final ComponentContext contextWithStateHandler;
 
     synchronized (this) {
@@ -2059,6 +2101,11 @@ public class ComponentTree {
           new ComponentContext(
               context, StateHandler.acquireNewInstance(mStateHandler), keyHandler, treeProps);
     }
+    contextWithStateHandler.setLayoutCancellationToken(cancellationToken);
+    if (mLayoutCache != null && mLayoutCache.isCompatible(widthSpec, heightSpec)) {
+      contextWithStateHandler.setLayoutCache(mLayoutCache);
+    }
+    final boolean persistInternalNodeTree = mPersistInternalNodeTree || mLayoutCache != null;
 
     if (lock != null) {
       synchronized (lock) {
@@ -2073,7 +2120,7 @@ public class ComponentTree {
             mCanPrefetchDisplayLists,
             mCanCacheDrawingDisplayLists,
             mShouldClipChildren,
-            mPersistInternalNodeTree,
+            persistInternalNodeTree,
             source,
             extraAttribution);
       }
@@ -2089,12 +2136,25 @@ public class ComponentTree {
           mCanPrefetchDisplayLists,
           mCanCacheDrawingDisplayLists,
           mShouldClipChildren,
-          mPersistInternalNodeTree,
+          persistInternalNodeTree,
           source,
           extraAttribution);
     }
   }
 
+  /**
+   * Hands the InternalNode tree of a LayoutState that is being committed over to the layout cache,
+   * so that the next layout calculation can reuse the subtrees that didn't change.
+   */
+  private void updateLayoutCache(LayoutState layoutState) {
+    if (mLayoutCache != null) {
+      mLayoutCache.update(
+          layoutState.consumeLayoutRoot(),
+          layoutState.getWidthSpec(),
+          layoutState.getHeightSpec());
+    }
+  }
+
   /** Wraps a {@link FutureTask} to deduplicate calculating the same LayoutState across threads. */
   private class LayoutStateFuture {
 
@@ -2107,6 +2167,7 @@ public class ComponentTree {
     @Nullable private final LayoutState previousLayoutState;
     @Nullable private final TreeProps treeProps;
     private final FutureTask<LayoutState> futureTask;
+    private final LayoutCancellationToken cancellationToken = new LayoutCancellationToken();
 
     @GuardedBy("LayoutStateFuture.this")
     private volatile boolean released = false;
@@ -2154,7 +2215,8 @@ public class ComponentTree {
                           previousLayoutState,
                           treeProps,
                           source,
-                          extraAttribution);
+                          extraAttribution,
+                          cancellationToken);
                   synchronized (LayoutStateFuture.this) {
                     if (released) {
                       result.releaseRef();
@@ -2177,6 +2239,12 @@ public class ComponentTree {
         layoutState = null;
       }
       released = true;
+      // Let a calculation that is still running bail out early, its result would be dropped anyway.
+      // Finished calculations keep their token untouched since their InternalNodes, and the
+      // contexts they reference, may be reused by the layout cache.
+      if (!futureTask.isDone()) {
+        cancellationToken.cancel();
+      }
     }
 
     private @Nullable LayoutState runAndGet() {
@@ -2373,6 +2441,8 @@ public class ComponentTree {
     private String splitLayoutTag;
     private boolean persistInternalNodeTree = false;
     private boolean useSharedLayoutStateFuture = false;
+    private boolean useLayoutCache = false;
+    private @Nullable WarmUpPlan.Warmer warmer;
 
     protected Builder() {
     }
@@ -2406,6 +2476,8 @@ public class ComponentTree {
       splitLayoutTag = null;
       persistInternalNodeTree = false;
       useSharedLayoutStateFuture = false;
+      useLayoutCache = false;
+      warmer = null;
     }
 
     /**
@@ -2555,6 +2627,15 @@ public class ComponentTree {
       return this;
     }
 
+    /**
+     * Specify a {@link WarmUpPlan.Warmer} that warms up the text and drawables of every LayoutState
+     * this tree commits, so that their first draw doesn't rasterize glyphs or upload textures.
+     */
+    public Builder warmer(@Nullable WarmUpPlan.Warmer warmer) {
+      this.warmer = warmer;
+      return this;
+    }
+
     /**
      * Specify whether the ComponentHosts created by this tree will clip their children.
      * Default value is 'true' as in Android views.
@@ -2608,6 +2689,18 @@ public class ComponentTree {
       return this;
     }
 
+    /**
+     * Whether to keep the InternalNode tree of the last committed layout and graft the subtrees of
+     * unchanged components into the next layout calculated for the same size specs, skipping their
+     * onCreateLayout and onMeasure calls. Subtrees are looked up by global key, so this requires
+     * {@link ComponentsConfiguration#useGlobalKeys}. Ignored when persisting the InternalNode tree
+     * or in debug mode.
+     */
+    public Builder useLayoutCache(boolean useLayoutCache) {
+      this.useLayoutCache = useLayoutCache;
+      return this;
+    }
+
     /** Builds a {@link ComponentTree} using the parameters specified in this builder. */
     public ComponentTree build() {
       final ComponentTree componentTree = new ComponentTree(this);
@@ -21,8 +21,10 @@ import static android.support.v4.view.ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_AUT
 import android.annotation.TargetApi;
 import android.app.Activity;
 import android.app.Application;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.ContextWrapper;
+import android.content.res.Configuration;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
@@ -61,77 +63,86 @@ public class ComponentsPools {
 
   private ComponentsPools() {}
 
+  /**
+   * Creates a pool for objects that are acquired and released from multiple threads, see {@link
+   * ComponentsConfiguration#useLockFreeRecyclePools}.
+   */
+  private static <T> RecyclePool<T> createSyncRecyclePool(String name, int maxSize) {
+    return ComponentsConfiguration.useLockFreeRecyclePools
+        ? new LockFreeRecyclePool<T>(name, maxSize)
+        : new RecyclePool<T>(name, maxSize, true);
+  }
+
   private static final Object sMountContentLock = new Object();
   private static final Object sYogaConfigLock = new Object();
 
   static final RecyclePool<LayoutState> sLayoutStatePool =
-      new RecyclePool<>("LayoutState", PoolsConfig.sLayoutStateSize, true);
+      createSyncRecyclePool("LayoutState", PoolsConfig.sLayoutStateSize);
 
   static final RecyclePool<InternalNode> sInternalNodePool =
-      new RecyclePool<>("InternalNode", PoolsConfig.sInternalNodeSize, true);
+      createSyncRecyclePool("InternalNode", PoolsConfig.sInternalNodeSize);
 
   static final RecyclePool<NodeInfo> sNodeInfoPool =
-      new RecyclePool<>("NodeInfo", PoolsConfig.sNodeInfoSize, true);
+      createSyncRecyclePool("NodeInfo", PoolsConfig.sNodeInfoSize);
 
   static final RecyclePool<ViewNodeInfo> sViewNodeInfoPool =
-      new RecyclePool<>("ViewNodeInfo", 64, true);
+      createSyncRecyclePool("ViewNodeInfo", 64);
 
   static final RecyclePool<YogaNode> sYogaNodePool =
-      new RecyclePool<>("YogaNode", PoolsConfig.sYogaNodeSize, true);
+      createSyncRecyclePool("YogaNode", PoolsConfig.sYogaNodeSize);
 
-  static final RecyclePool<MountItem> sMountItemPool = new RecyclePool<>("MountItem", 256, true);
+  static final RecyclePool<MountItem> sMountItemPool = createSyncRecyclePool("MountItem", 256);
 
   static final RecyclePool<LayoutOutput> sLayoutOutputPool =
-      new RecyclePool<>("LayoutOutput", PoolsConfig.sLayoutOutputSize, true);
+      createSyncRecyclePool("LayoutOutput", PoolsConfig.sLayoutOutputSize);
 
   @GuardedBy("sMountContentLock")
   private static final Map<Context, SparseArray<MountContentPool>> sMountContentPoolsByContext =
       new HashMap<>(4);
 
   static final RecyclePool<DisplayListContainer> sDisplayListContainerPool =
-      new RecyclePool<>("DisplayListContainer", PoolsConfig.sDisplayListContainerSize, true);
+      createSyncRecyclePool("DisplayListContainer", PoolsConfig.sDisplayListContainerSize);
 
   static final RecyclePool<VisibilityOutput> sVisibilityOutputPool =
-      new RecyclePool<>("VisibilityOutput", 64, true);
+      createSyncRecyclePool("VisibilityOutput", 64);
 
   // These are lazily initialized as they are only needed when we're in a test environment.
   static RecyclePool<TestOutput> sTestOutputPool = null;
   static RecyclePool<TestItem> sTestItemPool = null;
 
   static final RecyclePool<VisibilityItem> sVisibilityItemPool =
-      new RecyclePool<>("VisibilityItem", 64, true);
+      createSyncRecyclePool("VisibilityItem", 64);
 
-  static final RecyclePool<Output<?>> sOutputPool = new RecyclePool<>("Output", 20, true);
+  static final RecyclePool<Output<?>> sOutputPool = createSyncRecyclePool("Output", 20);
 
   static final RecyclePool<DiffNode> sDiffNodePool =
-      new RecyclePool<>("DiffNode", PoolsConfig.sDiffNodeSize, true);
+      createSyncRecyclePool("DiffNode", PoolsConfig.sDiffNodeSize);
 
-  static final RecyclePool<Diff<?>> sDiffPool = new RecyclePool<>("Diff", 20, true);
+  static final RecyclePool<Diff<?>> sDiffPool = createSyncRecyclePool("Diff", 20);
 
   static final RecyclePool<ComponentTree.Builder> sComponentTreeBuilderPool =
-      new RecyclePool<>("ComponentTree.Builder", 2, true);
+      createSyncRecyclePool("ComponentTree.Builder", 2);
 
   static final RecyclePool<StateHandler> sStateHandlerPool =
-      new RecyclePool<>("StateHandler", 10, true);
+      createSyncRecyclePool("StateHandler", 10);
 
   static final RecyclePool<SparseArrayCompat<MountItem>> sMountItemScrapArrayPool =
       new RecyclePool<>("MountItemScrapArray", 8, false);
 
-  static final RecyclePool<RectF> sRectFPool = new RecyclePool<>("RectF", 4, true);
+  static final RecyclePool<RectF> sRectFPool = createSyncRecyclePool("RectF", 4);
 
-  static final RecyclePool<Rect> sRectPool = new RecyclePool<>("Rect", 30, true);
+  static final RecyclePool<Rect> sRectPool = createSyncRecyclePool("Rect", 30);
 
-  static final RecyclePool<Edges> sEdgesPool = new RecyclePool<>("Edges", 30, true);
+  static final RecyclePool<Edges> sEdgesPool = createSyncRecyclePool("Edges", 30);
 
   static final RecyclePool<DisplayListDrawable> sDisplayListDrawablePool =
       new RecyclePool<>("DisplayListDrawable", 10, false);
 
-  static final RecyclePool<ArraySet> sArraySetPool = new RecyclePool<>("ArraySet", 10, true);
+  static final RecyclePool<ArraySet> sArraySetPool = createSyncRecyclePool("ArraySet", 10);
 
-  static final RecyclePool<ArrayDeque> sArrayDequePool = new RecyclePool<>("ArrayDeque", 10, true);
+  static final RecyclePool<ArrayDeque> sArrayDequePool = createSyncRecyclePool("ArrayDeque", 10);
 
-  static final RecyclePool<RenderState> sRenderStatePool =
-      new RecyclePool<>("RenderState", 4, true);
+  static final RecyclePool<RenderState> sRenderStatePool = createSyncRecyclePool("RenderState", 4);
 
   static final RecyclePool<ArrayList<LithoView>> sLithoViewArrayListPool =
       new RecyclePool<>("LithoViewArrayList", 4, false);
@@ -146,6 +157,11 @@ public class ComponentsPools {
   @GuardedBy("sMountContentLock")
   private static PoolsActivityCallback sActivityCallbacks;
 
+  @GuardedBy("sMountContentLock")
+  private static PoolsMemoryCallback sMemoryCallbacks;
+
+  private static final PoolSizingPolicy sDefaultPoolSizingPolicy = new DefaultPoolSizingPolicy();
+
   /**
    * To support Gingerbread (where the registerActivityLifecycleCallbacks API doesn't exist), we
    * allow apps to explicitly invoke activity callbacks. If this is enabled we'll throw if we are
@@ -515,6 +531,27 @@ public class ComponentsPools {
     }
   }
 
+  /**
+   * Pre-allocates mount content for this component type within the pool for this context until the
+   * pool holds the given number of items. Pools that don't support bulk pre-allocation are asked to
+   * pre-allocate one item at a time.
+   */
+  static void preallocateContent(
+      ComponentContext context, ComponentLifecycle lifecycle, int targetCount) {
+    final MountContentPool pool = getMountContentPool(context, lifecycle);
+    if (pool == null) {
+      return;
+    }
+
+    if (pool instanceof DefaultMountContentPool) {
+      ((DefaultMountContentPool) pool).preallocateContent(context, lifecycle, targetCount);
+    } else {
+      for (int i = 0; i < targetCount; i++) {
+        pool.maybePreallocateContent(context, lifecycle);
+      }
+    }
+  }
+
   private static @Nullable MountContentPool getMountContentPool(
       ComponentContext wrappedContext, ComponentLifecycle lifecycle) {
     if (lifecycle.poolSize() == 0) {
@@ -565,6 +602,11 @@ public class ComponentsPools {
       sActivityCallbacks = new PoolsActivityCallback();
       ((Application) context.getApplicationContext())
           .registerActivityLifecycleCallbacks(sActivityCallbacks);
+
+      if (sMemoryCallbacks == null) {
+        sMemoryCallbacks = new PoolsMemoryCallback();
+        context.getApplicationContext().registerComponentCallbacks(sMemoryCallbacks);
+      }
     }
   }
 
@@ -667,6 +709,77 @@ public class ComponentsPools {
     }
   }
 
+  /** Trims the pools when the system asks the app to release memory. */
+  @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+  private static class PoolsMemoryCallback implements ComponentCallbacks2 {
+
+    @Override
+    public void onTrimMemory(int level) {
+      ComponentsPools.onTrimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+      ComponentsPools.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+      // Do nothing.
+    }
+  }
+
+  /**
+   * Trims the internal pools and the mount content pools according to the {@link
+   * PoolSizingPolicy} set in {@link PoolsConfig#sPoolSizingPolicy}, or to a {@link
+   * DefaultPoolSizingPolicy} if none was set. This is called automatically from {@link
+   * ComponentCallbacks2#onTrimMemory(int)} unless activity callbacks are invoked manually.
+   *
+   * @param trimLevel one of the TRIM_MEMORY_* levels of {@link ComponentCallbacks2}.
+   */
+  public static void onTrimMemory(int trimLevel) {
+    final PoolSizingPolicy policy =
+        PoolsConfig.sPoolSizingPolicy != null
+            ? PoolsConfig.sPoolSizingPolicy
+            : sDefaultPoolSizingPolicy;
+
+    for (RecyclePool pool : getInternalPools()) {
+      pool.trim(trimLevel, policy);
+    }
+
+    for (MountContentPool pool : getMountContentPools()) {
+      if (pool instanceof RecyclePool) {
+        ((RecyclePool) pool).trim(trimLevel, policy);
+      }
+    }
+  }
+
+  /** @return the stats of the pools for all the internal util objects. */
+  public static List<PoolStats> getInternalPoolStats() {
+    final List<RecyclePool> pools = getInternalPools();
+    final List<PoolStats> stats = new ArrayList<>(pools.size());
+    for (RecyclePool pool : pools) {
+      stats.add(pool.getStats());
+    }
+    return stats;
+  }
+
+  /**
+   * @return the stats of the mount content pools of all the live contexts. Pools that are not
+   *     {@link RecyclePool}s only report their size.
+   */
+  public static List<PoolStats> getMountContentPoolStats() {
+    final List<MountContentPool> pools = getMountContentPools();
+    final List<PoolStats> stats = new ArrayList<>(pools.size());
+    for (MountContentPool pool : pools) {
+      stats.add(
+          pool instanceof RecyclePool
+              ? ((RecyclePool) pool).getStats()
+              : PoolStats.fromDebugInfo(pool));
+    }
+    return stats;
+  }
+
   static void onContextCreated(Context context) {
     synchronized (sMountContentLock) {
       if (sMountContentPoolsByContext.containsKey(context)) {
@@ -700,6 +813,7 @@ public class ComponentsPools {
     synchronized (sMountContentLock) {
       sMountContentPoolsByContext.clear();
     }
+    MountContentPreallocationPlanner.clear();
   }
 
   /** Clear pools for all the internal util objects, excluding mount content. */
@@ -852,6 +966,44 @@ public class ComponentsPools {
     sLithoViewArrayListPool.release(arrayList);
   }
 
+  static List<RecyclePool> getInternalPools() {
+    final ArrayList<RecyclePool> pools = new ArrayList<>();
+    pools.add(sLayoutStatePool);
+    pools.add(sYogaNodePool);
+    pools.add(sInternalNodePool);
+    pools.add(sNodeInfoPool);
+    pools.add(sViewNodeInfoPool);
+    pools.add(sMountItemPool);
+    pools.add(sLayoutOutputPool);
+    pools.add(sDisplayListContainerPool);
+    pools.add(sVisibilityOutputPool);
+    pools.add(sVisibilityItemPool);
+    if (sTestOutputPool != null) {
+      pools.add(sTestOutputPool);
+    }
+    if (sTestItemPool != null) {
+      pools.add(sTestItemPool);
+    }
+    pools.add(sOutputPool);
+    pools.add(sDiffNodePool);
+    pools.add(sDiffPool);
+    pools.add(sComponentTreeBuilderPool);
+    pools.add(sStateHandlerPool);
+    pools.add(sMountItemScrapArrayPool);
+    pools.add(sRectFPool);
+    pools.add(sRectPool);
+    pools.add(sEdgesPool);
+    pools.add(sDisplayListDrawablePool);
+    if (sBorderColorDrawablePool != null) {
+      pools.add(sBorderColorDrawablePool);
+    }
+    pools.add(sArraySetPool);
+    pools.add(sArrayDequePool);
+    pools.add(sRenderStatePool);
+    pools.add(sLithoViewArrayListPool);
+    return pools;
+  }
+
   static List<MountContentPool> getMountContentPools() {
     final ArrayList<MountContentPool> pools = new ArrayList<>();
     synchronized (sMountContentLock) {
@@ -59,4 +59,16 @@ public class DefaultMountContentPool extends RecyclePool implements MountContent
       release(lifecycle.createMountContent(c));
     }
   }
+
+  /**
+   * Pre-allocates items for the given ComponentLifecycle until the pool holds targetCount items or
+   * is full.
+   */
+  void preallocateContent(ComponentContext c, ComponentLifecycle lifecycle, int targetCount) {
+    final int count = Math.min(targetCount, getMaxSize()) - getCurrentSize();
+    for (int i = 0; i < count && !isFull(); i++) {
+      mAllocationCount.incrementAndGet();
+      release(lifecycle.createMountContent(c));
+    }
+  }
 }
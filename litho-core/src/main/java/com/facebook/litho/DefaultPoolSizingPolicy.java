@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN;
+
+import com.facebook.infer.annotation.ThreadSafe;
+
+/**
+ * A {@link PoolSizingPolicy} that doubles the max size of a pool that both missed on acquire and
+ * dropped objects on release in the same window, which means it is thrashing, and halves it when
+ * the pool stayed below a quarter of its max size without missing. The max size stays between
+ * the initial size divided and multiplied by the given factors.
+ *
+ * <p>On memory pressure pools are halved when running low, quartered when critical and emptied
+ * once the UI is hidden.
+ */
+@ThreadSafe
+public class DefaultPoolSizingPolicy implements PoolSizingPolicy {
+
+  private final int mMaxGrowthFactor;
+  private final int mMaxShrinkFactor;
+
+  public DefaultPoolSizingPolicy() {
+    this(4, 4);
+  }
+
+  public DefaultPoolSizingPolicy(int maxGrowthFactor, int maxShrinkFactor) {
+    mMaxGrowthFactor = maxGrowthFactor;
+    mMaxShrinkFactor = maxShrinkFactor;
+  }
+
+  @Override
+  public int computeMaxSize(int initialMaxSize, int currentMaxSize, PoolStats windowStats) {
+    if (windowStats.getMissCount() > 0 && windowStats.getEvictionCount() > 0) {
+      return Math.min(initialMaxSize * mMaxGrowthFactor, Math.max(1, currentMaxSize * 2));
+    }
+
+    if (windowStats.getMissCount() == 0
+        && windowStats.getHighWaterMark() < currentMaxSize / 4) {
+      return Math.max(Math.max(1, initialMaxSize / mMaxShrinkFactor), currentMaxSize / 2);
+    }
+
+    return currentMaxSize;
+  }
+
+  @Override
+  public int computeSizeAfterTrim(int trimLevel, int currentSize) {
+    if (trimLevel >= TRIM_MEMORY_UI_HIDDEN) {
+      return 0;
+    } else if (trimLevel >= TRIM_MEMORY_RUNNING_CRITICAL) {
+      return currentSize / 4;
+    } else if (trimLevel >= TRIM_MEMORY_RUNNING_LOW) {
+      return currentSize / 2;
+    }
+
+    return currentSize;
+  }
+}
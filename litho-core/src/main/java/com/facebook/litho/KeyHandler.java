@@ -16,6 +16,8 @@
 package com.facebook.litho;
 
 import android.support.annotation.Nullable;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.internal.LongHashSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -36,13 +38,20 @@ public class KeyHandler {
 
   private final @Nullable ComponentsLogger mLogger;
   private final Set<String> mKnownGlobalKeys;
+  private final LongHashSet mKnownGlobalKeyHashes;
 
   public KeyHandler(@Nullable ComponentsLogger logger) {
     mKnownGlobalKeys = new HashSet<>();
+    mKnownGlobalKeyHashes = new LongHashSet();
     mLogger = logger;
   }
 
   public void registerKey(Component component) {
+    if (ComponentsConfiguration.useNumericGlobalKeys) {
+      registerKeyHash(component);
+      return;
+    }
+
     /**
      * We still need to check whether the component's global key is unique, in case a duplicate key
      * has been manually set on sibling components.
@@ -51,27 +60,67 @@ public class KeyHandler {
     mKnownGlobalKeys.add(component.getGlobalKey());
   }
 
+  /**
+   * Numeric counterpart of {@link #registerKey(Component)}. Readable keys are only tracked in debug
+   * mode, where they are used to tell hash collisions apart from duplicate keys.
+   */
+  private void registerKeyHash(Component component) {
+    final boolean isDuplicate = !mKnownGlobalKeyHashes.add(component.getGlobalKeyHash());
+    if (ComponentsConfiguration.isDebugModeEnabled) {
+      mKnownGlobalKeys.add(component.getGlobalKey());
+    }
+
+    if (isDuplicate) {
+      onDuplicateKey(component);
+    }
+  }
+
   /** Returns true if this KeyHandler has already recorded a component with the given key. */
   public boolean hasKey(String key) {
     return mKnownGlobalKeys.contains(key);
   }
 
+  /** Returns true if this KeyHandler has already recorded a component with the given key hash. */
+  public boolean hasKey(long keyHash) {
+    return mKnownGlobalKeyHashes.contains(keyHash);
+  }
+
+  /**
+   * Called in debug mode when the hash of a global key is already known but its readable key isn't.
+   * The colliding key hash is deduplicated like a duplicate key, in any mode, so that the two
+   * components don't share state; this only reports it.
+   */
+  void onKeyHashCollision(Component component, String readableKey) {
+    if (mLogger != null) {
+      mLogger.emitMessage(
+          ComponentsLogger.LogLevel.WARNING,
+          "Global key hash collision for "
+              + component.getSimpleName()
+              + " Component with key: "
+              + readableKey);
+    }
+  }
+
   private void checkIsDuplicateKey(Component component) {
     if (mKnownGlobalKeys.contains(component.getGlobalKey())) {
-      final String message =
-          "Found another "
-              + component.getSimpleName()
-              + " Component with the same key: "
-              + component.getKey();
-      final String errorMessage = mLogger == null ? message : getDuplicateKeyMessage();
+      onDuplicateKey(component);
+    }
+  }
 
-      if (component.hasState()) {
-        throw new RuntimeException(message + "\n" + errorMessage);
-      }
+  private void onDuplicateKey(Component component) {
+    final String message =
+        "Found another "
+            + component.getSimpleName()
+            + " Component with the same key: "
+            + component.getKey();
+    final String errorMessage = mLogger == null ? message : getDuplicateKeyMessage();
 
-      if (mLogger != null) {
-        mLogger.emitMessage(ComponentsLogger.LogLevel.ERROR, message + "\n" + errorMessage);
-      }
+    if (component.hasState()) {
+      throw new RuntimeException(message + "\n" + errorMessage);
+    }
+
+    if (mLogger != null) {
+      mLogger.emitMessage(ComponentsLogger.LogLevel.ERROR, message + "\n" + errorMessage);
     }
   }
 
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import com.facebook.infer.annotation.ThreadSafe;
+import com.facebook.litho.config.ComponentsConfiguration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Keeps the resolved {@link InternalNode} tree of the last committed {@link LayoutState} of a
+ * {@link ComponentTree} so that the next calculation for the same size specs can graft subtrees
+ * of unchanged components into the new tree instead of creating and measuring them again.
+ *
+ * <p>Subtrees are looked up by the global key of the component that created them. A subtree is
+ * only handed out if that component {@link Component#isEquivalentTo(Component)} the new one, has
+ * the same common props, sees the same tree props, and has no pending state update for itself or
+ * any of its descendants. A subtree can only be taken once: it is detached from the cached tree
+ * and owned by the calculation that took it from then on.
+ */
+@ThreadSafe
+class LayoutCache {
+
+  @GuardedBy("this")
+  @Nullable
+  private InternalNode mRoot;
+
+  @GuardedBy("this")
+  private int mWidthSpec;
+
+  @GuardedBy("this")
+  private int mHeightSpec;
+
+  @GuardedBy("this")
+  @Nullable
+  private Map<String, InternalNode> mNodesByGlobalKey;
+
+  @GuardedBy("this")
+  private int mHitCount;
+
+  /**
+   * Replaces the cached tree with the given one, releasing whatever is left of the previous tree.
+   */
+  synchronized void update(@Nullable InternalNode root, int widthSpec, int heightSpec) {
+    clear();
+    mRoot = root;
+    mWidthSpec = widthSpec;
+    mHeightSpec = heightSpec;
+  }
+
+  /** Releases the cached tree. */
+  synchronized void clear() {
+    if (mRoot != null) {
+      LayoutState.releaseNodeTree(mRoot, false /* isNestedTree */);
+      mRoot = null;
+    }
+    mNodesByGlobalKey = null;
+  }
+
+  /**
+   * @return whether a layout calculation with the given root size specs can use the cached tree.
+   */
+  synchronized boolean isCompatible(int widthSpec, int heightSpec) {
+    return mRoot != null && mWidthSpec == widthSpec && mHeightSpec == heightSpec;
+  }
+
+  @VisibleForTesting
+  synchronized int getHitCount() {
+    return mHitCount;
+  }
+
+  /**
+   * Returns the cached subtree created by a component equivalent to the given one, detaching it
+   * from the cached tree, or null if there is no such subtree. The component must already have
+   * its global key and scoped context set.
+   */
+  @Nullable
+  synchronized InternalNode take(Component component) {
+    final String globalKey = component.getGlobalKey();
+    if (mRoot == null || globalKey == null) {
+      return null;
+    }
+
+    if (mNodesByGlobalKey == null) {
+      mNodesByGlobalKey = new HashMap<>();
+      indexNodes(mRoot);
+    }
+
+    final InternalNode cachedNode = mNodesByGlobalKey.get(globalKey);
+    if (cachedNode == null) {
+      return null;
+    }
+
+    final InternalNode parent = cachedNode.getParent();
+    final Component cachedComponent = getOutermostComponent(cachedNode);
+    final ComponentContext scopedContext = component.getScopedContext();
+    if (parent == null
+        || cachedComponent == null
+        || !component.isEquivalentTo(cachedComponent)
+        || !haveEquivalentCommonProps(component, cachedComponent)
+        || !TreeProps.isEquivalent(
+            component.getTreePropsForChildren(scopedContext, scopedContext.getTreeProps()),
+            cachedComponent.getScopedContext().getTreeProps())
+        || !canReuseSubtree(cachedNode, scopedContext.getStateHandler(), globalKey)) {
+      return null;
+    }
+
+    parent.removeChildAt(parent.getChildIndex(cachedNode));
+    prepareSubtreeForReuse(cachedNode, scopedContext, globalKey);
+    mHitCount++;
+
+    return cachedNode;
+  }
+
+  @GuardedBy("this")
+  private void indexNodes(InternalNode node) {
+    final Component component = getOutermostComponent(node);
+    if (component != null && component.getGlobalKey() != null) {
+      mNodesByGlobalKey.put(component.getGlobalKey(), node);
+    }
+
+    // Nested trees are resolved with their own context and are never grafted on their own.
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      indexNodes(node.getChildAt(i));
+    }
+  }
+
+  private static boolean canReuseSubtree(
+      InternalNode node, @Nullable StateHandler stateHandler, String globalKey) {
+    // Pending state updates of descendants are found through the global key prefix, which numeric
+    // global keys don't have.
+    if (ComponentsConfiguration.useNumericGlobalKeys) {
+      return false;
+    }
+
+    if (stateHandler != null && stateHandler.hasPendingUpdatesWithKeyPrefix(globalKey)) {
+      return false;
+    }
+
+    return !containsNestedTreeHolder(node);
+  }
+
+  private static boolean containsNestedTreeHolder(InternalNode node) {
+    // The nested tree of a holder may have to be resolved again for new size specs, which would
+    // happen with the ComponentContext of the layout calculation the holder was created in.
+    if (node.isNestedTreeHolder()) {
+      return true;
+    }
+
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      if (containsNestedTreeHolder(node.getChildAt(i))) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @GuardedBy("this")
+  private void prepareSubtreeForReuse(
+      InternalNode node, ComponentContext context, String subtreeGlobalKey) {
+    final StateHandler stateHandler = context.getStateHandler();
+    final KeyHandler keyHandler = context.getKeyHandler();
+    final List<Component> components = node.getComponents();
+
+    for (int i = 0, size = components.size(); i < size; i++) {
+      final Component component = components.get(i);
+      final String globalKey = component.getGlobalKey();
+      if (globalKey == null) {
+        continue;
+      }
+
+      if (mNodesByGlobalKey.get(globalKey) == node) {
+        mNodesByGlobalKey.remove(globalKey);
+      }
+      if (stateHandler != null && component.hasState()) {
+        stateHandler.keepStateContainer(globalKey);
+      }
+      // The component that replaces the root of the subtree has already been registered.
+      if (keyHandler != null
+          && !ComponentsConfiguration.isEndToEndTestRun
+          && !globalKey.equals(subtreeGlobalKey)) {
+        keyHandler.registerKey(component);
+      }
+    }
+
+    // DiffNodes belong to the LayoutState that created them and may have been released since.
+    node.setDiffNode(null);
+
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      prepareSubtreeForReuse(node.getChildAt(i), context, subtreeGlobalKey);
+    }
+  }
+
+  private static boolean haveEquivalentCommonProps(Component component, Component other) {
+    final CommonPropsHolder commonProps = (CommonPropsHolder) component.getCommonPropsCopyable();
+    final CommonPropsHolder otherCommonProps = (CommonPropsHolder) other.getCommonPropsCopyable();
+
+    return commonProps == null
+        ? otherCommonProps == null
+        : commonProps.isEquivalentTo(otherCommonProps);
+  }
+
+  @Nullable
+  private static Component getOutermostComponent(InternalNode node) {
+    final List<Component> components = node.getComponents();
+    return components.isEmpty() ? null : components.get(components.size() - 1);
+  }
+}
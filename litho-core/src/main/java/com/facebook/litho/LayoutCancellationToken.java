@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+/**
+ * Cooperative cancellation signal for an in-flight {@link LayoutState} calculation. It is carried
+ * by the {@link ComponentContext} used for the calculation and polled between components while
+ * creating, measuring and collecting the results of the tree, so that a calculation superseded by
+ * a newer one stops early instead of running to completion.
+ */
+class LayoutCancellationToken {
+
+  private volatile boolean mCancelled;
+
+  void cancel() {
+    mCancelled = true;
+  }
+
+  boolean isCancelled() {
+    return mCancelled;
+  }
+}
@@ -59,6 +59,7 @@ import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import android.support.v4.util.LongSparseArray;
 import android.text.TextUtils;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.Window;
 import android.view.accessibility.AccessibilityManager;
@@ -138,10 +139,66 @@ class LayoutState {
         }
       };
 
+  static final Comparator<LayoutOutput> sLeftsComparator =
+      new Comparator<LayoutOutput>() {
+        @Override
+        public int compare(LayoutOutput lhs, LayoutOutput rhs) {
+          final int lhsLeft = lhs.getBounds().left;
+          final int rhsLeft = rhs.getBounds().left;
+          // Lower indices should be higher for lefts so that they are mounted first if possible.
+          return lhsLeft == rhsLeft ? lhs.getIndex() - rhs.getIndex() : lhsLeft - rhsLeft;
+        }
+      };
+
+  static final Comparator<LayoutOutput> sRightsComparator =
+      new Comparator<LayoutOutput>() {
+        @Override
+        public int compare(LayoutOutput lhs, LayoutOutput rhs) {
+          final int lhsRight = lhs.getBounds().right;
+          final int rhsRight = rhs.getBounds().right;
+          // Lower indices should be lower for rights so that they are mounted first if possible.
+          return lhsRight == rhsRight ? rhs.getIndex() - lhs.getIndex() : lhsRight - rhsRight;
+        }
+      };
+
+  static final Comparator<VisibilityOutput> sVisibilityOutputTopsComparator =
+      new Comparator<VisibilityOutput>() {
+        @Override
+        public int compare(VisibilityOutput lhs, VisibilityOutput rhs) {
+          return lhs.getBounds().top - rhs.getBounds().top;
+        }
+      };
+
+  static final Comparator<VisibilityOutput> sVisibilityOutputBottomsComparator =
+      new Comparator<VisibilityOutput>() {
+        @Override
+        public int compare(VisibilityOutput lhs, VisibilityOutput rhs) {
+          return lhs.getBounds().bottom - rhs.getBounds().bottom;
+        }
+      };
+
+  static final Comparator<VisibilityOutput> sVisibilityOutputLeftsComparator =
+      new Comparator<VisibilityOutput>() {
+        @Override
+        public int compare(VisibilityOutput lhs, VisibilityOutput rhs) {
+          return lhs.getBounds().left - rhs.getBounds().left;
+        }
+      };
+
+  static final Comparator<VisibilityOutput> sVisibilityOutputRightsComparator =
+      new Comparator<VisibilityOutput>() {
+        @Override
+        public int compare(VisibilityOutput lhs, VisibilityOutput rhs) {
+          return lhs.getBounds().right - rhs.getBounds().right;
+        }
+      };
+
   private static final AtomicInteger sIdGenerator = new AtomicInteger(1);
   private static final int NO_PREVIOUS_LAYOUT_STATE_ID = -1;
 
   private final Map<String, Rect> mComponentKeyToBounds = new HashMap<>();
+  // Bounds of components with numeric global keys, so their keys don't need encoding as strings.
+  private final LongSparseArray<Rect> mComponentKeyHashToBounds = new LongSparseArray<>();
   private final List<Component> mComponents = new ArrayList<>();
 
   @ThreadConfined(ThreadConfined.UI)
@@ -161,11 +218,20 @@ class LayoutState {
   private int mHeightSpec;
 
   private final List<LayoutOutput> mMountableOutputs = new ArrayList<>(8);
+  /** Number of mountable outputs per mount spec type id. */
+  private final SparseIntArray mMountContentHistogram = new SparseIntArray();
   private final List<VisibilityOutput> mVisibilityOutputs = new ArrayList<>(8);
+  private final ArrayList<VisibilityOutput> mVisibilityOutputTops = new ArrayList<>();
+  private final ArrayList<VisibilityOutput> mVisibilityOutputBottoms = new ArrayList<>();
+  private final ArrayList<VisibilityOutput> mVisibilityOutputLefts = new ArrayList<>();
+  private final ArrayList<VisibilityOutput> mVisibilityOutputRights = new ArrayList<>();
   private final LongSparseArray<Integer> mOutputsIdToPositionMap = new LongSparseArray<>(8);
   private final ArrayList<LayoutOutput> mMountableOutputTops = new ArrayList<>();
   private final ArrayList<LayoutOutput> mMountableOutputBottoms = new ArrayList<>();
+  private final ArrayList<LayoutOutput> mMountableOutputLefts = new ArrayList<>();
+  private final ArrayList<LayoutOutput> mMountableOutputRights = new ArrayList<>();
   private final Queue<Integer> mDisplayListsToPrefetch = new LinkedList<>();
+  @Nullable private WarmUpPlan mWarmUpPlan;
 
   @Nullable private LayoutStateOutputIdCalculator mLayoutStateOutputIdCalculator;
 
@@ -592,6 +658,10 @@ class LayoutState {
       InternalNode node,
       LayoutState layoutState,
       DiffNode parentDiffNode) {
+    if (layoutState.mContext.isLayoutCancelled()) {
+      // The calculation was superseded, the partial results are going to be discarded.
+      return;
+    }
     if (node.hasNewLayout()) {
       node.markLayoutSeen();
     }
@@ -768,6 +838,10 @@ class LayoutState {
       if (isTracing) {
         ComponentsSystrace.beginSection("onBoundsDefined:" + component.getSimpleName());
       }
+      if (layoutState.mWarmUpPlan != null) {
+        layoutState.mWarmUpPlan.setCurrentPosition(
+            layoutState.mCurrentX + node.getX(), layoutState.mCurrentY + node.getY());
+      }
       component.onBoundsDefined(layoutState.mContext, node);
       if (isTracing) {
         ComponentsSystrace.endSection();
@@ -904,6 +978,7 @@ class LayoutState {
 
       layoutState.calculateAndSetVisibilityOutputId(
           visibilityOutput, layoutState.mCurrentLevel, previousId);
+      visibilityOutput.setIndex(layoutState.mVisibilityOutputs.size());
       layoutState.mVisibilityOutputs.add(visibilityOutput);
 
       if (diffNode != null) {
@@ -968,7 +1043,12 @@ class LayoutState {
             && delegate.getScopedContext().getComponentTree() != null) {
           layoutState.mComponents.add(delegate);
         }
-        if (delegate.getGlobalKey() != null) {
+        if (ComponentsConfiguration.useNumericGlobalKeys
+            && !ComponentsConfiguration.isDebugModeEnabled) {
+          if (delegate.hasGlobalKey()) {
+            layoutState.mComponentKeyHashToBounds.put(delegate.getGlobalKeyHash(), copyRect);
+          }
+        } else if (delegate.getGlobalKey() != null) {
           layoutState.mComponentKeyToBounds.put(delegate.getGlobalKey(), copyRect);
         }
       }
@@ -996,8 +1076,19 @@ class LayoutState {
     }
   }
 
-  Map<String, Rect> getComponentKeyToBounds() {
-    return mComponentKeyToBounds;
+  /** @return the bounds of the component with the given global key, or null if there isn't one. */
+  @Nullable
+  Rect getComponentBounds(String globalKey) {
+    final Rect bounds = mComponentKeyToBounds.get(globalKey);
+    if (bounds != null || mComponentKeyHashToBounds.size() == 0) {
+      return bounds;
+    }
+
+    try {
+      return mComponentKeyHashToBounds.get(Long.parseLong(globalKey, Character.MAX_RADIX));
+    } catch (NumberFormatException e) {
+      return null;
+    }
   }
 
   List<Component> getComponents() {
@@ -1296,6 +1387,11 @@ class LayoutState {
 
     final ComponentsLogger logger = c.getLogger();
 
+    final ComponentTree componentTree = c.getComponentTree();
+    final WarmUpPlan warmUpPlan =
+        componentTree != null && componentTree.getWarmer() != null ? new WarmUpPlan() : null;
+    final WarmUpPlan previousWarmUpPlan = WarmUpPlan.beginCollecting(warmUpPlan);
+
     final boolean isTracing = ComponentsSystrace.isTracing();
     if (isTracing) {
       if (extraAttribution != null) {
@@ -1344,6 +1440,7 @@ class LayoutState {
       layoutState.mCanCacheDrawingDisplayLists = canCacheDrawingDisplayLists;
       layoutState.mClipChildren = clipChildren;
       layoutState.mRootComponentName = component.getSimpleName();
+      layoutState.mWarmUpPlan = warmUpPlan;
 
       final InternalNode layoutCreatedInWillRender = component.consumeLayoutCreatedInWillRender();
       final InternalNode root =
@@ -1358,6 +1455,11 @@ class LayoutState {
                   previousLayoutState != null ? previousLayoutState.mDiffTreeRoot : null)
               : layoutCreatedInWillRender;
 
+      if (c.isLayoutCancelled()) {
+        releaseCancelledLayoutTree(root);
+        return layoutState;
+      }
+
       switch (SizeSpec.getMode(widthSpec)) {
         case SizeSpec.EXACTLY:
           layoutState.mWidth = SizeSpec.getSize(widthSpec);
@@ -1402,11 +1504,25 @@ class LayoutState {
 
       collectResults(root, layoutState, null);
 
+      if (c.isLayoutCancelled()) {
+        releaseCancelledLayoutTree(root);
+        layoutState.mLayoutRoot = null;
+        return layoutState;
+      }
+
       if (isTracing) {
         ComponentsSystrace.beginSection("sortMountableOutputs");
       }
       Collections.sort(layoutState.mMountableOutputTops, sTopsComparator);
       Collections.sort(layoutState.mMountableOutputBottoms, sBottomsComparator);
+      Collections.sort(layoutState.mMountableOutputLefts, sLeftsComparator);
+      Collections.sort(layoutState.mMountableOutputRights, sRightsComparator);
+      if (ComponentsConfiguration.useIncrementalVisibilityHandling) {
+        layoutState.sortVisibilityOutputs();
+      }
+      if (warmUpPlan != null) {
+        warmUpPlan.sortByDistance();
+      }
       if (isTracing) {
         ComponentsSystrace.endSection();
       }
@@ -1440,6 +1556,7 @@ class LayoutState {
         logger.logPerfEvent(logLayoutState);
       }
     } finally {
+      WarmUpPlan.endCollecting(previousWarmUpPlan);
       if (isTracing) {
         ComponentsSystrace.endSection();
         if (extraAttribution != null) {
@@ -1452,6 +1569,17 @@ class LayoutState {
     return layoutState;
   }
 
+  /**
+   * Returns the pooled nodes of a calculation that was cancelled half-way through to their pools.
+   */
+  private static void releaseCancelledLayoutTree(InternalNode root) {
+    if (root != NULL_LAYOUT
+        && !ComponentsConfiguration.isDebugModeEnabled
+        && !ComponentsConfiguration.isEndToEndTestRun) {
+      releaseNodeTree(root, false /* isNestedTree */);
+    }
+  }
+
   private static String sourceToString(@CalculateLayoutSource int source) {
     switch (source) {
       case CalculateLayoutSource.SET_ROOT:
@@ -1478,7 +1606,9 @@ class LayoutState {
       ComponentsSystrace.beginSection("preAllocateMountContent:" + mComponent.getSimpleName());
     }
 
-    if (mMountableOutputs != null && !mMountableOutputs.isEmpty()) {
+    if (ComponentsConfiguration.preallocateMountContentFromHistograms) {
+      preAllocatePlannedMountContent(shouldPreallocatePerMountSpec, isTracing);
+    } else if (mMountableOutputs != null && !mMountableOutputs.isEmpty()) {
       for (int i = 0, size = mMountableOutputs.size(); i < size; i++) {
         final Component component = mMountableOutputs.get(i).getComponent();
 
@@ -1505,6 +1635,42 @@ class LayoutState {
     }
   }
 
+  /**
+   * Fills the pools of the mount view specs of this layout in bulk, up to the largest number of
+   * items any layout of the same root component needed so far.
+   */
+  private void preAllocatePlannedMountContent(
+      boolean shouldPreallocatePerMountSpec, boolean isTracing) {
+    final SparseIntArray plan =
+        MountContentPreallocationPlanner.recordAndPlan(
+            mComponent.getTypeId(), mMountContentHistogram);
+
+    for (int i = 0, size = mMountableOutputs.size(); i < size; i++) {
+      final Component component = mMountableOutputs.get(i).getComponent();
+      final int typeId = component.getTypeId();
+      final int targetCount = plan.get(typeId);
+
+      if (targetCount <= 0
+          || !Component.isMountViewSpec(component)
+          || (shouldPreallocatePerMountSpec && !component.canPreallocate())) {
+        continue;
+      }
+
+      // Each type is only filled once, from its first output.
+      plan.put(typeId, 0);
+
+      if (isTracing) {
+        ComponentsSystrace.beginSection("preAllocateMountContent:" + component.getSimpleName());
+      }
+
+      ComponentsPools.preallocateContent(mContext, component, targetCount);
+
+      if (isTracing) {
+        ComponentsSystrace.endSection();
+      }
+    }
+  }
+
   private static void collectDisplayLists(
       LayoutState layoutState, @Nullable LayoutState previousLayoutState) {
     final boolean isTracing = ComponentsSystrace.isTracing();
@@ -1731,6 +1897,10 @@ class LayoutState {
   static InternalNode createTree(
       Component component,
       ComponentContext context) {
+    if (context.isLayoutCancelled()) {
+      return NULL_LAYOUT;
+    }
+
     final ComponentsLogger logger = context.getLogger();
 
     final PerfEvent createLayoutPerfEvent =
@@ -1818,6 +1988,11 @@ class LayoutState {
     final ComponentContext context = nestedTreeHolder.getContext();
     final Component component = nestedTreeHolder.getRootComponent();
 
+    if (context.isLayoutCancelled()) {
+      // Leave the holder untouched, the whole tree is released once the calculation returns.
+      return NULL_LAYOUT;
+    }
+
     final InternalNode layoutCreatedInWillRender = component.consumeLayoutCreatedInWillRender();
     InternalNode nestedTree =
         layoutCreatedInWillRender == null
@@ -1938,7 +2113,7 @@ class LayoutState {
     c.setWidthSpec(previousWidthSpec);
     c.setHeightSpec(previousHeightSpec);
 
-    if (root == NULL_LAYOUT) {
+    if (root == NULL_LAYOUT || c.isLayoutCancelled()) {
       return root;
     }
 
@@ -2116,6 +2291,23 @@ class LayoutState {
     return mComponent.getId() == componentId;
   }
 
+  /**
+   * @return the content to warm up before this LayoutState is first drawn, if its ComponentTree has
+   *     a {@link WarmUpPlan.Warmer}.
+   */
+  @Nullable
+  WarmUpPlan getWarmUpPlan() {
+    return mWarmUpPlan;
+  }
+
+  void cancelWarmUpPlan() {
+    final WarmUpPlan warmUpPlan = mWarmUpPlan;
+    if (warmUpPlan != null) {
+      warmUpPlan.cancel();
+      mWarmUpPlan = null;
+    }
+  }
+
   int getMountableOutputCount() {
     return mMountableOutputs.size();
   }
@@ -2132,10 +2324,55 @@ class LayoutState {
     return mMountableOutputBottoms;
   }
 
+  ArrayList<LayoutOutput> getMountableOutputLefts() {
+    return mMountableOutputLefts;
+  }
+
+  ArrayList<LayoutOutput> getMountableOutputRights() {
+    return mMountableOutputRights;
+  }
+
   int getVisibilityOutputCount() {
     return mVisibilityOutputs.size();
   }
 
+  /**
+   * Builds the per-edge sorted views of the {@link VisibilityOutput}s which {@link MountState}
+   * uses to only process the outputs whose bounds cross the edges of the visible rect.
+   */
+  private void sortVisibilityOutputs() {
+    mVisibilityOutputTops.addAll(mVisibilityOutputs);
+    mVisibilityOutputBottoms.addAll(mVisibilityOutputs);
+    mVisibilityOutputLefts.addAll(mVisibilityOutputs);
+    mVisibilityOutputRights.addAll(mVisibilityOutputs);
+
+    Collections.sort(mVisibilityOutputTops, sVisibilityOutputTopsComparator);
+    Collections.sort(mVisibilityOutputBottoms, sVisibilityOutputBottomsComparator);
+    Collections.sort(mVisibilityOutputLefts, sVisibilityOutputLeftsComparator);
+    Collections.sort(mVisibilityOutputRights, sVisibilityOutputRightsComparator);
+  }
+
+  /** @return whether the sorted views of the visibility outputs were built for this LayoutState. */
+  boolean hasSortedVisibilityOutputs() {
+    return mVisibilityOutputTops.size() == mVisibilityOutputs.size();
+  }
+
+  ArrayList<VisibilityOutput> getVisibilityOutputTops() {
+    return mVisibilityOutputTops;
+  }
+
+  ArrayList<VisibilityOutput> getVisibilityOutputBottoms() {
+    return mVisibilityOutputBottoms;
+  }
+
+  ArrayList<VisibilityOutput> getVisibilityOutputLefts() {
+    return mVisibilityOutputLefts;
+  }
+
+  ArrayList<VisibilityOutput> getVisibilityOutputRights() {
+    return mVisibilityOutputRights;
+  }
+
   VisibilityOutput getVisibilityOutputAt(int index) {
     return mVisibilityOutputs.get(index);
   }
@@ -2211,8 +2448,12 @@ class LayoutState {
         mMountableOutputs.get(i).release();
       }
       mMountableOutputs.clear();
+      mMountContentHistogram.clear();
+      cancelWarmUpPlan();
       mMountableOutputTops.clear();
       mMountableOutputBottoms.clear();
+      mMountableOutputLefts.clear();
+      mMountableOutputRights.clear();
       mOutputsIdToPositionMap.clear();
       mDisplayListsToPrefetch.clear();
 
@@ -2220,12 +2461,20 @@ class LayoutState {
         ComponentsPools.release(rect);
       }
       mComponentKeyToBounds.clear();
+      for (int i = 0, size = mComponentKeyHashToBounds.size(); i < size; i++) {
+        ComponentsPools.release(mComponentKeyHashToBounds.valueAt(i));
+      }
+      mComponentKeyHashToBounds.clear();
       mComponents.clear();
 
       for (int i = 0, size = mVisibilityOutputs.size(); i < size; i++) {
         ComponentsPools.release(mVisibilityOutputs.get(i));
       }
       mVisibilityOutputs.clear();
+      mVisibilityOutputTops.clear();
+      mVisibilityOutputBottoms.clear();
+      mVisibilityOutputLefts.clear();
+      mVisibilityOutputRights.clear();
 
       if (mTestOutputs != null) {
         for (int i = 0, size = mTestOutputs.size(); i < size; i++) {
@@ -2309,6 +2558,26 @@ class LayoutState {
     return mLayoutRoot;
   }
 
+  /**
+   * Transfers the ownership of the persisted InternalNode tree to the caller.
+   *
+   * @return the root of the tree, or null if it was not persisted.
+   */
+  @Nullable
+  InternalNode consumeLayoutRoot() {
+    final InternalNode layoutRoot = mLayoutRoot;
+    mLayoutRoot = null;
+    return layoutRoot;
+  }
+
+  int getWidthSpec() {
+    return mWidthSpec;
+  }
+
+  int getHeightSpec() {
+    return mHeightSpec;
+  }
+
   // If the layout root is a nested tree holder node, it gets skipped immediately while
   // collecting the LayoutOutputs. The nested tree itself effectively becomes the layout
   // root in this case.
@@ -2404,6 +2673,15 @@ class LayoutState {
     layoutState.mMountableOutputs.add(layoutOutput);
     layoutState.mMountableOutputTops.add(layoutOutput);
     layoutState.mMountableOutputBottoms.add(layoutOutput);
+    layoutState.mMountableOutputLefts.add(layoutOutput);
+    layoutState.mMountableOutputRights.add(layoutOutput);
+
+    final Component component = layoutOutput.getComponent();
+    if (component != null && Component.isMountSpec(component)) {
+      final int typeId = component.getTypeId();
+      layoutState.mMountContentHistogram.put(
+          typeId, layoutState.mMountContentHistogram.get(typeId) + 1);
+    }
   }
 
   /** @return whether there are any items in the queue for Display Lists prefetching. */
@@ -78,7 +78,7 @@ public class LithoTooltipController {
     final String anchorGlobalKey =
         rootComponent == null
             ? anchorKey
-            : ComponentKeyUtils.getKeyWithSeparator(rootComponent.getGlobalKey(), anchorKey);
+            : ComponentKeyUtils.getChildGlobalKey(rootComponent, anchorKey);
 
     componentTree.showTooltip(lithoTooltip, anchorGlobalKey, xOffset, yOffset);
   }
@@ -164,7 +164,7 @@ public class LithoTooltipController {
     final String anchorGlobalKey =
         rootComponent == null
             ? anchorKey
-            : ComponentKeyUtils.getKeyWithSeparator(rootComponent.getGlobalKey(), anchorKey);
+            : ComponentKeyUtils.getChildGlobalKey(rootComponent, anchorKey);
 
     componentTree.showTooltip(tooltip, anchorGlobalKey, tooltipPosition, xOffset, yOffset);
   }
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.support.annotation.Nullable;
+import com.facebook.infer.annotation.ThreadSafe;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link RecyclePool} that can be shared between threads without taking a lock on acquire and
+ * release. Each thread keeps a small magazine of items in a {@link ThreadLocal}, which serves most
+ * acquire and release calls without any synchronization. Full magazines are exchanged in bulk
+ * through a lock-free stack (the depot) shared by all the threads.
+ *
+ * <p>Entries of the depot are never reused once popped, which keeps the stack free of ABA issues
+ * at the cost of one small allocation per magazine exchanged. The size of the pool is tracked
+ * with an atomic counter so that {@link #getCurrentSize()} accounts for the items held in every
+ * magazine. Items left in the magazine of a thread that terminated are moved back to the depot
+ * the next time the depot runs dry.
+ *
+ * <p>Hit, miss and eviction counts are kept per magazine and summed up when {@link #getStats()} is
+ * called, so they may lag slightly behind for threads that are using the pool at that time. The
+ * {@link PoolSizingPolicy} is evaluated every few magazine exchanges with the depot, trimming the
+ * depot when the pool shrinks.
+ */
+@ThreadSafe(enableChecks = false)
+public class LockFreeRecyclePool<T> extends RecyclePool<T> {
+
+  private static final int MAX_MAGAZINE_SIZE = 16;
+  static final int DEPOT_EXCHANGES_PER_EVALUATION = 16;
+
+  private final int mMagazineSize;
+  private final AtomicInteger mCurrentSize = new AtomicInteger();
+  private final AtomicInteger mHighWaterMark = new AtomicInteger();
+  private final AtomicInteger mWindowHighWaterMark = new AtomicInteger();
+  private final AtomicInteger mDepotExchangesSinceEvaluation = new AtomicInteger();
+  private final AtomicBoolean mIsEvaluating = new AtomicBoolean();
+  private volatile int mMaxSize;
+
+  /** Counts of the magazines that were reclaimed from terminated threads. */
+  private final AtomicLong mReclaimedHitCount = new AtomicLong();
+  private final AtomicLong mReclaimedMissCount = new AtomicLong();
+  private final AtomicLong mReclaimedEvictionCount = new AtomicLong();
+
+  /** Totals at the time of the last evaluation of the sizing policy. */
+  private long mLastEvaluatedHitCount;
+  private long mLastEvaluatedMissCount;
+  private long mLastEvaluatedEvictionCount;
+
+  private final AtomicReference<DepotEntry> mDepot = new AtomicReference<>();
+  private final List<Magazine> mMagazines = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Magazine> mLocalMagazine =
+      new ThreadLocal<Magazine>() {
+        @Override
+        protected Magazine initialValue() {
+          final Magazine magazine = new Magazine(Thread.currentThread(), mMagazineSize);
+          mMagazines.add(magazine);
+          return magazine;
+        }
+      };
+
+  public LockFreeRecyclePool(String name, int maxSize) {
+    super(name, maxSize);
+    mMaxSize = maxSize;
+    mMagazineSize = Math.max(1, Math.min(MAX_MAGAZINE_SIZE, maxSize / 4));
+  }
+
+  @Override
+  @Nullable
+  public T acquire() {
+    final Magazine magazine = mLocalMagazine.get();
+    if (magazine.mCount == 0 && !refill(magazine)) {
+      magazine.mMissCount++;
+      return null;
+    }
+
+    magazine.mHitCount++;
+    mCurrentSize.decrementAndGet();
+    return (T) magazine.pop();
+  }
+
+  @Override
+  public void release(T item) {
+    final Magazine magazine = mLocalMagazine.get();
+    final int size = mCurrentSize.incrementAndGet();
+    if (size > mMaxSize) {
+      mCurrentSize.decrementAndGet();
+      magazine.mEvictionCount++;
+      return;
+    }
+    updateHighWaterMark(mHighWaterMark, size);
+    updateHighWaterMark(mWindowHighWaterMark, size);
+
+    if (magazine.mCount == magazine.mItems.length) {
+      pushToDepot(new DepotEntry(magazine.unload(), magazine.mItems.length));
+      onDepotExchange();
+    }
+    magazine.push(item);
+  }
+
+  @Override
+  public int getMaxSize() {
+    return mMaxSize;
+  }
+
+  @Override
+  public int getCurrentSize() {
+    return mCurrentSize.get();
+  }
+
+  @Override
+  public boolean isFull() {
+    return mCurrentSize.get() >= mMaxSize;
+  }
+
+  @Override
+  public PoolStats getStats() {
+    return new PoolStats(
+        getName(),
+        mMaxSize,
+        mCurrentSize.get(),
+        getTotalHitCount(),
+        getTotalMissCount(),
+        getTotalEvictionCount(),
+        mHighWaterMark.get());
+  }
+
+  /**
+   * Drops items from the depot and from the magazine of the calling thread until the pool is down
+   * to the size the policy asks for. Items in magazines of other live threads are left alone.
+   */
+  @Override
+  public void trim(int trimLevel, PoolSizingPolicy policy) {
+    trimToSize(policy.computeSizeAfterTrim(trimLevel, mCurrentSize.get()));
+  }
+
+  /**
+   * Drops the items in the depot, in the magazine of the calling thread and in the magazines of
+   * terminated threads. Magazines of other live threads can only be emptied by their own thread.
+   */
+  @Override
+  public void clear() {
+    reclaimMagazinesOfTerminatedThreads();
+
+    for (DepotEntry entry = mDepot.getAndSet(null); entry != null; entry = entry.mNext) {
+      mCurrentSize.addAndGet(-entry.mCount);
+    }
+
+    final Magazine magazine = mLocalMagazine.get();
+    while (magazine.mCount > 0) {
+      magazine.pop();
+      mCurrentSize.decrementAndGet();
+    }
+  }
+
+  private boolean refill(Magazine magazine) {
+    DepotEntry entry = popFromDepot();
+    if (entry == null && mCurrentSize.get() > 0) {
+      // The pool isn't empty, some items may be stuck in magazines of terminated threads.
+      reclaimMagazinesOfTerminatedThreads();
+      entry = popFromDepot();
+    }
+
+    if (entry == null) {
+      return false;
+    }
+
+    // Evaluate before loading: trimming may empty the magazine of this thread, which must not
+    // take away the items acquire() is about to hand out.
+    onDepotExchange();
+    magazine.load(entry.mItems, entry.mCount);
+    return true;
+  }
+
+  private void onDepotExchange() {
+    if (mDepotExchangesSinceEvaluation.incrementAndGet() < DEPOT_EXCHANGES_PER_EVALUATION
+        || !mIsEvaluating.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      mDepotExchangesSinceEvaluation.set(0);
+      evaluateMaxSize();
+    } finally {
+      mIsEvaluating.set(false);
+    }
+  }
+
+  private void evaluateMaxSize() {
+    final long hitCount = getTotalHitCount();
+    final long missCount = getTotalMissCount();
+    final long evictionCount = getTotalEvictionCount();
+    final int windowHighWaterMark = mWindowHighWaterMark.getAndSet(mCurrentSize.get());
+
+    final PoolSizingPolicy policy = PoolsConfig.sPoolSizingPolicy;
+    if (policy != null) {
+      final PoolStats windowStats =
+          new PoolStats(
+              getName(),
+              mMaxSize,
+              mCurrentSize.get(),
+              hitCount - mLastEvaluatedHitCount,
+              missCount - mLastEvaluatedMissCount,
+              evictionCount - mLastEvaluatedEvictionCount,
+              windowHighWaterMark);
+      mMaxSize =
+          Math.max(0, policy.computeMaxSize(getInitialMaxSize(), mMaxSize, windowStats));
+      trimToSize(mMaxSize);
+    }
+
+    mLastEvaluatedHitCount = hitCount;
+    mLastEvaluatedMissCount = missCount;
+    mLastEvaluatedEvictionCount = evictionCount;
+  }
+
+  private void trimToSize(int size) {
+    final Magazine magazine = mLocalMagazine.get();
+    while (mCurrentSize.get() > size) {
+      final DepotEntry entry = popFromDepot();
+      if (entry != null) {
+        mCurrentSize.addAndGet(-entry.mCount);
+        magazine.mEvictionCount += entry.mCount;
+      } else if (magazine.mCount > 0) {
+        magazine.pop();
+        mCurrentSize.decrementAndGet();
+        magazine.mEvictionCount++;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private long getTotalHitCount() {
+    long count = mReclaimedHitCount.get();
+    for (Magazine magazine : mMagazines) {
+      count += magazine.mHitCount;
+    }
+    return count;
+  }
+
+  private long getTotalMissCount() {
+    long count = mReclaimedMissCount.get();
+    for (Magazine magazine : mMagazines) {
+      count += magazine.mMissCount;
+    }
+    return count;
+  }
+
+  private long getTotalEvictionCount() {
+    long count = mReclaimedEvictionCount.get();
+    for (Magazine magazine : mMagazines) {
+      count += magazine.mEvictionCount;
+    }
+    return count;
+  }
+
+  private static void updateHighWaterMark(AtomicInteger highWaterMark, int size) {
+    int current;
+    do {
+      current = highWaterMark.get();
+      if (size <= current) {
+        return;
+      }
+    } while (!highWaterMark.compareAndSet(current, size));
+  }
+
+  private void reclaimMagazinesOfTerminatedThreads() {
+    for (Magazine magazine : mMagazines) {
+      final Thread owner = magazine.mOwner.get();
+      // Removing the magazine from the list makes sure only one thread reclaims its items.
+      if ((owner == null || !owner.isAlive()) && mMagazines.remove(magazine)) {
+        mReclaimedHitCount.addAndGet(magazine.mHitCount);
+        mReclaimedMissCount.addAndGet(magazine.mMissCount);
+        mReclaimedEvictionCount.addAndGet(magazine.mEvictionCount);
+        if (magazine.mCount > 0) {
+          pushToDepot(new DepotEntry(magazine.mItems, magazine.mCount));
+        }
+      }
+    }
+  }
+
+  private void pushToDepot(DepotEntry entry) {
+    DepotEntry head;
+    do {
+      head = mDepot.get();
+      entry.mNext = head;
+    } while (!mDepot.compareAndSet(head, entry));
+  }
+
+  @Nullable
+  private DepotEntry popFromDepot() {
+    DepotEntry head;
+    do {
+      head = mDepot.get();
+      if (head == null) {
+        return null;
+      }
+    } while (!mDepot.compareAndSet(head, head.mNext));
+
+    return head;
+  }
+
+  /** A stack of items only ever accessed by the thread that owns it. */
+  private static class Magazine {
+
+    private final WeakReference<Thread> mOwner;
+    private Object[] mItems;
+    @Nullable private Object[] mSpareItems;
+    private int mCount;
+
+    // Only written by the owner, read by any thread to compute the stats of the pool.
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+
+    private Magazine(Thread owner, int size) {
+      mOwner = new WeakReference<>(owner);
+      mItems = new Object[size];
+    }
+
+    private void push(Object item) {
+      mItems[mCount++] = item;
+    }
+
+    private Object pop() {
+      final Object item = mItems[--mCount];
+      mItems[mCount] = null;
+      return item;
+    }
+
+    /** Hands the full array of items over to the caller and continues with an empty one. */
+    private Object[] unload() {
+      final Object[] items = mItems;
+      mItems = mSpareItems != null ? mSpareItems : new Object[items.length];
+      mSpareItems = null;
+      mCount = 0;
+      return items;
+    }
+
+    /** Replaces the empty array of items with the given one. */
+    private void load(Object[] items, int count) {
+      mSpareItems = mItems.length == items.length ? mItems : null;
+      mItems = items;
+      mCount = count;
+    }
+  }
+
+  /** An immutable node of the depot stack, only its successor is set before it gets pushed. */
+  private static class DepotEntry {
+
+    private final Object[] mItems;
+    private final int mCount;
+    @Nullable private DepotEntry mNext;
+
+    private DepotEntry(Object[] items, int count) {
+      mItems = items;
+      mCount = count;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.LruCache;
+import android.util.SparseIntArray;
+import com.facebook.infer.annotation.ThreadSafe;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Remembers how many mount content items of each mount spec the layouts of a given root component
+ * needed. Every time a tree with that root is laid out again its mount content pools can be filled
+ * in bulk up to that working set, instead of allocating one item per mountable output, so that the
+ * first scroll of a known screen type doesn't need to inflate views inline.
+ */
+@ThreadSafe
+class MountContentPreallocationPlanner {
+
+  private static final int MAX_PLANS = 64;
+
+  /** Histograms of mount content type id to count, keyed by the type id of the root component. */
+  @GuardedBy("sPlans")
+  private static final LruCache<Integer, SparseIntArray> sPlans = new LruCache<>(MAX_PLANS);
+
+  private MountContentPreallocationPlanner() {}
+
+  /**
+   * Merges the histogram of a new layout into the plan for its root component and returns the
+   * resulting plan, which holds the largest count seen for each mount content type.
+   *
+   * @param rootTypeId the type id of the root component of the layout.
+   * @param histogram number of mountable outputs per mount content type id of the layout.
+   * @return a copy of the plan, which the caller is free to modify.
+   */
+  static SparseIntArray recordAndPlan(int rootTypeId, SparseIntArray histogram) {
+    synchronized (sPlans) {
+      SparseIntArray plan = sPlans.get(rootTypeId);
+      if (plan == null) {
+        plan = new SparseIntArray(histogram.size());
+        sPlans.put(rootTypeId, plan);
+      }
+
+      for (int i = 0, size = histogram.size(); i < size; i++) {
+        final int typeId = histogram.keyAt(i);
+        plan.put(typeId, Math.max(plan.get(typeId), histogram.valueAt(i)));
+      }
+
+      return plan.clone();
+    }
+  }
+
+  /** @return the number of mount content items of the given type the root component needed. */
+  @VisibleForTesting
+  static int getPlannedCount(int rootTypeId, int mountContentTypeId) {
+    synchronized (sPlans) {
+      final SparseIntArray plan = sPlans.get(rootTypeId);
+      return plan != null ? plan.get(mountContentTypeId) : 0;
+    }
+  }
+
+  /** Forgets every plan. */
+  static void clear() {
+    synchronized (sPlans) {
+      sPlans.evictAll();
+    }
+  }
+}
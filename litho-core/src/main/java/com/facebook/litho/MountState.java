@@ -85,6 +85,11 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
   static final long ROOT_HOST_ID = 0L;
   private static final double NS_IN_MS = 1000000.0;
 
+  private static final int EDGE_TOP = 0;
+  private static final int EDGE_BOTTOM = 1;
+  private static final int EDGE_LEFT = 2;
+  private static final int EDGE_RIGHT = 3;
+
   // Holds the current list of mounted items.
   // Should always be used within a draw lock.
   private final LongSparseArray<MountItem> mIndexToItemMap;
@@ -123,6 +128,16 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
   private final MountStats mMountStats = new MountStats();
   private int mPreviousTopsIndex;
   private int mPreviousBottomsIndex;
+  private int mPreviousLeftsIndex;
+  private int mPreviousRightsIndex;
+  private final Rect mPreviousVisibilityRect = new Rect();
+  private int mPreviousVisibilityLayoutStateId = -1;
+  // Keyed by the index of the outputs in the LayoutState, so that they are processed in layout
+  // order whichever edge of the visible rect they enter from.
+  private final LongSparseArray<VisibilityOutput> mVisibilityOutputsToReprocess =
+      new LongSparseArray<>();
+  private final LongSparseArray<VisibilityOutput> mVisibilityOutputsToProcess =
+      new LongSparseArray<>();
   private int mLastMountedComponentTreeId = ComponentTree.INVALID_ID;
   private LayoutState mLastMountedLayoutState;
   private boolean mIsFirstMountOfComponentTree = false;
@@ -499,160 +514,318 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
     final boolean isDoingPerfLog = mMountStats.isLoggingEnabled;
     final boolean isTracing = ComponentsSystrace.isTracing();
     final long totalStartTime = isDoingPerfLog ? System.nanoTime() : 0L;
-    for (int j = 0, size = layoutState.getVisibilityOutputCount(); j < size; j++) {
-      final VisibilityOutput visibilityOutput = layoutState.getVisibilityOutputAt(j);
-      if (isTracing) {
-        final String componentName =
-            visibilityOutput.getComponent() != null
-                ? visibilityOutput.getComponent().getSimpleName()
-                : "Unknown";
-        ComponentsSystrace.beginSection("visibilityHandlers:" + componentName);
-      }
-      final long handlerStartTime = isDoingPerfLog ? System.nanoTime() : 0;
-      final EventHandler<VisibleEvent> visibleHandler = visibilityOutput.getVisibleEventHandler();
-      final EventHandler<FocusedVisibleEvent> focusedHandler =
-          visibilityOutput.getFocusedEventHandler();
-      final EventHandler<UnfocusedVisibleEvent> unfocusedHandler =
-          visibilityOutput.getUnfocusedEventHandler();
-      final EventHandler<FullImpressionVisibleEvent> fullImpressionHandler =
-          visibilityOutput.getFullImpressionEventHandler();
-      final EventHandler<InvisibleEvent> invisibleHandler =
-          visibilityOutput.getInvisibleEventHandler();
-      final EventHandler<VisibilityChangedEvent> visibilityChangedHandler =
-          visibilityOutput.getVisibilityChangedEventHandler();
-      final long visibilityOutputId = visibilityOutput.getId();
-      final Rect visibilityOutputBounds = visibilityOutput.getBounds();
-
-      boolean boundsIntersect = sTempRect.setIntersect(visibilityOutputBounds, localVisibleRect);
-      final boolean isCurrentlyVisible =
-          boundsIntersect && isInVisibleRange(visibilityOutput, visibilityOutputBounds, sTempRect);
-
-      VisibilityItem visibilityItem = mVisibilityIdToItemMap.get(visibilityOutputId);
-      if (visibilityItem != null) {
-        final String previousGlobalKey = visibilityItem.getGlobalKey();
-        final String currentGlobalKey =
-            visibilityOutput.getComponent() != null
-                ? visibilityOutput.getComponent().getGlobalKey()
-                : null;
-        final boolean hasGlobalKeyChanged =
-            previousGlobalKey != null && !previousGlobalKey.equals(currentGlobalKey);
-
-        if (!hasGlobalKeyChanged) {
-          // If we did a relayout due to e.g. a state update then the handlers will have changed,
-          // so we should keep them up to date.
-          visibilityItem.setUnfocusedHandler(unfocusedHandler);
-          visibilityItem.setInvisibleHandler(invisibleHandler);
-        }
 
-        if (!isCurrentlyVisible || hasGlobalKeyChanged) {
-          // Either the component is invisible now, but used to be visible, or the key on the
-          // component has changed so we should generate new visibility events for the new
-          // component.
-          if (visibilityItem.getInvisibleHandler() != null) {
-            EventDispatcherUtils.dispatchOnInvisible(visibilityItem.getInvisibleHandler());
-          }
+    if (!processVisibilityOutputsIncrementally(
+        layoutState, localVisibleRect, isDoingPerfLog, isTracing)) {
+      mVisibilityOutputsToReprocess.clear();
+      for (int j = 0, size = layoutState.getVisibilityOutputCount(); j < size; j++) {
+        processVisibilityOutput(
+            layoutState,
+            layoutState.getVisibilityOutputAt(j),
+            localVisibleRect,
+            isDoingPerfLog,
+            isTracing);
+      }
+    }
 
-          if (visibilityChangedHandler != null) {
-            EventDispatcherUtils.dispatchOnVisibilityChanged(
-                visibilityChangedHandler, 0, 0, 0f, 0f);
-          }
+    if (mIsDirty) {
+      clearVisibilityItems();
+    }
 
-          if (visibilityItem.isInFocusedRange()) {
-            visibilityItem.setFocusedRange(false);
-            if (visibilityItem.getUnfocusedHandler() != null) {
-              EventDispatcherUtils.dispatchOnUnfocused(visibilityItem.getUnfocusedHandler());
-            }
-          }
+    if (ComponentsConfiguration.useIncrementalVisibilityHandling) {
+      mPreviousVisibilityRect.set(localVisibleRect);
+      mPreviousVisibilityLayoutStateId = layoutState.getId();
+    }
 
-          mVisibilityIdToItemMap.remove(visibilityOutputId);
-          ComponentsPools.release(visibilityItem);
-          visibilityItem = null;
-        } else {
-          // Processed, do not clear.
-          visibilityItem.setDoNotClearInThisPass(mIsDirty);
-        }
+    if (isDoingPerfLog) {
+      mMountStats.visibilityHandlersTotalTime = (System.nanoTime() - totalStartTime) / NS_IN_MS;
+    }
+
+    if (mountPerfEvent != null) {
+      mountPerfEvent.markerPoint("VISIBILITY_HANDLERS_END");
+    }
+  }
+
+  /**
+   * Only processes the {@link VisibilityOutput}s whose visible portion may have changed since the
+   * previous pass: the ones that were partially visible, plus the ones with an edge between the
+   * previous and the current edges of the visible rect. Outputs that stay fully inside or fully
+   * outside of the visible rect are skipped. The outputs are processed in layout order, as in a
+   * full pass.
+   *
+   * @return false if a full pass over all the visibility outputs is needed instead.
+   */
+  private boolean processVisibilityOutputsIncrementally(
+      LayoutState layoutState, Rect localVisibleRect, boolean isDoingPerfLog, boolean isTracing) {
+    if (!ComponentsConfiguration.useIncrementalVisibilityHandling
+        || mIsDirty
+        || mPreviousVisibilityRect.isEmpty()
+        || mPreviousVisibilityLayoutStateId != layoutState.getId()
+        || !layoutState.hasSortedVisibilityOutputs()) {
+      return false;
+    }
+
+    final Rect previousRect = mPreviousVisibilityRect;
+    final LongSparseArray<VisibilityOutput> visibilityOutputsToProcess =
+        mVisibilityOutputsToProcess;
+    visibilityOutputsToProcess.clear();
+
+    for (int i = 0, size = mVisibilityOutputsToReprocess.size(); i < size; i++) {
+      visibilityOutputsToProcess.put(
+          mVisibilityOutputsToReprocess.keyAt(i), mVisibilityOutputsToReprocess.valueAt(i));
+    }
+
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputTops(), EDGE_TOP, previousRect.top, localVisibleRect.top);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputTops(),
+        EDGE_TOP,
+        previousRect.bottom,
+        localVisibleRect.bottom);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputBottoms(),
+        EDGE_BOTTOM,
+        previousRect.top,
+        localVisibleRect.top);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputBottoms(),
+        EDGE_BOTTOM,
+        previousRect.bottom,
+        localVisibleRect.bottom);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputLefts(), EDGE_LEFT, previousRect.left, localVisibleRect.left);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputLefts(),
+        EDGE_LEFT,
+        previousRect.right,
+        localVisibleRect.right);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputRights(),
+        EDGE_RIGHT,
+        previousRect.left,
+        localVisibleRect.left);
+    collectVisibilityOutputsWithEdgeInRange(
+        layoutState.getVisibilityOutputRights(),
+        EDGE_RIGHT,
+        previousRect.right,
+        localVisibleRect.right);
+
+    mVisibilityOutputsToReprocess.clear();
+    for (int i = 0, size = visibilityOutputsToProcess.size(); i < size; i++) {
+      processVisibilityOutput(
+          layoutState,
+          visibilityOutputsToProcess.valueAt(i),
+          localVisibleRect,
+          isDoingPerfLog,
+          isTracing);
+    }
+    visibilityOutputsToProcess.clear();
+
+    return true;
+  }
+
+  /**
+   * Adds to {@link #mVisibilityOutputsToProcess} all the outputs from the given list, sorted by
+   * the given edge, whose edge lies between the two given positions.
+   */
+  private void collectVisibilityOutputsWithEdgeInRange(
+      ArrayList<VisibilityOutput> sortedVisibilityOutputs, int edge, int from, int to) {
+    if (from == to) {
+      return;
+    }
+
+    final int min = Math.min(from, to);
+    final int max = Math.max(from, to);
+
+    // Binary search for the first output whose edge is not before the start of the range.
+    int low = 0;
+    int high = sortedVisibilityOutputs.size();
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (getEdge(sortedVisibilityOutputs.get(mid).getBounds(), edge) < min) {
+        low = mid + 1;
+      } else {
+        high = mid;
       }
+    }
 
-      if (isCurrentlyVisible) {
-        // The component is visible now, but used to be outside the viewport.
-        if (visibilityItem == null) {
-          final String globalKey =
-              visibilityOutput.getComponent() != null
-                  ? visibilityOutput.getComponent().getGlobalKey()
-                  : null;
-          visibilityItem =
-              ComponentsPools.acquireVisibilityItem(
-                  globalKey, invisibleHandler, unfocusedHandler, visibilityChangedHandler);
-          visibilityItem.setDoNotClearInThisPass(mIsDirty);
-          mVisibilityIdToItemMap.put(visibilityOutputId, visibilityItem);
-
-          if (visibleHandler != null) {
-            EventDispatcherUtils.dispatchOnVisible(visibleHandler);
-          }
-        }
+    for (int i = low, size = sortedVisibilityOutputs.size(); i < size; i++) {
+      final VisibilityOutput visibilityOutput = sortedVisibilityOutputs.get(i);
+      if (getEdge(visibilityOutput.getBounds(), edge) > max) {
+        break;
+      }
+      mVisibilityOutputsToProcess.put(visibilityOutput.getIndex(), visibilityOutput);
+    }
+  }
 
-        // Check if the component has entered or exited the focused range.
-        if (focusedHandler != null || unfocusedHandler != null) {
-          if (isInFocusedRange(visibilityOutputBounds, sTempRect)) {
-            if (!visibilityItem.isInFocusedRange()) {
-              visibilityItem.setFocusedRange(true);
-              if (focusedHandler != null) {
-                EventDispatcherUtils.dispatchOnFocused(focusedHandler);
-              }
-            }
-          } else {
-            if (visibilityItem.isInFocusedRange()) {
-              visibilityItem.setFocusedRange(false);
-              if (unfocusedHandler != null) {
-                EventDispatcherUtils.dispatchOnUnfocused(unfocusedHandler);
-              }
-            }
-          }
-        }
-        // If the component has not entered the full impression range yet, make sure to update the
-        // information about the visible edges.
-        if (fullImpressionHandler != null && !visibilityItem.isInFullImpressionRange()) {
-          visibilityItem.setVisibleEdges(visibilityOutputBounds, sTempRect);
+  private static int getEdge(Rect bounds, int edge) {
+    switch (edge) {
+      case EDGE_TOP:
+        return bounds.top;
+      case EDGE_BOTTOM:
+        return bounds.bottom;
+      case EDGE_LEFT:
+        return bounds.left;
+      case EDGE_RIGHT:
+        return bounds.right;
+      default:
+        throw new IllegalArgumentException("Unknown edge: " + edge);
+    }
+  }
 
-          if (visibilityItem.isInFullImpressionRange()) {
-            EventDispatcherUtils.dispatchOnFullImpression(fullImpressionHandler);
-          }
+  private void processVisibilityOutput(
+      LayoutState layoutState,
+      VisibilityOutput visibilityOutput,
+      Rect localVisibleRect,
+      boolean isDoingPerfLog,
+      boolean isTracing) {
+    if (isTracing) {
+      final String componentName =
+          visibilityOutput.getComponent() != null
+              ? visibilityOutput.getComponent().getSimpleName()
+              : "Unknown";
+      ComponentsSystrace.beginSection("visibilityHandlers:" + componentName);
+    }
+    final long handlerStartTime = isDoingPerfLog ? System.nanoTime() : 0;
+    final EventHandler<VisibleEvent> visibleHandler = visibilityOutput.getVisibleEventHandler();
+    final EventHandler<FocusedVisibleEvent> focusedHandler =
+        visibilityOutput.getFocusedEventHandler();
+    final EventHandler<UnfocusedVisibleEvent> unfocusedHandler =
+        visibilityOutput.getUnfocusedEventHandler();
+    final EventHandler<FullImpressionVisibleEvent> fullImpressionHandler =
+        visibilityOutput.getFullImpressionEventHandler();
+    final EventHandler<InvisibleEvent> invisibleHandler =
+        visibilityOutput.getInvisibleEventHandler();
+    final EventHandler<VisibilityChangedEvent> visibilityChangedHandler =
+        visibilityOutput.getVisibilityChangedEventHandler();
+    final long visibilityOutputId = visibilityOutput.getId();
+    final Rect visibilityOutputBounds = visibilityOutput.getBounds();
+
+    boolean boundsIntersect = sTempRect.setIntersect(visibilityOutputBounds, localVisibleRect);
+    if (ComponentsConfiguration.useIncrementalVisibilityHandling) {
+      // Outputs that are only partially visible, or that want to hear about every visible frame,
+      // need to be processed again on the next pass even if none of their edges are crossed.
+      if (boundsIntersect
+          && (visibilityChangedHandler != null || !sTempRect.equals(visibilityOutputBounds))) {
+        mVisibilityOutputsToReprocess.put(visibilityOutput.getIndex(), visibilityOutput);
+      }
+    }
+    final boolean isCurrentlyVisible =
+        boundsIntersect && isInVisibleRange(visibilityOutput, visibilityOutputBounds, sTempRect);
+
+    VisibilityItem visibilityItem = mVisibilityIdToItemMap.get(visibilityOutputId);
+    if (visibilityItem != null) {
+      final String previousGlobalKey = visibilityItem.getGlobalKey();
+      final String currentGlobalKey =
+          visibilityOutput.getComponent() != null
+              ? visibilityOutput.getComponent().getGlobalKey()
+              : null;
+      final boolean hasGlobalKeyChanged =
+          previousGlobalKey != null && !previousGlobalKey.equals(currentGlobalKey);
+
+      if (!hasGlobalKeyChanged) {
+        // If we did a relayout due to e.g. a state update then the handlers will have changed,
+        // so we should keep them up to date.
+        visibilityItem.setUnfocusedHandler(unfocusedHandler);
+        visibilityItem.setInvisibleHandler(invisibleHandler);
+      }
+
+      if (!isCurrentlyVisible || hasGlobalKeyChanged) {
+        // Either the component is invisible now, but used to be visible, or the key on the
+        // component has changed so we should generate new visibility events for the new
+        // component.
+        if (visibilityItem.getInvisibleHandler() != null) {
+          EventDispatcherUtils.dispatchOnInvisible(visibilityItem.getInvisibleHandler());
         }
 
         if (visibilityChangedHandler != null) {
-          final int visibleWidth = localVisibleRect.right - localVisibleRect.left;
-          final int visibleHeight = localVisibleRect.bottom - localVisibleRect.top;
           EventDispatcherUtils.dispatchOnVisibilityChanged(
-              visibilityChangedHandler,
-              visibleWidth,
-              visibleHeight,
-              100f * visibleWidth / layoutState.getWidth(),
-              100f * visibleHeight / layoutState.getHeight());
+              visibilityChangedHandler, 0, 0, 0f, 0f);
         }
+
+        if (visibilityItem.isInFocusedRange()) {
+          visibilityItem.setFocusedRange(false);
+          if (visibilityItem.getUnfocusedHandler() != null) {
+            EventDispatcherUtils.dispatchOnUnfocused(visibilityItem.getUnfocusedHandler());
+          }
+        }
+
+        mVisibilityIdToItemMap.remove(visibilityOutputId);
+        ComponentsPools.release(visibilityItem);
+        visibilityItem = null;
+      } else {
+        // Processed, do not clear.
+        visibilityItem.setDoNotClearInThisPass(mIsDirty);
       }
-      if (isDoingPerfLog) {
-        final String componentName =
+    }
+
+    if (isCurrentlyVisible) {
+      // The component is visible now, but used to be outside the viewport.
+      if (visibilityItem == null) {
+        final String globalKey =
             visibilityOutput.getComponent() != null
-                ? visibilityOutput.getComponent().getSimpleName()
-                : "Unknown";
-        mMountStats.visibilityHandlerTimes.add((System.nanoTime() - handlerStartTime) / NS_IN_MS);
-        mMountStats.visibilityHandlerNames.add(componentName);
+                ? visibilityOutput.getComponent().getGlobalKey()
+                : null;
+        visibilityItem =
+            ComponentsPools.acquireVisibilityItem(
+                globalKey, invisibleHandler, unfocusedHandler, visibilityChangedHandler);
+        visibilityItem.setDoNotClearInThisPass(mIsDirty);
+        mVisibilityIdToItemMap.put(visibilityOutputId, visibilityItem);
+
+        if (visibleHandler != null) {
+          EventDispatcherUtils.dispatchOnVisible(visibleHandler);
+        }
       }
-      if (isTracing) {
-        ComponentsSystrace.endSection();
+
+      // Check if the component has entered or exited the focused range.
+      if (focusedHandler != null || unfocusedHandler != null) {
+        if (isInFocusedRange(visibilityOutputBounds, sTempRect)) {
+          if (!visibilityItem.isInFocusedRange()) {
+            visibilityItem.setFocusedRange(true);
+            if (focusedHandler != null) {
+              EventDispatcherUtils.dispatchOnFocused(focusedHandler);
+            }
+          }
+        } else {
+          if (visibilityItem.isInFocusedRange()) {
+            visibilityItem.setFocusedRange(false);
+            if (unfocusedHandler != null) {
+              EventDispatcherUtils.dispatchOnUnfocused(unfocusedHandler);
+            }
+          }
+        }
       }
-    }
+      // If the component has not entered the full impression range yet, make sure to update the
+      // information about the visible edges.
+      if (fullImpressionHandler != null && !visibilityItem.isInFullImpressionRange()) {
+        visibilityItem.setVisibleEdges(visibilityOutputBounds, sTempRect);
 
-    if (mIsDirty) {
-      clearVisibilityItems();
-    }
+        if (visibilityItem.isInFullImpressionRange()) {
+          EventDispatcherUtils.dispatchOnFullImpression(fullImpressionHandler);
+        }
+      }
 
+      if (visibilityChangedHandler != null) {
+        final int visibleWidth = localVisibleRect.right - localVisibleRect.left;
+        final int visibleHeight = localVisibleRect.bottom - localVisibleRect.top;
+        EventDispatcherUtils.dispatchOnVisibilityChanged(
+            visibilityChangedHandler,
+            visibleWidth,
+            visibleHeight,
+            100f * visibleWidth / layoutState.getWidth(),
+            100f * visibleHeight / layoutState.getHeight());
+      }
+    }
     if (isDoingPerfLog) {
-      mMountStats.visibilityHandlersTotalTime = (System.nanoTime() - totalStartTime) / NS_IN_MS;
+      final String componentName =
+          visibilityOutput.getComponent() != null
+              ? visibilityOutput.getComponent().getSimpleName()
+              : "Unknown";
+      mMountStats.visibilityHandlerTimes.add((System.nanoTime() - handlerStartTime) / NS_IN_MS);
+      mMountStats.visibilityHandlerNames.add(componentName);
     }
-
-    if (mountPerfEvent != null) {
-      mountPerfEvent.markerPoint("VISIBILITY_HANDLERS_END");
+    if (isTracing) {
+      ComponentsSystrace.endSection();
     }
   }
 
@@ -729,6 +902,25 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
         break;
       }
     }
+
+    final ArrayList<LayoutOutput> layoutOutputLefts = layoutState.getMountableOutputLefts();
+    final ArrayList<LayoutOutput> layoutOutputRights = layoutState.getMountableOutputRights();
+
+    mPreviousLeftsIndex = layoutState.getMountableOutputCount();
+    for (int i = 0; i < mountableOutputCount; i++) {
+      if (localVisibleRect.right <= layoutOutputLefts.get(i).getBounds().left) {
+        mPreviousLeftsIndex = i;
+        break;
+      }
+    }
+
+    mPreviousRightsIndex = layoutState.getMountableOutputCount();
+    for (int i = 0; i < mountableOutputCount; i++) {
+      if (localVisibleRect.left < layoutOutputRights.get(i).getBounds().right) {
+        mPreviousRightsIndex = i;
+        break;
+      }
+    }
   }
 
   void clearVisibilityItems() {
@@ -737,6 +929,9 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
       ComponentsSystrace.beginSection("MountState.clearVisibilityItems");
     }
 
+    // Cleared items won't be in sync with the incremental visibility index anymore.
+    mPreviousVisibilityRect.setEmpty();
+
     for (int i = mVisibilityIdToItemMap.size() - 1; i >= 0; i--) {
       final VisibilityItem visibilityItem = mVisibilityIdToItemMap.valueAt(i);
       if (visibilityItem.doNotClearInThisPass()) {
@@ -2823,13 +3018,10 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
       return false;
     }
 
-    if (localVisibleRect.left != mPreviousLocalVisibleRect.left ||
-        localVisibleRect.right != mPreviousLocalVisibleRect.right) {
-      return false;
-    }
-
     final ArrayList<LayoutOutput> layoutOutputTops = layoutState.getMountableOutputTops();
     final ArrayList<LayoutOutput> layoutOutputBottoms = layoutState.getMountableOutputBottoms();
+    final ArrayList<LayoutOutput> layoutOutputLefts = layoutState.getMountableOutputLefts();
+    final ArrayList<LayoutOutput> layoutOutputRights = layoutState.getMountableOutputRights();
     final int count = layoutState.getMountableOutputCount();
 
     if (localVisibleRect.top > 0 || mPreviousLocalVisibleRect.top > 0) {
@@ -2851,14 +3043,7 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
               layoutOutputBottoms.get(mPreviousBottomsIndex - 1).getBounds().bottom) {
         mPreviousBottomsIndex--;
         final LayoutOutput layoutOutput = layoutOutputBottoms.get(mPreviousBottomsIndex);
-        final int layoutOutputIndex =
-            layoutState.getLayoutOutputPositionForId(layoutOutput.getId());
-        if (getItemAt(layoutOutputIndex) == null) {
-          mountLayoutOutput(
-              layoutState.getLayoutOutputPositionForId(layoutOutput.getId()),
-              layoutOutput,
-              layoutState);
-        }
+        mountLayoutOutputIfHorizontallyVisible(layoutOutput, layoutState, localVisibleRect);
       }
     }
 
@@ -2869,14 +3054,7 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
       while (mPreviousTopsIndex < count &&
           localVisibleRect.bottom > layoutOutputTops.get(mPreviousTopsIndex).getBounds().top) {
         final LayoutOutput layoutOutput = layoutOutputTops.get(mPreviousTopsIndex);
-        final int layoutOutputIndex =
-            layoutState.getLayoutOutputPositionForId(layoutOutput.getId());
-        if (getItemAt(layoutOutputIndex) == null) {
-          mountLayoutOutput(
-              layoutState.getLayoutOutputPositionForId(layoutOutput.getId()),
-              layoutOutput,
-              layoutState);
-        }
+        mountLayoutOutputIfHorizontallyVisible(layoutOutput, layoutState, localVisibleRect);
         mPreviousTopsIndex++;
       }
 
@@ -2892,6 +3070,51 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
       }
     }
 
+    if (localVisibleRect.left > 0 || mPreviousLocalVisibleRect.left > 0) {
+      // View is going on/off the left of the screen. Check the rights to see if there is anything
+      // that has moved on/off the left of the screen.
+      while (mPreviousRightsIndex < count &&
+          localVisibleRect.left >= layoutOutputRights.get(mPreviousRightsIndex).getBounds().right) {
+        final long id = layoutOutputRights.get(mPreviousRightsIndex).getId();
+        final int layoutOutputIndex = layoutState.getLayoutOutputPositionForId(id);
+        if (!isAnimationLocked(layoutOutputIndex)) {
+          unmountItem(layoutOutputIndex, mHostsByMarker);
+        }
+        mPreviousRightsIndex++;
+      }
+
+      while (mPreviousRightsIndex > 0 &&
+          localVisibleRect.left <
+              layoutOutputRights.get(mPreviousRightsIndex - 1).getBounds().right) {
+        mPreviousRightsIndex--;
+        final LayoutOutput layoutOutput = layoutOutputRights.get(mPreviousRightsIndex);
+        mountLayoutOutputIfVerticallyVisible(layoutOutput, layoutState, localVisibleRect);
+      }
+    }
+
+    final int width = mLithoView.getWidth();
+    if (localVisibleRect.right < width || mPreviousLocalVisibleRect.right < width) {
+      // View is going on/off the right of the screen. Check the lefts to see if there is anything
+      // that has changed.
+      while (mPreviousLeftsIndex < count &&
+          localVisibleRect.right > layoutOutputLefts.get(mPreviousLeftsIndex).getBounds().left) {
+        final LayoutOutput layoutOutput = layoutOutputLefts.get(mPreviousLeftsIndex);
+        mountLayoutOutputIfVerticallyVisible(layoutOutput, layoutState, localVisibleRect);
+        mPreviousLeftsIndex++;
+      }
+
+      while (mPreviousLeftsIndex > 0 &&
+          localVisibleRect.right <=
+              layoutOutputLefts.get(mPreviousLeftsIndex - 1).getBounds().left) {
+        mPreviousLeftsIndex--;
+        final long id = layoutOutputLefts.get(mPreviousLeftsIndex).getId();
+        final int layoutOutputIndex = layoutState.getLayoutOutputPositionForId(id);
+        if (!isAnimationLocked(layoutOutputIndex)) {
+          unmountItem(layoutOutputIndex, mHostsByMarker);
+        }
+      }
+    }
+
     for (int i = 0, size = mCanMountIncrementallyMountItems.size(); i < size; i++) {
       final MountItem mountItem = mCanMountIncrementallyMountItems.valueAt(i);
       final int layoutOutputPosition =
@@ -2908,6 +3131,38 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
     return true;
   }
 
+  /**
+   * Mounts a {@link LayoutOutput} that entered the visible rect vertically, as long as it also
+   * overlaps the visible rect horizontally. Outputs that are still off-screen horizontally will be
+   * picked up by the horizontal sweep once they scroll into view.
+   */
+  private void mountLayoutOutputIfHorizontallyVisible(
+      LayoutOutput layoutOutput, LayoutState layoutState, Rect localVisibleRect) {
+    final Rect bounds = layoutOutput.getBounds();
+    if (bounds.left < localVisibleRect.right && localVisibleRect.left < bounds.right) {
+      mountLayoutOutputIfNotMounted(layoutOutput, layoutState);
+    }
+  }
+
+  /**
+   * Mounts a {@link LayoutOutput} that entered the visible rect horizontally, as long as it also
+   * overlaps the visible rect vertically.
+   */
+  private void mountLayoutOutputIfVerticallyVisible(
+      LayoutOutput layoutOutput, LayoutState layoutState, Rect localVisibleRect) {
+    final Rect bounds = layoutOutput.getBounds();
+    if (bounds.top < localVisibleRect.bottom && localVisibleRect.top < bounds.bottom) {
+      mountLayoutOutputIfNotMounted(layoutOutput, layoutState);
+    }
+  }
+
+  private void mountLayoutOutputIfNotMounted(LayoutOutput layoutOutput, LayoutState layoutState) {
+    final int layoutOutputIndex = layoutState.getLayoutOutputPositionForId(layoutOutput.getId());
+    if (getItemAt(layoutOutputIndex) == null) {
+      mountLayoutOutput(layoutOutputIndex, layoutOutput, layoutState);
+    }
+  }
+
   LithoView getLithoView() {
     return mLithoView;
   }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+/**
+ * Decides how many objects a {@link RecyclePool} may hold based on the demand observed at runtime.
+ * Set it through {@link PoolsConfig#sPoolSizingPolicy}.
+ *
+ * <p>NB: This is called from multiple threads, possibly at the same time for different pools. A
+ * {@link RecyclePool} calls it from acquire or release, holding the pool's lock if the pool is
+ * synchronized. A {@link LockFreeRecyclePool} calls it without any lock, from whichever thread
+ * exchanges a magazine with the depot when an evaluation is due, though only one thread evaluates
+ * a given pool at a time. Implementations must be thread safe and cheap.
+ */
+public interface PoolSizingPolicy {
+
+  /**
+   * Called periodically with the usage of the pool since the previous call.
+   *
+   * @param initialMaxSize the max size the pool was created with.
+   * @param currentMaxSize the max size the pool currently has.
+   * @param windowStats hit, miss and eviction counts and the high-water mark since the last call.
+   * @return the new max size of the pool.
+   */
+  int computeMaxSize(int initialMaxSize, int currentMaxSize, PoolStats windowStats);
+
+  /**
+   * Called from {@link ComponentsPools#onTrimMemory(int)}.
+   *
+   * @param trimLevel one of the {@link android.content.ComponentCallbacks2} TRIM_MEMORY_* levels.
+   * @param currentSize the number of objects currently in the pool.
+   * @return how many of them the pool should keep.
+   */
+  int computeSizeAfterTrim(int trimLevel, int currentSize);
+}
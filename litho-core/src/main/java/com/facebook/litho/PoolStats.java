@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.litho;
+
+/**
+ * An immutable snapshot of the usage of a pool, either since it was created or over the window
+ * of operations a {@link PoolSizingPolicy} is asked to evaluate.
+ */
+public final class PoolStats {
+
+  private final String mName;
+  private final int mMaxSize;
+  private final int mCurrentSize;
+  private final long mHitCount;
+  private final long mMissCount;
+  private final long mEvictionCount;
+  private final int mHighWaterMark;
+
+  public PoolStats(
+      String name,
+      int maxSize,
+      int currentSize,
+      long hitCount,
+      long missCount,
+      long evictionCount,
+      int highWaterMark) {
+    mName = name;
+    mMaxSize = maxSize;
+    mCurrentSize = currentSize;
+    mHitCount = hitCount;
+    mMissCount = missCount;
+    mEvictionCount = evictionCount;
+    mHighWaterMark = highWaterMark;
+  }
+
+  /** @return a snapshot with just the size information of a pool that doesn't record usage. */
+  static PoolStats fromDebugInfo(PoolWithDebugInfo pool) {
+    return new PoolStats(
+        pool.getName(), pool.getMaxSize(), pool.getCurrentSize(), 0, 0, 0, pool.getCurrentSize());
+  }
+
+  /** @return the name of the pool. */
+  public String getName() {
+    return mName;
+  }
+
+  /** @return the max number of objects the pool was allowed to hold. */
+  public int getMaxSize() {
+    return mMaxSize;
+  }
+
+  /** @return the number of objects in the pool. */
+  public int getCurrentSize() {
+    return mCurrentSize;
+  }
+
+  /** @return the number of acquire calls that were served with a pooled object. */
+  public long getHitCount() {
+    return mHitCount;
+  }
+
+  /** @return the number of acquire calls that found the pool empty. */
+  public long getMissCount() {
+    return mMissCount;
+  }
+
+  /** @return the number of objects dropped because the pool was full, shrunk or trimmed. */
+  public long getEvictionCount() {
+    return mEvictionCount;
+  }
+
+  /** @return the highest number of objects the pool held at once. */
+  public int getHighWaterMark() {
+    return mHighWaterMark;
+  }
+
+  @Override
+  public String toString() {
+    return mName
+        + " size: "
+        + mCurrentSize
+        + "/"
+        + mMaxSize
+        + ", hits: "
+        + mHitCount
+        + ", misses: "
+        + mMissCount
+        + ", evictions: "
+        + mEvictionCount
+        + ", high-water mark: "
+        + mHighWaterMark;
+  }
+}
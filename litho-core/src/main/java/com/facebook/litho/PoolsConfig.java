@@ -47,4 +47,11 @@ public class PoolsConfig {
 
   /** Factory to create custom InternalNodes for Components. */
   @Nullable public static volatile InternalNodeFactory sInternalNodeFactory = null;
+
+  /**
+   * Policy used to grow and shrink the pools at runtime from their hit, miss and eviction counts.
+   * When null, pools keep the size they were created with and are only trimmed on memory pressure
+   * with a {@link DefaultPoolSizingPolicy}.
+   */
+  @Nullable public static volatile PoolSizingPolicy sPoolSizingPolicy = null;
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.facebook.litho;
+
+import android.support.annotation.GuardedBy;
+import com.facebook.litho.LayoutPriorityThreadPoolExecutor.ComparableFutureTask;
+import com.facebook.litho.LayoutState.CalculateLayoutSource;
+import com.facebook.litho.config.LayoutThreadPoolConfiguration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * LayoutHandler implementation that schedules layout calculations of all its instances sharing a
+ * pool configuration on a single {@link LayoutPriorityThreadPoolExecutor}. Tasks are ranked first
+ * by the layout priority of the handler that posted them, which is meant to be the distance of the
+ * {@link ComponentTree} from the viewport, and then by the {@link CalculateLayoutSource} of the
+ * calculation. Changing the layout priority re-ranks the tasks of this handler that are still
+ * waiting to run.
+ */
+public class PriorityLayoutHandler implements LayoutHandler {
+
+  /** Layout priority for trees that are in the viewport. Lower values run first. */
+  public static final int PRIORITY_VISIBLE = 0;
+
+  private static final int SOURCE_RANK_COUNT = 4;
+
+  @GuardedBy("PriorityLayoutHandler.class")
+  private static final Map<String, LayoutPriorityThreadPoolExecutor> sExecutors = new HashMap<>();
+
+  private final LayoutPriorityThreadPoolExecutor mExecutor;
+
+  @GuardedBy("this")
+  private final Map<Runnable, PendingLayoutTask> mPendingTasks = new HashMap<>();
+
+  @GuardedBy("this")
+  private int mLayoutPriority = PRIORITY_VISIBLE;
+
+  public PriorityLayoutHandler(LayoutThreadPoolConfiguration configuration) {
+    mExecutor = getExecutor(configuration);
+  }
+
+  private static synchronized LayoutPriorityThreadPoolExecutor getExecutor(
+      LayoutThreadPoolConfiguration configuration) {
+    final String key =
+        configuration.getCorePoolSize()
+            + "/"
+            + configuration.getMaxPoolSize()
+            + "/"
+            + configuration.getThreadPriority();
+
+    LayoutPriorityThreadPoolExecutor executor = sExecutors.get(key);
+    if (executor == null) {
+      executor =
+          new LayoutPriorityThreadPoolExecutor(
+              configuration.getCorePoolSize(),
+              configuration.getMaxPoolSize(),
+              configuration.getThreadPriority());
+      sExecutors.put(key, executor);
+    }
+
+    return executor;
+  }
+
+  @Override
+  public boolean post(Runnable runnable) {
+    return post(runnable, CalculateLayoutSource.NONE);
+  }
+
+  /**
+   * Posts a layout calculation which will be ranked using the current layout priority of this
+   * handler and the given source.
+   */
+  public synchronized boolean post(Runnable runnable, @CalculateLayoutSource int source) {
+    removeCallbacks(runnable);
+
+    final PendingLayoutTask task = new PendingLayoutTask(runnable, source, mLayoutPriority);
+    mPendingTasks.put(runnable, task);
+    try {
+      mExecutor.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      mPendingTasks.remove(runnable);
+      throw new RuntimeException("Cannot execute layout calculation task; " + e);
+    }
+  }
+
+  /**
+   * Updates the layout priority of this handler, e.g. when the viewport moves. Tasks that have been
+   * posted but didn't start yet are re-queued with the new priority.
+   */
+  public synchronized void setLayoutPriority(int layoutPriority) {
+    if (mLayoutPriority == layoutPriority) {
+      return;
+    }
+
+    mLayoutPriority = layoutPriority;
+    if (mPendingTasks.isEmpty()) {
+      return;
+    }
+
+    final PendingLayoutTask[] tasks =
+        mPendingTasks.values().toArray(new PendingLayoutTask[mPendingTasks.size()]);
+    for (PendingLayoutTask task : tasks) {
+      if (mExecutor.remove(task)) {
+        final PendingLayoutTask reprioritizedTask =
+            new PendingLayoutTask(task.mRunnable, task.mSource, layoutPriority);
+        mPendingTasks.put(task.mRunnable, reprioritizedTask);
+        mExecutor.execute(reprioritizedTask);
+      }
+    }
+  }
+
+  public synchronized int getLayoutPriority() {
+    return mLayoutPriority;
+  }
+
+  @Override
+  public synchronized void removeCallbacks(Runnable runnable) {
+    final PendingLayoutTask task = mPendingTasks.remove(runnable);
+    if (task != null) {
+      mExecutor.remove(task);
+    }
+  }
+
+  @Override
+  public void removeCallbacksAndMessages(Object token) {
+    throw new RuntimeException("Operation not supported");
+  }
+
+  private synchronized void onTaskStarted(PendingLayoutTask task) {
+    if (mPendingTasks.get(task.mRunnable) == task) {
+      mPendingTasks.remove(task.mRunnable);
+    }
+  }
+
+  /**
+   * Visible trees come first, then trees closer to the viewport. Among trees at the same distance,
+   * state updates come before size changes, which come before new roots.
+   */
+  static int computeTaskPriority(int layoutPriority, @CalculateLayoutSource int source) {
+    return layoutPriority * SOURCE_RANK_COUNT + getSourceRank(source);
+  }
+
+  private static int getSourceRank(@CalculateLayoutSource int source) {
+    switch (source) {
+      case CalculateLayoutSource.UPDATE_STATE:
+        return 0;
+      case CalculateLayoutSource.SET_SIZE_SPEC:
+      case CalculateLayoutSource.MEASURE:
+        return 1;
+      case CalculateLayoutSource.SET_ROOT:
+        return 2;
+      default:
+        return 3;
+    }
+  }
+
+  private final class PendingLayoutTask extends ComparableFutureTask<Void> {
+    private final Runnable mRunnable;
+    private final @CalculateLayoutSource int mSource;
+
+    PendingLayoutTask(Runnable runnable, @CalculateLayoutSource int source, int layoutPriority) {
+      super(
+          Executors.<Void>callable(runnable, null),
+          computeTaskPriority(layoutPriority, source));
+      mRunnable = runnable;
+      mSource = source;
+    }
+
+    @Override
+    public void run() {
+      onTaskStarted(this);
+      super.run();
+    }
+
+    @Override
+    protected void done() {
+      if (isCancelled()) {
+        return;
+      }
+
+      // Don't swallow exceptions thrown while calculating the layout.
+      try {
+        get();
+      } catch (InterruptedException | CancellationException e) {
+        // Nothing to report.
+      } catch (ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+    }
+  }
+}
@@ -13,54 +13,82 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.facebook.litho;
 
-import android.support.v4.util.Pools;
+import android.support.annotation.Nullable;
 import com.facebook.infer.annotation.ThreadSafe;
+import java.util.Arrays;
 
 /**
  * Used to recycle objects in Litho. Can be configured to be either syncronized or not. A {@link
  * RecyclePool} will keep track of its own size so that it can be queried to debug pool sizes.
+ *
+ * <p>It also records how often acquire calls are served from the pool, how many objects it had to
+ * drop and the most objects it held at once, see {@link #getStats()}. If a {@link
+ * PoolSizingPolicy} is set in {@link PoolsConfig#sPoolSizingPolicy}, the max size of the pool is
+ * adjusted from these numbers every {@link #SIZING_WINDOW} acquire calls.
  */
 @ThreadSafe(enableChecks = false)
 public class RecyclePool<T> implements PoolWithDebugInfo {
+
+  /** Number of acquire calls between two evaluations of the {@link PoolSizingPolicy}. */
+  static final int SIZING_WINDOW = 64;
+
+  private static final int MIN_STORAGE_SIZE = 4;
+
   private final String mName;
-  private final int mMaxSize;
+  private final int mInitialMaxSize;
   private final boolean mIsSync;
-  private final Pools.Pool<T> mPool;
+  @Nullable private Object[] mItems;
+  private int mMaxSize;
   private int mCurrentSize = 0;
 
+  private long mHitCount;
+  private long mMissCount;
+  private long mEvictionCount;
+  private int mHighWaterMark;
+
+  private int mWindowHitCount;
+  private int mWindowMissCount;
+  private int mWindowEvictionCount;
+  private int mWindowHighWaterMark;
+
   public RecyclePool(String name, int maxSize, boolean sync) {
     mIsSync = sync;
     mName = name;
+    mInitialMaxSize = maxSize;
     mMaxSize = maxSize;
-    mPool = sync ? new Pools.SynchronizedPool<T>(maxSize) : new Pools.SimplePool<T>(maxSize);
+    mItems = new Object[Math.min(maxSize, MIN_STORAGE_SIZE)];
+  }
+
+  /**
+   * Constructor for subclasses that keep the pooled items in their own storage. They have to
+   * override all the methods that access the pool, its size or its stats.
+   */
+  protected RecyclePool(String name, int maxSize) {
+    mIsSync = false;
+    mName = name;
+    mInitialMaxSize = maxSize;
+    mMaxSize = maxSize;
+    mItems = null;
   }
 
   public T acquire() {
-    T item;
     if (mIsSync) {
       synchronized (this) {
-        item = mPool.acquire();
-        mCurrentSize = Math.max(0, mCurrentSize - 1);
+        return acquireInternal();
       }
-    } else {
-      item = mPool.acquire();
-      mCurrentSize = Math.max(0, mCurrentSize - 1);
     }
-    return item;
+    return acquireInternal();
   }
 
   public void release(T item) {
     if (mIsSync) {
       synchronized (this) {
-        mPool.release(item);
-        mCurrentSize = Math.min(mMaxSize, mCurrentSize + 1);
+        releaseInternal(item);
       }
     } else {
-      mPool.release(item);
-      mCurrentSize = Math.min(mMaxSize, mCurrentSize + 1);
+      releaseInternal(item);
     }
   }
 
@@ -86,14 +114,134 @@ public class RecyclePool<T> implements PoolWithDebugInfo {
   public void clear() {
     if (mIsSync) {
       synchronized (this) {
-        while (acquire() != null) {
-          // no-op.
-        }
+        trimToSize(0, false);
+      }
+    } else {
+      trimToSize(0, false);
+    }
+  }
+
+  /** @return a snapshot of the usage of this pool since it was created. */
+  public PoolStats getStats() {
+    if (mIsSync) {
+      synchronized (this) {
+        return getStatsInternal();
+      }
+    }
+    return getStatsInternal();
+  }
+
+  /**
+   * Drops pooled objects according to the {@link PoolSizingPolicy} in reaction to memory pressure.
+   *
+   * @param trimLevel one of the {@link android.content.ComponentCallbacks2} TRIM_MEMORY_* levels.
+   */
+  public void trim(int trimLevel, PoolSizingPolicy policy) {
+    if (mIsSync) {
+      synchronized (this) {
+        trimToSize(policy.computeSizeAfterTrim(trimLevel, mCurrentSize), true);
       }
     } else {
-      while (acquire() != null) {
-        // no-op.
+      trimToSize(policy.computeSizeAfterTrim(trimLevel, mCurrentSize), true);
+    }
+  }
+
+  /** @return the max size this pool was created with. */
+  protected int getInitialMaxSize() {
+    return mInitialMaxSize;
+  }
+
+  private T acquireInternal() {
+    final T item;
+    if (mCurrentSize > 0) {
+      mCurrentSize--;
+      item = (T) mItems[mCurrentSize];
+      mItems[mCurrentSize] = null;
+      mHitCount++;
+      mWindowHitCount++;
+    } else {
+      item = null;
+      mMissCount++;
+      mWindowMissCount++;
+    }
+
+    if (mWindowHitCount + mWindowMissCount >= SIZING_WINDOW) {
+      evaluateMaxSize();
+    }
+
+    return item;
+  }
+
+  private void releaseInternal(T item) {
+    for (int i = 0; i < mCurrentSize; i++) {
+      if (mItems[i] == item) {
+        throw new IllegalStateException("Already in the pool!");
+      }
+    }
+
+    if (mCurrentSize >= mMaxSize) {
+      mEvictionCount++;
+      mWindowEvictionCount++;
+      return;
+    }
+
+    if (mCurrentSize == mItems.length) {
+      mItems =
+          Arrays.copyOf(mItems, Math.min(mMaxSize, Math.max(MIN_STORAGE_SIZE, mItems.length * 2)));
+    }
+    mItems[mCurrentSize++] = item;
+
+    mHighWaterMark = Math.max(mHighWaterMark, mCurrentSize);
+    mWindowHighWaterMark = Math.max(mWindowHighWaterMark, mCurrentSize);
+  }
+
+  private void evaluateMaxSize() {
+    final PoolSizingPolicy policy = PoolsConfig.sPoolSizingPolicy;
+    if (policy != null) {
+      final PoolStats windowStats =
+          new PoolStats(
+              mName,
+              mMaxSize,
+              mCurrentSize,
+              mWindowHitCount,
+              mWindowMissCount,
+              mWindowEvictionCount,
+              mWindowHighWaterMark);
+      mMaxSize = Math.max(0, policy.computeMaxSize(mInitialMaxSize, mMaxSize, windowStats));
+      trimToSize(mMaxSize, true);
+    }
+
+    mWindowHitCount = 0;
+    mWindowMissCount = 0;
+    mWindowEvictionCount = 0;
+    mWindowHighWaterMark = mCurrentSize;
+  }
+
+  private void trimToSize(int size, boolean isEviction) {
+    while (mCurrentSize > size) {
+      mCurrentSize--;
+      mItems[mCurrentSize] = null;
+      if (isEviction) {
+        mEvictionCount++;
+        mWindowEvictionCount++;
       }
     }
+
+    // Give back the storage of a pool that shrunk a lot.
+    final int storageSize = Math.max(Math.min(mMaxSize, MIN_STORAGE_SIZE), mCurrentSize);
+    if (mItems.length > 2 * storageSize && mItems.length > MIN_STORAGE_SIZE) {
+      mItems = Arrays.copyOf(mItems, storageSize);
+    }
+  }
+
+  private PoolStats getStatsInternal() {
+    return new PoolStats(
+        mName,
+        mMaxSize,
+        mCurrentSize,
+        mHitCount,
+        mMissCount,
+        mEvictionCount,
+        mHighWaterMark);
   }
 }
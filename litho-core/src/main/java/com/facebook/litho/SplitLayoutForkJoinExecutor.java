@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.facebook.litho;
+
+import static com.facebook.litho.ComponentContext.NULL_LAYOUT;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Looper;
+import android.os.Process;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves the children layouts of split components on a work-stealing {@link ForkJoinPool}.
+ *
+ * <p>A thread that is already one of the pool's workers forks the children layouts and helps
+ * executing them while joining, so children can split their own children recursively without
+ * blocking a worker. Any other thread hands the children to the pool but takes back, and runs
+ * itself, every child layout that no worker has started yet.
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+class SplitLayoutForkJoinExecutor {
+
+  private final ForkJoinPool mPool;
+  private final int mMinChildrenToSplit;
+
+  SplitLayoutForkJoinExecutor(int parallelism, int threadPriority, int minChildrenToSplit) {
+    mPool =
+        new ForkJoinPool(
+            parallelism, new LayoutForkJoinWorkerThreadFactory(threadPriority), null, false);
+    mMinChildrenToSplit = minChildrenToSplit;
+  }
+
+  /** @return false if there are too few children for splitting to be worth it. */
+  boolean resolveLayouts(List<Component> children, InternalNode node) {
+    final int size = children.size();
+    if (size < mMinChildrenToSplit) {
+      return false;
+    }
+
+    final ComponentContext c = node.getContext();
+    final InternalNode[] results = new InternalNode[size];
+    final ChildLayoutTask[] tasks = new ChildLayoutTask[size];
+    for (int i = 0; i < size; i++) {
+      tasks[i] = new ChildLayoutTask(c, children.get(i), results, i);
+    }
+
+    if (isPoolWorkerThread()) {
+      ForkJoinTask.invokeAll(tasks);
+    } else {
+      for (int i = 1; i < size; i++) {
+        mPool.execute(tasks[i]);
+      }
+
+      // Run on this thread every layout that no worker has picked up yet, so that we're not idle
+      // while waiting for the pool.
+      for (int i = 0; i < size; i++) {
+        tasks[i].runIfNotClaimed();
+      }
+
+      for (int i = 0; i < size; i++) {
+        if (!tasks[i].isRunInline()) {
+          tasks[i].join();
+        }
+      }
+    }
+
+    // After all tasks have been executed, add the children layouts to the InternalNode.
+    for (int i = 0; i < size; i++) {
+      node.child(results[i]);
+    }
+
+    return true;
+  }
+
+  private boolean isPoolWorkerThread() {
+    final Thread thread = Thread.currentThread();
+    return thread instanceof ForkJoinWorkerThread
+        && ((ForkJoinWorkerThread) thread).getPool() == mPool;
+  }
+
+  private static class ChildLayoutTask extends RecursiveAction {
+    private final ComponentContext mContext;
+    private final Component mChild;
+    private final InternalNode[] mResults;
+    private final int mIndex;
+    private final AtomicBoolean mClaimed = new AtomicBoolean(false);
+    private boolean mRunInline;
+
+    ChildLayoutTask(ComponentContext c, Component child, InternalNode[] results, int index) {
+      mContext = c;
+      mChild = child;
+      mResults = results;
+      mIndex = index;
+    }
+
+    @Override
+    protected void compute() {
+      if (mClaimed.compareAndSet(false, true)) {
+        resolveChildLayout();
+      }
+    }
+
+    /** Runs the layout on the calling thread, unless a pool worker already started it. */
+    void runIfNotClaimed() {
+      if (mClaimed.compareAndSet(false, true)) {
+        mRunInline = true;
+        resolveChildLayout();
+      }
+    }
+
+    boolean isRunInline() {
+      return mRunInline;
+    }
+
+    private void resolveChildLayout() {
+      mResults[mIndex] = mChild != null ? Layout.create(mContext, mChild) : NULL_LAYOUT;
+    }
+  }
+
+  private static class LayoutForkJoinWorkerThreadFactory
+      implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    private final int mThreadPriority;
+
+    LayoutForkJoinWorkerThreadFactory(int threadPriority) {
+      mThreadPriority = threadPriority;
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+      return new LayoutForkJoinWorkerThread(pool, mThreadPriority);
+    }
+  }
+
+  private static class LayoutForkJoinWorkerThread extends ForkJoinWorkerThread {
+    private final int mThreadPriority;
+
+    LayoutForkJoinWorkerThread(ForkJoinPool pool, int threadPriority) {
+      super(pool);
+      mThreadPriority = threadPriority;
+      setName("ComponentSplitLayoutThread-" + getPoolIndex());
+    }
+
+    @Override
+    protected void onStart() {
+      super.onStart();
+      if (Looper.myLooper() == null) {
+        Looper.prepare();
+      }
+
+      try {
+        Process.setThreadPriority(mThreadPriority);
+      } catch (SecurityException e) {
+        // Some applications can not raise the priority this high, try a lower one instead.
+        Process.setThreadPriority(mThreadPriority + 1);
+      }
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.facebook.litho;
 
 import static com.facebook.litho.ComponentContext.NULL_LAYOUT;
 
+import android.os.Build;
 import android.os.Looper;
 import android.support.annotation.GuardedBy;
 import android.support.annotation.VisibleForTesting;
@@ -43,6 +44,7 @@ public class SplitLayoutResolver {
   private final Set<String> mEnabledComponents = new LinkedHashSet<>();
   private @Nullable ExecutorCompletionService mainService;
   private @Nullable ExecutorCompletionService bgService;
+  private @Nullable SplitLayoutForkJoinExecutor mForkJoinExecutor;
 
   /**
    * Create a SplitLayoutResolver that will be used to split layout where possible in ComponentTrees
@@ -66,6 +68,36 @@ public class SplitLayoutResolver {
         tag, new SplitLayoutResolver(mainThreadPoolConfig, bgThreadPoolConfig, enabledComponents));
   }
 
+  /**
+   * Create a SplitLayoutResolver that will be used to split layout where possible in ComponentTrees
+   * with the given split tag, using a single work-stealing pool for layouts started from any
+   * thread. The calling thread takes part in the work and children layouts can split again on the
+   * pool, which is not possible with the fixed thread pools. Split is not supported before
+   * Lollipop. If a configuration already exists for the same split tag, it uses that one.
+   *
+   * @param tag split tag
+   * @param parallelism number of threads in the pool
+   * @param threadPriority priority of the threads in the pool
+   * @param minChildrenToSplit components with fewer children than this are laid out inline
+   */
+  public static synchronized void createForkJoinForTag(
+      String tag,
+      int parallelism,
+      int threadPriority,
+      int minChildrenToSplit,
+      Set<String> enabledComponents) {
+    if (sSplitLayoutResolvers.containsKey(tag)) {
+      return;
+    }
+
+    final SplitLayoutResolver resolver = new SplitLayoutResolver(null, null, enabledComponents);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+      resolver.mForkJoinExecutor =
+          new SplitLayoutForkJoinExecutor(parallelism, threadPriority, minChildrenToSplit);
+    }
+    sSplitLayoutResolvers.put(tag, resolver);
+  }
+
   private SplitLayoutResolver(
       @Nullable LayoutThreadPoolConfiguration mainThreadPoolConfig,
       @Nullable LayoutThreadPoolConfiguration bgThreadPoolConfig,
@@ -111,6 +143,10 @@ public class SplitLayoutResolver {
       return false;
     }
 
+    if (resolver.mForkJoinExecutor != null) {
+      return resolver.mForkJoinExecutor.resolveLayouts(children, node);
+    }
+
     final ExecutorCompletionService service =
         ThreadUtils.isMainThread() ? resolver.mainService : resolver.bgService;
 
@@ -159,6 +195,10 @@ public class SplitLayoutResolver {
   }
 
   private boolean canSplitLayoutOnCurrentThread() {
+    if (mForkJoinExecutor != null) {
+      return true;
+    }
+
     return ThreadUtils.isMainThread() ? mainService != null : bgService != null;
   }
 
@@ -184,6 +184,36 @@ public class StateHandler {
     }
   }
 
+  /**
+   * Marks the state of a component that was carried over from a previous layout without going
+   * through {@link #applyStateUpdatesForComponent(Component)} as still in use, so that it is kept
+   * when this handler is committed.
+   *
+   * @param key the global key of the component
+   */
+  synchronized void keepStateContainer(String key) {
+    maybeInitNeededStateContainers();
+    mNeededStateContainers.add(key);
+  }
+
+  /**
+   * @return whether there are state updates pending for the component with the given global key
+   *     or for any of its descendants.
+   */
+  synchronized boolean hasPendingUpdatesWithKeyPrefix(String globalKeyPrefix) {
+    if (mPendingStateUpdates == null) {
+      return false;
+    }
+
+    for (String key : mPendingStateUpdates.keySet()) {
+      if (key.startsWith(globalKeyPrefix)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   /**
    * Removes a list of state updates that have been applied from the pending state updates list and
    *  updates the map of current components with the given components.
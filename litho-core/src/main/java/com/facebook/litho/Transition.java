@@ -329,6 +329,10 @@ public abstract class Transition {
       return mDisappearTo;
     }
 
+    TransitionAnimator getTransitionAnimator() {
+      return mTransitionAnimator;
+    }
+
     AnimationBinding createAnimation(PropertyHandle propertyHandle, float targetValue) {
       final PropertyAnimation propertyAnimation =
           new PropertyAnimation(propertyHandle, targetValue);
@@ -25,6 +25,8 @@ import android.text.TextUtils;
 import android.util.Log;
 import android.view.View;
 import android.view.ViewParent;
+import com.facebook.litho.Transition.SpringTransitionAnimator;
+import com.facebook.litho.Transition.TimingTransitionAnimator;
 import com.facebook.litho.Transition.TransitionUnit;
 import com.facebook.litho.animation.AnimatedProperties;
 import com.facebook.litho.animation.AnimatedProperty;
@@ -34,7 +36,10 @@ import com.facebook.litho.animation.AnimationBindingListener;
 import com.facebook.litho.animation.ParallelBinding;
 import com.facebook.litho.animation.PropertyAnimation;
 import com.facebook.litho.animation.PropertyHandle;
+import com.facebook.litho.animation.RenderThreadTransition;
 import com.facebook.litho.animation.Resolver;
+import com.facebook.litho.animation.SpringInterpolator;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.internal.ArraySet;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -653,7 +658,9 @@ public class TransitionManager {
       Log.d(AnimationsDebug.TAG, " - created animation");
     }
 
-    final AnimationBinding animation = transition.createAnimation(propertyHandle, endValue);
+    final boolean interruptsAnimation = existingState != null && existingState.animation != null;
+    final AnimationBinding animation =
+        createAnimation(transition, propertyHandle, startValue, endValue, interruptsAnimation);
     animation.addListener(mAnimationBindingListener);
 
     PropertyState propertyState = existingState;
@@ -682,6 +689,91 @@ public class TransitionManager {
     return animation;
   }
 
+  /**
+   * Creates the animation of the given property. With {@link
+   * ComponentsConfiguration#useRenderThreadTransitions}, timing and spring transitions are compiled
+   * into {@link RenderThreadTransition}s when possible, otherwise the animation created by the
+   * {@link TransitionUnit} runs on the {@link com.facebook.litho.dataflow.DataFlowGraph}.
+   */
+  private static AnimationBinding createAnimation(
+      TransitionUnit transition,
+      PropertyHandle propertyHandle,
+      float startValue,
+      float endValue,
+      boolean interruptsAnimation) {
+    if (ComponentsConfiguration.useRenderThreadTransitions) {
+      final AnimationBinding renderThreadAnimation =
+          maybeCreateRenderThreadAnimation(
+              transition, propertyHandle, startValue, endValue, interruptsAnimation);
+      if (renderThreadAnimation != null) {
+        return renderThreadAnimation;
+      }
+    }
+
+    return transition.createAnimation(propertyHandle, endValue);
+  }
+
+  @Nullable
+  private static AnimationBinding maybeCreateRenderThreadAnimation(
+      TransitionUnit transition,
+      PropertyHandle propertyHandle,
+      float startValue,
+      float endValue,
+      boolean interruptsAnimation) {
+    final Transition.TransitionAnimator animator = transition.getTransitionAnimator();
+    // Only compile the animators we know the animations of, subclasses may create their own.
+    final Class<?> animatorClass = animator.getClass();
+    if (animatorClass != TimingTransitionAnimator.class
+        && animatorClass != SpringTransitionAnimator.class) {
+      return null;
+    }
+
+    // Below Lollipop there are no RenderThread animators, keep the animation on the graph.
+    if (!RenderThreadTransition.canUseRenderThread()) {
+      RenderThreadTransition.reportFallback(
+          propertyHandle, RenderThreadTransition.FALLBACK_UNSUPPORTED_API_LEVEL);
+      return null;
+    }
+
+    if (!RenderThreadTransition.canAnimateOnRenderThread(propertyHandle.getProperty())) {
+      RenderThreadTransition.reportFallback(
+          propertyHandle, RenderThreadTransition.FALLBACK_UNSUPPORTED_PROPERTY);
+      return null;
+    }
+
+    final PropertyAnimation propertyAnimation = new PropertyAnimation(propertyHandle, endValue);
+    if (animatorClass == TimingTransitionAnimator.class) {
+      final TimingTransitionAnimator timingAnimator = (TimingTransitionAnimator) animator;
+      if (timingAnimator.mDurationMs <= 0 || timingAnimator.mInterpolator == null) {
+        RenderThreadTransition.reportFallback(
+            propertyHandle, RenderThreadTransition.FALLBACK_INVALID_TIMING);
+        return null;
+      }
+      return new RenderThreadTransition(
+          propertyAnimation, 0, timingAnimator.mDurationMs, timingAnimator.mInterpolator);
+    }
+
+    // The replayed spring starts at rest, a running animation would lose its momentum.
+    if (interruptsAnimation) {
+      RenderThreadTransition.reportFallback(
+          propertyHandle, RenderThreadTransition.FALLBACK_INTERRUPTED_SPRING);
+      return null;
+    }
+
+    // The spring is simulated up front and replayed by the RenderThread animator.
+    final SpringInterpolator springInterpolator =
+        SpringInterpolator.create(
+            ((SpringTransitionAnimator) animator).mSpringConfig,
+            Math.abs(endValue - startValue));
+    if (springInterpolator == null) {
+      RenderThreadTransition.reportFallback(
+          propertyHandle, RenderThreadTransition.FALLBACK_SPRING_NOT_SETTLING);
+      return null;
+    }
+    return new RenderThreadTransition(
+        propertyAnimation, 0, springInterpolator.getDurationMs(), springInterpolator);
+  }
+
   private void restoreInitialStates() {
     for (PropertyHandle propertyHandle : mInitialStatesToRestore.keySet()) {
       final float value = mInitialStatesToRestore.get(propertyHandle);
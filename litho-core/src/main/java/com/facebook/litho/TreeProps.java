@@ -70,6 +70,25 @@ public class TreeProps {
     return newProps;
   }
 
+  /**
+   * @return whether both instances hold the same values. An empty instance is considered
+   *     equivalent to a null one.
+   */
+  public static boolean isEquivalent(
+      @Nullable TreeProps treeProps, @Nullable TreeProps otherTreeProps) {
+    if (treeProps == otherTreeProps) {
+      return true;
+    }
+    if (treeProps == null) {
+      return otherTreeProps.mMap.isEmpty();
+    }
+    if (otherTreeProps == null) {
+      return treeProps.mMap.isEmpty();
+    }
+
+    return treeProps.mMap.equals(otherTreeProps.mMap);
+  }
+
   void reset() {
     mMap.clear();
   }
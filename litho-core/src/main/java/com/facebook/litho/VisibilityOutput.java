@@ -27,6 +27,7 @@ import android.support.annotation.Nullable;
 class VisibilityOutput {
 
   private long mId;
+  private int mIndex;
   private Component mComponent;
   private final Rect mBounds = new Rect();
   private float mVisibleHeightRatio;
@@ -46,6 +47,15 @@ class VisibilityOutput {
     mId = id;
   }
 
+  /** @return the position of this output in the layout order of its {@link LayoutState}. */
+  int getIndex() {
+    return mIndex;
+  }
+
+  void setIndex(int index) {
+    mIndex = index;
+  }
+
   Component getComponent() {
     return mComponent;
   }
@@ -134,6 +144,7 @@ class VisibilityOutput {
   }
 
   void release() {
+    mIndex = 0;
     mVisibleHeightRatio = 0;
     mVisibleWidthRatio = 0;
     mComponent = null;
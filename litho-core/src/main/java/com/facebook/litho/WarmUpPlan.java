@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.graphics.drawable.Drawable;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.Layout;
+import com.facebook.infer.annotation.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The text {@link Layout}s and {@link Drawable}s a {@link LayoutState} is going to draw, collected
+ * while the LayoutState is calculated so that a {@link Warmer} can warm up their glyphs and
+ * textures in the background before the first draw.
+ *
+ * <p>MountSpecs add their content from {@code @OnBoundsDefined} with {@link #addTextLayout} and
+ * {@link #addDrawable}. Those calls are no-ops unless the ComponentTree being calculated has a
+ * {@link Warmer}, see {@link ComponentTree.Builder#warmer}. Entries are ordered by their distance
+ * from the top left corner of the root, which is the part of a scrolling item that enters the
+ * viewport first.
+ *
+ * <p>A plan is cancelled once its LayoutState is released, and warmers are expected to stop
+ * processing it.
+ */
+@ThreadSafe
+public final class WarmUpPlan {
+
+  /** Warms up the content of the plans of the LayoutStates a ComponentTree commits. */
+  public interface Warmer {
+
+    /** Called on the thread that calculated the LayoutState, once it has been committed. */
+    void warmUp(WarmUpPlan plan);
+  }
+
+  /** A {@link Layout} or {@link Drawable} to warm up, with the size it will be drawn at. */
+  public static final class Entry {
+
+    private final Object mContent;
+    private final int mWidth;
+    private final int mHeight;
+    private final int mDistance;
+
+    private Entry(Object content, int width, int height, int distance) {
+      mContent = content;
+      mWidth = width;
+      mHeight = height;
+      mDistance = distance;
+    }
+
+    /** @return either a {@link Layout} or a {@link Drawable}. */
+    public Object getContent() {
+      return mContent;
+    }
+
+    public int getWidth() {
+      return mWidth;
+    }
+
+    public int getHeight() {
+      return mHeight;
+    }
+  }
+
+  private static final ThreadLocal<WarmUpPlan> sCollectingPlan = new ThreadLocal<>();
+
+  private static final Comparator<Entry> sDistanceComparator =
+      new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+          return lhs.mDistance < rhs.mDistance ? -1 : (lhs.mDistance == rhs.mDistance ? 0 : 1);
+        }
+      };
+
+  private final List<Entry> mEntries = new ArrayList<>();
+  private int mCurrentLeft;
+  private int mCurrentTop;
+  private volatile boolean mIsCancelled;
+
+  /**
+   * Adds a text {@link Layout} to the plan of the LayoutState being calculated on this thread, if
+   * any. Call this from {@code @OnBoundsDefined}.
+   */
+  public static void addTextLayout(Layout layout) {
+    final WarmUpPlan plan = sCollectingPlan.get();
+    if (plan != null) {
+      plan.add(layout, layout.getWidth(), layout.getHeight());
+    }
+  }
+
+  /**
+   * Adds a {@link Drawable} that will be drawn at the given size to the plan of the LayoutState
+   * being calculated on this thread, if any. Call this from {@code @OnBoundsDefined}, and only for
+   * drawables that are safe to draw from a background thread.
+   */
+  public static void addDrawable(Drawable drawable, int width, int height) {
+    final WarmUpPlan plan = sCollectingPlan.get();
+    if (plan != null && width > 0 && height > 0) {
+      plan.add(drawable, width, height);
+    }
+  }
+
+  /**
+   * Makes the given plan the target of {@link #addTextLayout} and {@link #addDrawable} on this
+   * thread. Nested calculations pass null so that their content doesn't leak into the outer plan.
+   *
+   * @return the previous plan, to be restored with {@link #endCollecting}.
+   */
+  @VisibleForTesting
+  public static @Nullable WarmUpPlan beginCollecting(@Nullable WarmUpPlan plan) {
+    final WarmUpPlan previous = sCollectingPlan.get();
+    sCollectingPlan.set(plan);
+    return previous;
+  }
+
+  @VisibleForTesting
+  public static void endCollecting(@Nullable WarmUpPlan previous) {
+    sCollectingPlan.set(previous);
+  }
+
+  /** Sets the position, relative to the root, of the content added next. */
+  void setCurrentPosition(int left, int top) {
+    mCurrentLeft = left;
+    mCurrentTop = top;
+  }
+
+  void sortByDistance() {
+    Collections.sort(mEntries, sDistanceComparator);
+  }
+
+  private void add(Object content, int width, int height) {
+    mEntries.add(
+        new Entry(content, width, height, Math.max(mCurrentLeft, 0) + Math.max(mCurrentTop, 0)));
+  }
+
+  public int size() {
+    return mEntries.size();
+  }
+
+  public Entry get(int index) {
+    return mEntries.get(index);
+  }
+
+  /** Stops warmers from processing this plan any further. */
+  public void cancel() {
+    mIsCancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return mIsCancelled;
+  }
+}
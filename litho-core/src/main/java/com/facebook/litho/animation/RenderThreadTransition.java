@@ -40,15 +40,44 @@ import javax.annotation.Nullable;
  * the animation, and will be applied by creating an adjusted interpolator (you may consider using
  * {@link Transition#delay(int, Transition)} ()} instead, but this way the delay will be handled on
  * the UI thread)
+ *
+ * <p>If the content can't be animated on the render thread once the transition starts, the shadow
+ * animation takes over and drives the content on the UI thread, and the fallback is reported to the
+ * {@link FallbackListener} set with {@link #setFallbackListener(FallbackListener)}.
  */
 public class RenderThreadTransition extends TransitionAnimationBinding {
   private static final String TAG = "RenderThreadTransition";
 
+  /** The animated property can't be animated on the render thread. */
+  public static final String FALLBACK_UNSUPPORTED_PROPERTY = "unsupported_property";
+  /** The spring doesn't come to rest in time to be replayed by a timing animator. */
+  public static final String FALLBACK_SPRING_NOT_SETTLING = "spring_not_settling";
+  /** The spring would interrupt a running animation, whose velocity it can't carry over. */
+  public static final String FALLBACK_INTERRUPTED_SPRING = "interrupted_spring";
+  /** The timing transition has no positive duration or no interpolator. */
+  public static final String FALLBACK_INVALID_TIMING = "invalid_timing";
+  /** The mount content isn't a single View when the transition starts. */
+  public static final String FALLBACK_NO_TARGET_VIEW = "no_target_view";
+  /** The device runs a version of Android without RenderThread animators. */
+  public static final String FALLBACK_UNSUPPORTED_API_LEVEL = "unsupported_api_level";
+
+  /** Gets notified when an animation falls back from the render thread to the UI thread. */
+  public interface FallbackListener {
+
+    /**
+     * @param propertyHandle the property that is animated on the UI thread instead.
+     * @param reason one of the {@code FALLBACK_*} constants of {@link RenderThreadTransition}.
+     */
+    void onRenderThreadFallback(PropertyHandle propertyHandle, String reason);
+  }
+
+  private static @Nullable volatile FallbackListener sFallbackListener;
+
   private final int mDurationMs;
   private final PropertyAnimation mPropertyAnimation;
   private final @Nullable TimeInterpolator mInterpolator;
   private AnimatedPropertyNode mAnimatedPropertyNode;
-  private @Nullable Animator mRunningAnimator;
+  private @Nullable Animator[] mRunningAnimators;
 
   public RenderThreadTransition(
       PropertyAnimation propertyAnimation,
@@ -124,47 +153,106 @@ public class RenderThreadTransition extends TransitionAnimationBinding {
     }
 
     if (target == null) {
-      Log.e(
-          TAG,
-          "Couldn't resolve target for RT animation. Most possible reasons:\n"
-              + "\t1) the components is not wrapped in view, please consider calling .wrapInView()\n"
-              + "\t2) incremental mount is enabled and the view is out of screen at this moment");
+      if (AnimationsDebug.ENABLED) {
+        Log.d(
+            TAG,
+            "Couldn't resolve target for RT animation. Most possible reasons:\n"
+                + "\t1) the components is not wrapped in view, please consider calling "
+                + ".wrapInView()\n"
+                + "\t2) incremental mount is enabled and the view is out of screen at this "
+                + "moment");
+      }
+      // The shadow animation is already running, let it drive the content instead.
+      mAnimatedPropertyNode.setUsingRenderThread(false);
+      reportFallback(mPropertyAnimation.getPropertyHandle(), FALLBACK_NO_TARGET_VIEW);
       return;
     }
 
-    mRunningAnimator = createAnimator(target, mPropertyAnimation.getProperty(), finalValue);
-    mRunningAnimator.addListener(
+    final Animator[] animators =
+        createAnimators(target, mPropertyAnimation.getProperty(), finalValue);
+    mRunningAnimators = animators;
+    animators[0].addListener(
         new AnimatorListenerAdapter() {
           @Override
           public void onAnimationEnd(Animator animation) {
-            mRunningAnimator = null;
+            if (mRunningAnimators == animators) {
+              mRunningAnimators = null;
+            }
           }
         });
-    mRunningAnimator.setInterpolator(mInterpolator);
-    mRunningAnimator.setDuration(mDurationMs);
-    mRunningAnimator.start();
+    for (Animator animator : animators) {
+      animator.setInterpolator(mInterpolator);
+      animator.setDuration(mDurationMs);
+      animator.start();
+    }
   }
 
   @Override
   public void stop() {
     super.stop();
 
-    if (mRunningAnimator != null) {
-      mRunningAnimator.cancel();
-      mRunningAnimator = null;
+    if (mRunningAnimators != null) {
+      final Animator[] animators = mRunningAnimators;
+      mRunningAnimators = null;
+      for (Animator animator : animators) {
+        animator.cancel();
+      }
     }
 
     mAnimatedPropertyNode.setUsingRenderThread(false);
   }
 
+  /** @return whether the given property can be animated by a {@link RenderThreadTransition}. */
+  public static boolean canAnimateOnRenderThread(AnimatedProperty animatedProperty) {
+    return animatedProperty == AnimatedProperties.ALPHA
+        || animatedProperty == AnimatedProperties.X
+        || animatedProperty == AnimatedProperties.Y
+        || animatedProperty == AnimatedProperties.SCALE
+        || animatedProperty == AnimatedProperties.SCALE_X
+        || animatedProperty == AnimatedProperties.SCALE_Y
+        || animatedProperty == AnimatedProperties.ROTATION;
+  }
+
+  /**
+   * Sets the listener that gets notified about the animations that couldn't be run on the render
+   * thread and were animated on the UI thread instead.
+   */
+  public static void setFallbackListener(@Nullable FallbackListener fallbackListener) {
+    sFallbackListener = fallbackListener;
+  }
+
+  /** Reports that the animation of the given property is run on the UI thread instead. */
+  public static void reportFallback(PropertyHandle propertyHandle, String reason) {
+    if (AnimationsDebug.ENABLED) {
+      Log.d(TAG, "Falling back to the UI thread for " + propertyHandle + ", reason=" + reason);
+    }
+
+    final FallbackListener fallbackListener = sFallbackListener;
+    if (fallbackListener != null) {
+      fallbackListener.onRenderThreadFallback(propertyHandle, reason);
+    }
+  }
+
   /**
    * @return true if display lists are supported on this device and animations can be done using the
    *     RenderThread api.
    */
-  private static boolean canUseRenderThread() {
+  public static boolean canUseRenderThread() {
     return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
   }
 
+  private static Animator[] createAnimators(
+      View target, AnimatedProperty animatedProperty, float finalValue) {
+    if (animatedProperty == AnimatedProperties.SCALE) {
+      // Scale is set on both axes, which are animated separately on the render thread.
+      return new Animator[] {
+        createAnimator(target, AnimatedProperties.SCALE_X, finalValue),
+        createAnimator(target, AnimatedProperties.SCALE_Y, finalValue)
+      };
+    }
+    return new Animator[] {createAnimator(target, animatedProperty, finalValue)};
+  }
+
   private static Animator createAnimator(
       View target, AnimatedProperty animatedProperty, float finalValue) {
     if (canUseRenderThread()) {
@@ -189,6 +277,12 @@ public class RenderThreadTransition extends TransitionAnimationBinding {
     if (animatedProperty == AnimatedProperties.Y) {
       return RenderNodeAnimator.Y;
     }
+    if (animatedProperty == AnimatedProperties.SCALE_X) {
+      return RenderNodeAnimator.SCALE_X;
+    }
+    if (animatedProperty == AnimatedProperties.SCALE_Y) {
+      return RenderNodeAnimator.SCALE_Y;
+    }
     if (animatedProperty == AnimatedProperties.ROTATION) {
       return RenderNodeAnimator.ROTATION;
     }
@@ -206,6 +300,12 @@ public class RenderThreadTransition extends TransitionAnimationBinding {
     if (animatedProperty == AnimatedProperties.Y) {
       return View.Y;
     }
+    if (animatedProperty == AnimatedProperties.SCALE_X) {
+      return View.SCALE_X;
+    }
+    if (animatedProperty == AnimatedProperties.SCALE_Y) {
+      return View.SCALE_Y;
+    }
     if (animatedProperty == AnimatedProperties.ROTATION) {
       return View.ROTATION;
     }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.animation;
+
+import android.animation.TimeInterpolator;
+import com.facebook.litho.dataflow.springs.Spring;
+import com.facebook.litho.dataflow.springs.SpringConfig;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TimeInterpolator} that replays the trajectory of a {@link Spring} going from 0 to 1,
+ * sampled once per frame. This lets a spring be run by a timing based animation, such as a {@link
+ * RenderThreadTransition}, for {@link #getDurationMs()}.
+ *
+ * <p>The spring always starts at rest, so it can't pick up the velocity of an animation it
+ * interrupts the way a {@link Spring} driven on the UI thread does.
+ */
+public class SpringInterpolator implements TimeInterpolator {
+
+  /** Springs that don't come to rest within this duration are not turned into an interpolator. */
+  public static final int MAX_DURATION_MS = 3000;
+
+  private static final int FRAME_TIME_MS = 16;
+  private static final double FRAME_TIME_SEC = FRAME_TIME_MS / 1000.;
+
+  private final float[] mSamples;
+
+  private SpringInterpolator(float[] samples) {
+    mSamples = samples;
+  }
+
+  /**
+   * Simulates a spring with the given config.
+   *
+   * @param distance the absolute distance the animated value travels. The spring comes to rest with
+   *     the same precision as a {@link com.facebook.litho.dataflow.SpringNode} covering it would.
+   * @return the interpolator for this spring, or null if it doesn't come to rest within {@link
+   *     #MAX_DURATION_MS}.
+   */
+  @Nullable
+  public static SpringInterpolator create(@Nullable SpringConfig springConfig, float distance) {
+    final Spring spring = new Spring();
+    if (springConfig != null) {
+      spring.setSpringConfig(springConfig);
+    }
+    if (spring.getSpringConfig().tension <= 0) {
+      return null;
+    }
+    if (distance > 0) {
+      spring.setRestSpeedThreshold(spring.getRestSpeedThreshold() / distance);
+      spring.setRestDisplacementThreshold(spring.getRestDisplacementThreshold() / distance);
+    }
+    spring.setCurrentValue(0);
+    spring.setEndValue(1);
+
+    final int maxFrames = MAX_DURATION_MS / FRAME_TIME_MS;
+    final float[] samples = new float[maxFrames + 1];
+    int frames = 0;
+    do {
+      if (frames == maxFrames) {
+        return null;
+      }
+      spring.advance(FRAME_TIME_SEC);
+      frames++;
+      samples[frames] = (float) spring.getCurrentValue();
+    } while (!spring.isAtRest());
+
+    return new SpringInterpolator(Arrays.copyOf(samples, frames + 1));
+  }
+
+  /** @return the time it takes the spring to come to rest. */
+  public int getDurationMs() {
+    return (mSamples.length - 1) * FRAME_TIME_MS;
+  }
+
+  @Override
+  public float getInterpolation(float input) {
+    if (input <= 0) {
+      return mSamples[0];
+    }
+    final int lastIndex = mSamples.length - 1;
+    if (input >= 1) {
+      return mSamples[lastIndex];
+    }
+
+    final float position = input * lastIndex;
+    final int index = (int) position;
+    final float fraction = position - index;
+    return mSamples[index] + (mSamples[index + 1] - mSamples[index]) * fraction;
+  }
+}
@@ -104,6 +104,18 @@ public class ComponentsConfiguration {
    */
   public static boolean useGlobalKeys = true;
 
+  /**
+   * If true, global keys are derived as 64-bit rolling hashes of the type, key and index path
+   * instead of by concatenating strings. Human readable keys are then only built when {@link
+   * #isDebugModeEnabled} is set. Colliding hashes are deduplicated like duplicate keys on every
+   * layout, debug mode additionally reports them.
+   *
+   * <p>Since descendants' keys are no longer prefixed by their ancestors' ones, reusing the layouts
+   * of unchanged subtrees and the children of unchanged sections is disabled in this mode: it
+   * couldn't tell whether a state update is pending below them.
+   */
+  public static boolean useNumericGlobalKeys = false;
+
   /** If true then the new version of the YogaEdgeWithInts will be used. */
   public static boolean useNewYogaEdge = false;
 
@@ -183,6 +195,30 @@ public class ComponentsConfiguration {
   /** If true, the async range calculation isn't blocked on the first item finishing layout */
   public static boolean asyncInitRange = false;
 
+  /**
+   * Whether RecyclerBinder should spread the application of async batches to the adapter across
+   * frames using a per-frame time budget.
+   */
+  public static boolean frameBudgetedAdapterUpdates = false;
+
+  /** Whether Text should share measured text Layouts through a process-wide LRU cache. */
+  public static boolean useTextLayoutCache = false;
+
+  /** Maximum number of text Layouts kept by the shared cache, see {@link #useTextLayoutCache}. */
+  public static int textLayoutCacheSize = 200;
+
+  /**
+   * Whether the ComponentTrees of RecyclerBinder items should warm up the text and drawables of
+   * their LayoutStates on the TextureWarmer thread.
+   */
+  public static boolean warmUpLayoutStates = false;
+
+  /**
+   * Whether timing and spring transitions of properties that can be animated on the RenderThread
+   * should run there, with the UI thread only shadowing their values.
+   */
+  public static boolean useRenderThreadTransitions = false;
+
   /**
    * Whether we should diff the view info attributes when checking for mount updates. This fixes
    * issues where updates to MountSpecs are not applied when changes in common view properties do
@@ -197,4 +233,31 @@ public class ComponentsConfiguration {
    * that all of the mount items should be unmounted).
    */
   public static boolean incrementalMountWhenNotVisible = false;
+
+  /**
+   * If true, visibility events are only re-evaluated for the visibility outputs whose bounds cross
+   * the edges of the previous or current visible rect, rather than for every output on each frame.
+   */
+  public static boolean useIncrementalVisibilityHandling = false;
+
+  /**
+   * If true, the internal object pools in ComponentsPools that are shared between threads are
+   * {@link com.facebook.litho.LockFreeRecyclePool}s instead of synchronized ones. Must be set
+   * before ComponentsPools is first loaded.
+   */
+  public static boolean useLockFreeRecyclePools = false;
+
+  /**
+   * If true, mount content preallocation fills the pools of each mount view spec in bulk up to
+   * the largest number of items that layouts of the same root component needed so far, instead of
+   * preallocating one item per mountable output.
+   */
+  public static boolean preallocateMountContentFromHistograms = false;
+
+  /**
+   * If true, RecyclerBinder remembers the window of positions laid out by the last range
+   * computation and only visits the positions entering and leaving it when the viewport moves,
+   * instead of every position in the adapter.
+   */
+  public static boolean incrementalRecyclerBinderRange = false;
 }
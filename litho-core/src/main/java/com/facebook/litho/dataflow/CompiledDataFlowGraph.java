@@ -0,0 +1,384 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.dataflow;
+
+import android.support.v4.util.SimpleArrayMap;
+import com.facebook.litho.internal.ArraySet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A structure-of-arrays snapshot of the nodes of a {@link DataFlowGraph}, compiled whenever its
+ * bindings change so that each frame is a tight, allocation-free loop over primitive arrays.
+ *
+ * <p>Nodes are ordered by depth, so every node still comes after its inputs, and by type within a
+ * depth. The built-in node types are then evaluated in batches, reading their inputs from {@link
+ * #mValues} through slots resolved at compile time instead of looking them up by name. Any other
+ * node, including subclasses of the built-in ones, goes through {@link ValueNode#calculateValue}.
+ */
+final class CompiledDataFlowGraph {
+
+  static final CompiledDataFlowGraph EMPTY =
+      new CompiledDataFlowGraph(
+          new ValueNode[0],
+          new DataFlowGraph.NodeState[0],
+          new int[0],
+          new int[] {0},
+          new int[0],
+          new int[0],
+          new int[] {0});
+
+  private static final int TYPE_GENERIC = 0;
+  private static final int TYPE_CONSTANT = 1;
+  private static final int TYPE_TIMING = 2;
+  private static final int TYPE_SIMPLE = 3;
+  private static final int TYPE_INTERPOLATOR = 4;
+  private static final int TYPE_MAPPING = 5;
+  private static final int TYPE_SPRING = 6;
+  private static final int TYPE_COUNT = 7;
+
+  // Input slots reserved per node, enough for a MappingNode.
+  private static final int SLOTS_PER_NODE = 3;
+  private static final int SLOT_DEFAULT = 0;
+  private static final int SLOT_INITIAL = 1;
+  private static final int SLOT_END = 2;
+
+  private final ValueNode[] mNodes;
+  private final DataFlowGraph.NodeState[] mNodeStates;
+  private final float[] mValues;
+  private final boolean[] mIsFinished;
+  private final boolean[] mCanFinish;
+
+  // Indices into mValues of the named inputs of each node, SLOTS_PER_NODE per node.
+  private final int[] mInputSlots;
+
+  // The inputs of node i are mInputs[mInputsStart[i]] up to mInputsStart[i + 1].
+  private final int[] mInputsStart;
+  private final int[] mInputs;
+
+  // The nodes of run i all have type mRunTypes[i] and span mRunsStart[i] up to mRunsStart[i + 1].
+  private final int[] mRunTypes;
+  private final int[] mRunsStart;
+
+  private CompiledDataFlowGraph(
+      ValueNode[] nodes,
+      DataFlowGraph.NodeState[] nodeStates,
+      int[] inputSlots,
+      int[] inputsStart,
+      int[] inputs,
+      int[] runTypes,
+      int[] runsStart) {
+    mNodes = nodes;
+    mNodeStates = nodeStates;
+    mInputSlots = inputSlots;
+    mInputsStart = inputsStart;
+    mInputs = inputs;
+    mRunTypes = runTypes;
+    mRunsStart = runsStart;
+
+    final int size = nodes.length;
+    mValues = new float[size];
+    mIsFinished = new boolean[size];
+    mCanFinish = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      mValues[i] = nodes[i].getValue();
+      mIsFinished[i] = nodeStates[i].isFinished;
+      mCanFinish[i] = nodes[i] instanceof NodeCanFinish;
+    }
+  }
+
+  /**
+   * Compiles the given topologically sorted nodes, and records on each binding the indices of its
+   * nodes in the compiled graph.
+   */
+  static CompiledDataFlowGraph compile(
+      List<ValueNode> sortedNodes,
+      Map<ValueNode, DataFlowGraph.NodeState> nodeStates,
+      List<GraphBinding> bindings) {
+    final int size = sortedNodes.size();
+    if (size == 0) {
+      return EMPTY;
+    }
+
+    final SimpleArrayMap<ValueNode, Integer> sortedIndices = new SimpleArrayMap<>(size);
+    for (int i = 0; i < size; i++) {
+      sortedIndices.put(sortedNodes.get(i), i);
+    }
+
+    // Sort by depth, then type, then original position. The depth of a node is always greater
+    // than the depth of its inputs, so the result is still in dependency order.
+    final int[] depths = new int[size];
+    final int[] types = new int[size];
+    final long[] sortKeys = new long[size];
+    int inputCount = 0;
+    for (int i = 0; i < size; i++) {
+      final ValueNode node = sortedNodes.get(i);
+      int depth = 0;
+      for (ValueNode input : node.getAllInputs()) {
+        depth = Math.max(depth, depths[sortedIndices.get(input)] + 1);
+        inputCount++;
+      }
+      depths[i] = depth;
+      types[i] = getType(node);
+      sortKeys[i] = ((long) (depth * TYPE_COUNT + types[i]) << 32) | i;
+    }
+    Arrays.sort(sortKeys);
+
+    final ValueNode[] nodes = new ValueNode[size];
+    final DataFlowGraph.NodeState[] states = new DataFlowGraph.NodeState[size];
+    final int[] compiledIndices = new int[size];
+    int runCount = 0;
+    for (int i = 0; i < size; i++) {
+      final int sortedIndex = (int) sortKeys[i];
+      nodes[i] = sortedNodes.get(sortedIndex);
+      states[i] = nodeStates.get(nodes[i]);
+      compiledIndices[sortedIndex] = i;
+      if (i == 0 || types[sortedIndex] != types[(int) sortKeys[i - 1]]) {
+        runCount++;
+      }
+    }
+
+    final int[] inputSlots = new int[size * SLOTS_PER_NODE];
+    final int[] inputsStart = new int[size + 1];
+    final int[] inputs = new int[inputCount];
+    final int[] runTypes = new int[runCount];
+    final int[] runsStart = new int[runCount + 1];
+    int inputIndex = 0;
+    int run = -1;
+    for (int i = 0; i < size; i++) {
+      final ValueNode node = nodes[i];
+      final int type = types[(int) sortKeys[i]];
+      if (run < 0 || runTypes[run] != type) {
+        run++;
+        runTypes[run] = type;
+        runsStart[run] = i;
+      }
+
+      final int slotsOffset = i * SLOTS_PER_NODE;
+      switch (type) {
+        case TYPE_SPRING:
+          inputSlots[slotsOffset + SLOT_INITIAL] =
+              getSlot(node, SpringNode.INITIAL_INPUT, sortedIndices, compiledIndices);
+          inputSlots[slotsOffset + SLOT_END] =
+              getSlot(node, SpringNode.END_INPUT, sortedIndices, compiledIndices);
+          break;
+        case TYPE_MAPPING:
+          inputSlots[slotsOffset + SLOT_INITIAL] =
+              getSlot(node, MappingNode.INITIAL_INPUT, sortedIndices, compiledIndices);
+          inputSlots[slotsOffset + SLOT_END] =
+              getSlot(node, MappingNode.END_INPUT, sortedIndices, compiledIndices);
+          // fall through
+        case TYPE_SIMPLE:
+        case TYPE_INTERPOLATOR:
+          inputSlots[slotsOffset + SLOT_DEFAULT] =
+              getSlot(node, ValueNode.DEFAULT_INPUT, sortedIndices, compiledIndices);
+          break;
+        default:
+          break;
+      }
+
+      inputsStart[i] = inputIndex;
+      for (ValueNode input : node.getAllInputs()) {
+        inputs[inputIndex++] = compiledIndices[sortedIndices.get(input)];
+      }
+    }
+    inputsStart[size] = inputIndex;
+    runsStart[runCount] = size;
+
+    final CompiledDataFlowGraph graph =
+        new CompiledDataFlowGraph(
+            nodes, states, inputSlots, inputsStart, inputs, runTypes, runsStart);
+
+    for (int i = 0, bindingsSize = bindings.size(); i < bindingsSize; i++) {
+      final GraphBinding binding = bindings.get(i);
+      final ArraySet<ValueNode> bindingNodes = binding.getAllNodes();
+      final int[] nodeIndices = new int[bindingNodes.size()];
+      for (int j = 0; j < nodeIndices.length; j++) {
+        nodeIndices[j] = compiledIndices[sortedIndices.get(bindingNodes.valueAt(j))];
+      }
+      binding.setCompiledNodeIndices(graph, nodeIndices);
+    }
+
+    return graph;
+  }
+
+  /**
+   * Only nodes of exactly the built-in classes are specialized: subclasses may override {@link
+   * ValueNode#calculateValue}.
+   */
+  private static int getType(ValueNode node) {
+    final Class<?> nodeClass = node.getClass();
+    if (nodeClass == ConstantNode.class) {
+      return TYPE_CONSTANT;
+    } else if (nodeClass == TimingNode.class) {
+      return TYPE_TIMING;
+    } else if (nodeClass == SimpleNode.class) {
+      return node.getInputCount() == 1 && hasInputs(node, ValueNode.DEFAULT_INPUT)
+          ? TYPE_SIMPLE
+          : TYPE_GENERIC;
+    } else if (nodeClass == InterpolatorNode.class) {
+      return hasInputs(node, ValueNode.DEFAULT_INPUT) ? TYPE_INTERPOLATOR : TYPE_GENERIC;
+    } else if (nodeClass == MappingNode.class) {
+      return hasInputs(
+              node, MappingNode.INITIAL_INPUT, MappingNode.END_INPUT, ValueNode.DEFAULT_INPUT)
+          ? TYPE_MAPPING
+          : TYPE_GENERIC;
+    } else if (nodeClass == SpringNode.class) {
+      return hasInputs(node, SpringNode.INITIAL_INPUT, SpringNode.END_INPUT)
+          ? TYPE_SPRING
+          : TYPE_GENERIC;
+    }
+
+    // Missing inputs are left to calculateValue() to report.
+    return TYPE_GENERIC;
+  }
+
+  private static boolean hasInputs(ValueNode node, String... names) {
+    for (String name : names) {
+      if (node.getInputUnsafe(name) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int getSlot(
+      ValueNode node,
+      String name,
+      SimpleArrayMap<ValueNode, Integer> sortedIndices,
+      int[] compiledIndices) {
+    return compiledIndices[sortedIndices.get(node.getInputUnsafe(name))];
+  }
+
+  int size() {
+    return mNodes.length;
+  }
+
+  /** Calculates the value of every node for the given frame, in dependency order. */
+  void propagate(long frameTimeNanos) {
+    final ValueNode[] nodes = mNodes;
+    final float[] values = mValues;
+    final int[] slots = mInputSlots;
+
+    for (int run = 0, runCount = mRunTypes.length; run < runCount; run++) {
+      final int start = mRunsStart[run];
+      final int end = mRunsStart[run + 1];
+
+      switch (mRunTypes[run]) {
+        case TYPE_CONSTANT:
+          for (int i = start; i < end; i++) {
+            final float value = ((ConstantNode) nodes[i]).calculateValue(frameTimeNanos);
+            nodes[i].setCalculatedValue(value, frameTimeNanos);
+            values[i] = value;
+          }
+          break;
+        case TYPE_TIMING:
+          for (int i = start; i < end; i++) {
+            final float value = ((TimingNode) nodes[i]).calculateValue(frameTimeNanos);
+            nodes[i].setCalculatedValue(value, frameTimeNanos);
+            values[i] = value;
+          }
+          break;
+        case TYPE_SIMPLE:
+          for (int i = start; i < end; i++) {
+            final float value = values[slots[i * SLOTS_PER_NODE + SLOT_DEFAULT]];
+            nodes[i].setCalculatedValue(value, frameTimeNanos);
+            values[i] = value;
+          }
+          break;
+        case TYPE_INTERPOLATOR:
+          for (int i = start; i < end; i++) {
+            final float value =
+                ((InterpolatorNode) nodes[i])
+                    .interpolate(values[slots[i * SLOTS_PER_NODE + SLOT_DEFAULT]]);
+            nodes[i].setCalculatedValue(value, frameTimeNanos);
+            values[i] = value;
+          }
+          break;
+        case TYPE_MAPPING:
+          for (int i = start; i < end; i++) {
+            final int slotsOffset = i * SLOTS_PER_NODE;
+            final float value =
+                MappingNode.map(
+                    values[slots[slotsOffset + SLOT_INITIAL]],
+                    values[slots[slotsOffset + SLOT_END]],
+                    values[slots[slotsOffset + SLOT_DEFAULT]]);
+            nodes[i].setCalculatedValue(value, frameTimeNanos);
+            values[i] = value;
+          }
+          break;
+        case TYPE_SPRING:
+          for (int i = start; i < end; i++) {
+            final int slotsOffset = i * SLOTS_PER_NODE;
+            final float value =
+                ((SpringNode) nodes[i])
+                    .calculateValue(
+                        frameTimeNanos,
+                        values[slots[slotsOffset + SLOT_INITIAL]],
+                        values[slots[slotsOffset + SLOT_END]]);
+            nodes[i].setCalculatedValue(value, frameTimeNanos);
+            values[i] = value;
+          }
+          break;
+        default:
+          for (int i = start; i < end; i++) {
+            nodes[i].doCalculateValue(frameTimeNanos);
+            values[i] = nodes[i].getValue();
+          }
+          break;
+      }
+    }
+  }
+
+  /**
+   * Marks as finished the nodes whose inputs are all finished and that won't produce new values of
+   * their own. Visiting nodes in dependency order lets a whole chain finish in a single frame.
+   */
+  void updateFinishedNodes() {
+    final boolean[] isFinished = mIsFinished;
+    for (int i = 0, size = mNodes.length; i < size; i++) {
+      if (isFinished[i] || !areInputsFinished(i)) {
+        continue;
+      }
+
+      if (!mCanFinish[i] || ((NodeCanFinish) mNodes[i]).isFinished()) {
+        isFinished[i] = true;
+        mNodeStates[i].isFinished = true;
+      }
+    }
+  }
+
+  private boolean areInputsFinished(int node) {
+    for (int i = mInputsStart[node], end = mInputsStart[node + 1]; i < end; i++) {
+      if (!mIsFinished[mInputs[i]]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** @return whether all the nodes at the given indices, as set on a binding, are finished. */
+  boolean areAllFinished(int[] nodeIndices) {
+    for (int i = 0; i < nodeIndices.length; i++) {
+      if (!mIsFinished[nodeIndices[i]]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -52,10 +52,10 @@ public class DataFlowGraph {
   private static final Pools.SynchronizedPool<NodeState> sNodeStatePool =
       new Pools.SynchronizedPool<>(20);
 
-  private static class NodeState {
+  static class NodeState {
 
-    private boolean isFinished = false;
-    private int refCount = 0;
+    boolean isFinished = false;
+    int refCount = 0;
 
     void reset() {
       isFinished = false;
@@ -91,6 +91,9 @@ public class DataFlowGraph {
   @GuardedBy("this")
   private final Map<ValueNode, NodeState> mNodeStates = new HashMap<>();
 
+  @GuardedBy("this")
+  private CompiledDataFlowGraph mCompiledGraph = CompiledDataFlowGraph.EMPTY;
+
   private boolean mIsDirty = false;
 
   private DataFlowGraph(TimingSource timingSource) {
@@ -122,9 +125,11 @@ public class DataFlowGraph {
       throw new RuntimeException("Tried to unregister non-existent binding");
     }
     unregisterNodes(binding);
+    binding.setCompiledNodeIndices(null, null);
     if (mBindings.isEmpty()) {
       mTimingSource.stop();
       mSortedNodes.clear();
+      mCompiledGraph = CompiledDataFlowGraph.EMPTY;
       if (!mNodeStates.isEmpty()) {
         throw new RuntimeException("Failed to clean up all nodes");
       }
@@ -137,24 +142,21 @@ public class DataFlowGraph {
       regenerateSortedNodes();
     }
 
-    propagate(frameTimeNanos);
+    mCompiledGraph.propagate(frameTimeNanos);
     updateFinishedStates();
   }
 
-  @GuardedBy("this")
-  private void propagate(long frameTimeNanos) {
-    final int size = mSortedNodes.size();
-    for (int i = 0; i < size; i++) {
-      final ValueNode node = mSortedNodes.get(i);
-      node.doCalculateValue(frameTimeNanos);
-    }
-  }
-
+  /**
+   * Sorts the nodes of the registered bindings in dependency order and compiles them into the
+   * {@link CompiledDataFlowGraph} that is evaluated on each frame.
+   */
   @GuardedBy("this")
   private void regenerateSortedNodes() {
     mSortedNodes.clear();
 
     if (mBindings.size() == 0) {
+      mCompiledGraph = CompiledDataFlowGraph.EMPTY;
+      mIsDirty = false;
       return;
     }
 
@@ -203,6 +205,7 @@ public class DataFlowGraph {
     }
 
     Collections.reverse(mSortedNodes);
+    mCompiledGraph = CompiledDataFlowGraph.compile(mSortedNodes, mNodeStates, mBindings);
     mIsDirty = false;
 
     ComponentsPools.release(nodesToProcess);
@@ -211,32 +214,33 @@ public class DataFlowGraph {
 
   @GuardedBy("this")
   private void updateFinishedStates() {
-    updateFinishedNodes();
+    mCompiledGraph.updateFinishedNodes();
     notifyFinishedBindings();
   }
 
   @GuardedBy("this")
-  private void updateFinishedNodes() {
-    for (int i = 0, size = mSortedNodes.size(); i < size; i++) {
-      final ValueNode node = mSortedNodes.get(i);
-      final NodeState nodeState = mNodeStates.get(node);
-      if (nodeState.isFinished || !areInputsFinished(node)) {
-        continue;
-      }
-
-      final boolean nodeIsNowFinished =
-          !(node instanceof NodeCanFinish) ||
-              ((NodeCanFinish) node).isFinished();
-      if (nodeIsNowFinished) {
-        nodeState.isFinished = true;
+  private void notifyFinishedBindings() {
+    // Iterate in reverse order since notifying that a binding is finished results in removing
+    // that binding.
+    for (int i = mBindings.size() - 1; i >= 0; i--) {
+      final GraphBinding binding = mBindings.get(i);
+      if (areAllNodesFinished(binding)) {
+        binding.notifyNodesHaveFinished();
       }
     }
   }
 
   @GuardedBy("this")
-  private boolean areInputsFinished(ValueNode node) {
-    for (ValueNode input : node.getAllInputs()) {
-      final NodeState nodeState = mNodeStates.get(input);
+  private boolean areAllNodesFinished(GraphBinding binding) {
+    final int[] compiledNodeIndices = binding.getCompiledNodeIndices(mCompiledGraph);
+    if (compiledNodeIndices != null) {
+      return mCompiledGraph.areAllFinished(compiledNodeIndices);
+    }
+
+    // The binding was registered by a listener after this frame's graph was compiled.
+    final ArraySet<ValueNode> nodesToCheck = binding.getAllNodes();
+    for (int j = 0, nodesSize = nodesToCheck.size(); j < nodesSize; j++) {
+      final NodeState nodeState = mNodeStates.get(nodesToCheck.valueAt(j));
       if (!nodeState.isFinished) {
         return false;
       }
@@ -244,27 +248,6 @@ public class DataFlowGraph {
     return true;
   }
 
-  @GuardedBy("this")
-  private void notifyFinishedBindings() {
-    // Iterate in reverse order since notifying that a binding is finished results in removing
-    // that binding.
-    for (int i = mBindings.size() - 1; i >= 0; i--) {
-      final GraphBinding binding = mBindings.get(i);
-      boolean allAreFinished = true;
-      final ArraySet<ValueNode> nodesToCheck = binding.getAllNodes();
-      for (int j = 0, nodesSize = nodesToCheck.size(); j < nodesSize; j++) {
-        final NodeState nodeState = mNodeStates.get(nodesToCheck.valueAt(j));
-        if (!nodeState.isFinished) {
-          allAreFinished = false;
-          break;
-        }
-      }
-      if (allAreFinished) {
-        binding.notifyNodesHaveFinished();
-      }
-    }
-  }
-
   @GuardedBy("this")
   private void registerNodes(GraphBinding binding) {
     final ArraySet<ValueNode> nodes = binding.getAllNodes();
@@ -310,6 +293,9 @@ public class DataFlowGraph {
   @VisibleForTesting
   @GuardedBy("this")
   boolean hasReferencesToNodes() {
-    return !mBindings.isEmpty() || !mSortedNodes.isEmpty() || !mNodeStates.isEmpty();
+    return !mBindings.isEmpty()
+        || !mSortedNodes.isEmpty()
+        || !mNodeStates.isEmpty()
+        || mCompiledGraph.size() > 0;
   }
 }
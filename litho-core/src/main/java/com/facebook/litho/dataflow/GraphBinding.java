@@ -16,6 +16,7 @@
 
 package com.facebook.litho.dataflow;
 
+import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import com.facebook.litho.internal.ArraySet;
 import java.util.ArrayList;
@@ -36,6 +37,8 @@ public final class GraphBinding {
   private BindingListener mListener;
   private boolean mIsActive = false;
   private boolean mHasBeenActivated = false;
+  private @Nullable CompiledDataFlowGraph mCompiledGraph;
+  private @Nullable int[] mCompiledNodeIndices;
 
   /**
    * Creates a {@link GraphBinding} associated with the default {@link DataFlowGraph} instance.
@@ -78,6 +81,25 @@ public final class GraphBinding {
     return mAllNodes;
   }
 
+  /**
+   * Records the indices of this binding's nodes in the given {@link CompiledDataFlowGraph}, so
+   * checking whether they're all finished doesn't need any lookups.
+   */
+  void setCompiledNodeIndices(
+      @Nullable CompiledDataFlowGraph compiledGraph, @Nullable int[] compiledNodeIndices) {
+    mCompiledGraph = compiledGraph;
+    mCompiledNodeIndices = compiledNodeIndices;
+  }
+
+  /**
+   * @return the indices of this binding's nodes in the given {@link CompiledDataFlowGraph}, or null
+   *     if they were recorded for a different one.
+   */
+  @Nullable
+  int[] getCompiledNodeIndices(CompiledDataFlowGraph compiledGraph) {
+    return mCompiledGraph == compiledGraph ? mCompiledNodeIndices : null;
+  }
+
   /**
    * Activates a binding, adding the sub-graph defined by this binding to the main
    * {@link DataFlowGraph} associated with this binding. This is expected to be called from
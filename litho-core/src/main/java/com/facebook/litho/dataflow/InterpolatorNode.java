@@ -32,6 +32,10 @@ public class InterpolatorNode extends ValueNode {
   @Override
   protected float calculateValue(long frameTimeNanos) {
     float timingValue = getInput(DEFAULT_INPUT).getValue();
+    return interpolate(timingValue);
+  }
+
+  final float interpolate(float timingValue) {
     return mInterpolator.getInterpolation(timingValue);
   }
 }
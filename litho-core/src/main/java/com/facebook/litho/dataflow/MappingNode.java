@@ -32,6 +32,10 @@ public class MappingNode extends ValueNode {
     final float endValue = getInput(END_INPUT).getValue();
     final float fractionValue = getInput(DEFAULT_INPUT).getValue();
 
+    return map(initialValue, endValue, fractionValue);
+  }
+
+  static float map(float initialValue, float endValue, float fractionValue) {
     final float valRange = endValue - initialValue;
     return initialValue + fractionValue * valRange;
   }
@@ -45,16 +45,23 @@ public class SpringNode extends ValueNode implements NodeCanFinish {
 
   @Override
   public float calculateValue(long frameTimeNanos) {
+    return calculateValue(
+        frameTimeNanos, getInput(INITIAL_INPUT).getValue(), getInput(END_INPUT).getValue());
+  }
+
+  /**
+   * Calculates the value for this frame given the current values of the "initial" and "end"
+   * inputs, so that a {@link CompiledDataFlowGraph} can evaluate this node without looking its
+   * inputs up.
+   */
+  final float calculateValue(long frameTimeNanos, float initialValue, float endValue) {
     if (mLastFrameTimeNs == Long.MIN_VALUE) {
       mLastFrameTimeNs = frameTimeNanos;
-      float initialValue = getInput(INITIAL_INPUT).getValue();
-      final float endValue = getInput(END_INPUT).getValue();
       mSpring.setCurrentValue(initialValue);
       mSpring.setEndValue(endValue);
       return initialValue;
     }
 
-    final float endValue = getInput(END_INPUT).getValue();
     mSpring.setEndValue(endValue);
     if (isFinished()) {
       return endValue;
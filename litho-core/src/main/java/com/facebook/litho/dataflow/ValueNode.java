@@ -134,7 +134,14 @@ public abstract class ValueNode {
   }
 
   final void doCalculateValue(long frameTimeNanos) {
-    final float value = calculateValue(frameTimeNanos);
+    setCalculatedValue(calculateValue(frameTimeNanos), frameTimeNanos);
+  }
+
+  /**
+   * Records the value calculated for the given frame, either by {@link #calculateValue} or by a
+   * {@link CompiledDataFlowGraph} evaluating this node directly.
+   */
+  final void setCalculatedValue(float value, long frameTimeNanos) {
     if (frameTimeNanos == mTimeNs) {
       throw new RuntimeException(
           "Got a calculate value call multiple times in the same frame. This isn't expected.");
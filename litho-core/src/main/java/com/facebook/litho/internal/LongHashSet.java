@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.internal;
+
+import java.util.Arrays;
+
+/**
+ * A minimal open-addressing set of primitive longs. Unlike a {@code HashSet<Long>} it doesn't box
+ * its values, so adding and looking up keys doesn't allocate until the table needs to grow.
+ */
+public class LongHashSet {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private long[] mValues;
+  private boolean[] mUsed;
+  private int mSize;
+
+  public LongHashSet() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LongHashSet(int capacity) {
+    final int tableSize = tableSizeFor(capacity);
+    mValues = new long[tableSize];
+    mUsed = new boolean[tableSize];
+  }
+
+  /** @return true if the value was not already present. */
+  public boolean add(long value) {
+    if (insert(mValues, mUsed, value)) {
+      mSize++;
+      if (mSize * 4 >= mValues.length * 3) {
+        grow();
+      }
+      return true;
+    }
+
+    return false;
+  }
+
+  public boolean contains(long value) {
+    final long[] values = mValues;
+    final boolean[] used = mUsed;
+    final int mask = values.length - 1;
+    int index = indexFor(value, mask);
+
+    while (used[index]) {
+      if (values[index] == value) {
+        return true;
+      }
+      index = (index + 1) & mask;
+    }
+
+    return false;
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(mUsed, false);
+    mSize = 0;
+  }
+
+  private void grow() {
+    final long[] oldValues = mValues;
+    final boolean[] oldUsed = mUsed;
+    final long[] values = new long[oldValues.length * 2];
+    final boolean[] used = new boolean[oldValues.length * 2];
+
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldUsed[i]) {
+        insert(values, used, oldValues[i]);
+      }
+    }
+
+    mValues = values;
+    mUsed = used;
+  }
+
+  private static boolean insert(long[] values, boolean[] used, long value) {
+    final int mask = values.length - 1;
+    int index = indexFor(value, mask);
+
+    while (used[index]) {
+      if (values[index] == value) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+
+    values[index] = value;
+    used[index] = true;
+    return true;
+  }
+
+  private static int indexFor(long value, int mask) {
+    // Fold the high bits in so that values differing only there don't cluster.
+    final long mixed = value * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32)) & mask;
+  }
+
+  private static int tableSizeFor(int capacity) {
+    int tableSize = DEFAULT_CAPACITY;
+    while (tableSize * 3 < capacity * 4) {
+      tableSize <<= 1;
+    }
+    return tableSize;
+  }
+}
@@ -17,6 +17,7 @@ package com.facebook.litho;
 
 import static com.facebook.litho.SizeSpec.EXACTLY;
 import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
@@ -26,14 +27,21 @@ import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
 import android.content.ContextWrapper;
+import android.os.Build;
 import android.os.Looper;
+import android.os.Process;
 import com.facebook.litho.config.LayoutThreadPoolConfiguration;
 import com.facebook.litho.testing.TestDrawableComponent;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
 import com.facebook.litho.testing.util.InlineLayoutSpec;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -45,6 +53,7 @@ import org.powermock.modules.junit4.rule.PowerMockRule;
 import org.powermock.reflect.Whitebox;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowLooper;
 
 @PrepareForTest({ThreadUtils.class})
@@ -179,4 +188,106 @@ public class SplitLayoutResolverTest {
 
     verify(bgService, never()).submit(any(Runnable.class), eq(0));
   }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.LOLLIPOP)
+  public void testForkJoinSplitLayouts() {
+    mEnabledComponent.add("ForkJoinTestComponent");
+    SplitLayoutResolver.createForkJoinForTag(
+        splitTag, 2, Process.THREAD_PRIORITY_DEFAULT, 2, mEnabledComponent);
+    when(ThreadUtils.isMainThread()).thenReturn(true);
+
+    final Thread[] layoutThreads = new Thread[3];
+    final Component component = new ForkJoinTestComponent(layoutThreads);
+
+    final ComponentTree tree =
+        ComponentTree.create(mContext, component).splitLayoutTag(splitTag).build();
+
+    tree.setRootAndSizeSpec(
+        component, makeSizeSpec(100, EXACTLY), makeSizeSpec(100, EXACTLY), new Size());
+
+    assertThat(layoutThreads[0]).isSameAs(Thread.currentThread());
+    int childrenOnPool = 0;
+    for (Thread thread : layoutThreads) {
+      assertThat(thread).isNotNull();
+      if (thread instanceof ForkJoinWorkerThread) {
+        assertThat(thread.getName()).startsWith("ComponentSplitLayoutThread-");
+        childrenOnPool++;
+      }
+    }
+    assertThat(childrenOnPool).isGreaterThan(0);
+
+    final LayoutState layoutState =
+        tree.getBackgroundLayoutState() != null
+            ? tree.getBackgroundLayoutState()
+            : tree.getMainThreadLayoutState();
+    assertThat(layoutState.getMountableOutputCount()).isEqualTo(4);
+  }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.LOLLIPOP)
+  public void testForkJoinDoesNotSplitBelowThreshold() {
+    SplitLayoutResolver.createForkJoinForTag(
+        splitTag, 2, Process.THREAD_PRIORITY_DEFAULT, 4, mEnabledComponent);
+
+    final ComponentTree tree =
+        ComponentTree.create(mContext, mComponent).splitLayoutTag(splitTag).build();
+    final ComponentContext c = ComponentContext.withComponentTree(mContext, tree);
+    final List<Component> children = new ArrayList<>();
+    children.add(TestDrawableComponent.create(c).build());
+    children.add(TestDrawableComponent.create(c).build());
+    children.add(TestDrawableComponent.create(c).build());
+
+    final InternalNode node = ComponentsPools.acquireInternalNode(c);
+
+    assertThat(SplitLayoutResolver.resolveLayouts(c, children, node)).isFalse();
+  }
+
+  private static class ForkJoinTestComponent extends InlineLayoutSpec {
+    private final Thread[] mLayoutThreads;
+
+    ForkJoinTestComponent(Thread[] layoutThreads) {
+      mLayoutThreads = layoutThreads;
+    }
+
+    @Override
+    protected Component onCreateLayout(ComponentContext c) {
+      // The first child waits until a pool worker has laid out another child, otherwise the
+      // calling thread could claim every child before the pool gets to them.
+      final CountDownLatch workerStarted = new CountDownLatch(1);
+      return Column.create(c)
+          .child(new ThreadRecordingComponent(mLayoutThreads, 0, workerStarted))
+          .child(new ThreadRecordingComponent(mLayoutThreads, 1, workerStarted))
+          .child(new ThreadRecordingComponent(mLayoutThreads, 2, workerStarted))
+          .build();
+    }
+  }
+
+  private static class ThreadRecordingComponent extends InlineLayoutSpec {
+    private final Thread[] mLayoutThreads;
+    private final int mIndex;
+    private final CountDownLatch mWorkerStarted;
+
+    ThreadRecordingComponent(Thread[] layoutThreads, int index, CountDownLatch workerStarted) {
+      mLayoutThreads = layoutThreads;
+      mIndex = index;
+      mWorkerStarted = workerStarted;
+    }
+
+    @Override
+    protected Component onCreateLayout(ComponentContext c) {
+      final Thread thread = Thread.currentThread();
+      mLayoutThreads[mIndex] = thread;
+      if (thread instanceof ForkJoinWorkerThread) {
+        mWorkerStarted.countDown();
+      } else if (mIndex == 0) {
+        try {
+          mWorkerStarted.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return TestDrawableComponent.create(c).build();
+    }
+  }
 }
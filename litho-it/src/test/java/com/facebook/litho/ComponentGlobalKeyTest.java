@@ -21,6 +21,7 @@ import static org.assertj.core.api.Java6Assertions.assertThat;
 import android.util.Pair;
 import android.view.View;
 import com.facebook.litho.annotations.OnCreateLayout;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.TestDrawableComponent;
 import com.facebook.litho.testing.TestViewComponent;
 import com.facebook.litho.testing.logging.TestComponentsLogger;
@@ -334,6 +335,99 @@ public class ComponentGlobalKeyTest {
     Assert.assertEquals(rootGlobalKey, getComponentAt(lithoView, 7).getOwnerGlobalKey());
   }
 
+  @Test
+  public void testNumericAutogenSiblingsUniqueKeys() {
+    final boolean useNumericGlobalKeys = ComponentsConfiguration.useNumericGlobalKeys;
+    final boolean isDebugModeEnabled = ComponentsConfiguration.isDebugModeEnabled;
+    ComponentsConfiguration.useNumericGlobalKeys = true;
+    ComponentsConfiguration.isDebugModeEnabled = false;
+
+    try {
+      final Component component = getTwoTextsComponent();
+      final int layoutSpecId = component.getTypeId();
+      final int textSpecId = Text.create(mContext).text("").build().getTypeId();
+      final int columnTypeId = Column.create(mContext).build().getTypeId();
+
+      final LithoView lithoView = getLithoView(component);
+
+      final long textKeyHash =
+          ComponentKeyUtils.getKeyHashWithSeparator(
+              ComponentKeyUtils.getKeyHashWithSeparator(
+                  ComponentKeyUtils.getKeyHash(layoutSpecId), columnTypeId),
+              textSpecId);
+
+      assertThat(getComponentAt(lithoView, 0).getGlobalKey())
+          .isEqualTo(ComponentKeyUtils.getKeyFromHash(textKeyHash));
+      assertThat(getComponentAt(lithoView, 1).getGlobalKey())
+          .isEqualTo(
+              ComponentKeyUtils.getKeyFromHash(
+                  ComponentKeyUtils.getKeyHashForChildPosition(textKeyHash, 0)));
+      assertThat(getComponentAt(lithoView, 0).getOwnerGlobalKey())
+          .isEqualTo(
+              ComponentKeyUtils.getKeyFromHash(ComponentKeyUtils.getKeyHash(layoutSpecId)));
+    } finally {
+      ComponentsConfiguration.useNumericGlobalKeys = useNumericGlobalKeys;
+      ComponentsConfiguration.isDebugModeEnabled = isDebugModeEnabled;
+    }
+  }
+
+  @Test
+  public void testNumericKeysAreReadableInDebugMode() {
+    final boolean useNumericGlobalKeys = ComponentsConfiguration.useNumericGlobalKeys;
+    final boolean isDebugModeEnabled = ComponentsConfiguration.isDebugModeEnabled;
+    ComponentsConfiguration.useNumericGlobalKeys = true;
+    ComponentsConfiguration.isDebugModeEnabled = true;
+
+    try {
+      final Component component = getTwoTextsComponent();
+      final int layoutSpecId = component.getTypeId();
+      final int textSpecId = Text.create(mContext).text("").build().getTypeId();
+      final int columnTypeId = Column.create(mContext).build().getTypeId();
+
+      final LithoView lithoView = getLithoView(component);
+
+      assertThat(getComponentAt(lithoView, 0).getGlobalKey())
+          .isEqualTo(
+              ComponentKeyUtils.getKeyWithSeparator(layoutSpecId, columnTypeId, textSpecId));
+      assertThat(getComponentAt(lithoView, 1).getGlobalKey())
+          .isEqualTo(
+              ComponentKeyUtils.getKeyWithSeparator(
+                  layoutSpecId, columnTypeId, textSpecId + "!0"));
+    } finally {
+      ComponentsConfiguration.useNumericGlobalKeys = useNumericGlobalKeys;
+      ComponentsConfiguration.isDebugModeEnabled = isDebugModeEnabled;
+    }
+  }
+
+  @Test
+  public void testNumericKeyHashesDependOnPath() {
+    final long rootHash = ComponentKeyUtils.getKeyHash(1);
+
+    assertThat(ComponentKeyUtils.getKeyHashWithSeparator(rootHash, 2))
+        .isNotEqualTo(ComponentKeyUtils.getKeyHashWithSeparator(rootHash, "2"));
+    assertThat(ComponentKeyUtils.getKeyHashWithSeparator(rootHash, "ab"))
+        .isNotEqualTo(
+            ComponentKeyUtils.getKeyHashWithSeparator(
+                ComponentKeyUtils.getKeyHashWithSeparator(rootHash, "a"), "b"));
+    assertThat(ComponentKeyUtils.getKeyHashForChildPosition(rootHash, 0))
+        .isNotEqualTo(ComponentKeyUtils.getKeyHashForChildPosition(rootHash, 1));
+    assertThat(ComponentKeyUtils.getKeyHashWithSeparator(rootHash, "key"))
+        .isEqualTo(ComponentKeyUtils.getKeyHashWithSeparator(rootHash, "key"));
+  }
+
+  private Component getTwoTextsComponent() {
+    return new InlineLayoutSpec() {
+      @Override
+      @OnCreateLayout
+      protected Component onCreateLayout(ComponentContext c) {
+        return Column.create(c)
+            .child(Text.create(mContext).widthDip(10).heightDip(10).text(""))
+            .child(Text.create(mContext).widthDip(10).heightDip(10).text(""))
+            .build();
+      }
+    };
+  }
+
   private static Component getComponentAt(LithoView lithoView, int index) {
     return lithoView.getMountItemAt(index).getComponent();
   }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.litho.testing.util.InlineLayoutSpec;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(ComponentsTestRunner.class)
+public class ComponentTreeLayoutCacheTest {
+
+  private ComponentContext mContext;
+  private AtomicInteger mCreateLayoutCount;
+  private int mWidthSpec;
+  private int mHeightSpec;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    mCreateLayoutCount = new AtomicInteger();
+    mWidthSpec = makeSizeSpec(100, EXACTLY);
+    mHeightSpec = makeSizeSpec(100, EXACTLY);
+  }
+
+  @Test
+  public void testUnchangedSubtreeIsReused() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, createRoot("label")).useLayoutCache(true).build();
+
+    componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+    assertThat(mCreateLayoutCount.get()).isEqualTo(1);
+    final int mountableOutputCount =
+        componentTree.getBackgroundLayoutState().getMountableOutputCount();
+
+    componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+
+    assertThat(mCreateLayoutCount.get()).isEqualTo(1);
+    assertThat(componentTree.getBackgroundLayoutState().getMountableOutputCount())
+        .isEqualTo(mountableOutputCount);
+  }
+
+  @Test
+  public void testChangedSubtreeIsCreatedAgain() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, createRoot("label")).useLayoutCache(true).build();
+
+    componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+    componentTree.setRootAndSizeSpec(createRoot("other label"), mWidthSpec, mHeightSpec);
+
+    assertThat(mCreateLayoutCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testSubtreeIsNotReusedForDifferentSizeSpecs() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, createRoot("label")).useLayoutCache(true).build();
+
+    componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+    componentTree.setRootAndSizeSpec(
+        createRoot("label"), makeSizeSpec(200, EXACTLY), mHeightSpec);
+
+    assertThat(mCreateLayoutCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testSubtreeIsNotReusedWithNumericGlobalKeys() {
+    final boolean useNumericGlobalKeys = ComponentsConfiguration.useNumericGlobalKeys;
+    final boolean isDebugModeEnabled = ComponentsConfiguration.isDebugModeEnabled;
+    ComponentsConfiguration.useNumericGlobalKeys = true;
+    ComponentsConfiguration.isDebugModeEnabled = false;
+
+    try {
+      final ComponentTree componentTree =
+          ComponentTree.create(mContext, createRoot("label")).useLayoutCache(true).build();
+
+      componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+      componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+
+      // Pending state updates below the subtree couldn't be found without key prefixes.
+      assertThat(mCreateLayoutCount.get()).isEqualTo(2);
+    } finally {
+      ComponentsConfiguration.useNumericGlobalKeys = useNumericGlobalKeys;
+      ComponentsConfiguration.isDebugModeEnabled = isDebugModeEnabled;
+    }
+  }
+
+  @Test
+  public void testLayoutCacheIsDisabledByDefault() {
+    final ComponentTree componentTree = ComponentTree.create(mContext, createRoot("label")).build();
+
+    componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+    componentTree.setRootAndSizeSpec(createRoot("label"), mWidthSpec, mHeightSpec);
+
+    assertThat(mCreateLayoutCount.get()).isEqualTo(2);
+  }
+
+  private Component createRoot(final String label) {
+    return new InlineLayoutSpec() {
+      @Override
+      protected Component onCreateLayout(ComponentContext c) {
+        return Column.create(c)
+            .child(TestDrawableComponent.create(c))
+            .child(new CountingComponent(label, mCreateLayoutCount))
+            .build();
+      }
+    };
+  }
+
+  private static class CountingComponent extends InlineLayoutSpec {
+
+    private final String mLabel;
+    private final AtomicInteger mCreateLayoutCount;
+
+    CountingComponent(String label, AtomicInteger createLayoutCount) {
+      mLabel = label;
+      mCreateLayoutCount = createLayoutCount;
+    }
+
+    @Override
+    public boolean isEquivalentTo(Component other) {
+      return other instanceof CountingComponent
+          && mLabel.equals(((CountingComponent) other).mLabel);
+    }
+
+    @Override
+    protected Component onCreateLayout(ComponentContext c) {
+      mCreateLayoutCount.incrementAndGet();
+      return Row.create(c)
+          .child(TestDrawableComponent.create(c))
+          .child(TestDrawableComponent.create(c))
+          .build();
+    }
+  }
+}
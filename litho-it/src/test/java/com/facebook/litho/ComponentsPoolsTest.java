@@ -182,6 +182,39 @@ public class ComponentsPoolsTest {
     assertThat(acquireMountContent(mContext1, mLifecycle)).isSameAs(mNewMountContent);
   }
 
+  @Test
+  public void testPreallocateContentInBulk() {
+    final int[] createdCount = new int[1];
+    final ComponentLifecycle lifecycle =
+        new ComponentLifecycle() {
+          @Override
+          int getTypeId() {
+            return 3;
+          }
+
+          @Override
+          protected int poolSize() {
+            return 4;
+          }
+
+          @Override
+          public View onCreateMountContent(Context context) {
+            createdCount[0]++;
+            return new View(context);
+          }
+        };
+
+    ComponentsPools.preallocateContent(mContext1, lifecycle, 3);
+    assertThat(createdCount[0]).isEqualTo(3);
+
+    acquireMountContent(mContext1, lifecycle);
+    assertThat(createdCount[0]).isEqualTo(3);
+
+    // The pool is filled up to its max size and no further.
+    ComponentsPools.preallocateContent(mContext1, lifecycle, 10);
+    assertThat(createdCount[0]).isEqualTo(5);
+  }
+
   @Test
   public void testAllocationsCountTowardsPreallocationLimit() {
     for (int i = 0; i < POOL_SIZE - 1; i++) {
@@ -23,6 +23,8 @@ import static com.facebook.litho.SizeSpec.AT_MOST;
 import static com.facebook.litho.SizeSpec.EXACTLY;
 import static com.facebook.litho.SizeSpec.makeSizeSpec;
 import static com.facebook.yoga.YogaEdge.BOTTOM;
+import static com.facebook.yoga.YogaEdge.LEFT;
+import static com.facebook.yoga.YogaEdge.RIGHT;
 import static com.facebook.yoga.YogaEdge.TOP;
 import static com.facebook.yoga.YogaPositionType.ABSOLUTE;
 import static org.assertj.core.api.Java6Assertions.assertThat;
@@ -96,6 +98,68 @@ public class LayoutStateCalculateTopsAndBottomsTest {
         .isSameAs(layoutState.getMountableOutputBottoms().get(4));
   }
 
+  @Test
+  public void testCalculateLeftsAndRights() {
+    final Component component =
+        new InlineLayoutSpec() {
+          @Override
+          protected Component onCreateLayout(ComponentContext c) {
+            return Row.create(c)
+                .child(
+                    Row.create(c)
+                        .child(
+                            TestDrawableComponent.create(c).wrapInView().widthPx(50).heightPx(10)))
+                .child(TestDrawableComponent.create(c).widthPx(20).heightPx(10))
+                .child(
+                    TestDrawableComponent.create(c)
+                        .positionType(ABSOLUTE)
+                        .positionPx(LEFT, 10)
+                        .positionPx(RIGHT, 30)
+                        .heightPx(10))
+                .build();
+          }
+        };
+
+    LayoutState layoutState = calculateLayoutState(
+        application,
+        component,
+        -1,
+        makeSizeSpec(100, EXACTLY),
+        makeSizeSpec(100, AT_MOST));
+
+    assertThat(layoutState.getMountableOutputCount()).isEqualTo(5);
+
+    assertThat(layoutState.getMountableOutputLefts().get(0).getBounds().left).isEqualTo(0);
+    assertThat(layoutState.getMountableOutputLefts().get(1).getBounds().left).isEqualTo(0);
+    assertThat(layoutState.getMountableOutputLefts().get(2).getBounds().left).isEqualTo(0);
+    assertThat(layoutState.getMountableOutputLefts().get(3).getBounds().left).isEqualTo(10);
+    assertThat(layoutState.getMountableOutputLefts().get(4).getBounds().left).isEqualTo(50);
+
+    assertThat(layoutState.getMountableOutputRights().get(0).getBounds().right).isEqualTo(50);
+    assertThat(layoutState.getMountableOutputRights().get(1).getBounds().right).isEqualTo(50);
+    assertThat(layoutState.getMountableOutputRights().get(2).getBounds().right).isEqualTo(70);
+    assertThat(layoutState.getMountableOutputRights().get(3).getBounds().right).isEqualTo(70);
+    assertThat(layoutState.getMountableOutputRights().get(4).getBounds().right).isEqualTo(100);
+
+    assertThat(layoutState.getMountableOutputAt(2))
+        .isSameAs(layoutState.getMountableOutputLefts().get(2));
+    assertThat(layoutState.getMountableOutputAt(4))
+        .isSameAs(layoutState.getMountableOutputLefts().get(3));
+    assertThat(layoutState.getMountableOutputAt(3))
+        .isSameAs(layoutState.getMountableOutputLefts().get(4));
+
+    assertThat(layoutState.getMountableOutputAt(2))
+        .isSameAs(layoutState.getMountableOutputRights().get(0));
+    assertThat(layoutState.getMountableOutputAt(1))
+        .isSameAs(layoutState.getMountableOutputRights().get(1));
+    assertThat(layoutState.getMountableOutputAt(4))
+        .isSameAs(layoutState.getMountableOutputRights().get(2));
+    assertThat(layoutState.getMountableOutputAt(3))
+        .isSameAs(layoutState.getMountableOutputRights().get(3));
+    assertThat(layoutState.getMountableOutputAt(0))
+        .isSameAs(layoutState.getMountableOutputRights().get(4));
+  }
+
   @Test
   public void testCalculateTopsAndBottomsWhenEqual() {
     final Component component =
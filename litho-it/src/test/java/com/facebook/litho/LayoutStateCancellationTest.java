@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.robolectric.RuntimeEnvironment.application;
+
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.litho.testing.util.InlineLayoutSpec;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class LayoutStateCancellationTest {
+
+  private LayoutCancellationToken mCancellationToken;
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mCancellationToken = new LayoutCancellationToken();
+    mContext = new ComponentContext(application);
+    mContext.setLayoutCancellationToken(mCancellationToken);
+  }
+
+  @Test
+  public void testCalculateWithoutCancellation() {
+    final LayoutState layoutState = calculate(createComponent(null, new AtomicBoolean()));
+
+    assertThat(layoutState.getMountableOutputCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void testCancellationStopsCreatingComponents() {
+    final AtomicBoolean createdAfterCancellation = new AtomicBoolean();
+    final LayoutState layoutState =
+        calculate(createComponent(mCancellationToken, createdAfterCancellation));
+
+    assertThat(createdAfterCancellation.get()).isFalse();
+    assertThat(layoutState.getMountableOutputCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCancelledBeforeCalculation() {
+    mCancellationToken.cancel();
+
+    final AtomicBoolean created = new AtomicBoolean();
+    final LayoutState layoutState = calculate(createComponent(null, created));
+
+    assertThat(created.get()).isFalse();
+    assertThat(layoutState.getMountableOutputCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCancellationIsPropagatedToCopiedContexts() {
+    final ComponentContext copy = new ComponentContext(mContext).makeNewCopy();
+    assertThat(copy.isLayoutCancelled()).isFalse();
+
+    mCancellationToken.cancel();
+
+    assertThat(copy.isLayoutCancelled()).isTrue();
+    assertThat(new ComponentContext(application).isLayoutCancelled()).isFalse();
+  }
+
+  private LayoutState calculate(Component component) {
+    return LayoutState.calculate(
+        mContext,
+        component,
+        -1,
+        makeSizeSpec(100, EXACTLY),
+        makeSizeSpec(100, EXACTLY),
+        LayoutState.CalculateLayoutSource.TEST);
+  }
+
+  /**
+   * Creates a column whose first child optionally cancels the given token while its layout is
+   * being created, and whose last child records whether it was ever created.
+   */
+  private static Component createComponent(
+      final LayoutCancellationToken tokenToCancel, final AtomicBoolean lastChildCreated) {
+    return new InlineLayoutSpec() {
+      @Override
+      protected Component onCreateLayout(ComponentContext c) {
+        return Column.create(c)
+            .child(
+                new InlineLayoutSpec() {
+                  @Override
+                  protected Component onCreateLayout(ComponentContext c) {
+                    if (tokenToCancel != null) {
+                      tokenToCancel.cancel();
+                    }
+                    return TestDrawableComponent.create(c).build();
+                  }
+                })
+            .child(TestDrawableComponent.create(c))
+            .child(
+                new InlineLayoutSpec() {
+                  @Override
+                  protected Component onCreateLayout(ComponentContext c) {
+                    lastChildCreated.set(true);
+                    return TestDrawableComponent.create(c).build();
+                  }
+                })
+            .build();
+      }
+    };
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class LockFreeRecyclePoolTest {
+
+  private PoolSizingPolicy mOriginalPolicy;
+
+  @Before
+  public void setup() {
+    mOriginalPolicy = PoolsConfig.sPoolSizingPolicy;
+  }
+
+  @After
+  public void tearDown() {
+    PoolsConfig.sPoolSizingPolicy = mOriginalPolicy;
+  }
+
+  @Test
+  public void testAcquireAndRelease() {
+    final LockFreeRecyclePool<Object> pool = new LockFreeRecyclePool<>("test", 10);
+    assertThat(pool.acquire()).isNull();
+
+    final Object item = new Object();
+    pool.release(item);
+    assertThat(pool.getCurrentSize()).isEqualTo(1);
+
+    assertThat(pool.acquire()).isSameAs(item);
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+    assertThat(pool.acquire()).isNull();
+  }
+
+  @Test
+  public void testMaxSizeIsRespected() {
+    final LockFreeRecyclePool<Object> pool = new LockFreeRecyclePool<>("test", 10);
+
+    for (int i = 0; i < 20; i++) {
+      pool.release(new Object());
+    }
+
+    assertThat(pool.getCurrentSize()).isEqualTo(10);
+    assertThat(pool.isFull()).isTrue();
+
+    int acquired = 0;
+    while (pool.acquire() != null) {
+      acquired++;
+    }
+    assertThat(acquired).isEqualTo(10);
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void testItemsReleasedOnOtherThreadAreAcquired() throws InterruptedException {
+    final LockFreeRecyclePool<Object> pool = new LockFreeRecyclePool<>("test", 64);
+    final Set<Object> released = new HashSet<>();
+    for (int i = 0; i < 40; i++) {
+      released.add(new Object());
+    }
+
+    final Thread thread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                for (Object item : released) {
+                  pool.release(item);
+                }
+              }
+            });
+    thread.start();
+    thread.join();
+
+    assertThat(pool.getCurrentSize()).isEqualTo(40);
+
+    // Full magazines were handed to the depot, the rest is reclaimed from the terminated thread.
+    final Set<Object> acquired = new HashSet<>();
+    Object item;
+    while ((item = pool.acquire()) != null) {
+      acquired.add(item);
+    }
+
+    assertThat(acquired).isEqualTo(released);
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void testShrinkingPolicyWhileRefilling() {
+    PoolsConfig.sPoolSizingPolicy =
+        new PoolSizingPolicy() {
+          @Override
+          public int computeMaxSize(int initialMaxSize, int currentMaxSize, PoolStats windowStats) {
+            return 0;
+          }
+
+          @Override
+          public int computeSizeAfterTrim(int trimLevel, int currentSize) {
+            return currentSize;
+          }
+        };
+    // Magazines hold 16 items: releasing 32 items and acquiring them back exchanges one magazine
+    // with the depot on release and one on acquire, so evaluations happen while refilling.
+    final LockFreeRecyclePool<Object> pool = new LockFreeRecyclePool<>("test", 64);
+
+    for (int i = 0; i < LockFreeRecyclePool.DEPOT_EXCHANGES_PER_EVALUATION; i++) {
+      for (int j = 0; j < 32; j++) {
+        pool.release(new Object());
+      }
+
+      int acquired = 0;
+      while (pool.acquire() != null) {
+        acquired++;
+        assertThat(pool.getCurrentSize()).isGreaterThanOrEqualTo(0);
+      }
+      assertThat(pool.getCurrentSize()).isEqualTo(0);
+      if (i == 0) {
+        assertThat(acquired).isEqualTo(32);
+      }
+    }
+
+    assertThat(pool.getMaxSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void testClear() {
+    final LockFreeRecyclePool<Object> pool = new LockFreeRecyclePool<>("test", 64);
+
+    for (int i = 0; i < 40; i++) {
+      pool.release(new Object());
+    }
+    assertThat(pool.getCurrentSize()).isEqualTo(40);
+
+    pool.clear();
+
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+    assertThat(pool.acquire()).isNull();
+  }
+}
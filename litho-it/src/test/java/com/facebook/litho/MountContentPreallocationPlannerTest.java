@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.util.SparseIntArray;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class MountContentPreallocationPlannerTest {
+
+  @After
+  public void tearDown() {
+    MountContentPreallocationPlanner.clear();
+  }
+
+  @Test
+  public void testPlanKeepsLargestCountPerType() {
+    final SparseIntArray first = new SparseIntArray();
+    first.put(10, 3);
+    first.put(11, 1);
+    MountContentPreallocationPlanner.recordAndPlan(1, first);
+
+    final SparseIntArray second = new SparseIntArray();
+    second.put(10, 2);
+    second.put(12, 5);
+    final SparseIntArray plan = MountContentPreallocationPlanner.recordAndPlan(1, second);
+
+    assertThat(plan.get(10)).isEqualTo(3);
+    assertThat(plan.get(11)).isEqualTo(1);
+    assertThat(plan.get(12)).isEqualTo(5);
+  }
+
+  @Test
+  public void testPlansAreKeptPerRootType() {
+    final SparseIntArray histogram = new SparseIntArray();
+    histogram.put(10, 3);
+    MountContentPreallocationPlanner.recordAndPlan(1, histogram);
+
+    assertThat(MountContentPreallocationPlanner.getPlannedCount(1, 10)).isEqualTo(3);
+    assertThat(MountContentPreallocationPlanner.getPlannedCount(2, 10)).isEqualTo(0);
+  }
+
+  @Test
+  public void testReturnedPlanIsACopy() {
+    final SparseIntArray histogram = new SparseIntArray();
+    histogram.put(10, 3);
+    MountContentPreallocationPlanner.recordAndPlan(1, histogram).put(10, 0);
+
+    assertThat(MountContentPreallocationPlanner.getPlannedCount(1, 10)).isEqualTo(3);
+  }
+}
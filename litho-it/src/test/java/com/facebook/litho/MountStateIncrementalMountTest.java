@@ -215,6 +215,66 @@ public class MountStateIncrementalMountTest {
     verifyLoggingAndResetLogger(0, 1);
   }
 
+  /**
+   * Tests incremental mount behaviour of a grid of components when the visible rect moves on both
+   * axes at once.
+   */
+  @Test
+  public void testIncrementalMountGridViewScrollDiagonally() {
+    final TestComponent child1 = create(mContext).build();
+    final TestComponent child2 = create(mContext).build();
+    final TestComponent child3 = create(mContext).build();
+    final TestComponent child4 = create(mContext).build();
+    final LithoView lithoView =
+        mountComponent(
+            mContext,
+            new InlineLayoutSpec() {
+              @Override
+              protected Component onCreateLayout(ComponentContext c) {
+                return Column.create(c)
+                    .child(
+                        Row.create(c)
+                            .child(Wrapper.create(c).delegate(child1).widthPx(10).heightPx(10))
+                            .child(Wrapper.create(c).delegate(child2).widthPx(10).heightPx(10)))
+                    .child(
+                        Row.create(c)
+                            .child(Wrapper.create(c).delegate(child3).widthPx(10).heightPx(10))
+                            .child(Wrapper.create(c).delegate(child4).widthPx(10).heightPx(10)))
+                    .build();
+              }
+            });
+
+    verifyLoggingAndResetLogger(4, 0);
+
+    lithoView.getComponentTree().mountComponent(new Rect(0, 0, 5, 5), true);
+    assertThat(child1.isMounted()).isTrue();
+    assertThat(child2.isMounted()).isFalse();
+    assertThat(child3.isMounted()).isFalse();
+    assertThat(child4.isMounted()).isFalse();
+    verifyLoggingAndResetLogger(0, 3);
+
+    lithoView.getComponentTree().mountComponent(new Rect(5, 5, 15, 15), true);
+    assertThat(child1.isMounted()).isTrue();
+    assertThat(child2.isMounted()).isTrue();
+    assertThat(child3.isMounted()).isTrue();
+    assertThat(child4.isMounted()).isTrue();
+    verifyLoggingAndResetLogger(3, 0);
+
+    lithoView.getComponentTree().mountComponent(new Rect(12, 12, 20, 20), true);
+    assertThat(child1.isMounted()).isFalse();
+    assertThat(child2.isMounted()).isFalse();
+    assertThat(child3.isMounted()).isFalse();
+    assertThat(child4.isMounted()).isTrue();
+    verifyLoggingAndResetLogger(0, 3);
+
+    lithoView.getComponentTree().mountComponent(new Rect(0, 12, 8, 20), true);
+    assertThat(child1.isMounted()).isFalse();
+    assertThat(child2.isMounted()).isFalse();
+    assertThat(child3.isMounted()).isTrue();
+    assertThat(child4.isMounted()).isFalse();
+    verifyLoggingAndResetLogger(1, 1);
+  }
+
   /**
    * Tests incremental mount behaviour of a vertical stack of components with a Drawable mount type.
    */
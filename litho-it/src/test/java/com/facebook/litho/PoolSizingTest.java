@@ -0,0 +1,154 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class PoolSizingTest {
+
+  private PoolSizingPolicy mOriginalPolicy;
+
+  @Before
+  public void setup() {
+    mOriginalPolicy = PoolsConfig.sPoolSizingPolicy;
+  }
+
+  @After
+  public void tearDown() {
+    PoolsConfig.sPoolSizingPolicy = mOriginalPolicy;
+  }
+
+  @Test
+  public void testStatsAreRecorded() {
+    final RecyclePool<Object> pool = new RecyclePool<>("test", 2, false);
+
+    assertThat(pool.acquire()).isNull();
+    pool.release(new Object());
+    pool.release(new Object());
+    pool.release(new Object());
+    assertThat(pool.acquire()).isNotNull();
+
+    final PoolStats stats = pool.getStats();
+    assertThat(stats.getName()).isEqualTo("test");
+    assertThat(stats.getMaxSize()).isEqualTo(2);
+    assertThat(stats.getCurrentSize()).isEqualTo(1);
+    assertThat(stats.getHitCount()).isEqualTo(1);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+    assertThat(stats.getEvictionCount()).isEqualTo(1);
+    assertThat(stats.getHighWaterMark()).isEqualTo(2);
+  }
+
+  @Test
+  public void testThrashingPoolGrows() {
+    PoolsConfig.sPoolSizingPolicy = new DefaultPoolSizingPolicy();
+    final RecyclePool<Object> pool = new RecyclePool<>("test", 2, false);
+
+    // Every other acquire misses and every release beyond the max size is dropped.
+    for (int i = 0; i < RecyclePool.SIZING_WINDOW / 2; i++) {
+      pool.acquire();
+      pool.acquire();
+      pool.acquire();
+      pool.release(new Object());
+      pool.release(new Object());
+      pool.release(new Object());
+    }
+
+    assertThat(pool.getMaxSize()).isGreaterThan(2);
+    assertThat(pool.getMaxSize()).isLessThanOrEqualTo(8);
+  }
+
+  @Test
+  public void testIdlePoolShrinks() {
+    PoolsConfig.sPoolSizingPolicy = new DefaultPoolSizingPolicy();
+    final RecyclePool<Object> pool = new RecyclePool<>("test", 16, false);
+    final Object item = new Object();
+    pool.release(item);
+
+    for (int i = 0; i < RecyclePool.SIZING_WINDOW; i++) {
+      pool.release(pool.acquire());
+    }
+
+    assertThat(pool.getMaxSize()).isEqualTo(8);
+    assertThat(pool.acquire()).isSameAs(item);
+  }
+
+  @Test
+  public void testPoolKeepsItsSizeWithoutPolicy() {
+    PoolsConfig.sPoolSizingPolicy = null;
+    final RecyclePool<Object> pool = new RecyclePool<>("test", 16, false);
+
+    for (int i = 0; i < RecyclePool.SIZING_WINDOW * 2; i++) {
+      pool.acquire();
+    }
+
+    assertThat(pool.getMaxSize()).isEqualTo(16);
+  }
+
+  @Test
+  public void testTrim() {
+    final RecyclePool<Object> pool = new RecyclePool<>("test", 10, true);
+    for (int i = 0; i < 8; i++) {
+      pool.release(new Object());
+    }
+
+    pool.trim(TRIM_MEMORY_RUNNING_LOW, new DefaultPoolSizingPolicy());
+    assertThat(pool.getCurrentSize()).isEqualTo(4);
+    assertThat(pool.getStats().getEvictionCount()).isEqualTo(4);
+
+    pool.trim(TRIM_MEMORY_COMPLETE, new DefaultPoolSizingPolicy());
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void testLockFreePoolTrimAndStats() {
+    final LockFreeRecyclePool<Object> pool = new LockFreeRecyclePool<>("test", 40);
+    assertThat(pool.acquire()).isNull();
+    for (int i = 0; i < 40; i++) {
+      pool.release(new Object());
+    }
+    pool.release(new Object());
+
+    pool.trim(TRIM_MEMORY_COMPLETE, new DefaultPoolSizingPolicy());
+
+    final PoolStats stats = pool.getStats();
+    assertThat(stats.getCurrentSize()).isEqualTo(0);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+    assertThat(stats.getEvictionCount()).isEqualTo(41);
+    assertThat(stats.getHighWaterMark()).isEqualTo(40);
+  }
+
+  @Test
+  public void testComponentsPoolsOnTrimMemory() {
+    ComponentsPools.clearInternalUtilPools();
+    ComponentsPools.release(ComponentsPools.acquireRect());
+
+    ComponentsPools.onTrimMemory(TRIM_MEMORY_COMPLETE);
+
+    for (PoolStats stats : ComponentsPools.getInternalPoolStats()) {
+      assertThat(stats.getCurrentSize()).isEqualTo(0);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.LayoutState.CalculateLayoutSource;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class PriorityLayoutHandlerTest {
+
+  private final List<String> mExecutionOrder =
+      Collections.synchronizedList(new ArrayList<String>());
+  private CountDownLatch mBlockPoolLatch;
+  private CountDownLatch mPoolBlockedLatch;
+  private PriorityLayoutHandler mBlockingHandler;
+
+  @Before
+  public void setup() throws InterruptedException {
+    mBlockingHandler = createHandler();
+    mBlockPoolLatch = new CountDownLatch(1);
+    mPoolBlockedLatch = new CountDownLatch(1);
+
+    // Keep the single layout thread busy so that the tasks we post queue up behind this one.
+    mBlockingHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            mPoolBlockedLatch.countDown();
+            try {
+              mBlockPoolLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        },
+        CalculateLayoutSource.UPDATE_STATE);
+    assertThat(mPoolBlockedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @After
+  public void tearDown() {
+    mBlockPoolLatch.countDown();
+  }
+
+  @Test
+  public void testTasksRunByViewportDistanceThenSource() throws InterruptedException {
+    final PriorityLayoutHandler farHandler = createHandler();
+    farHandler.setLayoutPriority(5);
+    final PriorityLayoutHandler visibleHandler = createHandler();
+    final PriorityLayoutHandler nearHandler = createHandler();
+    nearHandler.setLayoutPriority(1);
+
+    farHandler.post(recordingRunnable("far"), CalculateLayoutSource.UPDATE_STATE);
+    nearHandler.post(recordingRunnable("nearSetRoot"), CalculateLayoutSource.SET_ROOT);
+    nearHandler.post(recordingRunnable("nearUpdateState"), CalculateLayoutSource.UPDATE_STATE);
+    visibleHandler.post(recordingRunnable("visible"), CalculateLayoutSource.SET_ROOT);
+
+    runQueuedTasks(4);
+
+    assertThat(mExecutionOrder)
+        .containsExactly("visible", "nearUpdateState", "nearSetRoot", "far");
+  }
+
+  @Test
+  public void testPendingTasksAreReprioritized() throws InterruptedException {
+    final PriorityLayoutHandler firstHandler = createHandler();
+    final PriorityLayoutHandler secondHandler = createHandler();
+    secondHandler.setLayoutPriority(3);
+
+    firstHandler.post(recordingRunnable("first"), CalculateLayoutSource.SET_ROOT);
+    secondHandler.post(recordingRunnable("second"), CalculateLayoutSource.SET_ROOT);
+
+    // The viewport moved: the second tree is visible now and the first one scrolled away.
+    firstHandler.setLayoutPriority(4);
+    secondHandler.setLayoutPriority(PriorityLayoutHandler.PRIORITY_VISIBLE);
+
+    runQueuedTasks(2);
+
+    assertThat(mExecutionOrder).containsExactly("second", "first");
+  }
+
+  @Test
+  public void testRemovedTasksAreDropped() throws InterruptedException {
+    final PriorityLayoutHandler handler = createHandler();
+    final Runnable droppedRunnable = recordingRunnable("dropped");
+
+    handler.post(droppedRunnable, CalculateLayoutSource.SET_ROOT);
+    handler.post(recordingRunnable("kept"), CalculateLayoutSource.SET_ROOT);
+    handler.removeCallbacks(droppedRunnable);
+
+    runQueuedTasks(1);
+
+    assertThat(mExecutionOrder).containsExactly("kept");
+  }
+
+  @Test
+  public void testHandlersWithDifferentConfigurationsUseDifferentPools()
+      throws InterruptedException {
+    final CountDownLatch ranLatch = new CountDownLatch(1);
+    final PriorityLayoutHandler handler =
+        new PriorityLayoutHandler(new LayoutThreadPoolConfigurationImpl(2, 2, 0));
+
+    // The pool of the default configuration is still blocked, this one must not queue behind it.
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            ranLatch.countDown();
+          }
+        },
+        CalculateLayoutSource.SET_ROOT);
+
+    assertThat(ranLatch.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private void runQueuedTasks(int count) throws InterruptedException {
+    final CountDownLatch doneLatch = new CountDownLatch(1);
+    // Use a lower priority than every recorded task so that this one runs last.
+    final PriorityLayoutHandler lastHandler = createHandler();
+    lastHandler.setLayoutPriority(1000);
+    lastHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            doneLatch.countDown();
+          }
+        },
+        CalculateLayoutSource.NONE);
+    mBlockPoolLatch.countDown();
+
+    assertThat(doneLatch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(mExecutionOrder).hasSize(count);
+  }
+
+  private Runnable recordingRunnable(final String name) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        mExecutionOrder.add(name);
+      }
+    };
+  }
+
+  private static PriorityLayoutHandler createHandler() {
+    return new PriorityLayoutHandler(new LayoutThreadPoolConfigurationImpl(1, 1, 0));
+  }
+}
@@ -24,9 +24,12 @@ import static org.assertj.core.api.Java6Assertions.assertThat;
 
 import android.graphics.Rect;
 import android.widget.FrameLayout;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.TestComponent;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
 import com.facebook.yoga.YogaEdge;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -583,6 +586,175 @@ public class VisibilityEventsTest {
     assertThat(content3.getDispatchedEventHandlers()).contains(visibilityChangedHandler);
   }
 
+  @Test
+  public void testIncrementalVisibilityHandlingWhenScrolling() {
+    final boolean useIncrementalVisibilityHandling =
+        ComponentsConfiguration.useIncrementalVisibilityHandling;
+    ComponentsConfiguration.useIncrementalVisibilityHandling = true;
+
+    try {
+      final TestComponent content1 = create(mContext).build();
+      final TestComponent content2 = create(mContext).build();
+      final TestComponent content3 = create(mContext).build();
+      final EventHandler<VisibleEvent> visibleEventHandler1 = new EventHandler<>(content1, 1);
+      final EventHandler<InvisibleEvent> invisibleEventHandler1 = new EventHandler<>(content1, 2);
+      final EventHandler<VisibleEvent> visibleEventHandler2 = new EventHandler<>(content2, 3);
+      final EventHandler<InvisibleEvent> invisibleEventHandler2 = new EventHandler<>(content2, 4);
+      final EventHandler<VisibleEvent> visibleEventHandler3 = new EventHandler<>(content3, 5);
+      final EventHandler<InvisibleEvent> invisibleEventHandler3 = new EventHandler<>(content3, 6);
+      final EventHandler<FullImpressionVisibleEvent> fullImpressionHandler3 =
+          new EventHandler<>(content3, 7);
+
+      final LithoView lithoView =
+          mountComponent(
+              mContext,
+              mLithoView,
+              Column.create(mContext)
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(content1)
+                          .visibleHandler(visibleEventHandler1)
+                          .invisibleHandler(invisibleEventHandler1)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(content2)
+                          .visibleHandler(visibleEventHandler2)
+                          .invisibleHandler(invisibleEventHandler2)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(content3)
+                          .visibleHandler(visibleEventHandler3)
+                          .invisibleHandler(invisibleEventHandler3)
+                          .fullImpressionHandler(fullImpressionHandler3)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .build(),
+              true,
+              10,
+              15);
+
+      lithoView.performIncrementalMount(new Rect(LEFT, 0, RIGHT, 0), true);
+
+      content1.getDispatchedEventHandlers().clear();
+      content2.getDispatchedEventHandlers().clear();
+      content3.getDispatchedEventHandlers().clear();
+      lithoView.performIncrementalMount(new Rect(LEFT, 0, RIGHT, 5), true);
+      assertThat(content1.getDispatchedEventHandlers()).contains(visibleEventHandler1);
+      assertThat(content2.getDispatchedEventHandlers()).isEmpty();
+      assertThat(content3.getDispatchedEventHandlers()).isEmpty();
+
+      content1.getDispatchedEventHandlers().clear();
+      lithoView.performIncrementalMount(new Rect(LEFT, 3, RIGHT, 8), true);
+      assertThat(content1.getDispatchedEventHandlers()).isEmpty();
+      assertThat(content2.getDispatchedEventHandlers()).contains(visibleEventHandler2);
+      assertThat(content3.getDispatchedEventHandlers()).isEmpty();
+
+      content2.getDispatchedEventHandlers().clear();
+      lithoView.performIncrementalMount(new Rect(LEFT, 5, RIGHT, 15), true);
+      assertThat(content1.getDispatchedEventHandlers()).contains(invisibleEventHandler1);
+      assertThat(content2.getDispatchedEventHandlers()).isEmpty();
+      assertThat(content3.getDispatchedEventHandlers()).contains(visibleEventHandler3);
+      assertThat(content3.getDispatchedEventHandlers()).contains(fullImpressionHandler3);
+
+      content1.getDispatchedEventHandlers().clear();
+      content3.getDispatchedEventHandlers().clear();
+      lithoView.performIncrementalMount(new Rect(LEFT, 0, RIGHT, 3), true);
+      assertThat(content1.getDispatchedEventHandlers()).contains(visibleEventHandler1);
+      assertThat(content2.getDispatchedEventHandlers()).contains(invisibleEventHandler2);
+      assertThat(content3.getDispatchedEventHandlers()).contains(invisibleEventHandler3);
+    } finally {
+      ComponentsConfiguration.useIncrementalVisibilityHandling = useIncrementalVisibilityHandling;
+    }
+  }
+
+  @Test
+  public void testIncrementalVisibilityHandlingDispatchesInLayoutOrder() {
+    final boolean useIncrementalVisibilityHandling =
+        ComponentsConfiguration.useIncrementalVisibilityHandling;
+    ComponentsConfiguration.useIncrementalVisibilityHandling = true;
+
+    try {
+      final List<EventHandler> dispatchedEventHandlers = new ArrayList<>();
+      final EventDispatcher eventDispatcher =
+          new EventDispatcher() {
+            @Override
+            public Object dispatchOnEvent(EventHandler eventHandler, Object eventState) {
+              dispatchedEventHandlers.add(eventHandler);
+              return null;
+            }
+          };
+      final HasEventDispatcher hasEventDispatcher =
+          new HasEventDispatcher() {
+            @Override
+            public EventDispatcher getEventDispatcher() {
+              return eventDispatcher;
+            }
+          };
+      final EventHandler<VisibleEvent> visibleEventHandler1 =
+          new EventHandler<>(hasEventDispatcher, 1, null);
+      final EventHandler<VisibleEvent> visibleEventHandler2 =
+          new EventHandler<>(hasEventDispatcher, 2, null);
+      final EventHandler<VisibleEvent> visibleEventHandler3 =
+          new EventHandler<>(hasEventDispatcher, 3, null);
+      final EventHandler<VisibleEvent> visibleEventHandler4 =
+          new EventHandler<>(hasEventDispatcher, 4, null);
+
+      final LithoView lithoView =
+          mountComponent(
+              mContext,
+              mLithoView,
+              Column.create(mContext)
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(create(mContext).build())
+                          .visibleHandler(visibleEventHandler1)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(create(mContext).build())
+                          .visibleHandler(visibleEventHandler2)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(create(mContext).build())
+                          .visibleHandler(visibleEventHandler3)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .child(
+                      Wrapper.create(mContext)
+                          .delegate(create(mContext).build())
+                          .visibleHandler(visibleEventHandler4)
+                          .widthPx(10)
+                          .heightPx(5))
+                  .build(),
+              true,
+              10,
+              20);
+
+      lithoView.performIncrementalMount(new Rect(LEFT, 10, RIGHT, 20), true);
+
+      // Scrolling up: the first two items enter from the top.
+      dispatchedEventHandlers.clear();
+      lithoView.performIncrementalMount(new Rect(LEFT, 0, RIGHT, 10), true);
+      assertThat(dispatchedEventHandlers)
+          .containsExactly(visibleEventHandler1, visibleEventHandler2);
+
+      // Scrolling down: the last two items enter from the bottom.
+      dispatchedEventHandlers.clear();
+      lithoView.performIncrementalMount(new Rect(LEFT, 10, RIGHT, 20), true);
+      assertThat(dispatchedEventHandlers)
+          .containsExactly(visibleEventHandler3, visibleEventHandler4);
+    } finally {
+      ComponentsConfiguration.useIncrementalVisibilityHandling = useIncrementalVisibilityHandling;
+    }
+  }
+
   @Test
   public void testDetachWithReleasedTreeTriggersInvisibilityItems() {
     final TestComponent content = create(mContext).build();
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.graphics.drawable.Drawable;
+import android.text.Layout;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link WarmUpPlan} */
+@RunWith(ComponentsTestRunner.class)
+public class WarmUpPlanTest {
+
+  @Test
+  public void testContentIsIgnoredWhenNotCollecting() {
+    final WarmUpPlan plan = new WarmUpPlan();
+
+    WarmUpPlan.addTextLayout(mockLayout());
+    WarmUpPlan.addDrawable(mock(Drawable.class), 10, 10);
+
+    assertThat(plan.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testEntriesAreSortedByDistance() {
+    final WarmUpPlan plan = new WarmUpPlan();
+    final Layout farLayout = mockLayout();
+    final Layout nearLayout = mockLayout();
+    final Drawable drawable = mock(Drawable.class);
+
+    final WarmUpPlan previous = WarmUpPlan.beginCollecting(plan);
+    try {
+      plan.setCurrentPosition(0, 200);
+      WarmUpPlan.addTextLayout(farLayout);
+      plan.setCurrentPosition(0, 0);
+      WarmUpPlan.addTextLayout(nearLayout);
+      plan.setCurrentPosition(50, 50);
+      WarmUpPlan.addDrawable(drawable, 20, 30);
+      WarmUpPlan.addDrawable(mock(Drawable.class), 0, 30);
+    } finally {
+      WarmUpPlan.endCollecting(previous);
+    }
+    plan.sortByDistance();
+
+    assertThat(plan.size()).isEqualTo(3);
+    assertThat(plan.get(0).getContent()).isSameAs(nearLayout);
+    assertThat(plan.get(1).getContent()).isSameAs(drawable);
+    assertThat(plan.get(1).getWidth()).isEqualTo(20);
+    assertThat(plan.get(1).getHeight()).isEqualTo(30);
+    assertThat(plan.get(2).getContent()).isSameAs(farLayout);
+  }
+
+  @Test
+  public void testNestedCalculationDoesNotLeakIntoOuterPlan() {
+    final WarmUpPlan plan = new WarmUpPlan();
+
+    final WarmUpPlan previous = WarmUpPlan.beginCollecting(plan);
+    try {
+      final WarmUpPlan outer = WarmUpPlan.beginCollecting(null);
+      WarmUpPlan.addTextLayout(mockLayout());
+      WarmUpPlan.endCollecting(outer);
+
+      WarmUpPlan.addTextLayout(mockLayout());
+    } finally {
+      WarmUpPlan.endCollecting(previous);
+    }
+
+    assertThat(plan.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCancel() {
+    final WarmUpPlan plan = new WarmUpPlan();
+    assertThat(plan.isCancelled()).isFalse();
+
+    plan.cancel();
+    assertThat(plan.isCancelled()).isTrue();
+  }
+
+  private static Layout mockLayout() {
+    final Layout layout = mock(Layout.class);
+    when(layout.getWidth()).thenReturn(10);
+    when(layout.getHeight()).thenReturn(10);
+    return layout;
+  }
+}
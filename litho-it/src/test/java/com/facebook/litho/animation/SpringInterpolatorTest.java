@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.animation;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.dataflow.springs.SpringConfig;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class SpringInterpolatorTest {
+
+  @Test
+  public void testInterpolatesFromZeroToOne() {
+    final SpringInterpolator interpolator = SpringInterpolator.create(null, 100);
+
+    assertThat(interpolator).isNotNull();
+    assertThat(interpolator.getDurationMs()).isGreaterThan(0);
+    assertThat(interpolator.getInterpolation(0)).isEqualTo(0f);
+    assertThat(interpolator.getInterpolation(0.1f)).isBetween(0f, 1f);
+    assertThat(interpolator.getInterpolation(1)).isEqualTo(1f);
+  }
+
+  @Test
+  public void testLongerDistancesComeToRestLater() {
+    final SpringInterpolator shortDistance = SpringInterpolator.create(null, 1);
+    final SpringInterpolator longDistance = SpringInterpolator.create(null, 1000);
+
+    assertThat(longDistance.getDurationMs()).isGreaterThan(shortDistance.getDurationMs());
+  }
+
+  @Test
+  public void testSpringNotComingToRestIsNotCompiled() {
+    assertThat(SpringInterpolator.create(new SpringConfig(1, 0.01), 100)).isNull();
+    assertThat(SpringInterpolator.create(new SpringConfig(0, 5), 100)).isNull();
+  }
+}
@@ -162,6 +162,62 @@ public class DataFlowGraphTest {
     assertThat(dest.getValue()).isEqualTo(3588f);
   }
 
+  @Test
+  public void testCompiledNodesReadInputsFromOtherNodeTypes() {
+    SettableNode fraction = new SettableNode();
+    ConstantNode initial = new ConstantNode(10);
+    SimpleNode end = new SimpleNode();
+    SettableNode endSource = new SettableNode();
+    MappingNode mapping = new MappingNode();
+    AdditionNode sum = new AdditionNode();
+    OutputOnlyNode destination = new OutputOnlyNode();
+
+    GraphBinding binding = create(mDataFlowGraph);
+    binding.addBinding(endSource, end);
+    binding.addBinding(fraction, mapping);
+    binding.addBinding(initial, mapping, MappingNode.INITIAL_INPUT);
+    binding.addBinding(end, mapping, MappingNode.END_INPUT);
+    binding.addBinding(mapping, sum, "a");
+    binding.addBinding(initial, sum, "b");
+    binding.addBinding(sum, destination);
+    binding.activate();
+
+    endSource.setValue(20);
+    fraction.setValue(0.5f);
+    mTestTimingSource.step(1);
+
+    assertThat(mapping.getValue()).isEqualTo(15f);
+    assertThat(destination.getValue()).isEqualTo(25f);
+
+    fraction.setValue(1);
+    mTestTimingSource.step(1);
+
+    assertThat(destination.getValue()).isEqualTo(30f);
+  }
+
+  @Test
+  public void testSubclassesOfCompiledNodesUseCalculateValue() {
+    SettableNode source = new SettableNode();
+    SimpleNode doubling =
+        new SimpleNode() {
+          @Override
+          public float calculateValue(long frameTimeNanos) {
+            return 2 * super.calculateValue(frameTimeNanos);
+          }
+        };
+    OutputOnlyNode destination = new OutputOnlyNode();
+
+    GraphBinding binding = create(mDataFlowGraph);
+    binding.addBinding(source, doubling);
+    binding.addBinding(doubling, destination);
+    binding.activate();
+
+    source.setValue(21);
+    mTestTimingSource.step(1);
+
+    assertThat(destination.getValue()).isEqualTo(42f);
+  }
+
   @Test(expected = DetectedCycleException.class)
   public void testSimpleCycle() {
     SimpleNode node1 = new SimpleNode();
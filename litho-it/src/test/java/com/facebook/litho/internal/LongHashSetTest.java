@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.internal;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+  @Test
+  public void testAddAndContains() {
+    final LongHashSet set = new LongHashSet();
+
+    assertThat(set.isEmpty()).isTrue();
+    assertThat(set.add(0L)).isTrue();
+    assertThat(set.add(-1L)).isTrue();
+    assertThat(set.add(Long.MAX_VALUE)).isTrue();
+
+    // Can't add more than once
+    assertThat(set.add(0L)).isFalse();
+    assertThat(set.size()).isEqualTo(3);
+
+    assertThat(set.contains(0L)).isTrue();
+    assertThat(set.contains(-1L)).isTrue();
+    assertThat(set.contains(Long.MAX_VALUE)).isTrue();
+    assertThat(set.contains(1L)).isFalse();
+  }
+
+  @Test
+  public void testGrow() {
+    final LongHashSet set = new LongHashSet(2);
+
+    for (long i = 0; i < 1000; i++) {
+      assertThat(set.add(i << 32)).isTrue();
+    }
+
+    assertThat(set.size()).isEqualTo(1000);
+    for (long i = 0; i < 1000; i++) {
+      assertThat(set.contains(i << 32)).isTrue();
+      assertThat(set.contains((i << 32) + 1)).isFalse();
+    }
+  }
+
+  @Test
+  public void testClear() {
+    final LongHashSet set = new LongHashSet();
+    set.add(42L);
+
+    set.clear();
+
+    assertThat(set.isEmpty()).isTrue();
+    assertThat(set.contains(42L)).isFalse();
+    assertThat(set.add(42L)).isTrue();
+  }
+}
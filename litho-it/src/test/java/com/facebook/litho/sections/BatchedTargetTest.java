@@ -21,8 +21,11 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assume.assumeThat;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.sections.SectionTree.Target;
@@ -38,6 +41,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 
 /** Tests {@link BatchedTarget} */
@@ -249,6 +253,51 @@ public class BatchedTargetTest {
     verify(mMockTarget).deleteRange(eq(102), eq(20));
   }
 
+  @Test
+  public void testConsolidateAdjacentDeleteRanges() throws Exception {
+    Change[] ops = new Change[] {
+        Change.remove(10),
+        Change.removeRange(10, 5),
+        Change.removeRange(4, 6),
+        Change.removeRange(30, 2),
+    };
+
+    executeOperations(ops);
+
+    verify(mMockTarget).deleteRange(4, 12);
+    verify(mMockTarget).deleteRange(30, 2);
+    verifyNoMoreInteractions(mMockTarget);
+  }
+
+  @Test
+  public void testMoveRangeDown() throws Exception {
+    Change[] ops = new Change[] {
+        Change.moveRange(1, 6, 3),
+    };
+
+    executeOperations(ops);
+
+    verify(mMockTarget, times(3)).move(1, 6);
+    verifyNoMoreInteractions(mMockTarget);
+  }
+
+  @Test
+  public void testMoveRangeUp() throws Exception {
+    Change[] ops = new Change[] {
+        Change.remove(0),
+        Change.moveRange(5, 1, 3),
+    };
+
+    executeOperations(ops);
+
+    final InOrder inOrder = inOrder(mMockTarget);
+    inOrder.verify(mMockTarget).delete(0);
+    inOrder.verify(mMockTarget).move(5, 1);
+    inOrder.verify(mMockTarget).move(6, 2);
+    inOrder.verify(mMockTarget).move(7, 3);
+    verifyNoMoreInteractions(mMockTarget);
+  }
+
   @Test
   public void testConsolidateDifferentTypes() throws Exception {
     Change[] ops = new Change[] {
@@ -370,7 +419,11 @@ public class BatchedTargetTest {
           mTarget.updateRange(change.getIndex(), change.getCount(), change.getRenderInfos());
           break;
         case Change.MOVE:
-          mTarget.move(change.getIndex(), change.getToIndex());
+          if (change.getCount() > 1) {
+            mTarget.moveRange(change.getIndex(), change.getToIndex(), change.getCount());
+          } else {
+            mTarget.move(change.getIndex(), change.getToIndex());
+          }
           break;
       }
     }
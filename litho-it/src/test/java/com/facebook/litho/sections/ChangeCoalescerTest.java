@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections;
+
+import static com.facebook.litho.sections.Change.DELETE_RANGE;
+import static com.facebook.litho.sections.Change.INSERT_RANGE;
+import static com.facebook.litho.sections.Change.MOVE;
+import static com.facebook.litho.sections.Change.UPDATE;
+import static com.facebook.litho.sections.Change.UPDATE_RANGE;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.litho.widget.ComponentRenderInfo;
+import com.facebook.litho.widget.RenderInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link ChangeCoalescer} */
+@RunWith(ComponentsTestRunner.class)
+public class ChangeCoalescerTest {
+
+  @Test
+  public void testInsertsWithinPendingRange() {
+    final RenderInfo first = ComponentRenderInfo.createEmpty();
+    final RenderInfo second = ComponentRenderInfo.createEmpty();
+    final RenderInfo third = ComponentRenderInfo.createEmpty();
+
+    final List<Change> coalesced =
+        ChangeCoalescer.coalesce(
+            Arrays.asList(
+                Change.insert(3, first), Change.insert(4, third), Change.insert(4, second)));
+
+    assertThat(coalesced).hasSize(1);
+    assertChange(coalesced.get(0), INSERT_RANGE, 3, 3);
+    assertThat(coalesced.get(0).getRenderInfos()).containsExactly(first, second, third);
+  }
+
+  @Test
+  public void testUpdateOfInsertedItemIsFoldedIntoInsert() {
+    final RenderInfo updated = ComponentRenderInfo.createEmpty();
+
+    final List<Change> coalesced =
+        ChangeCoalescer.coalesce(
+            Arrays.asList(
+                Change.insertRange(0, 2, renderInfos(2)), Change.update(1, updated)));
+
+    assertThat(coalesced).hasSize(1);
+    assertChange(coalesced.get(0), INSERT_RANGE, 0, 2);
+    assertThat(coalesced.get(0).getRenderInfos().get(1)).isSameAs(updated);
+  }
+
+  @Test
+  public void testDeleteOfInsertedItemsCancelsInsert() {
+    final List<Change> coalesced =
+        ChangeCoalescer.coalesce(
+            Arrays.asList(
+                Change.removeRange(2, 2),
+                Change.insertRange(5, 2, renderInfos(2)),
+                Change.removeRange(5, 2),
+                Change.remove(1)));
+
+    assertThat(coalesced).hasSize(1);
+    assertChange(coalesced.get(0), DELETE_RANGE, 1, 3);
+  }
+
+  @Test
+  public void testOverlappingUpdates() {
+    final List<Change> coalesced =
+        ChangeCoalescer.coalesce(
+            Arrays.asList(
+                Change.updateRange(4, 2, renderInfos(2)),
+                Change.update(3, ComponentRenderInfo.createEmpty()),
+                Change.updateRange(5, 3, renderInfos(3))));
+
+    assertThat(coalesced).hasSize(1);
+    assertChange(coalesced.get(0), UPDATE_RANGE, 3, 5);
+  }
+
+  @Test
+  public void testUpdateOfDeletedItemIsDropped() {
+    final List<Change> coalesced =
+        ChangeCoalescer.coalesce(
+            Arrays.asList(
+                Change.update(3, ComponentRenderInfo.createEmpty()), Change.removeRange(2, 3)));
+
+    assertThat(coalesced).hasSize(1);
+    assertChange(coalesced.get(0), DELETE_RANGE, 2, 3);
+  }
+
+  @Test
+  public void testMovesAreKept() {
+    final Change update = Change.update(0, ComponentRenderInfo.createEmpty());
+    final Change move = Change.move(0, 3);
+
+    final List<Change> coalesced =
+        ChangeCoalescer.coalesce(
+            Arrays.asList(update, move, Change.update(3, ComponentRenderInfo.createEmpty())));
+
+    assertThat(coalesced).hasSize(3);
+    assertThat(coalesced.get(0)).isSameAs(update);
+    assertThat(coalesced.get(1)).isSameAs(move);
+    assertThat(coalesced.get(2).getType()).isEqualTo(UPDATE);
+  }
+
+  @Test
+  public void testCoalesceKeepsCount() {
+    final ChangeSet changeSet = ChangeSet.acquireChangeSet(10, null, false);
+    changeSet.addChange(Change.insert(2, ComponentRenderInfo.createEmpty()));
+    changeSet.addChange(Change.insert(3, ComponentRenderInfo.createEmpty()));
+    changeSet.addChange(Change.move(0, 1));
+
+    changeSet.coalesce();
+
+    assertThat(changeSet.getCount()).isEqualTo(12);
+    assertThat(changeSet.getChangeCount()).isEqualTo(2);
+    assertChange(changeSet.getChangeAt(0), INSERT_RANGE, 2, 2);
+    assertThat(changeSet.getChangeAt(1).getType()).isEqualTo(MOVE);
+  }
+
+  private static void assertChange(Change change, int type, int index, int count) {
+    assertThat(change.getType()).isEqualTo(type);
+    assertThat(change.getIndex()).isEqualTo(index);
+    assertThat(change.getCount()).isEqualTo(count);
+  }
+
+  private static List<RenderInfo> renderInfos(int count) {
+    final List<RenderInfo> renderInfos = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      renderInfos.add(ComponentRenderInfo.createEmpty());
+    }
+    return renderInfos;
+  }
+}
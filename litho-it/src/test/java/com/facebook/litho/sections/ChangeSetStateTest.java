@@ -20,6 +20,10 @@ import static com.facebook.litho.sections.Change.MOVE;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import android.os.Process;
+import com.facebook.litho.LayoutThreadPoolConfigurationImpl;
+import com.facebook.litho.config.LayoutThreadPoolConfiguration;
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import com.facebook.litho.testing.sections.TestSectionCreator;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
@@ -310,7 +314,10 @@ public class ChangeSetStateTest {
 
     final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
 
-    assertThat(secondChangeSet.getChangeCount()).isEqualTo(2);
+    assertThat(secondChangeSet.getChangeCount()).isEqualTo(1);
+    assertThat(secondChangeSet.getChangeAt(0).getType()).isEqualTo(Change.DELETE_RANGE);
+    assertThat(secondChangeSet.getChangeAt(0).getIndex()).isEqualTo(3);
+    assertThat(secondChangeSet.getChangeAt(0).getCount()).isEqualTo(2);
     assertThat(secondChangeSet.getCount()).isEqualTo(3);
     assertThat(leaf1.getCount()).isEqualTo(3);
     assertThat(newRoot.getCount()).isEqualTo(3);
@@ -365,31 +372,17 @@ public class ChangeSetStateTest {
 
     final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
 
-    assertThat(numChildren3 + numChildren2 + numChildren1)
-        .isEqualTo(secondChangeSet.getChangeCount());
+    assertThat(3).isEqualTo(secondChangeSet.getChangeCount());
     assertThat(totalNumChildren).isEqualTo(secondChangeSet.getCount());
     assertThat(totalNumChildren).isEqualTo(newRoot.getCount());
 
-    int changeIndex = 0;
-
-    for (int i = 0; i < numChildren3; i++) {
-      assertThat(numChildren1 + numChildren2)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(totalNumChildren - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
-
-    for (int i = 0; i < numChildren2; i++) {
-      assertThat(numChildren1).isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(totalNumChildren - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
-
-    for (int i = 0; i < numChildren1; i++) {
-      assertThat(0).isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(totalNumChildren - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
+    assertMove(
+        secondChangeSet.getChangeAt(0),
+        numChildren1 + numChildren2,
+        totalNumChildren - 1,
+        numChildren3);
+    assertMove(secondChangeSet.getChangeAt(1), numChildren1, totalNumChildren - 1, numChildren2);
+    assertMove(secondChangeSet.getChangeAt(2), 0, totalNumChildren - 1, numChildren1);
   }
 
   @Test
@@ -553,24 +546,17 @@ public class ChangeSetStateTest {
 
     final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
 
-    assertThat(numChildren1 + numChildren3).isEqualTo(secondChangeSet.getChangeCount());
+    assertThat(2).isEqualTo(secondChangeSet.getChangeCount());
     assertThat(totalNumChildren).isEqualTo(secondChangeSet.getCount());
     assertThat(totalNumChildren).isEqualTo(newRoot.getCount());
 
-    int changeIndex = 0;
-
-    for (int i = 0; i < numChildren1; i++) {
-      assertThat(0).isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(numChildren1 + numChildren2 - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
-
-    for (int i = 0; i < numChildren3; i++) {
-      assertThat(numChildren1 + numChildren2)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(totalNumChildren - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
+    assertMove(
+        secondChangeSet.getChangeAt(0), 0, numChildren1 + numChildren2 - 1, numChildren1);
+    assertMove(
+        secondChangeSet.getChangeAt(1),
+        numChildren1 + numChildren2,
+        totalNumChildren - 1,
+        numChildren3);
   }
 
   @Test
@@ -617,20 +603,15 @@ public class ChangeSetStateTest {
 
     final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
 
-    assertThat(numChildren1 + numChildren3).isEqualTo(secondChangeSet.getChangeCount());
+    assertThat(2).isEqualTo(secondChangeSet.getChangeCount());
     assertThat(totalNumChildren - numChildren3).isEqualTo(secondChangeSet.getCount());
     assertThat(1).isEqualTo(secondChangeSetState.getRemovedComponents().size());
     assertThat(leaf3).isEqualTo(secondChangeSetState.getRemovedComponents().get(0));
 
     assertThat(totalNumChildren - numChildren3).isEqualTo(newRoot.getCount());
 
-    int changeIndex = 0;
-
-    for (int i = 0; i < numChildren1; i++) {
-      assertThat(0).isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(numChildren1 + numChildren2 - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
+    assertMove(
+        secondChangeSet.getChangeAt(0), 0, numChildren1 + numChildren2 - 1, numChildren1);
   }
 
   @Test
@@ -677,16 +658,11 @@ public class ChangeSetStateTest {
 
     final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
 
-    assertThat(numChildren1 + numChildren3).isEqualTo(secondChangeSet.getChangeCount());
+    assertThat(1 + numChildren3).isEqualTo(secondChangeSet.getChangeCount());
     assertThat(totalNumChildren).isEqualTo(secondChangeSet.getCount());
 
-    int changeIndex = 0;
-
-    for (int i = 0; i < numChildren1; i++) {
-      assertThat(0).isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(numChildren1 + numChildren2 - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
+    assertMove(
+        secondChangeSet.getChangeAt(0), 0, numChildren1 + numChildren2 - 1, numChildren1);
   }
 
   @Test
@@ -734,22 +710,86 @@ public class ChangeSetStateTest {
 
     final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
 
-    assertThat(numChildren1 + numChildren3 + numChildren4)
-        .isEqualTo(secondChangeSet.getChangeCount());
+    assertThat(2 + numChildren4).isEqualTo(secondChangeSet.getChangeCount());
     assertThat(numChildren1 + numChildren2 + numChildren4).isEqualTo(secondChangeSet.getCount());
 
-    int changeIndex = 0;
-
-    for (int i = 0; i < numChildren1; i++) {
-      assertThat(0).isEqualTo(secondChangeSet.getChangeAt(changeIndex).getIndex());
-      assertThat(numChildren1 + numChildren2 - 1)
-          .isEqualTo(secondChangeSet.getChangeAt(changeIndex++).getToIndex());
-    }
+    assertMove(
+        secondChangeSet.getChangeAt(0), 0, numChildren1 + numChildren2 - 1, numChildren1);
 
     assertThat(1).isEqualTo(secondChangeSetState.getRemovedComponents().size());
     assertThat(leaf3).isEqualTo(secondChangeSetState.getRemovedComponents().get(0));
   }
 
+  @Test
+  public void testParallelChildrenChangeSets() {
+    final LayoutThreadPoolConfiguration parallelChangeSetGenerationConfig =
+        SectionsConfiguration.parallelChangeSetGenerationConfig;
+    SectionsConfiguration.parallelChangeSetGenerationConfig =
+        new LayoutThreadPoolConfigurationImpl(2, 2, Process.THREAD_PRIORITY_DEFAULT);
+
+    try {
+      final Section leaf1 = createChangeSetComponent("leaf1", 3);
+      final Section leaf2 = createChangeSetComponent("leaf2", 2);
+      final Section leaf3 = createChangeSetComponent("leaf3", 2);
+      final Section leaf4 = createChangeSetComponent("leaf4", 2);
+
+      final Section root =
+          TestSectionCreator.createSectionComponent("node1", true, leaf1, leaf2, leaf3);
+      TestSectionCreator.createTree(root, mSectionContext);
+
+      ChangeSetState.generateChangeSet(
+          mSectionContext,
+          null,
+          root,
+          mSectionsDebugLogger,
+          mSectionTreeTag,
+          mCurrentPrefix,
+          mNextPrefix,
+          false);
+
+      final Section newRoot =
+          TestSectionCreator.createSectionComponent("node1", true, leaf2, leaf1, leaf4);
+      TestSectionCreator.createTree(newRoot, mSectionContext);
+
+      final ChangeSetState secondChangeSetState =
+          ChangeSetState.generateChangeSet(
+              mSectionContext,
+              root,
+              newRoot,
+              mSectionsDebugLogger,
+              mSectionTreeTag,
+              mCurrentPrefix,
+              mNextPrefix,
+              false);
+
+      final ChangeSet secondChangeSet = secondChangeSetState.getChangeSet();
+
+      assertThat(secondChangeSet.getChangeCount()).isEqualTo(4);
+      assertThat(secondChangeSet.getCount()).isEqualTo(7);
+      assertThat(newRoot.getCount()).isEqualTo(7);
+
+      assertMove(secondChangeSet.getChangeAt(0), 0, 4, 3);
+      assertThat(secondChangeSet.getChangeAt(1).getType()).isEqualTo(Change.INSERT);
+      assertThat(secondChangeSet.getChangeAt(1).getIndex()).isEqualTo(3);
+      assertThat(secondChangeSet.getChangeAt(2).getType()).isEqualTo(Change.INSERT);
+      assertThat(secondChangeSet.getChangeAt(2).getIndex()).isEqualTo(4);
+      assertThat(secondChangeSet.getChangeAt(3).getType()).isEqualTo(Change.DELETE_RANGE);
+      assertThat(secondChangeSet.getChangeAt(3).getIndex()).isEqualTo(7);
+      assertThat(secondChangeSet.getChangeAt(3).getCount()).isEqualTo(2);
+
+      assertThat(secondChangeSetState.getRemovedComponents()).containsExactly(leaf3);
+    } finally {
+      SectionsConfiguration.parallelChangeSetGenerationConfig = parallelChangeSetGenerationConfig;
+    }
+  }
+
+  private static void assertMove(Change change, int fromIndex, int toIndex, int count) {
+    assertThat(change.getType()).isEqualTo(MOVE);
+    assertThat(change.getIndex()).isEqualTo(fromIndex);
+    assertThat(change.getToIndex()).isEqualTo(toIndex);
+    assertThat(change.getCount()).isEqualTo(count);
+  }
+
   private static Section createChangeSetComponent(String key, int numChildren) {
     Change[] changes = new Change[numChildren];
     for (int i = 0; i < numChildren; i++) {
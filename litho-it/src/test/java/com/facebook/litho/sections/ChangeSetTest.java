@@ -16,6 +16,7 @@
 
 package com.facebook.litho.sections;
 
+import static com.facebook.litho.sections.Change.DELETE_RANGE;
 import static com.facebook.litho.sections.Change.MOVE;
 import static com.facebook.litho.sections.ChangeSet.acquireChangeSet;
 import static org.assertj.core.api.Java6Assertions.assertThat;
@@ -129,6 +130,34 @@ public class ChangeSetTest {
     assertThat(mergedChangeSet.getChangeAt(6).getToIndex()).isEqualTo(4);
   }
 
+  @Test
+  public void testAppend() {
+    final ChangeSet changeSet = ChangeSet.acquireChangeSet(null, false);
+    changeSet.addChange(Change.insertRange(0, 3, dummyComponentInfos(3)));
+
+    final ChangeSet secondChangeSet = ChangeSet.acquireChangeSet(4, null, false);
+    secondChangeSet.addChange(Change.moveRange(0, 3, 2));
+    secondChangeSet.addChange(Change.removeRange(1, 2));
+
+    final Change firstChange = changeSet.getChangeAt(0);
+    changeSet.append(secondChangeSet);
+
+    assertThat(changeSet.getCount()).isEqualTo(5);
+    assertThat(changeSet.getChangeCount()).isEqualTo(3);
+    assertThat(changeSet.getChangeAt(0)).isSameAs(firstChange);
+
+    final Change move = changeSet.getChangeAt(1);
+    assertThat(move.getType()).isEqualTo(MOVE);
+    assertThat(move.getIndex()).isEqualTo(3);
+    assertThat(move.getToIndex()).isEqualTo(6);
+    assertThat(move.getCount()).isEqualTo(2);
+
+    final Change delete = changeSet.getChangeAt(2);
+    assertThat(delete.getType()).isEqualTo(DELETE_RANGE);
+    assertThat(delete.getIndex()).isEqualTo(4);
+    assertThat(delete.getCount()).isEqualTo(2);
+  }
+
   @Test
   public void testRelease() {
     final ChangeSet changeSet = ChangeSet.acquireChangeSet(null, false);
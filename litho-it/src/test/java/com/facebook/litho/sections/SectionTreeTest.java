@@ -25,6 +25,9 @@ import static org.mockito.Mockito.mock;
 import android.os.Looper;
 import com.facebook.litho.Component;
 import com.facebook.litho.StateContainer;
+import com.facebook.litho.ThreadUtils;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.testing.sections.TestSectionCreator;
 import com.facebook.litho.testing.sections.TestTarget;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
@@ -77,6 +80,46 @@ public class SectionTreeTest {
     assertChangeSetHandled(changeSetHandler);
   }
 
+  @Test
+  public void testBackgroundChangeSetsAreAppliedOnCalculatingThread() {
+    final Section section =
+        TestSectionCreator.createChangeSetComponent("leaf1", Change.insert(0, makeComponentInfo()));
+
+    final TestTarget changeSetHandler = new TestTarget(true);
+    final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_FALSE);
+    ShadowLooper.pauseMainLooper();
+    try {
+      tree.setRoot(section);
+      assertChangeSetHandled(changeSetHandler);
+    } finally {
+      ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+      ShadowLooper.unPauseMainLooper();
+    }
+  }
+
+  @Test
+  public void testChangeSetsAreAppliedOnMainThreadWithoutBackgroundSupport() {
+    final Section section =
+        TestSectionCreator.createChangeSetComponent("leaf1", Change.insert(0, makeComponentInfo()));
+
+    final TestTarget changeSetHandler = new TestTarget();
+    final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_FALSE);
+    ShadowLooper.pauseMainLooper();
+    try {
+      tree.setRoot(section);
+      assertChangeSetNotSeen(changeSetHandler);
+    } finally {
+      ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+      ShadowLooper.unPauseMainLooper();
+    }
+
+    assertChangeSetHandled(changeSetHandler);
+  }
+
   @Test
   public void testSetSameRoot() {
     final Section section = TestSectionCreator.createChangeSetSection(
@@ -738,6 +781,78 @@ public class SectionTreeTest {
     assertFalse(tree.isSectionIndexValid("rootnode1leaf1", 2));
   }
 
+  @Test
+  public void testReuseUnchangedChildren() {
+    final boolean reuseUnchangedSectionChildren =
+        SectionsConfiguration.reuseUnchangedSectionChildren;
+    SectionsConfiguration.reuseUnchangedSectionChildren = true;
+
+    try {
+      final Section leaf1 =
+          TestSectionCreator.createChangeSetComponent(
+              "leaf1", Change.insert(0, makeComponentInfo()));
+      final Section leaf2 =
+          TestSectionCreator.createChangeSetComponent(
+              "leaf2", Change.insert(0, makeComponentInfo()));
+      final CountingGroupSection unchanged = new CountingGroupSection("unchanged", leaf1);
+      final CountingGroupSection updated = new CountingGroupSection("updated", leaf2);
+
+      final TestTarget changeSetHandler = new TestTarget();
+      final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+
+      tree.setRoot(TestSectionCreator.createSectionComponent("root", true, unchanged, updated));
+      assertChangeSetHandled(changeSetHandler);
+      assertThat(unchanged.mCreateChildrenCount).isEqualTo(1);
+      assertThat(updated.mCreateChildrenCount).isEqualTo(1);
+
+      final StateUpdate stateUpdate = new StateUpdate();
+      tree.updateState(leaf2.getGlobalKey(), stateUpdate, "test");
+
+      assertThat(stateUpdate.mUpdateStateCalled).isTrue();
+      assertThat(unchanged.mCreateChildrenCount).isEqualTo(1);
+      assertThat(updated.mCreateChildrenCount).isEqualTo(2);
+      assertThat(unchanged.getChildren()).containsExactly(leaf1);
+      assertThat(leaf1.getParent()).isSameAs(unchanged);
+    } finally {
+      SectionsConfiguration.reuseUnchangedSectionChildren = reuseUnchangedSectionChildren;
+    }
+  }
+
+  @Test
+  public void testNestedStateUpdateWithNumericGlobalKeysAndReusedChildren() {
+    final boolean reuseUnchangedSectionChildren =
+        SectionsConfiguration.reuseUnchangedSectionChildren;
+    final boolean useNumericGlobalKeys = ComponentsConfiguration.useNumericGlobalKeys;
+    final boolean isDebugModeEnabled = ComponentsConfiguration.isDebugModeEnabled;
+    SectionsConfiguration.reuseUnchangedSectionChildren = true;
+    ComponentsConfiguration.useNumericGlobalKeys = true;
+    // Without debug mode the global keys aren't prefixed by the ones of their ancestors.
+    ComponentsConfiguration.isDebugModeEnabled = false;
+
+    try {
+      final Section leaf =
+          TestSectionCreator.createChangeSetComponent(
+              "leaf", Change.insert(0, makeComponentInfo()));
+      final CountingGroupSection group = new CountingGroupSection("group", leaf);
+
+      final TestTarget changeSetHandler = new TestTarget();
+      final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+
+      tree.setRoot(TestSectionCreator.createSectionComponent("root", true, group));
+      assertChangeSetHandled(changeSetHandler);
+
+      final StateUpdate stateUpdate = new StateUpdate();
+      tree.updateState(leaf.getGlobalKey(), stateUpdate, "test");
+
+      assertThat(stateUpdate.mUpdateStateCalled).isTrue();
+      assertThat(group.mCreateChildrenCount).isEqualTo(2);
+    } finally {
+      SectionsConfiguration.reuseUnchangedSectionChildren = reuseUnchangedSectionChildren;
+      ComponentsConfiguration.useNumericGlobalKeys = useNumericGlobalKeys;
+      ComponentsConfiguration.isDebugModeEnabled = isDebugModeEnabled;
+    }
+  }
+
   @Test(expected = RuntimeException.class)
   public void testCannotForceBothSyncAndAsyncStateUpdates() {
     SectionTree.create(mSectionContext, new TestTarget())
@@ -766,6 +881,23 @@ public class SectionTreeTest {
     }
   }
 
+  private static class CountingGroupSection extends TestSection {
+
+    private final Section mChild;
+    private int mCreateChildrenCount;
+
+    CountingGroupSection(String key, Section child) {
+      super(0, key, false);
+      mChild = child;
+    }
+
+    @Override
+    protected Children createChildren(SectionContext c) {
+      mCreateChildrenCount++;
+      return Children.create().child(mChild).build();
+    }
+  }
+
   private static RenderInfo makeComponentInfo() {
     return ComponentRenderInfo.create().component(mock(Component.class)).build();
   }
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import static com.facebook.litho.testing.sections.TestTarget.DELETE;
+import static com.facebook.litho.testing.sections.TestTarget.DELETE_RANGE;
+import static com.facebook.litho.testing.sections.TestTarget.INSERT;
+import static com.facebook.litho.testing.sections.TestTarget.INSERT_RANGE;
+import static com.facebook.litho.testing.sections.TestTarget.MOVE;
+import static com.facebook.litho.testing.sections.TestTarget.UPDATE;
+import static com.facebook.litho.testing.sections.TestTarget.UPDATE_RANGE;
+import static junit.framework.Assert.assertEquals;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.EventDispatcher;
+import com.facebook.litho.EventHandler;
+import com.facebook.litho.HasEventDispatcher;
+import com.facebook.litho.sections.SectionContext;
+import com.facebook.litho.sections.SectionTree;
+import com.facebook.litho.testing.sections.TestTarget;
+import com.facebook.litho.testing.sections.TestTarget.Operation;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.litho.widget.ComponentRenderInfo;
+import com.facebook.litho.widget.Text;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests {@link IncrementalDataDiffSectionSpec} */
+@RunWith(ComponentsTestRunner.class)
+public class IncrementalDataDiffSectionSpecTest {
+
+  private SectionContext mSectionContext;
+  private SectionTree mSectionTree;
+  private TestTarget mTestTarget;
+  private List<Object> mRenderedModels;
+  private List<Integer> mRenderedIndexes;
+  private EventHandler<RenderEvent> mRenderEventHandler;
+
+  @Before
+  public void setup() throws Exception {
+    mSectionContext = new SectionContext(RuntimeEnvironment.application);
+    mTestTarget = new TestTarget();
+    mSectionTree = SectionTree.create(mSectionContext, mTestTarget).build();
+
+    mRenderedModels = new ArrayList<>();
+    mRenderedIndexes = new ArrayList<>();
+    final EventDispatcher eventDispatcher =
+        new EventDispatcher() {
+          @Override
+          public Object dispatchOnEvent(EventHandler eventHandler, Object eventState) {
+            final RenderEvent renderEvent = (RenderEvent) eventState;
+            mRenderedModels.add(renderEvent.model);
+            mRenderedIndexes.add(renderEvent.index);
+            return ComponentRenderInfo.create()
+                .component(Text.create(mSectionContext).text(renderEvent.model.toString()).build())
+                .build();
+          }
+        };
+    final HasEventDispatcher hasEventDispatcher =
+        new HasEventDispatcher() {
+          @Override
+          public EventDispatcher getEventDispatcher() {
+            return eventDispatcher;
+          }
+        };
+    mRenderEventHandler = new EventHandler<>(hasEventDispatcher, 1, null);
+  }
+
+  @Test
+  public void testSetRoot() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(generateData(100));
+
+    setRoot(source.snapshot());
+    final List<Operation> executedOperations = mTestTarget.getOperations();
+
+    assertThat(executedOperations.size()).isEqualTo(1);
+    assertRangeOperation(executedOperations.get(0), INSERT_RANGE, 0, 100);
+    assertThat(mRenderedModels).isEqualTo(generateData(100));
+  }
+
+  @Test
+  public void testAppendPageOnlyRendersThePage() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(generateData(100));
+    setRoot(source.snapshot());
+    clear();
+
+    source.append(Arrays.asList("100", "101", "102", "103", "104"));
+    setRoot(source.snapshot());
+    final List<Operation> executedOperations = mTestTarget.getOperations();
+
+    assertThat(executedOperations.size()).isEqualTo(1);
+    assertRangeOperation(executedOperations.get(0), INSERT_RANGE, 100, 5);
+    assertThat(mRenderedModels).containsExactly("100", "101", "102", "103", "104");
+    assertThat(mRenderedIndexes).containsExactly(100, 101, 102, 103, 104);
+  }
+
+  @Test
+  public void testMutationLog() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(generateData(10));
+    setRoot(source.snapshot());
+    clear();
+
+    source.insert(1, "inserted");
+    source.update(3, "updated");
+    source.remove(0);
+    source.move(2, 0);
+    setRoot(source.snapshot());
+    final List<Operation> executedOperations = mTestTarget.getOperations();
+
+    assertThat(executedOperations.size()).isEqualTo(4);
+
+    assertThat(executedOperations.get(0).mOp).isEqualTo(INSERT);
+    assertThat(executedOperations.get(0).mIndex).isEqualTo(1);
+
+    assertThat(executedOperations.get(1).mOp).isEqualTo(UPDATE);
+    assertThat(executedOperations.get(1).mIndex).isEqualTo(3);
+
+    assertThat(executedOperations.get(2).mOp).isEqualTo(DELETE);
+    assertThat(executedOperations.get(2).mIndex).isEqualTo(0);
+
+    assertThat(executedOperations.get(3).mOp).isEqualTo(MOVE);
+    assertThat(executedOperations.get(3).mIndex).isEqualTo(2);
+    assertThat(executedOperations.get(3).mToIndex).isEqualTo(0);
+
+    assertThat(mRenderedModels).containsExactly("inserted", "updated");
+    assertThat(mRenderedIndexes).containsExactly(1, 3);
+  }
+
+  @Test
+  public void testRangeMutations() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(generateData(10));
+    setRoot(source.snapshot());
+    clear();
+
+    source.updateRange(2, Arrays.asList("a", "b", "c"));
+    source.removeRange(6, 3);
+    setRoot(source.snapshot());
+    final List<Operation> executedOperations = mTestTarget.getOperations();
+
+    assertThat(executedOperations.size()).isEqualTo(2);
+    assertRangeOperation(executedOperations.get(0), UPDATE_RANGE, 2, 3);
+    assertRangeOperation(executedOperations.get(1), DELETE_RANGE, 6, 3);
+
+    assertThat(mRenderedModels).containsExactly("a", "b", "c");
+    assertThat(mRenderedIndexes).containsExactly(2, 3, 4);
+  }
+
+  @Test
+  public void testSameSnapshotDoesNotChangeAnything() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(generateData(10));
+    final IncrementalData<String> snapshot = source.snapshot();
+    setRoot(snapshot);
+    clear();
+
+    setRoot(snapshot);
+
+    assertThat(mTestTarget.getOperations()).isEmpty();
+    assertThat(mRenderedModels).isEmpty();
+  }
+
+  @Test
+  public void testSnapshotFromAnotherSourceReplacesItems() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(generateData(10));
+    setRoot(source.snapshot());
+    clear();
+
+    final IncrementalDataSource<String> otherSource = new IncrementalDataSource<>();
+    otherSource.append(generateData(4));
+    setRoot(otherSource.snapshot());
+    final List<Operation> executedOperations = mTestTarget.getOperations();
+
+    assertThat(executedOperations.size()).isEqualTo(2);
+    assertRangeOperation(executedOperations.get(0), DELETE_RANGE, 0, 10);
+    assertRangeOperation(executedOperations.get(1), INSERT_RANGE, 0, 4);
+    assertThat(mRenderedModels).isEqualTo(generateData(4));
+  }
+
+  private void setRoot(IncrementalData<String> data) {
+    mSectionTree.setRoot(
+        IncrementalDataDiffSection.<String>create(mSectionContext)
+            .data(data)
+            .renderEventHandler(mRenderEventHandler)
+            .build());
+  }
+
+  private void clear() {
+    mTestTarget.clear();
+    mRenderedModels.clear();
+    mRenderedIndexes.clear();
+  }
+
+  private static void assertRangeOperation(
+      Operation operation, int opType, int startIndex, int rangeCount) {
+    assertEquals("operation type", opType, operation.mOp);
+    assertEquals("operation starting index", startIndex, operation.mIndex);
+    assertEquals("operation range count", rangeCount, operation.mRangeCount);
+  }
+
+  private static List<String> generateData(int length) {
+    final List<String> data = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      data.add(Integer.toString(i));
+    }
+    return data;
+  }
+}
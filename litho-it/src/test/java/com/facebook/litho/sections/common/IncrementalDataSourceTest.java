@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.sections.common.IncrementalDataSource.Mutation;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link IncrementalDataSource} and {@link IncrementalData} */
+@RunWith(ComponentsTestRunner.class)
+public class IncrementalDataSourceTest {
+
+  @Test
+  public void testSnapshotIsImmutable() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(Arrays.asList("a", "b", "c"));
+
+    final IncrementalData<String> snapshot = source.snapshot();
+    source.remove(0);
+    source.update(0, "x");
+
+    assertThat(snapshot.size()).isEqualTo(3);
+    assertThat(snapshot.getItems()).containsExactly("a", "b", "c");
+    assertThat(source.snapshot().getItems()).containsExactly("x", "c");
+  }
+
+  @Test
+  public void testSnapshotIsReusedWithoutMutations() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(Arrays.asList("a", "b"));
+
+    final IncrementalData<String> snapshot = source.snapshot();
+    source.append(new ArrayList<String>());
+
+    assertThat(source.snapshot()).isSameAs(snapshot);
+  }
+
+  @Test
+  public void testMutationsBetweenSnapshots() {
+    final IncrementalDataSource<String> source = new IncrementalDataSource<>();
+    source.append(Arrays.asList("a", "b", "c"));
+    final IncrementalData<String> previous = source.snapshot();
+
+    source.append(Arrays.asList("d", "e"));
+    source.move(0, 2);
+    source.removeRange(3, 2);
+    final IncrementalData<String> next = source.snapshot();
+
+    assertThat(next.isUpdateOf(previous)).isTrue();
+    assertThat(previous.isUpdateOf(next)).isFalse();
+    assertThat(next.isUpdateOf(new IncrementalDataSource<String>().snapshot())).isFalse();
+
+    final List<Integer> types = new ArrayList<>();
+    for (Mutation mutation = previous.getMutation(); mutation != next.getMutation(); ) {
+      mutation = mutation.mNext;
+      types.add(mutation.mType);
+    }
+    assertThat(types).containsExactly(Mutation.INSERT, Mutation.MOVE, Mutation.REMOVE);
+    assertThat(next.getItems()).containsExactly("b", "c", "a");
+  }
+
+  @Test
+  public void testSnapshotsAcrossNewBases() {
+    final IncrementalDataSource<Integer> source = new IncrementalDataSource<>();
+    final List<Integer> expected = new ArrayList<>();
+    final IncrementalData<Integer> first = source.snapshot();
+
+    for (int i = 0; i < 500; i++) {
+      source.insert(i / 2, i);
+      expected.add(i / 2, i);
+      if (i % 3 == 0) {
+        source.update(0, -i);
+        expected.set(0, -i);
+      }
+    }
+
+    assertThat(first.getItems()).isEmpty();
+    assertThat(source.snapshot().getItems()).isEqualTo(expected);
+  }
+}
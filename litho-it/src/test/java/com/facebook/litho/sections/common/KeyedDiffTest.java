@@ -0,0 +1,194 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.support.v7.util.ListUpdateCallback;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link KeyedDiff} */
+@RunWith(ComponentsTestRunner.class)
+public class KeyedDiffTest {
+
+  /** Items are keyed by their first character, the rest of the item is its content. */
+  private static final KeyedDiff.Callback<String> CALLBACK =
+      new KeyedDiff.Callback<String>() {
+        @Override
+        public Object getKey(String item) {
+          return item.charAt(0);
+        }
+
+        @Override
+        public boolean areContentsTheSame(String previous, String next) {
+          return previous.equals(next);
+        }
+      };
+
+  @Test
+  public void testInsertAndRemove() {
+    final ApplyingCallback result =
+        applyDiff(Arrays.asList("a", "b", "c", "d"), Arrays.asList("x", "a", "c", "y", "d"), true);
+
+    assertThat(result.mMoves).isEqualTo(0);
+    assertThat(result.mChanged).isEmpty();
+  }
+
+  @Test
+  public void testReverseUsesMinimalMoves() {
+    final ApplyingCallback result =
+        applyDiff(Arrays.asList("a", "b", "c", "d"), Arrays.asList("d", "c", "b", "a"), true);
+
+    assertThat(result.mMoves).isEqualTo(3);
+  }
+
+  @Test
+  public void testSingleItemMovedAcrossList() {
+    final ApplyingCallback result =
+        applyDiff(
+            Arrays.asList("a", "b", "c", "d", "e"), Arrays.asList("b", "c", "d", "e", "a"), true);
+
+    assertThat(result.mMoves).isEqualTo(1);
+    assertThat(result.mInserted).isEqualTo(0);
+    assertThat(result.mRemoved).isEqualTo(0);
+  }
+
+  @Test
+  public void testNoMovesWhenDetectMovesIsDisabled() {
+    final ApplyingCallback result =
+        applyDiff(
+            Arrays.asList("a", "b", "c", "d", "e"), Arrays.asList("b", "c", "d", "e", "a"), false);
+
+    assertThat(result.mMoves).isEqualTo(0);
+    assertThat(result.mInserted).isEqualTo(1);
+    assertThat(result.mRemoved).isEqualTo(1);
+  }
+
+  @Test
+  public void testChangedItems() {
+    final ApplyingCallback result =
+        applyDiff(Arrays.asList("a", "b1", "c"), Arrays.asList("c", "a", "b2"), true);
+
+    assertThat(result.mChanged).containsExactly("b2");
+  }
+
+  @Test
+  public void testDuplicateKeysAreNotSupported() {
+    assertThat(
+            KeyedDiff.calculateDiff(
+                Arrays.asList("a", "b"), Arrays.asList("a1", "a2"), CALLBACK, true))
+        .isNull();
+  }
+
+  @Test
+  public void testRandomLists() {
+    final Random random = new Random(42);
+    final List<String> alphabet = new ArrayList<>();
+    for (char key = 'a'; key <= 'z'; key++) {
+      alphabet.add(String.valueOf(key));
+    }
+
+    for (int i = 0; i < 200; i++) {
+      Collections.shuffle(alphabet, random);
+      final List<String> previous = new ArrayList<>(alphabet.subList(0, random.nextInt(20)));
+      Collections.shuffle(alphabet, random);
+      final List<String> next = new ArrayList<>();
+      for (String item : alphabet.subList(0, random.nextInt(20))) {
+        next.add(random.nextBoolean() ? item : item + "'");
+      }
+
+      applyDiff(previous, next, random.nextBoolean());
+    }
+  }
+
+  /**
+   * Applies the diff between previous and next to a copy of previous and checks that the result
+   * matches next.
+   */
+  private static ApplyingCallback applyDiff(
+      List<String> previous, List<String> next, boolean detectMoves) {
+    final KeyedDiff<String> diff = KeyedDiff.calculateDiff(previous, next, CALLBACK, detectMoves);
+    assertThat(diff).isNotNull();
+
+    final ApplyingCallback callback = new ApplyingCallback(previous, next);
+    diff.dispatchUpdatesTo(callback);
+
+    // Like RecyclerBinderUpdateCallback, only bind the inserted items once all updates are applied.
+    final List<String> items = callback.mItems;
+    for (int i = 0, size = items.size(); i < size; i++) {
+      if (items.get(i) == null) {
+        items.set(i, next.get(i));
+      }
+    }
+
+    assertThat(items).isEqualTo(next);
+    return callback;
+  }
+
+  /** Replays the updates on a copy of the previous list, inserting null placeholders. */
+  private static class ApplyingCallback implements ListUpdateCallback {
+
+    private final List<String> mItems;
+    private final List<String> mNext;
+    private final List<String> mChanged = new ArrayList<>();
+    private int mInserted;
+    private int mRemoved;
+    private int mMoves;
+
+    private ApplyingCallback(List<String> previous, List<String> next) {
+      mItems = new ArrayList<>(previous);
+      mNext = next;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+      for (int i = 0; i < count; i++) {
+        mItems.add(position + i, null);
+      }
+      mInserted += count;
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+      for (int i = 0; i < count; i++) {
+        mItems.remove(position);
+      }
+      mRemoved += count;
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+      mItems.add(toPosition, mItems.remove(fromPosition));
+      mMoves++;
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+      for (int i = 0; i < count; i++) {
+        mItems.set(position + i, mNext.get(position + i));
+        mChanged.add(mNext.get(position + i));
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.view.View;
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+/** Tests for {@link AdapterUpdateScheduler} */
+@RunWith(ComponentsTestRunner.class)
+public class AdapterUpdateSchedulerTest {
+
+  private ChoreographerCompat mChoreographer;
+  private View mHostingView;
+  private AdapterUpdateScheduler mScheduler;
+  private int mResumeCount;
+  private final List<Boolean> mOverBudgetChecks = new ArrayList<>();
+
+  @Before
+  public void setup() {
+    mChoreographer = mock(ChoreographerCompat.class);
+    ChoreographerCompatImpl.setInstance(mChoreographer);
+
+    mHostingView = mock(View.class);
+
+    mScheduler =
+        new AdapterUpdateScheduler(
+            new Runnable() {
+              @Override
+              public void run() {
+                mResumeCount++;
+                mScheduler.beginSlice(mHostingView);
+                mOverBudgetChecks.add(mScheduler.isOverBudget());
+                mScheduler.onOperationApplied();
+                mOverBudgetChecks.add(mScheduler.isOverBudget());
+                mScheduler.onOperationApplied();
+                mScheduler.endSlice(false);
+              }
+            });
+  }
+
+  @After
+  public void tearDown() {
+    ChoreographerCompatImpl.setInstance(null);
+  }
+
+  @Test
+  public void testSliceAlwaysAppliesOneOperation() {
+    mScheduler.beginSlice(mHostingView);
+    mScheduler.onOperationApplied();
+    mScheduler.endSlice(true);
+
+    // A frame that started long ago has no budget left as soon as the slice starts.
+    captureFrameCallback().doFrame(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+
+    assertThat(mOverBudgetChecks).containsExactly(false, true);
+  }
+
+  @Test
+  public void testSliceOutsideFrameCallbackIsBudgetedFromNow() {
+    mScheduler.beginSlice(mHostingView);
+    mScheduler.onOperationApplied();
+
+    assertThat(mScheduler.isOverBudget()).isFalse();
+    verify(mHostingView, never()).getDrawingTime();
+  }
+
+  @Test
+  public void testDeferredWorkIsResumedOnNextFrame() {
+    mScheduler.beginSlice(mHostingView);
+    mScheduler.onOperationApplied();
+    mScheduler.endSlice(true);
+
+    mScheduler.beginSlice(mHostingView);
+    mScheduler.onOperationApplied();
+    mScheduler.endSlice(true);
+
+    final ChoreographerCompat.FrameCallback frameCallback = captureFrameCallback();
+    assertThat(mScheduler.hasPendingFrameCallback()).isTrue();
+    assertThat(mScheduler.getDeferredSliceCount()).isEqualTo(2);
+
+    // Within a frame callback the budget starts at the frame time.
+    frameCallback.doFrame(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+
+    assertThat(mResumeCount).isEqualTo(1);
+    assertThat(mScheduler.hasPendingFrameCallback()).isFalse();
+    assertThat(mScheduler.getAppliedOperationCount()).isEqualTo(4);
+    assertThat(mScheduler.getDeferredOperationCount()).isEqualTo(2);
+    assertThat(mScheduler.getMaxOperationsPerSlice()).isEqualTo(2);
+    assertThat(mScheduler.getDeferredSliceCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCancelRemovesPendingFrameCallback() {
+    mScheduler.beginSlice(mHostingView);
+    mScheduler.onOperationApplied();
+    mScheduler.endSlice(true);
+
+    mScheduler.cancel();
+
+    verify(mChoreographer).removeFrameCallback(any(ChoreographerCompat.FrameCallback.class));
+    assertThat(mScheduler.hasPendingFrameCallback()).isFalse();
+  }
+
+  private ChoreographerCompat.FrameCallback captureFrameCallback() {
+    final ArgumentCaptor<ChoreographerCompat.FrameCallback> captor =
+        ArgumentCaptor.forClass(ChoreographerCompat.FrameCallback.class);
+    verify(mChoreographer, times(1)).postFrameCallback(captor.capture());
+    return captor.getValue();
+  }
+}
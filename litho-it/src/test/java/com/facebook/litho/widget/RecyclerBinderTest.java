@@ -52,10 +52,15 @@ import com.facebook.litho.ComponentTree;
 import com.facebook.litho.ComponentsLogger;
 import com.facebook.litho.EventHandler;
 import com.facebook.litho.LayoutHandler;
+import com.facebook.litho.LayoutThreadPoolConfigurationImpl;
 import com.facebook.litho.LithoView;
 import com.facebook.litho.RenderCompleteEvent;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
+import com.facebook.litho.ThreadUtils;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
 import com.facebook.litho.testing.TestDrawableComponent;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
 import com.facebook.litho.testing.util.InlineLayoutSpec;
@@ -76,6 +81,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.powermock.reflect.Whitebox;
@@ -518,6 +524,41 @@ public class RecyclerBinderTest {
     }
   }
 
+  @Test
+  public void testParallelViewportFill() {
+    final LayoutInfo layoutInfo = mock(LayoutInfo.class);
+    setupBaseLayoutInfoMock(layoutInfo, OrientationHelper.VERTICAL);
+    when(layoutInfo.createViewportFiller(anyInt(), anyInt()))
+        .thenReturn(new LinearLayoutInfo.ViewportFiller(100, 350, OrientationHelper.VERTICAL));
+
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder()
+            .layoutInfo(layoutInfo)
+            .parallelViewportFillConfig(new LayoutThreadPoolConfigurationImpl(2, 2, 0))
+            .build(mComponentContext);
+
+    final List<TestComponentTreeHolder> holders = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      holders.add(
+          new TestComponentTreeHolder(
+              ComponentRenderInfo.create().component(mock(Component.class)).build()));
+    }
+
+    final Size size = new Size();
+    final int numInserted =
+        recyclerBinder.computeLayoutsToFillListViewport((List) holders, 0, 100, 350, size);
+
+    // Items are 100px high so four of them are needed to fill the viewport.
+    assertThat(numInserted).isEqualTo(4);
+    assertThat(size.height).isEqualTo(350);
+    for (int i = 0; i < 4; i++) {
+      assertThat(holders.get(i).mLayoutSyncCalled).isTrue();
+    }
+    for (int i = 4; i < holders.size(); i++) {
+      assertThat(holders.get(i).mLayoutSyncCalled).isFalse();
+    }
+  }
+
   @Test
   public void testComponentWithDifferentSpanSize() {
     final List<ComponentRenderInfo> components = new ArrayList<>();
@@ -827,6 +868,72 @@ public class RecyclerBinderTest {
     }
   }
 
+  @Test
+  public void testIncrementalMoveRange() {
+    ComponentsConfiguration.incrementalRecyclerBinderRange = true;
+    try {
+      final List<ComponentRenderInfo> components = prepareLoadedBinder();
+      final int rangeTotal = (int) (RANGE_SIZE + (RANGE_RATIO * RANGE_SIZE));
+
+      mRecyclerBinder.onNewVisibleRange(20, 22);
+      mRecyclerBinder.onNewVisibleRange(40, 42);
+
+      TestComponentTreeHolder componentTreeHolder;
+      for (int i = 0; i < components.size(); i++) {
+        componentTreeHolder = mHoldersForComponents.get(components.get(i).getComponent());
+
+        if (i >= 40 - (RANGE_RATIO * RANGE_SIZE) && i <= 40 + rangeTotal) {
+          assertThat(componentTreeHolder.isTreeValid()).isTrue();
+          assertThat(componentTreeHolder.mLayoutAsyncCalled).isTrue();
+        } else {
+          assertThat(componentTreeHolder.isTreeValid()).isFalse();
+        }
+      }
+    } finally {
+      ComponentsConfiguration.incrementalRecyclerBinderRange = false;
+    }
+  }
+
+  @Test
+  public void testIncrementalMoveRangeOnlyLaysOutEnteringPositions() {
+    ComponentsConfiguration.incrementalRecyclerBinderRange = true;
+    try {
+      final List<ComponentRenderInfo> components = prepareLoadedBinder();
+      final int rangeTotal = (int) (RANGE_SIZE + (RANGE_RATIO * RANGE_SIZE));
+
+      mRecyclerBinder.onNewVisibleRange(40, 42);
+      final int previousRangeEnd = 40 + rangeTotal;
+
+      // A position that stays in the window is not visited again.
+      final TestComponentTreeHolder stayingHolder =
+          mHoldersForComponents.get(components.get(previousRangeEnd).getComponent());
+      stayingHolder.mTreeValid = false;
+      stayingHolder.mLayoutAsyncCalled = false;
+
+      mRecyclerBinder.onNewVisibleRange(41, 43);
+
+      assertThat(stayingHolder.mLayoutAsyncCalled).isFalse();
+      assertThat(
+              mHoldersForComponents
+                  .get(components.get(previousRangeEnd + 1).getComponent())
+                  .mLayoutAsyncCalled)
+          .isTrue();
+      assertThat(
+              mHoldersForComponents
+                  .get(components.get((int) (40 - RANGE_RATIO * RANGE_SIZE)).getComponent())
+                  .isTreeValid())
+          .isFalse();
+
+      // Changing the holders invalidates the window, so every position is visited again.
+      mRecyclerBinder.updateItemAt(0, components.get(0));
+      mRecyclerBinder.onNewVisibleRange(41, 43);
+
+      assertThat(stayingHolder.mLayoutAsyncCalled).isTrue();
+    } finally {
+      ComponentsConfiguration.incrementalRecyclerBinderRange = false;
+    }
+  }
+
   @Test
   public void testRealRangeOverridesEstimatedRange() {
     final List<ComponentRenderInfo> components = prepareLoadedBinder();
@@ -3763,6 +3870,82 @@ public class RecyclerBinderTest {
     assertThat(recyclerBinder.mDataRenderedCallbacks).isEmpty();
   }
 
+  @Test
+  public void testFrameBudgetedAsyncBatchIsSplitAcrossFrames() {
+    final ChoreographerCompat choreographer = mock(ChoreographerCompat.class);
+    ChoreographerCompatImpl.setInstance(choreographer);
+
+    try {
+      final ChangeSetCompleteCallback changeSetCompleteCallback =
+          mock(ChangeSetCompleteCallback.class);
+      final RecyclerBinder recyclerBinder =
+          new RecyclerBinder.Builder()
+              .rangeRatio(RANGE_RATIO)
+              .frameBudgetedAdapterUpdates(true)
+              .build(mComponentContext);
+
+      final List<RenderInfo> renderInfos = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        renderInfos.add(
+            ComponentRenderInfo.create()
+                .component(
+                    TestDrawableComponent.create(mComponentContext)
+                        .widthPx(100)
+                        .heightPx(100)
+                        .build())
+                .build());
+      }
+      recyclerBinder.insertRangeAt(0, renderInfos);
+      recyclerBinder.notifyChangeSetComplete(true, NO_OP_CHANGE_SET_COMPLETE_CALLBACK);
+      recyclerBinder.mount(mock(RecyclerView.class));
+      recyclerBinder.measure(
+          new Size(), makeSizeSpec(200, EXACTLY), makeSizeSpec(200, EXACTLY), null);
+      recyclerBinder.onNewVisibleRange(0, 1);
+
+      // Every slice is over budget as soon as it applied one operation.
+      recyclerBinder.getAdapterUpdateScheduler().setFrameIntervalNs(1);
+
+      // Two inserts in the visible range followed by two offscreen ones.
+      final int[] positions = {0, 1, 6, 7};
+      for (int position : positions) {
+        recyclerBinder.insertItemAtAsync(
+            position,
+            ComponentRenderInfo.create()
+                .component(
+                    TestDrawableComponent.create(mComponentContext)
+                        .widthPx(100)
+                        .heightPx(100)
+                        .build())
+                .build());
+      }
+      recyclerBinder.notifyChangeSetComplete(true, changeSetCompleteCallback);
+      mLayoutThreadShadowLooper.runToEndOfTasks();
+
+      // The visible inserts are applied past the budget, the offscreen ones are deferred.
+      assertThat(recyclerBinder.getItemCount()).isEqualTo(6);
+      verify(changeSetCompleteCallback, never()).onDataBound();
+
+      final ArgumentCaptor<ChoreographerCompat.FrameCallback> captor =
+          ArgumentCaptor.forClass(ChoreographerCompat.FrameCallback.class);
+      verify(choreographer, times(1)).postFrameCallback(captor.capture());
+      captor.getValue().doFrame(System.nanoTime());
+
+      assertThat(recyclerBinder.getItemCount()).isEqualTo(7);
+      verify(changeSetCompleteCallback, never()).onDataBound();
+
+      verify(choreographer, times(2)).postFrameCallback(captor.capture());
+      captor.getValue().doFrame(System.nanoTime());
+
+      assertThat(recyclerBinder.getItemCount()).isEqualTo(8);
+      verify(changeSetCompleteCallback).onDataBound();
+      assertThat(recyclerBinder.getAdapterUpdateScheduler().hasPendingFrameCallback()).isFalse();
+      assertThat(recyclerBinder.getAdapterUpdateScheduler().getDeferredOperationCount())
+          .isEqualTo(2);
+    } finally {
+      ChoreographerCompatImpl.setInstance(null);
+    }
+  }
+
   // Async init range tests
   @Test
   public void testInitRangeOnMeasureAfterAddingItems() {
@@ -3836,6 +4019,74 @@ public class RecyclerBinderTest {
     assertThat(recyclerBinder.mDataRenderedCallbacks).isEmpty();
   }
 
+  @Test
+  public void testAsyncMutationsFromBackgroundThreadOnlyNotifyAdapterOnMainThread() {
+    final RecyclerView.Adapter adapter = mock(RecyclerView.Adapter.class);
+    final RecyclerBinder recyclerBinder = createRecyclerBinderWithMockAdapter(adapter);
+    final ChangeSetCompleteCallback changeSetCompleteCallback =
+        mock(ChangeSetCompleteCallback.class);
+    final List<RenderInfo> renderInfos = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      renderInfos.add(
+          ComponentRenderInfo.create()
+              .component(
+                  TestDrawableComponent.create(mComponentContext)
+                      .widthPx(100)
+                      .heightPx(100)
+                      .build())
+              .build());
+    }
+
+    recyclerBinder.measure(
+        new Size(), makeSizeSpec(1000, EXACTLY), makeSizeSpec(1000, EXACTLY), null);
+
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_FALSE);
+    ShadowLooper.pauseMainLooper();
+    try {
+      recyclerBinder.insertRangeAtAsync(0, renderInfos);
+      recyclerBinder.removeItemAtAsync(2);
+      recyclerBinder.notifyChangeSetComplete(true, changeSetCompleteCallback);
+
+      // The layouts complete on the background thread, the batch is then posted to the main one.
+      mLayoutThreadShadowLooper.runToEndOfTasks();
+
+      assertThat(recyclerBinder.getItemCount()).isEqualTo(0);
+      verify(adapter, never()).notifyItemInserted(anyInt());
+      verify(adapter, never()).notifyItemRemoved(anyInt());
+      verify(changeSetCompleteCallback, never()).onDataBound();
+    } finally {
+      ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+      ShadowLooper.unPauseMainLooper();
+    }
+
+    assertThat(recyclerBinder.getItemCount()).isEqualTo(2);
+    verify(adapter).notifyItemInserted(0);
+    verify(adapter).notifyItemInserted(1);
+    verify(adapter).notifyItemInserted(2);
+    verify(adapter, times(3)).notifyItemInserted(anyInt());
+    verify(adapter).notifyItemRemoved(2);
+    verify(adapter, times(1)).notifyItemRemoved(anyInt());
+    verify(changeSetCompleteCallback).onDataBound();
+  }
+
+  @Test
+  public void testNotifyChangeSetCompleteFromBackgroundThread() {
+    final ChangeSetCompleteCallback changeSetCompleteCallback =
+        mock(ChangeSetCompleteCallback.class);
+
+    ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_MAIN_THREAD_FALSE);
+    ShadowLooper.pauseMainLooper();
+    try {
+      mRecyclerBinder.notifyChangeSetComplete(true, changeSetCompleteCallback);
+      verify(changeSetCompleteCallback, never()).onDataBound();
+    } finally {
+      ThreadUtils.setMainThreadOverride(ThreadUtils.OVERRIDE_DISABLED);
+      ShadowLooper.unPauseMainLooper();
+    }
+
+    verify(changeSetCompleteCallback).onDataBound();
+  }
+
   private RecyclerBinder createRecyclerBinderWithMockAdapter(RecyclerView.Adapter adapterMock) {
     return new RecyclerBinder.Builder()
         .rangeRatio(RANGE_RATIO)
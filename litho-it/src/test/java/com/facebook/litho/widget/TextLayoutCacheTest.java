@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.SpannableString;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.yoga.YogaDirection;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests for {@link TextLayoutCache} */
+@RunWith(ComponentsTestRunner.class)
+public class TextLayoutCacheTest {
+
+  @Test
+  public void testKeysWithSameInputsAreEqual() {
+    final TextLayoutCache.Key key = createKey("Hello", 100);
+
+    assertThat(createKey("Hello", 100)).isEqualTo(key);
+    assertThat(createKey("Hello", 100).hashCode()).isEqualTo(key.hashCode());
+    assertThat(createKey(new StringBuilder("Hello"), 100)).isEqualTo(key);
+    assertThat(createKey("Hello", 101)).isNotEqualTo(key);
+    assertThat(createKey("World", 100)).isNotEqualTo(key);
+  }
+
+  @Test
+  public void testHitRate() {
+    final TextLayoutCache cache = new TextLayoutCache(2);
+    final Layout layout = mock(Layout.class);
+
+    assertThat(cache.getHitRate()).isEqualTo(0f);
+    assertThat(cache.get(createKey("Hello", 100))).isNull();
+
+    cache.put(createKey("Hello", 100), layout);
+    assertThat(cache.get(createKey("Hello", 100))).isSameAs(layout);
+    assertThat(cache.get(createKey("Hello", 100))).isSameAs(layout);
+
+    assertThat(cache.getHitCount()).isEqualTo(2);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitRate()).isEqualTo(2f / 3);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedLayoutIsEvicted() {
+    final TextLayoutCache cache = new TextLayoutCache(2);
+
+    cache.put(createKey("a", 100), mock(Layout.class));
+    cache.put(createKey("b", 100), mock(Layout.class));
+    cache.get(createKey("a", 100));
+    cache.put(createKey("c", 100), mock(Layout.class));
+
+    assertThat(cache.get(createKey("a", 100))).isNotNull();
+    assertThat(cache.get(createKey("b", 100))).isNull();
+    assertThat(cache.get(createKey("c", 100))).isNotNull();
+  }
+
+  @Test
+  public void testIsCacheable() {
+    assertThat(TextLayoutCache.isCacheable("Hello", Color.RED, null)).isTrue();
+    assertThat(TextLayoutCache.isCacheable("Hello", 0, TextSpec.textColorStateList)).isTrue();
+    assertThat(TextLayoutCache.isCacheable("Hello", 0, ColorStateList.valueOf(Color.RED)))
+        .isTrue();
+    assertThat(TextLayoutCache.isCacheable(new SpannableString("Hello"), Color.RED, null))
+        .isFalse();
+
+    final ColorStateList statefulColors =
+        new ColorStateList(
+            new int[][] {{android.R.attr.state_pressed}, {}}, new int[] {Color.RED, Color.BLUE});
+    assertThat(TextLayoutCache.isCacheable("Hello", 0, statefulColors)).isFalse();
+  }
+
+  private static TextLayoutCache.Key createKey(CharSequence text, int width) {
+    return new TextLayoutCache.Key(
+        text,
+        SizeSpec.makeSizeSpec(width, SizeSpec.EXACTLY),
+        null,
+        true,
+        Integer.MAX_VALUE,
+        0,
+        0,
+        0,
+        Color.GRAY,
+        false,
+        Color.BLACK,
+        null,
+        0,
+        13,
+        0,
+        1,
+        0,
+        Typeface.NORMAL,
+        Typeface.DEFAULT,
+        Layout.Alignment.ALIGN_NORMAL,
+        YogaDirection.LTR,
+        -1,
+        -1,
+        0,
+        Integer.MAX_VALUE,
+        1,
+        0,
+        0,
+        0,
+        null);
+  }
+}
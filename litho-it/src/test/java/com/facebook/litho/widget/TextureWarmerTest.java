@@ -16,18 +16,36 @@
 
 package com.facebook.litho.widget;
 
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Picture;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.text.Layout;
+import com.facebook.litho.Column;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentTree;
+import com.facebook.litho.Size;
+import com.facebook.litho.WarmUpPlan;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.yoga.YogaEdge;
+import com.facebook.yoga.YogaPositionType;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.annotation.Implementation;
@@ -66,6 +84,87 @@ public class TextureWarmerTest {
     verify(drawable).draw(any(Canvas.class));
   }
 
+  @Test
+  public void testWarmPlanSkipsAlreadyWarmedLayouts() {
+    final Layout layout = mock(Layout.class);
+    final Layout otherLayout = mock(Layout.class);
+
+    mTextureWarmer.warmUp(createPlan(layout, otherLayout, layout));
+    mTextureWarmer.warmUp(createPlan(layout));
+    mShadowLooper.runToEndOfTasks();
+
+    verify(layout, times(1)).draw(any(Canvas.class));
+    verify(otherLayout, times(1)).draw(any(Canvas.class));
+  }
+
+  @Test
+  public void testCancelledPlanIsNotWarmed() {
+    final Layout layout = mock(Layout.class);
+    final WarmUpPlan plan = createPlan(layout);
+
+    mTextureWarmer.warmUp(plan);
+    plan.cancel();
+    mShadowLooper.runToEndOfTasks();
+
+    verify(layout, never()).draw(any(Canvas.class));
+  }
+
+  @Test
+  public void testComponentTreeHandsOverWarmUpPlan() {
+    final ComponentContext c = new ComponentContext(RuntimeEnvironment.application);
+    final Drawable drawable = new ColorDrawable(Color.RED);
+    // The Text is laid out first but is further from the top left corner than the Image.
+    final Component root =
+        Column.create(c)
+            .child(
+                Text.create(c)
+                    .text("warm")
+                    .positionType(YogaPositionType.ABSOLUTE)
+                    .positionPx(YogaEdge.TOP, 50))
+            .child(Image.create(c).drawable(drawable).widthPx(10).heightPx(10))
+            .build();
+
+    final List<WarmUpPlan> plans = new ArrayList<>();
+    final ComponentTree componentTree =
+        ComponentTree.create(c, root)
+            .warmer(
+                new WarmUpPlan.Warmer() {
+                  @Override
+                  public void warmUp(WarmUpPlan plan) {
+                    plans.add(plan);
+                  }
+                })
+            .build();
+    componentTree.setRootAndSizeSpec(
+        root, makeSizeSpec(100, EXACTLY), makeSizeSpec(100, EXACTLY), new Size());
+
+    assertThat(plans).hasSize(1);
+    final WarmUpPlan plan = plans.get(0);
+    assertThat(plan.size()).isEqualTo(2);
+    assertThat(plan.get(0).getContent()).isSameAs(drawable);
+    assertThat(plan.get(0).getWidth()).isEqualTo(10);
+    assertThat(plan.get(1).getContent()).isInstanceOf(Layout.class);
+    assertThat(plan.isCancelled()).isFalse();
+
+    componentTree.release();
+
+    assertThat(plan.isCancelled()).isTrue();
+  }
+
+  /** Collects the layouts the way LayoutState does while calculating. */
+  private static WarmUpPlan createPlan(Layout... layouts) {
+    final WarmUpPlan plan = new WarmUpPlan();
+    final WarmUpPlan previous = WarmUpPlan.beginCollecting(plan);
+    try {
+      for (Layout layout : layouts) {
+        WarmUpPlan.addTextLayout(layout);
+      }
+    } finally {
+      WarmUpPlan.endCollecting(previous);
+    }
+    return plan;
+  }
+
   @Implements(Picture.class)
   public static class ShadowPicture {
 
@@ -127,13 +127,44 @@ class BatchedTarget implements SectionTree.Target {
 
   @Override
   public void deleteRange(int index, int count) {
+    if (mLastEventType == Change.DELETE
+        && mLastEventPosition >= index
+        && mLastEventPosition <= index + count) {
+      mLastEventCount += count;
+      mLastEventPosition = index;
+      return;
+    }
     dispatchLastEvent();
-    mTarget.deleteRange(index, count);
+    mLastEventPosition = index;
+    mLastEventCount = count;
+    mLastEventType = Change.DELETE;
   }
 
   @Override
   public void move(int fromPosition, int toPosition) {
     dispatchLastEvent();
+    dispatchMove(fromPosition, toPosition);
+  }
+
+  /**
+   * Moves a block of count items as described by {@link Change#moveRange(int, int, int)}. The
+   * {@link SectionTree.Target} only knows about single moves, so the block is expanded here, at
+   * the very last step, rather than while the ChangeSet is generated and merged.
+   */
+  void moveRange(int fromPosition, int toPosition, int count) {
+    dispatchLastEvent();
+    if (fromPosition < toPosition) {
+      for (int i = 0; i < count; i++) {
+        dispatchMove(fromPosition, toPosition);
+      }
+    } else {
+      for (int i = 0; i < count; i++) {
+        dispatchMove(fromPosition + i, toPosition + i);
+      }
+    }
+  }
+
+  private void dispatchMove(int fromPosition, int toPosition) {
     mTarget.move(fromPosition, toPosition);
     if (ENABLE_LOGGER) {
       mSectionsDebugLogger.logMove(
@@ -147,6 +178,11 @@ class BatchedTarget implements SectionTree.Target {
     mTarget.notifyChangeSetComplete(isDataChanged, changeSetCompleteCallback);
   }
 
+  boolean supportsBackgroundChangeSets() {
+    return mTarget instanceof SectionTree.BackgroundChangeSetsTarget
+        && ((SectionTree.BackgroundChangeSetsTarget) mTarget).supportsBackgroundChangeSets();
+  }
+
   @Override
   public void requestFocus(int index) {
     mTarget.requestFocus(index);
@@ -46,7 +46,7 @@ public final class Change {
   public static final int UPDATE_RANGE = -2; // UPDATE_RANGE(index, count, [components])
   public static final int DELETE = 3; // DELETE(index)
   public static final int DELETE_RANGE = -3; // DELETE_RANGE(index, count)
-  public static final int MOVE = 0; // MOVE(index, toIndex, component)
+  public static final int MOVE = 0; // MOVE(index, toIndex, count)
 
   /** Describes how a {@link Section} count will change once the Change is applied. */
   @IntDef({INSERT, UPDATE, DELETE, MOVE, INSERT_RANGE, UPDATE_RANGE, DELETE_RANGE})
@@ -166,7 +166,18 @@ public final class Change {
    * the {@link DiffSectionSpec} creating this Change will be moved to toIndex.
    */
   static Change move(int fromIndex, int toIndex) {
-    return acquireMoveChange(fromIndex, toIndex);
+    return acquireMoveChange(fromIndex, toIndex, 1);
+  }
+
+  /**
+   * Creates a Change of type MOVE for a block of {@param count} items starting at fromIndex in the
+   * context of the {@link DiffSectionSpec} creating this Change. The items keep their order; when
+   * moved towards the end of the list the last of them ends up at toIndex, otherwise the first of
+   * them does. This is equivalent to count single moves, either of fromIndex to toIndex or of
+   * fromIndex + i to toIndex + i respectively.
+   */
+  static Change moveRange(int fromIndex, int toIndex, int count) {
+    return acquireMoveChange(fromIndex, toIndex, count);
   }
 
   /** @return the type of this Change. */
@@ -183,14 +194,15 @@ public final class Change {
   }
 
   /**
-   * @return the index to which this change will move its item. This is only valid if type is MOVE.
+   * @return the index to which this change will move its items. This is only valid if type is
+   *     MOVE, see {@link #moveRange(int, int, int)} for moves of more than one item.
    */
   int getToIndex() {
     return mToIndex;
   }
 
   /**
-   * @return the number of changes to be made. This is only valid if type is *_RANGE.
+   * @return the number of changes to be made. This is only valid if type is *_RANGE or MOVE.
    */
   public int getCount() {
     return mCount;
@@ -212,8 +224,9 @@ public final class Change {
   //TODO t11953296
   private static Change acquireMoveChange(
       int index,
-      int toIndex) {
-    return acquire(MOVE, index, toIndex, 1, null, null);
+      int toIndex,
+      int count) {
+    return acquire(MOVE, index, toIndex, count, null, null);
   }
 
   //TODO t11953296
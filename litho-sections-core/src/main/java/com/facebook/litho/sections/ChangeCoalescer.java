@@ -0,0 +1,256 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections;
+
+import static com.facebook.litho.sections.Change.DELETE;
+import static com.facebook.litho.sections.Change.DELETE_RANGE;
+import static com.facebook.litho.sections.Change.INSERT;
+import static com.facebook.litho.sections.Change.INSERT_RANGE;
+import static com.facebook.litho.sections.Change.MOVE;
+import static com.facebook.litho.sections.Change.UPDATE;
+import static com.facebook.litho.sections.Change.UPDATE_RANGE;
+
+import android.support.annotation.Nullable;
+import com.facebook.litho.widget.RenderInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rewrites the changes of a {@link ChangeSet} into an equivalent, shorter list before it is handed
+ * to the main thread. Unlike {@link BatchedTarget}, which only joins strictly adjacent operations
+ * of the same type while the main thread applies them, this also:
+ *
+ * <ul>
+ *   <li>joins inserts anywhere within a pending inserted range;
+ *   <li>folds updates of pending inserted items into the insert;
+ *   <li>cancels deletes of pending inserted items;
+ *   <li>joins overlapping updates and drops updates of items that are deleted right after.
+ * </ul>
+ *
+ * Each run is delivered as a single range change with a pre-sized list of {@link RenderInfo}s.
+ * Moves are kept as they are and end the current run. The pass is linear in the number of changes
+ * and the changes that can't be merged are reused as they are.
+ */
+final class ChangeCoalescer {
+
+  private static final int NONE = Integer.MAX_VALUE;
+
+  private final List<Change> mCoalesced;
+
+  // The run being built. Its type is one of INSERT, UPDATE, DELETE or NONE.
+  private int mRunType = NONE;
+  private int mRunIndex;
+  private int mRunCount;
+  // The only change of the run as long as nothing was merged into it.
+  private @Nullable Change mRunChange;
+  // The RenderInfos of an INSERT or UPDATE run once something was merged into it.
+  private @Nullable List<RenderInfo> mRunRenderInfos;
+
+  private ChangeCoalescer(int expectedSize) {
+    mCoalesced = new ArrayList<>(expectedSize);
+  }
+
+  /** @return a list of changes with the same effect as the given ones. */
+  static List<Change> coalesce(List<Change> changes) {
+    final ChangeCoalescer coalescer = new ChangeCoalescer(changes.size());
+    for (int i = 0, size = changes.size(); i < size; i++) {
+      coalescer.add(changes.get(i));
+    }
+    coalescer.flushRun();
+
+    return coalescer.mCoalesced;
+  }
+
+  private void add(Change change) {
+    final int index = change.getIndex();
+    final int count = change.getCount();
+
+    switch (change.getType()) {
+      case INSERT:
+      case INSERT_RANGE:
+        if (mRunType == INSERT && index >= mRunIndex && index <= mRunIndex + mRunCount) {
+          getRunRenderInfos(count).addAll(index - mRunIndex, getRenderInfos(change));
+          mRunCount += count;
+          return;
+        }
+        break;
+
+      case UPDATE:
+      case UPDATE_RANGE:
+        if (mRunType == INSERT && index >= mRunIndex && index + count <= mRunIndex + mRunCount) {
+          setRenderInfos(getRunRenderInfos(0), index - mRunIndex, getRenderInfos(change));
+          return;
+        }
+        if (mRunType == UPDATE && index <= mRunIndex + mRunCount && index + count >= mRunIndex) {
+          mergeUpdate(index, count, getRenderInfos(change));
+          return;
+        }
+        break;
+
+      case DELETE:
+      case DELETE_RANGE:
+        addDelete(change, index, count);
+        return;
+
+      case MOVE:
+        flushRun();
+        mCoalesced.add(change);
+        return;
+    }
+
+    flushRun();
+    startRun(change);
+  }
+
+  private void addDelete(Change change, int index, int count) {
+    if (mRunType == INSERT && index >= mRunIndex && index + count <= mRunIndex + mRunCount) {
+      // The deleted items were never added to the target.
+      getRunRenderInfos(0).subList(index - mRunIndex, index - mRunIndex + count).clear();
+      mRunCount -= count;
+      if (mRunCount == 0) {
+        reopenLastChange();
+      }
+      return;
+    }
+
+    if (mRunType == UPDATE && index <= mRunIndex && index + count >= mRunIndex + mRunCount) {
+      // The updated items are deleted anyway.
+      reopenLastChange();
+      addDelete(change, index, count);
+      return;
+    }
+
+    if (mRunType == DELETE && mRunIndex >= index && mRunIndex <= index + count) {
+      mRunIndex = index;
+      mRunCount += count;
+      mRunChange = null;
+      return;
+    }
+
+    flushRun();
+    startRun(change);
+  }
+
+  /** Merges an update of a range that overlaps or touches the range of the current UPDATE run. */
+  private void mergeUpdate(int index, int count, List<RenderInfo> renderInfos) {
+    final List<RenderInfo> runRenderInfos = getRunRenderInfos(count);
+    if (index < mRunIndex) {
+      runRenderInfos.addAll(0, Collections.<RenderInfo>nCopies(mRunIndex - index, null));
+      mRunIndex = index;
+    }
+
+    final int end = index + count - mRunIndex;
+    while (runRenderInfos.size() < end) {
+      runRenderInfos.add(null);
+    }
+
+    setRenderInfos(runRenderInfos, index - mRunIndex, renderInfos);
+    mRunCount = runRenderInfos.size();
+  }
+
+  private void startRun(Change change) {
+    switch (change.getType()) {
+      case INSERT:
+      case INSERT_RANGE:
+        mRunType = INSERT;
+        break;
+      case UPDATE:
+      case UPDATE_RANGE:
+        mRunType = UPDATE;
+        break;
+      default:
+        mRunType = DELETE;
+        break;
+    }
+
+    mRunIndex = change.getIndex();
+    mRunCount = change.getCount();
+    mRunChange = change;
+    mRunRenderInfos = null;
+  }
+
+  /**
+   * Drops the current run and turns the last coalesced change back into the current run if it can
+   * still be merged with, so that e.g. insert, delete, delete can become a single delete.
+   */
+  private void reopenLastChange() {
+    mRunType = NONE;
+    mRunChange = null;
+    mRunRenderInfos = null;
+
+    final int last = mCoalesced.size() - 1;
+    if (last >= 0 && mCoalesced.get(last).getType() != MOVE) {
+      startRun(mCoalesced.remove(last));
+    }
+  }
+
+  private void flushRun() {
+    if (mRunType == NONE) {
+      return;
+    }
+
+    if (mRunChange != null) {
+      mCoalesced.add(mRunChange);
+    } else if (mRunType == DELETE) {
+      mCoalesced.add(
+          mRunCount == 1 ? Change.remove(mRunIndex) : Change.removeRange(mRunIndex, mRunCount));
+    } else if (mRunCount == 1) {
+      final RenderInfo renderInfo = mRunRenderInfos.get(0);
+      mCoalesced.add(
+          mRunType == INSERT
+              ? Change.insert(mRunIndex, renderInfo)
+              : Change.update(mRunIndex, renderInfo));
+    } else {
+      mCoalesced.add(
+          mRunType == INSERT
+              ? Change.insertRange(mRunIndex, mRunCount, mRunRenderInfos)
+              : Change.updateRange(mRunIndex, mRunCount, mRunRenderInfos));
+    }
+
+    mRunType = NONE;
+    mRunChange = null;
+    mRunRenderInfos = null;
+  }
+
+  /**
+   * @return the mutable RenderInfos of the current run, copying them out of its only change the
+   *     first time something is merged into it.
+   */
+  private List<RenderInfo> getRunRenderInfos(int extraCapacity) {
+    if (mRunRenderInfos == null) {
+      mRunRenderInfos = new ArrayList<>(mRunCount + extraCapacity);
+      mRunRenderInfos.addAll(getRenderInfos(mRunChange));
+      mRunChange = null;
+    }
+
+    return mRunRenderInfos;
+  }
+
+  private static List<RenderInfo> getRenderInfos(Change change) {
+    return change.getType() == INSERT || change.getType() == UPDATE
+        ? Collections.singletonList(change.getRenderInfo())
+        : change.getRenderInfos();
+  }
+
+  private static void setRenderInfos(
+      List<RenderInfo> target, int offset, List<RenderInfo> renderInfos) {
+    for (int i = 0, size = renderInfos.size(); i < size; i++) {
+      target.set(offset + i, renderInfos.get(i));
+    }
+  }
+}
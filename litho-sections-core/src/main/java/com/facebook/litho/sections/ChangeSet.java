@@ -153,6 +153,14 @@ public final class ChangeSet {
     addChange(Change.move(fromIndex, toIndex));
   }
 
+  /**
+   * Moves count items starting at fromIndex as a single block, see {@link Change#moveRange(int,
+   * int, int)} for the exact semantics of toIndex.
+   */
+  public void moveRange(int fromIndex, int toIndex, int count) {
+    addChange(Change.moveRange(fromIndex, toIndex, count));
+  }
+
   /**
    * @return the total number of items in the {@link Target}
    * after this ChangeSet will be applied.
@@ -228,6 +236,41 @@ public final class ChangeSet {
     return mergedChangeSet;
   }
 
+  /**
+   * Appends all the changes of other to this ChangeSet, offsetting them by the current count of
+   * this ChangeSet. Unlike {@link #merge(ChangeSet, ChangeSet)} the changes already in this
+   * ChangeSet are not copied, so folding the ChangeSets of n children together is linear in the
+   * total number of changes rather than quadratic.
+   */
+  void append(@Nullable ChangeSet other) {
+    if (other == null) {
+      return;
+    }
+
+    final int offset = mFinalCount;
+    final List<Change> otherChanges = other.mChanges;
+    for (int i = 0, size = otherChanges.size(); i < size; i++) {
+      mChanges.add(Change.offset(otherChanges.get(i), offset));
+    }
+
+    mFinalCount += other.mFinalCount;
+    mChangeSetStats = ChangeSetStats.merge(mChangeSetStats, other.getChangeSetStats());
+  }
+
+  /**
+   * Replaces the changes of this ChangeSet with an equivalent, shorter list computed by {@link
+   * ChangeCoalescer}. The final count is unchanged.
+   */
+  void coalesce() {
+    if (mChanges.size() < 2) {
+      return;
+    }
+
+    final List<Change> coalesced = ChangeCoalescer.coalesce(mChanges);
+    mChanges.clear();
+    mChanges.addAll(coalesced);
+  }
+
   //TODO implement pools t11953296
   private static ChangeSet acquire() {
     return new ChangeSet();
@@ -36,11 +36,17 @@ import android.support.v4.util.Pair;
 import android.util.SparseArray;
 import com.facebook.litho.ComponentsLogger;
 import com.facebook.litho.ComponentsSystrace;
+import com.facebook.litho.LayoutThreadPoolExecutor;
 import com.facebook.litho.PerfEvent;
+import com.facebook.litho.config.LayoutThreadPoolConfiguration;
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * ChangeSetState is responsible to generate a global ChangeSet between two {@link Section}s trees.
@@ -49,6 +55,9 @@ public class ChangeSetState {
 
   private static final List<Section> sEmptyList = new ArrayList<>();
 
+  @GuardedBy("ChangeSetState.class")
+  private static @Nullable ThreadPoolExecutor sParallelChangeSetExecutor;
+
   private Section mCurrentRoot;
   private Section mNewRoot;
   private ChangeSet mChangeSet;
@@ -93,7 +102,8 @@ public class ChangeSetState {
             currentPrefix,
             nextPrefix,
             Thread.currentThread().getName(),
-            enableStats);
+            enableStats,
+            getParallelChangeSetExecutor());
 
     if (logger != null && logEvent != null) {
       logEvent.markerAnnotate(
@@ -139,7 +149,8 @@ public class ChangeSetState {
       String currentPrefix,
       String newPrefix,
       String thread,
-      boolean enableStats) {
+      boolean enableStats,
+      @Nullable Executor executor) {
 
     boolean currentRootIsNull = currentRoot == null;
     boolean newRootIsNull = newRoot == null;
@@ -156,8 +167,10 @@ public class ChangeSetState {
       final ChangeSet changeSet =
           ChangeSet.acquireChangeSet(currentRoot.getCount(), newRoot, enableStats);
 
-      for (int i = 0; i < currentItemsCount; i++) {
+      if (currentItemsCount == 1) {
         changeSet.addChange(Change.remove(0));
+      } else if (currentItemsCount > 1) {
+        changeSet.addChange(Change.removeRange(0, currentItemsCount));
       }
 
       return changeSet;
@@ -241,9 +254,12 @@ public class ChangeSetState {
         // We found something that swapped order with the moved section.
         if (sectionToSwapIndex > currentIndex) {
 
-          for (int c = 0; c < current.getCount(); c++) {
-            resultChangeSet.addChange(
-                Change.move(getPreviousChildrenCount(currentChildrenList, key), swapToIndex));
+          final int fromIndex = getPreviousChildrenCount(currentChildrenList, key);
+          final int movedCount = current.getCount();
+          if (movedCount == 1) {
+            resultChangeSet.addChange(Change.move(fromIndex, swapToIndex));
+          } else if (movedCount > 1) {
+            resultChangeSet.addChange(Change.moveRange(fromIndex, swapToIndex, movedCount));
           }
 
           // Place this section in the correct order in the current children list.
@@ -281,11 +297,12 @@ public class ChangeSetState {
             updateCurrentPrefix,
             updateNewPrefix,
             thread,
-            enableStats);
+            enableStats,
+            executor);
 
     for (int i = 0, size = changeSets.size(); i < size; i++) {
       ChangeSet changeSet = changeSets.valueAt(i);
-      resultChangeSet = ChangeSet.merge(resultChangeSet, changeSet);
+      resultChangeSet.append(changeSet);
 
       if (changeSet != null) {
         changeSet.release();
@@ -307,6 +324,9 @@ public class ChangeSetState {
    * still guarantees a correct ordering while preserving the validity of indexes in the children of
    * currentRoot. Re-ordering a child is not supported and will trigger an {@link
    * IllegalStateException}.
+   *
+   * <p>If an executor is provided, the {@link ChangeSet}s of the children are generated in
+   * parallel on it and merged afterwards in the same order as they would be sequentially.
    */
   private static SparseArray<ChangeSet> generateChildrenChangeSets(
       SectionContext sectionContext,
@@ -320,8 +340,10 @@ public class ChangeSetState {
       String currentPrefix,
       String newPrefix,
       String thread,
-      boolean enableStats) {
-    final SparseArray<ChangeSet> changeSets = acquireChangeSetSparseArray();
+      boolean enableStats,
+      @Nullable Executor executor) {
+    final List<ChildChangeSetTask> tasks =
+        new ArrayList<>(currentChildrenList.size() + newChildrenList.size());
 
     // Find removed current children.
     for (int i = 0; i < currentChildrenList.size(); i++) {
@@ -329,19 +351,7 @@ public class ChangeSetState {
       final Section currentChild = currentChildrenList.get(i);
 
       if (newChildren.get(key) == null) {
-        changeSets.put(
-            i,
-            generateChangeSetRecursive(
-                sectionContext,
-                currentChild,
-                null,
-                removedComponents,
-                sectionsDebugLogger,
-                sectionTreeTag,
-                currentPrefix,
-                newPrefix,
-                thread,
-                enableStats));
+        tasks.add(new ChildChangeSetTask(i, currentChild, null));
       }
     }
 
@@ -353,60 +363,93 @@ public class ChangeSetState {
 
       // New child was added.
       if (currentChildIndex < 0) {
-        final ChangeSet currentChangeSet = changeSets.get(activeChildIndex);
-        final ChangeSet changeSet =
-            generateChangeSetRecursive(
-                sectionContext,
-                null,
-                newChild,
-                removedComponents,
-                sectionsDebugLogger,
-                sectionTreeTag,
-                currentPrefix,
-                newPrefix,
-                thread,
-                enableStats);
-
-        changeSets.put(activeChildIndex, ChangeSet.merge(currentChangeSet, changeSet));
-
-        if (currentChangeSet != null) {
-          currentChangeSet.release();
-        }
-
-        changeSet.release();
+        tasks.add(new ChildChangeSetTask(activeChildIndex, null, newChild));
       } else {
         activeChildIndex = currentChildIndex;
-
-        final ChangeSet currentChangeSet = changeSets.get(activeChildIndex);
-        final ChangeSet changeSet =
-            generateChangeSetRecursive(
-                sectionContext,
-                currentChildrenList.get(currentChildIndex),
-                newChild,
-                removedComponents,
-                sectionsDebugLogger,
-                sectionTreeTag,
-                currentPrefix,
-                newPrefix,
-                thread,
-                enableStats);
-
-        changeSets.put(activeChildIndex, ChangeSet.merge(currentChangeSet, changeSet));
-
-        if (currentChangeSet != null) {
-          currentChangeSet.release();
-        }
-
-        changeSet.release();
+        tasks.add(
+            new ChildChangeSetTask(
+                activeChildIndex, currentChildrenList.get(currentChildIndex), newChild));
       }
     }
 
     releaseChildrenMap(currentChildren);
     releaseChildrenMap(newChildren);
 
+    final int taskCount = tasks.size();
+    if (executor == null || taskCount < 2) {
+      for (int i = 0; i < taskCount; i++) {
+        tasks.get(i).init(
+            sectionContext,
+            removedComponents,
+            sectionsDebugLogger,
+            sectionTreeTag,
+            currentPrefix,
+            newPrefix,
+            thread,
+            enableStats,
+            executor);
+        tasks.get(i).run();
+      }
+    } else {
+      for (int i = 0; i < taskCount; i++) {
+        tasks.get(i).init(
+            sectionContext,
+            new ArrayList<Section>(),
+            sectionsDebugLogger,
+            sectionTreeTag,
+            currentPrefix,
+            newPrefix,
+            null,
+            enableStats,
+            executor);
+      }
+
+      // The first child is generated on this thread, the pool picks up the others. Whatever the
+      // pool did not get to yet by the time we need it is generated here as well.
+      for (int i = 1; i < taskCount; i++) {
+        executor.execute(tasks.get(i));
+      }
+    }
+
+    final SparseArray<ChangeSet> changeSets = acquireChangeSetSparseArray();
+    for (int i = 0; i < taskCount; i++) {
+      final ChildChangeSetTask task = tasks.get(i);
+      final ChangeSet changeSet = task.runOrWait();
+      if (task.mRemovedComponents != removedComponents) {
+        removedComponents.addAll(task.mRemovedComponents);
+      }
+
+      final ChangeSet currentChangeSet = changeSets.get(task.mIndex);
+      if (currentChangeSet == null) {
+        changeSets.put(task.mIndex, changeSet);
+      } else {
+        currentChangeSet.append(changeSet);
+        changeSet.release();
+      }
+    }
+
     return changeSets;
   }
 
+  @Nullable
+  private static synchronized Executor getParallelChangeSetExecutor() {
+    final LayoutThreadPoolConfiguration configuration =
+        SectionsConfiguration.parallelChangeSetGenerationConfig;
+    if (configuration == null) {
+      return null;
+    }
+
+    if (sParallelChangeSetExecutor == null) {
+      sParallelChangeSetExecutor =
+          new LayoutThreadPoolExecutor(
+              configuration.getCorePoolSize(),
+              configuration.getMaxPoolSize(),
+              configuration.getThreadPriority());
+    }
+
+    return sParallelChangeSetExecutor;
+  }
+
   private static SparseArray<ChangeSet> acquireChangeSetSparseArray() {
     // TODO use pools instead t11953296
     return new SparseArray<>();
@@ -529,4 +572,135 @@ public class ChangeSetState {
     mRemovedComponents.clear();
     // TODO use pools t11953296
   }
+
+  /**
+   * Generates the {@link ChangeSet} of a single child on whichever thread gets to it first: a
+   * thread of the parallel executor or the thread generating the parent, once it needs the result.
+   */
+  private static final class ChildChangeSetTask implements Runnable {
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+
+    // The index in the parent's SparseArray this ChangeSet is merged into.
+    private final int mIndex;
+    private final @Nullable Section mCurrentChild;
+    private final @Nullable Section mNewChild;
+
+    private SectionContext mSectionContext;
+    private List<Section> mRemovedComponents;
+    private SectionsDebugLogger mSectionsDebugLogger;
+    private String mSectionTreeTag;
+    private String mCurrentPrefix;
+    private String mNewPrefix;
+    private @Nullable String mThread;
+    private boolean mEnableStats;
+    private @Nullable Executor mExecutor;
+
+    @GuardedBy("this")
+    private int mState = STATE_PENDING;
+
+    @GuardedBy("this")
+    private @Nullable ChangeSet mChangeSet;
+
+    @GuardedBy("this")
+    private @Nullable Throwable mThrowable;
+
+    ChildChangeSetTask(int index, @Nullable Section currentChild, @Nullable Section newChild) {
+      mIndex = index;
+      mCurrentChild = currentChild;
+      mNewChild = newChild;
+    }
+
+    /** @param thread the name of the generating thread, or null to use the one running it. */
+    void init(
+        SectionContext sectionContext,
+        List<Section> removedComponents,
+        SectionsDebugLogger sectionsDebugLogger,
+        String sectionTreeTag,
+        String currentPrefix,
+        String newPrefix,
+        @Nullable String thread,
+        boolean enableStats,
+        @Nullable Executor executor) {
+      mSectionContext = sectionContext;
+      mRemovedComponents = removedComponents;
+      mSectionsDebugLogger = sectionsDebugLogger;
+      mSectionTreeTag = sectionTreeTag;
+      mCurrentPrefix = currentPrefix;
+      mNewPrefix = newPrefix;
+      mThread = thread;
+      mEnableStats = enableStats;
+      mExecutor = executor;
+    }
+
+    @Override
+    public void run() {
+      synchronized (this) {
+        if (mState != STATE_PENDING) {
+          return;
+        }
+        mState = STATE_RUNNING;
+      }
+
+      ChangeSet changeSet = null;
+      Throwable throwable = null;
+      try {
+        changeSet =
+            generateChangeSetRecursive(
+                mSectionContext,
+                mCurrentChild,
+                mNewChild,
+                mRemovedComponents,
+                mSectionsDebugLogger,
+                mSectionTreeTag,
+                mCurrentPrefix,
+                mNewPrefix,
+                mThread != null ? mThread : Thread.currentThread().getName(),
+                mEnableStats,
+                mExecutor);
+      } catch (Throwable t) {
+        // Errors have to be caught too, such as a StackOverflowError from a deep tree, otherwise
+        // the thread waiting for this task would never be woken up.
+        throwable = t;
+      } finally {
+        synchronized (this) {
+          mChangeSet = changeSet;
+          mThrowable = throwable;
+          mState = STATE_DONE;
+          notifyAll();
+        }
+      }
+    }
+
+    /** Generates the ChangeSet on the calling thread unless it already started, then waits. */
+    ChangeSet runOrWait() {
+      run();
+
+      synchronized (this) {
+        boolean interrupted = false;
+        while (mState != STATE_DONE) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+
+        if (mThrowable instanceof RuntimeException) {
+          throw (RuntimeException) mThrowable;
+        }
+        if (mThrowable instanceof Error) {
+          throw (Error) mThrowable;
+        }
+
+        return mChangeSet;
+      }
+    }
+  }
 }
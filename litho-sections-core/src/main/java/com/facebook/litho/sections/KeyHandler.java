@@ -15,6 +15,7 @@
  */
 package com.facebook.litho.sections;
 
+import com.facebook.litho.internal.LongHashSet;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -25,17 +26,28 @@ import java.util.Set;
 public class KeyHandler {
 
   private final Set<String> mKnownGlobalKeys;
+  private final LongHashSet mKnownGlobalKeyHashes;
 
   public KeyHandler() {
     mKnownGlobalKeys = new HashSet<>();
+    mKnownGlobalKeyHashes = new LongHashSet();
   }
 
   public void registerKey(String globalKey) {
     mKnownGlobalKeys.add(globalKey);
   }
 
+  public void registerKey(long globalKeyHash) {
+    mKnownGlobalKeyHashes.add(globalKeyHash);
+  }
+
   /** Returns true if this KeyHandler has already recorded a component with the given key. */
   public boolean hasKey(String key) {
     return mKnownGlobalKeys.contains(key);
   }
+
+  /** Returns true if this KeyHandler has already recorded a component with the given key hash. */
+  public boolean hasKey(long keyHash) {
+    return mKnownGlobalKeyHashes.contains(keyHash);
+  }
 }
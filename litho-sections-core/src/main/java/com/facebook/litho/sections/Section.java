@@ -18,6 +18,7 @@ package com.facebook.litho.sections;
 
 import android.support.annotation.VisibleForTesting;
 import android.support.v4.util.Pair;
+import com.facebook.litho.ComponentKeyUtils;
 import com.facebook.litho.ComponentUtils;
 import com.facebook.litho.EventDispatcher;
 import com.facebook.litho.EventHandler;
@@ -26,6 +27,8 @@ import com.facebook.litho.HasEventDispatcher;
 import com.facebook.litho.HasEventTrigger;
 import com.facebook.litho.ResourceResolver;
 import com.facebook.litho.StateContainer;
+import com.facebook.litho.TreeProps;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.sections.annotations.DiffSectionSpec;
 import com.facebook.litho.sections.annotations.GroupSectionSpec;
 import com.facebook.litho.sections.annotations.OnDiff;
@@ -147,7 +150,11 @@ public abstract class Section extends SectionLifecycle
   // The total count of leaf Components this subtree added to the global list.
   private int mCount;
   private List<Section> mChildren;
+  // The TreeProps this Section's children were created with, see SectionTree.
+  @Nullable private TreeProps mParentTreeProps;
   private String mGlobalKey;
+  private long mGlobalKeyHash;
+  private boolean mHasGlobalKeyHash;
   private String mKey;
 
   /** @return a unique key for this {@link Section} within its tree. */
@@ -160,6 +167,35 @@ public abstract class Section extends SectionLifecycle
   @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
   public void setGlobalKey(String key) {
     mGlobalKey = key;
+    mHasGlobalKeyHash = false;
+  }
+
+  /**
+   * @return the numeric form of this {@link Section}'s global key, see {@link
+   *     ComponentsConfiguration#useNumericGlobalKeys}. Sections that only have a string key get it
+   *     hashed on first access.
+   */
+  long getGlobalKeyHash() {
+    if (!mHasGlobalKeyHash) {
+      mGlobalKeyHash = ComponentKeyUtils.getKeyHash(mGlobalKey);
+      mHasGlobalKeyHash = true;
+    }
+    return mGlobalKeyHash;
+  }
+
+  /**
+   * @return the global key a child of this {@link Section} with the given key would have, unless
+   *     it had to be deduplicated. An empty key refers to this section itself.
+   */
+  String getChildGlobalKey(String childKey) {
+    if (!ComponentsConfiguration.useNumericGlobalKeys
+        || ComponentsConfiguration.isDebugModeEnabled
+        || childKey.isEmpty()) {
+      return mGlobalKey + childKey;
+    }
+
+    return ComponentKeyUtils.getKeyFromHash(
+        ComponentKeyUtils.getKeyHashWithSeparator(getGlobalKeyHash(), childKey));
   }
 
   /**
@@ -289,6 +325,26 @@ public abstract class Section extends SectionLifecycle
     mChildren = children == null ? new ArrayList<Section>() : children.getChildren();
   }
 
+  /**
+   * Takes over the already created children of previous, which must be equivalent to this Section
+   * and have no pending state updates in its subtree.
+   */
+  void reuseChildren(Section previous) {
+    mChildren = previous.mChildren;
+    for (int i = 0, size = mChildren.size(); i < size; i++) {
+      mChildren.get(i).setParent(this);
+    }
+  }
+
+  @Nullable
+  TreeProps getParentTreeProps() {
+    return mParentTreeProps;
+  }
+
+  void setParentTreeProps(@Nullable TreeProps parentTreeProps) {
+    mParentTreeProps = parentTreeProps;
+  }
+
   /** Mostly used by logging to provide more readable messages. */
   public final String getSimpleName() {
     return mSimpleName;
@@ -337,6 +393,50 @@ public abstract class Section extends SectionLifecycle
     c.getKeyHandler().registerKey(uniqueGlobalKey);
   }
 
+  /**
+   * Numeric counterpart of {@link #generateKeyAndSet(SectionContext, String)}, used when {@link
+   * ComponentsConfiguration#useNumericGlobalKeys} is enabled. The global key is a hash of the
+   * parent's key hash and the given local key, so it stays short however deep the tree is. The
+   * human readable key is only built in debug mode. Without it a hash collision can't be told
+   * apart from a duplicate key, so both are resolved by deduplicating the hash until it's unique.
+   */
+  void generateKeyHashAndSet(SectionContext c, String key) {
+    final Section parentScope = c.getSectionScope();
+    if (parentScope == null) {
+      generateKeyAndSet(c, key);
+      return;
+    }
+
+    final boolean isDebugModeEnabled = ComponentsConfiguration.isDebugModeEnabled;
+    long keyHash = ComponentKeyUtils.getKeyHashWithSeparator(parentScope.getGlobalKeyHash(), key);
+    String readableKey = isDebugModeEnabled ? parentScope.getGlobalKey() + key : null;
+    final KeyHandler keyHandler = c.getKeyHandler();
+
+    if (keyHandler.hasKey(keyHash)) {
+      // A readable key that is still unique means the hash collided, which only the hash has to
+      // be deduplicated for.
+      final boolean isDuplicateReadableKey = isDebugModeEnabled && keyHandler.hasKey(readableKey);
+      final long baseKeyHash = keyHash;
+      final String baseReadableKey = readableKey;
+      do {
+        final int childIndex = parentScope.getNextChildIndex(getSimpleName());
+        keyHash = ComponentKeyUtils.getKeyHashForChildPosition(baseKeyHash, childIndex);
+        if (isDuplicateReadableKey) {
+          readableKey = baseReadableKey + childIndex;
+        }
+      } while (keyHandler.hasKey(keyHash));
+    }
+
+    mGlobalKey = isDebugModeEnabled ? readableKey : ComponentKeyUtils.getKeyFromHash(keyHash);
+    mGlobalKeyHash = keyHash;
+    mHasGlobalKeyHash = true;
+
+    keyHandler.registerKey(keyHash);
+    if (isDebugModeEnabled) {
+      keyHandler.registerKey(readableKey);
+    }
+  }
+
   private String generateUniqueGlobalKeyForChild(Section section, String childKey) {
     final KeyHandler keyHandler = mScopedContext.getKeyHandler();
 
@@ -345,21 +445,23 @@ public abstract class Section extends SectionLifecycle
       return childKey;
     }
 
-    final String childType = section.getSimpleName();
+    /**
+     * If the key is a duplicate, we start appending an index based on the child component's type
+     * that would uniquely identify it.
+     */
+    return childKey + getNextChildIndex(section.getSimpleName());
+  }
 
+  private int getNextChildIndex(String childType) {
     if (mChildCounters == null) {
       mChildCounters = new HashMap<>();
     }
 
-    /**
-     * If the key is a duplicate, we start appending an index based on the child component's type
-     * that would uniquely identify it.
-     */
     final int childIndex =
         mChildCounters.containsKey(childType) ? mChildCounters.get(childType) : 0;
     mChildCounters.put(childType, childIndex + 1);
 
-    return childKey + childIndex;
+    return childIndex;
   }
 
   static Map<String, Pair<Section, Integer>> acquireChildrenMap(
@@ -311,7 +311,7 @@ public abstract class SectionLifecycle implements EventDispatcher, EventTriggerT
       return;
     }
 
-    final String globalKey = scopedSection.getGlobalKey() + sectionKey;
+    final String globalKey = scopedSection.getChildGlobalKey(sectionKey);
 
     switch (focusType) {
       case START:
@@ -374,7 +374,7 @@ public abstract class SectionLifecycle implements EventDispatcher, EventTriggerT
       return;
     }
 
-    final String globalKey = scopedSection.getGlobalKey() + sectionKey;
+    final String globalKey = scopedSection.getChildGlobalKey(sectionKey);
 
     sectionTree.requestFocusWithOffset(globalKey, index, offset);
   }
@@ -397,7 +397,7 @@ public abstract class SectionLifecycle implements EventDispatcher, EventTriggerT
       return;
     }
 
-    final String globalKey = scopedSection.getGlobalKey() + keyString;
+    final String globalKey = scopedSection.getChildGlobalKey(keyString);
     sectionTree.requestSmoothFocus(globalKey, index, offset, type);
   }
 
@@ -416,7 +416,7 @@ public abstract class SectionLifecycle implements EventDispatcher, EventTriggerT
       return false;
     }
 
-    final String globalKey = scopedSection.getGlobalKey() + keyString;
+    final String globalKey = scopedSection.getChildGlobalKey(keyString);
     return sectionTree.isSectionIndexValid(globalKey, index);
   }
 }
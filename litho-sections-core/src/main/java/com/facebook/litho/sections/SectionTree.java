@@ -137,6 +137,20 @@ public class SectionTree {
     void requestFocusWithOffset(int index, int offset);
   }
 
+  /**
+   * A {@link Target} that may receive ChangeSets on the thread that calculated them. Targets not
+   * implementing this interface always receive them on the main thread.
+   */
+  public interface BackgroundChangeSetsTarget extends Target {
+
+    /**
+     * @return whether the insert, update, delete, move and notifyChangeSetComplete calls can be
+     *     made from the thread that calculated the ChangeSet. They are still made from a single
+     *     thread at a time and in order. Otherwise they are always made on the main thread.
+     */
+    boolean supportsBackgroundChangeSets();
+  }
+
   private static final int MESSAGE_WHAT_BACKGROUND_CHANGESET_STATE_UPDATED = 1;
   private static final int MESSAGE_FOCUS_REQUEST = 2;
   private static final int MESSAGE_FOCUS_DISPATCHER_LOADING_STATE_UPDATE = 3;
@@ -145,8 +159,16 @@ public class SectionTree {
   @GuardedBy("SectionTree.class")
   private static volatile Looper sDefaultChangeSetThreadLooper;
 
+  @GuardedBy("SectionTree.class")
+  private static @Nullable Looper[] sChangeSetThreadLoopers;
+
+  @GuardedBy("SectionTree.class")
+  private static int sNextChangeSetThreadLooper;
+
   private final SectionContext mContext;
   private final BatchedTarget mTarget;
+  // Serializes applying ChangeSets to mTarget when that can happen off the main thread.
+  private final Object mApplyChangeSetsLock = new Object();
   private final FocusDispatcher mFocusDispatcher;
   private final boolean mAsyncStateUpdates;
   private final boolean mAsyncPropUpdates;
@@ -287,7 +309,7 @@ public class SectionTree {
     mPendingStateUpdates = SectionsPools.acquireStateUpdatesHolder();
     Handler changeSetThreadHandler = builder.mChangeSetThreadHandler != null ?
         builder.mChangeSetThreadHandler :
-        new Handler(getDefaultChangeSetThreadLooper());
+        new Handler(acquireChangeSetThreadLooper());
     mCalculateChangeSetRunnable = new CalculateChangeSetRunnable(changeSetThreadHandler);
     mCalculateChangeSetOnMainThreadRunnable = new CalculateChangeSetRunnable(sMainThreadHandler);
   }
@@ -942,6 +964,18 @@ public class SectionTree {
           ComponentsSystrace.endSection();
         }
 
+        if (SectionsConfiguration.coalesceChanges) {
+          if (isTracing) {
+            ComponentsSystrace.beginSection("coalesceChanges");
+          }
+          // Done here, on the thread that calculated the ChangeSet, so the main thread only
+          // applies the coalesced changes.
+          changeSetState.getChangeSet().coalesce();
+          if (isTracing) {
+            ComponentsSystrace.endSection();
+          }
+        }
+
         final boolean changeSetIsValid;
         Section oldRoot = null;
         Section newRoot = null;
@@ -1110,6 +1144,11 @@ public class SectionTree {
   }
 
   private void postNewChangeSets(Throwable tracedThrowable) {
+    if (mTarget.supportsBackgroundChangeSets()) {
+      applyChangeSetsToTarget();
+      return;
+    }
+
     if (isMainThread()) {
       postChangesetsToHandler();
     } else {
@@ -1135,11 +1174,53 @@ public class SectionTree {
   private void postChangesetsToHandler() {
     assertMainThread();
 
+    applyChangeSetsToTarget();
+  }
+
+  /**
+   * Applies the pending ChangeSets to the Target. This happens on the main thread unless the Target
+   * supports background ChangeSets, in which case it happens on the calling thread and only the
+   * focus requests are dispatched on the main thread.
+   */
+  private void applyChangeSetsToTarget() {
+    synchronized (mApplyChangeSetsLock) {
+      if (!applyPendingChangeSetsToTarget()) {
+        return;
+      }
+    }
+
+    if (isMainThread()) {
+      maybeDispatchFocusRequests();
+    } else {
+      sMainThreadHandler
+          .obtainMessage(
+              MESSAGE_FOCUS_REQUEST,
+              new Runnable() {
+                @Override
+                public void run() {
+                  maybeDispatchFocusRequests();
+                }
+              })
+          .sendToTarget();
+    }
+  }
+
+  @UiThread
+  private void maybeDispatchFocusRequests() {
+    if (mFocusDispatcher.isLoadingCompleted()) {
+      mFocusDispatcher.waitForDataBound(false);
+      mFocusDispatcher.maybeDispatchFocusRequests();
+    }
+  }
+
+  /** @return false if the tree was released and nothing was applied. */
+  @GuardedBy("mApplyChangeSetsLock")
+  private boolean applyPendingChangeSetsToTarget() {
     final List<ChangeSet> changeSets;
     final Section currentSection;
     synchronized (this) {
       if (mReleased) {
-        return;
+        return false;
       }
 
       changeSets = new ArrayList<>(mPendingChangeSets);
@@ -1187,7 +1268,11 @@ public class SectionTree {
                 break;
               case Change.MOVE:
                 appliedChanges = true;
-                mTarget.move(change.getIndex(), change.getToIndex());
+                if (change.getCount() > 1) {
+                  mTarget.moveRange(change.getIndex(), change.getToIndex(), change.getCount());
+                } else {
+                  mTarget.move(change.getIndex(), change.getToIndex());
+                }
             }
           }
           mTarget.dispatchLastEvent();
@@ -1227,10 +1312,7 @@ public class SectionTree {
           }
         });
 
-    if (mFocusDispatcher.isLoadingCompleted()) {
-      mFocusDispatcher.waitForDataBound(false);
-      mFocusDispatcher.maybeDispatchFocusRequests();
-    }
+    return true;
   }
 
   private static ChangeSetState calculateNewChangeSet(
@@ -1323,12 +1405,21 @@ public class SectionTree {
     }
 
     if (!nextRoot.isDiffSectionSpec()) {
+      final TreeProps parentTreeProps = context.getTreeProps();
+      nextRoot.populateTreeProps(parentTreeProps);
+      nextRoot.setParentTreeProps(parentTreeProps);
+
+      if (canReuseChildren(currentRoot, nextRoot, parentTreeProps, pendingStateUpdates)) {
+        nextRoot.reuseChildren(currentRoot);
+        return;
+      }
+
+      // Only needed to match the new children with the current ones, so it's acquired once we know
+      // the children are not reused.
       final Map<String, Pair<Section, Integer>> currentComponentChildren = currentRoot == null ?
           null :
           Section.acquireChildrenMap(currentRoot);
 
-      final TreeProps parentTreeProps = context.getTreeProps();
-      nextRoot.populateTreeProps(parentTreeProps);
       context.setTreeProps(
           nextRoot.getTreePropsForChildren(context, parentTreeProps));
 
@@ -1358,8 +1449,12 @@ public class SectionTree {
           throw new IllegalStateException(errorMessage);
         }
 
-        final String globalKey = nextRoot.getGlobalKey() + childKey;
-        child.generateKeyAndSet(nextRoot.getScopedContext(), globalKey);
+        if (ComponentsConfiguration.useNumericGlobalKeys) {
+          child.generateKeyHashAndSet(nextRoot.getScopedContext(), childKey);
+        } else {
+          final String globalKey = nextRoot.getGlobalKey() + childKey;
+          child.generateKeyAndSet(nextRoot.getScopedContext(), globalKey);
+        }
         child.setScopedContext(SectionContext.withScope(context, child));
 
         final Pair<Section,Integer> valueAndIndex = currentComponentChildren == null ?
@@ -1371,6 +1466,10 @@ public class SectionTree {
             context, currentChild, child, pendingStateUpdates, sectionsDebugLogger, sectionTreeTag);
       }
 
+      if (currentComponentChildren != null) {
+        Section.releaseChildrenMap(currentComponentChildren);
+      }
+
       final TreeProps contextTreeProps = context.getTreeProps();
       if (contextTreeProps != parentTreeProps) {
         context.setTreeProps(parentTreeProps);
@@ -1378,6 +1477,40 @@ public class SectionTree {
     }
   }
 
+  /**
+   * @return whether nextRoot can take over the children of currentRoot as they are. This is the
+   *     case when ChangeSetState would not generate a ChangeSet for nextRoot anyway and nothing in
+   *     its subtree has a pending state update, so the whole subtree can be skipped.
+   */
+  private static boolean canReuseChildren(
+      @Nullable Section currentRoot,
+      Section nextRoot,
+      @Nullable TreeProps parentTreeProps,
+      Map<String, List<StateUpdate>> pendingStateUpdates) {
+    // Pending state updates of descendants are found through the global key prefix below, which
+    // numeric global keys don't have.
+    if (!SectionsConfiguration.reuseUnchangedSectionChildren
+        || ComponentsConfiguration.useNumericGlobalKeys
+        || currentRoot == null
+        || currentRoot.getChildren() == null
+        || !currentRoot.getClass().equals(nextRoot.getClass())
+        || nextRoot.shouldComponentUpdate(currentRoot, nextRoot)
+        || !TreeProps.isEquivalent(currentRoot.getParentTreeProps(), parentTreeProps)) {
+      return false;
+    }
+
+    // Global keys of descendants are prefixed by the global key of their ancestors. A prefix match
+    // can be a false positive, which only means the subtree is recreated as it would be otherwise.
+    final String globalKey = nextRoot.getGlobalKey();
+    for (String stateUpdateKey : pendingStateUpdates.keySet()) {
+      if (stateUpdateKey.startsWith(globalKey)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
   public static synchronized Looper getDefaultChangeSetThreadLooper() {
     if (sDefaultChangeSetThreadLooper == null) {
@@ -1392,6 +1525,48 @@ public class SectionTree {
     return sDefaultChangeSetThreadLooper;
   }
 
+  /**
+   * @return the looper of one of the {@link SectionsConfiguration#changeSetThreadPoolSize} change
+   *     set threads, handed out round robin. The first one is the default change set thread.
+   */
+  private static synchronized Looper acquireChangeSetThreadLooper() {
+    final int poolSize = SectionsConfiguration.changeSetThreadPoolSize;
+    if (poolSize <= 1) {
+      return getDefaultChangeSetThreadLooper();
+    }
+
+    if (sChangeSetThreadLoopers == null || sChangeSetThreadLoopers.length != poolSize) {
+      final Looper[] loopers = new Looper[poolSize];
+      if (sChangeSetThreadLoopers != null) {
+        System.arraycopy(
+            sChangeSetThreadLoopers,
+            0,
+            loopers,
+            0,
+            Math.min(poolSize, sChangeSetThreadLoopers.length));
+      }
+      sChangeSetThreadLoopers = loopers;
+    }
+
+    final int index = sNextChangeSetThreadLooper % poolSize;
+    sNextChangeSetThreadLooper = index + 1;
+
+    if (sChangeSetThreadLoopers[index] == null) {
+      if (index == 0) {
+        sChangeSetThreadLoopers[index] = getDefaultChangeSetThreadLooper();
+      } else {
+        final HandlerThread thread =
+            new HandlerThread(
+                DEFAULT_CHANGESET_THREAD_NAME + index,
+                ComponentsConfiguration.defaultChangeSetThreadPriority);
+        thread.start();
+        sChangeSetThreadLoopers[index] = thread.getLooper();
+      }
+    }
+
+    return sChangeSetThreadLoopers[index];
+  }
+
   private static List<StateUpdate> acquireUpdatesList() {
     //TODO use pools t11953296
     return new ArrayList<>();
@@ -62,6 +62,11 @@ import java.util.List;
  * <p>
  * {@link OnCheckIsSameContentEvent} whenever during a diffing it wants to check whether two items
  * that represent the same piece of data have exactly the same content.
+ * <p>
+ * {@link GetUniqueIdentifierEvent} whenever the keyed diff needs the identity of an item. Items
+ * without an OnCheckIsSameItemEvent handler are their own identity. The keyed diff is used when
+ * enabled through the useKeyedDiff prop or {@link SectionsConfiguration#useKeyedDataDiff} and
+ * all the items have a distinct identity; otherwise the section falls back to {@link DiffUtil}.
  *
  * <p> For example:
  * <pre>
@@ -97,7 +102,12 @@ import java.util.List;
  * </pre>
  */
 @DiffSectionSpec(
-  events = {OnCheckIsSameContentEvent.class, OnCheckIsSameItemEvent.class, RenderEvent.class}
+  events = {
+    OnCheckIsSameContentEvent.class,
+    OnCheckIsSameItemEvent.class,
+    GetUniqueIdentifierEvent.class,
+    RenderEvent.class
+  }
 )
 public class DataDiffSectionSpec<T> {
 
@@ -113,7 +123,8 @@ public class DataDiffSectionSpec<T> {
       @Prop(optional = true) Diff<Object> dataIdentifier,
       @Prop(optional = true) @Nullable Diff<Boolean> detectMoves,
       @Prop(optional = true) Diff<Boolean> trimHeadAndTail,
-      @Prop(optional = true) Diff<Boolean> trimSameInstancesOnly) {
+      @Prop(optional = true) Diff<Boolean> trimSameInstancesOnly,
+      @Prop(optional = true) @Nullable Diff<Boolean> useKeyedDiff) {
 
     final List<T> previousData = data.getPrevious();
     final List<T> nextData = data.getNext();
@@ -123,7 +134,7 @@ public class DataDiffSectionSpec<T> {
         new ComponentRenderer(DataDiffSection.getRenderEventHandler(c));
     final DiffSectionOperationExecutor operationExecutor =
         new DiffSectionOperationExecutor(changeSet);
-    final RecyclerBinderUpdateCallback<T> updatesCallback;
+    RecyclerBinderUpdateCallback<T> updatesCallback = null;
     final boolean isTracing = ComponentsSystrace.isTracing();
 
     if (!isSameDataIdentifier(dataIdentifier)) {
@@ -141,7 +152,27 @@ public class DataDiffSectionSpec<T> {
       if (isTracing) {
         ComponentsSystrace.endSection();
       }
-    } else {
+    } else if (isKeyedDiffEnabled(useKeyedDiff)) {
+      if (isTracing) {
+        ComponentsSystrace.beginSection("KeyedDiff.calculateDiff");
+      }
+      final KeyedDiff<T> keyedDiff =
+          KeyedDiff.calculateDiff(
+              previousData,
+              nextData,
+              new KeyedDiffCallback<T>(c),
+              isDetectMovesEnabled(detectMoves));
+      if (keyedDiff != null) {
+        updatesCallback =
+            acquire(previousDataSize, nextData, componentRenderer, operationExecutor, 0);
+        keyedDiff.dispatchUpdatesTo(updatesCallback);
+      }
+      if (isTracing) {
+        ComponentsSystrace.endSection();
+      }
+    }
+
+    if (updatesCallback == null) {
       final boolean shouldTrim =
           trimHeadAndTail == null || trimHeadAndTail.getNext() == null
               ? SectionsConfiguration.trimDataDiffSectionHeadAndTail
@@ -200,6 +231,12 @@ public class DataDiffSectionSpec<T> {
     return detectMoves == null || detectMoves.getNext() == null || detectMoves.getNext();
   }
 
+  private static boolean isKeyedDiffEnabled(@Nullable Diff<Boolean> useKeyedDiff) {
+    return useKeyedDiff == null || useKeyedDiff.getNext() == null
+        ? SectionsConfiguration.useKeyedDataDiff
+        : useKeyedDiff.getNext();
+  }
+
   private static boolean isSameDataIdentifier(Diff<Object> dataIdentifier) {
     final Object previous = dataIdentifier.getPrevious();
     final Object next = dataIdentifier.getNext();
@@ -287,6 +324,45 @@ public class DataDiffSectionSpec<T> {
     }
   }
 
+  private static class KeyedDiffCallback<T> implements KeyedDiff.Callback<T> {
+
+    private final EventHandler<GetUniqueIdentifierEvent> mGetUniqueIdentifierEventHandler;
+    private final EventHandler<OnCheckIsSameItemEvent> mIsSameItemEventHandler;
+    private final EventHandler<OnCheckIsSameContentEvent> mIsSameContentEventHandler;
+
+    private KeyedDiffCallback(SectionContext c) {
+      mGetUniqueIdentifierEventHandler = DataDiffSection.getGetUniqueIdentifierEventHandler(c);
+      mIsSameItemEventHandler = DataDiffSection.getOnCheckIsSameItemEventHandler(c);
+      mIsSameContentEventHandler = DataDiffSection.getOnCheckIsSameContentEventHandler(c);
+    }
+
+    @Override
+    @Nullable
+    public Object getKey(T item) {
+      if (mGetUniqueIdentifierEventHandler != null) {
+        return DataDiffSection.dispatchGetUniqueIdentifierEvent(
+            mGetUniqueIdentifierEventHandler, item);
+      }
+
+      // Items are only their own identity if that's how they are compared, see Callback.
+      return mIsSameItemEventHandler == null ? item : null;
+    }
+
+    @Override
+    public boolean areContentsTheSame(T previous, T next) {
+      if (previous == next) {
+        return true;
+      }
+
+      if (mIsSameContentEventHandler != null) {
+        return DataDiffSection.dispatchOnCheckIsSameContentEvent(
+            mIsSameContentEventHandler, previous, next);
+      }
+
+      return previous.equals(next);
+    }
+  }
+
   @VisibleForTesting
   static class Callback<T> extends DiffUtil.Callback {
     private static final Pool<Callback> sCallbackPool = new SynchronizedPool<>(2);
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import com.facebook.litho.sections.common.IncrementalDataSource.Mutation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable snapshot of an {@link IncrementalDataSource}, taken with {@link
+ * IncrementalDataSource#snapshot()}. Snapshots of the same source know which mutations separate
+ * them, which lets {@link IncrementalDataDiffSectionSpec} update only the items that changed.
+ */
+public final class IncrementalData<T> {
+
+  private final IncrementalDataSource<T> mSource;
+  private final Mutation mMutation;
+  private final int mSize;
+  private final Mutation mBase;
+  private final List<T> mBaseItems;
+
+  IncrementalData(
+      IncrementalDataSource<T> source,
+      Mutation mutation,
+      int size,
+      Mutation base,
+      List<T> baseItems) {
+    mSource = source;
+    mMutation = mutation;
+    mSize = size;
+    mBase = base;
+    mBaseItems = baseItems;
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  /**
+   * @return a copy of the items of this snapshot. This replays the mutations since the last base
+   *     of the source, so prefer the incremental updates when a previous snapshot is available.
+   */
+  public List<T> getItems() {
+    final List<T> items = new ArrayList<>(Math.max(mSize, mBaseItems.size()));
+    items.addAll(mBaseItems);
+    for (Mutation mutation = mBase; mutation != mMutation; ) {
+      mutation = mutation.mNext;
+      mutation.applyTo(items);
+    }
+
+    return items;
+  }
+
+  /** @return whether this snapshot was taken from the same source after the given one. */
+  boolean isUpdateOf(IncrementalData<?> previous) {
+    return mSource == previous.mSource && mMutation.mVersion >= previous.mMutation.mVersion;
+  }
+
+  /** @return the last mutation contained in this snapshot. */
+  Mutation getMutation() {
+    return mMutation;
+  }
+}
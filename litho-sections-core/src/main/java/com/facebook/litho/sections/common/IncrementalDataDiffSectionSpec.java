@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import com.facebook.litho.Diff;
+import com.facebook.litho.EventHandler;
+import com.facebook.litho.annotations.Prop;
+import com.facebook.litho.sections.ChangeSet;
+import com.facebook.litho.sections.SectionContext;
+import com.facebook.litho.sections.annotations.DiffSectionSpec;
+import com.facebook.litho.sections.annotations.OnDiff;
+import com.facebook.litho.sections.common.IncrementalDataSource.Mutation;
+import com.facebook.litho.widget.RenderInfo;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DiffSectionSpec} that renders the items of an {@link IncrementalDataSource}. Instead of
+ * diffing the whole list like {@link DataDiffSectionSpec}, it translates the mutations recorded
+ * between the previous and the next {@link IncrementalData} snapshot straight into {@link
+ * ChangeSet} operations. Appending a page to a long list therefore only costs the size of the page.
+ *
+ * <p>This {@link com.facebook.litho.sections.Section} emits the following events:
+ *
+ * <p>{@link RenderEvent} whenever it needs a {@link com.facebook.litho.Component} to render a
+ * model T from the list of data. It is only dispatched for the items that were inserted or updated.
+ * Providing an handler for this event is mandatory.
+ *
+ * <p>A snapshot that doesn't come from the same source as the previous one, or that is older than
+ * it, replaces all the items.
+ */
+@DiffSectionSpec(events = {RenderEvent.class})
+public class IncrementalDataDiffSectionSpec<T> {
+
+  @OnDiff
+  public static <T> void onCreateChangeSet(
+      SectionContext c, ChangeSet changeSet, @Prop Diff<IncrementalData<T>> data) {
+    final IncrementalData<T> previous = data.getPrevious();
+    final IncrementalData<T> next = data.getNext();
+
+    if (previous == next) {
+      return;
+    }
+
+    final EventHandler<RenderEvent> renderEventHandler =
+        IncrementalDataDiffSection.getRenderEventHandler(c);
+
+    if (previous != null && next != null && next.isUpdateOf(previous)) {
+      final Mutation last = next.getMutation();
+      for (Mutation mutation = previous.getMutation(); mutation != last; ) {
+        mutation = mutation.mNext;
+        applyMutation(c, changeSet, mutation, renderEventHandler);
+      }
+      return;
+    }
+
+    if (previous != null && previous.size() > 0) {
+      changeSet.deleteRange(0, previous.size());
+    }
+
+    if (next != null && next.size() > 0) {
+      final List<T> items = next.getItems();
+      changeSet.insertRange(
+          0, items.size(), render(renderEventHandler, 0, items), c.getTreePropsCopy());
+    }
+  }
+
+  private static void applyMutation(
+      SectionContext c,
+      ChangeSet changeSet,
+      Mutation mutation,
+      EventHandler<RenderEvent> renderEventHandler) {
+    final int index = mutation.mIndex;
+    switch (mutation.mType) {
+      case Mutation.INSERT:
+        if (mutation.mCountOrToIndex == 1) {
+          changeSet.insert(
+              index,
+              render(renderEventHandler, index, mutation.mItems.get(0)),
+              c.getTreePropsCopy());
+        } else {
+          changeSet.insertRange(
+              index,
+              mutation.mCountOrToIndex,
+              render(renderEventHandler, index, mutation.mItems),
+              c.getTreePropsCopy());
+        }
+        break;
+
+      case Mutation.UPDATE:
+        if (mutation.mCountOrToIndex == 1) {
+          changeSet.update(
+              index,
+              render(renderEventHandler, index, mutation.mItems.get(0)),
+              c.getTreePropsCopy());
+        } else {
+          changeSet.updateRange(
+              index,
+              mutation.mCountOrToIndex,
+              render(renderEventHandler, index, mutation.mItems),
+              c.getTreePropsCopy());
+        }
+        break;
+
+      case Mutation.REMOVE:
+        if (mutation.mCountOrToIndex == 1) {
+          changeSet.delete(index);
+        } else {
+          changeSet.deleteRange(index, mutation.mCountOrToIndex);
+        }
+        break;
+
+      case Mutation.MOVE:
+        changeSet.move(index, mutation.mCountOrToIndex);
+        break;
+    }
+  }
+
+  private static List<RenderInfo> render(
+      EventHandler<RenderEvent> renderEventHandler, int index, List<?> items) {
+    final List<RenderInfo> renderInfos = new ArrayList<>(items.size());
+    for (int i = 0, size = items.size(); i < size; i++) {
+      renderInfos.add(render(renderEventHandler, index + i, items.get(i)));
+    }
+    return renderInfos;
+  }
+
+  private static RenderInfo render(
+      EventHandler<RenderEvent> renderEventHandler, int index, Object item) {
+    return IncrementalDataDiffSection.dispatchRenderEvent(renderEventHandler, index, item, null);
+  }
+}
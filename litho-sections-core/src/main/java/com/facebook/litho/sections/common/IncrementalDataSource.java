@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import android.support.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A list of items that records every mutation applied to it, so an {@link
+ * IncrementalDataDiffSectionSpec} can turn the mutations straight into a {@link
+ * com.facebook.litho.sections.ChangeSet} instead of diffing whole lists.
+ *
+ * <p>After mutating the source, pass a new {@link #snapshot()} to the section. The section emits the
+ * mutations recorded between the previous snapshot and the new one, so only the touched items are
+ * rendered. This class is thread safe.
+ */
+public final class IncrementalDataSource<T> {
+
+  // Once this many items were touched since the last base, a new base is taken so that the
+  // mutations recorded before it can be garbage collected.
+  private static final int MIN_ITEMS_TOUCHED_BEFORE_NEW_BASE = 64;
+
+  @GuardedBy("this")
+  private final ArrayList<T> mItems = new ArrayList<>();
+
+  // The items as they were right after mBase, used to materialize snapshots.
+  @GuardedBy("this")
+  private List<T> mBaseItems = Collections.emptyList();
+
+  @GuardedBy("this")
+  private Mutation mBase = Mutation.initial();
+
+  @GuardedBy("this")
+  private Mutation mLast = mBase;
+
+  @GuardedBy("this")
+  private int mItemsTouchedSinceBase;
+
+  @GuardedBy("this")
+  private @Nullable IncrementalData<T> mLastSnapshot;
+
+  public synchronized int size() {
+    return mItems.size();
+  }
+
+  public synchronized T get(int index) {
+    return mItems.get(index);
+  }
+
+  /** Appends items at the end of the list, e.g. when a new page is loaded. */
+  public synchronized void append(List<? extends T> items) {
+    insertAll(mItems.size(), items);
+  }
+
+  public void insert(int index, T item) {
+    insertAll(index, Collections.singletonList(item));
+  }
+
+  public synchronized void insertAll(int index, List<? extends T> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+
+    final List<T> copy = new ArrayList<>(items);
+    mItems.addAll(index, copy);
+    record(Mutation.INSERT, index, copy.size(), copy);
+  }
+
+  public void update(int index, T item) {
+    updateRange(index, Collections.singletonList(item));
+  }
+
+  /** Replaces the items starting at index with the given ones. */
+  public synchronized void updateRange(int index, List<? extends T> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+
+    final List<T> copy = new ArrayList<>(items);
+    for (int i = 0, size = copy.size(); i < size; i++) {
+      mItems.set(index + i, copy.get(i));
+    }
+    record(Mutation.UPDATE, index, copy.size(), copy);
+  }
+
+  public void remove(int index) {
+    removeRange(index, 1);
+  }
+
+  public synchronized void removeRange(int index, int count) {
+    if (count == 0) {
+      return;
+    }
+
+    mItems.subList(index, index + count).clear();
+    record(Mutation.REMOVE, index, count, null);
+  }
+
+  public synchronized void move(int fromIndex, int toIndex) {
+    if (fromIndex == toIndex) {
+      return;
+    }
+
+    mItems.add(toIndex, mItems.remove(fromIndex));
+    record(Mutation.MOVE, fromIndex, toIndex, null);
+  }
+
+  /**
+   * @return an immutable view of the current state of the source. Consecutive calls without a
+   *     mutation in between return the same instance.
+   */
+  public synchronized IncrementalData<T> snapshot() {
+    if (mLastSnapshot == null || mLastSnapshot.getMutation() != mLast) {
+      mLastSnapshot = new IncrementalData<>(this, mLast, mItems.size(), mBase, mBaseItems);
+    }
+
+    return mLastSnapshot;
+  }
+
+  @GuardedBy("this")
+  private void record(int type, int index, int countOrToIndex, @Nullable List<?> items) {
+    final Mutation mutation = new Mutation(type, index, countOrToIndex, items, mLast.mVersion + 1);
+    mLast.mNext = mutation;
+    mLast = mutation;
+
+    mItemsTouchedSinceBase += type == Mutation.MOVE ? 1 : countOrToIndex;
+    if (mItemsTouchedSinceBase > Math.max(mItems.size(), MIN_ITEMS_TOUCHED_BEFORE_NEW_BASE)) {
+      // Copying the items costs no more than the mutations since the last base did.
+      mBaseItems = Collections.unmodifiableList(new ArrayList<>(mItems));
+      mBase = mLast;
+      mItemsTouchedSinceBase = 0;
+    }
+  }
+
+  /**
+   * A single recorded mutation. Mutations form a linked list in the order they were applied, each
+   * snapshot points at the last mutation it contains.
+   */
+  static final class Mutation {
+
+    static final int INITIAL = 0;
+    static final int INSERT = 1;
+    static final int UPDATE = 2;
+    static final int REMOVE = 3;
+    static final int MOVE = 4;
+
+    final int mType;
+    final int mIndex;
+    // The number of items for INSERT, UPDATE and REMOVE, the destination index for MOVE.
+    final int mCountOrToIndex;
+    final @Nullable List<?> mItems;
+    final long mVersion;
+    volatile @Nullable Mutation mNext;
+
+    private Mutation(
+        int type, int index, int countOrToIndex, @Nullable List<?> items, long version) {
+      mType = type;
+      mIndex = index;
+      mCountOrToIndex = countOrToIndex;
+      mItems = items;
+      mVersion = version;
+    }
+
+    private static Mutation initial() {
+      return new Mutation(INITIAL, 0, 0, null, 0);
+    }
+
+    /** Applies this mutation to a copy of the items of a snapshot. */
+    @SuppressWarnings("unchecked")
+    <T> void applyTo(List<T> items) {
+      switch (mType) {
+        case INSERT:
+          items.addAll(mIndex, (List<T>) mItems);
+          break;
+        case UPDATE:
+          for (int i = 0; i < mCountOrToIndex; i++) {
+            items.set(mIndex + i, (T) mItems.get(i));
+          }
+          break;
+        case REMOVE:
+          items.subList(mIndex, mIndex + mCountOrToIndex).clear();
+          break;
+        case MOVE:
+          items.add(mCountOrToIndex, items.remove(mIndex));
+          break;
+      }
+    }
+  }
+}
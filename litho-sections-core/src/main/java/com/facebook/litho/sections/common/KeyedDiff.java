@@ -0,0 +1,329 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.sections.common;
+
+import android.support.annotation.Nullable;
+import android.support.v7.util.ListUpdateCallback;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A diff between two lists whose items have unique, stable keys. Items are matched through a
+ * {@link HashMap} of their keys instead of the O((N+M) * D) search done by {@link
+ * android.support.v7.util.DiffUtil}, and the items that keep their relative order are found with
+ * a longest increasing subsequence, so only the items outside of it are moved. The whole diff runs
+ * in O((N+M) * log(N+M)) regardless of how much the list shifted.
+ *
+ * <p>The result is dispatched to the same {@link ListUpdateCallback} DiffUtil results are
+ * dispatched to, so existing callbacks consume either unchanged.
+ */
+final class KeyedDiff<T> {
+
+  /** Provides the keys and content comparison for the items being diffed. */
+  interface Callback<T> {
+
+    /**
+     * @return a key uniquely identifying item within its list, or null if it has none in which
+     *     case the keyed diff can't be used.
+     */
+    @Nullable
+    Object getKey(T item);
+
+    boolean areContentsTheSame(T previous, T next);
+  }
+
+  private final List<T> mPreviousData;
+  private final List<T> mNextData;
+  private final Callback<T> mCallback;
+  // For each previous item, the index of the matching next item or -1 if it was removed.
+  private final int[] mNextIndexes;
+  // For each next item, the index of the matching previous item or -1 if it was inserted.
+  private final int[] mPreviousIndexes;
+  // For each next item, whether it keeps its position relative to the other stable items.
+  private final boolean[] mStable;
+
+  private KeyedDiff(
+      List<T> previousData,
+      List<T> nextData,
+      Callback<T> callback,
+      int[] nextIndexes,
+      int[] previousIndexes,
+      boolean[] stable) {
+    mPreviousData = previousData;
+    mNextData = nextData;
+    mCallback = callback;
+    mNextIndexes = nextIndexes;
+    mPreviousIndexes = previousIndexes;
+    mStable = stable;
+  }
+
+  /**
+   * @return the diff between previousData and nextData, or null if the items of either list don't
+   *     all have a distinct key.
+   */
+  @Nullable
+  static <T> KeyedDiff<T> calculateDiff(
+      @Nullable List<T> previousData,
+      @Nullable List<T> nextData,
+      Callback<T> callback,
+      boolean detectMoves) {
+    final int previousSize = previousData == null ? 0 : previousData.size();
+    final int nextSize = nextData == null ? 0 : nextData.size();
+
+    final HashMap<Object, Integer> nextIndexByKey = new HashMap<>(nextSize * 4 / 3 + 1);
+    for (int i = 0; i < nextSize; i++) {
+      final Object key = callback.getKey(nextData.get(i));
+      if (key == null || nextIndexByKey.put(key, i) != null) {
+        return null;
+      }
+    }
+
+    final int[] nextIndexes = new int[previousSize];
+    final int[] previousIndexes = new int[nextSize];
+    Arrays.fill(previousIndexes, -1);
+
+    for (int i = 0; i < previousSize; i++) {
+      final Object key = callback.getKey(previousData.get(i));
+      if (key == null) {
+        return null;
+      }
+
+      final Integer nextIndex = nextIndexByKey.get(key);
+      if (nextIndex == null) {
+        nextIndexes[i] = -1;
+      } else if (previousIndexes[nextIndex] != -1) {
+        return null;
+      } else {
+        nextIndexes[i] = nextIndex;
+        previousIndexes[nextIndex] = i;
+      }
+    }
+
+    final boolean[] stable = findStableItems(nextIndexes, nextSize);
+
+    if (!detectMoves) {
+      // Without moves, an item that changed its relative position is removed and inserted again.
+      for (int i = 0; i < previousSize; i++) {
+        final int nextIndex = nextIndexes[i];
+        if (nextIndex >= 0 && !stable[nextIndex]) {
+          nextIndexes[i] = -1;
+          previousIndexes[nextIndex] = -1;
+        }
+      }
+    }
+
+    return new KeyedDiff<>(
+        previousData, nextData, callback, nextIndexes, previousIndexes, stable);
+  }
+
+  /**
+   * Marks the next items forming a longest increasing subsequence of nextIndexes, i.e. the largest
+   * set of kept items that don't need to move.
+   */
+  private static boolean[] findStableItems(int[] nextIndexes, int nextSize) {
+    final int previousSize = nextIndexes.length;
+    // tails[l] is the position in nextIndexes of the smallest tail of an increasing subsequence of
+    // length l + 1, predecessors links every position to the previous one in its subsequence.
+    final int[] tails = new int[previousSize];
+    final int[] predecessors = new int[previousSize];
+    int length = 0;
+
+    for (int i = 0; i < previousSize; i++) {
+      final int value = nextIndexes[i];
+      if (value < 0) {
+        continue;
+      }
+
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (nextIndexes[tails[mid]] < value) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+
+      predecessors[i] = low > 0 ? tails[low - 1] : -1;
+      tails[low] = i;
+      if (low == length) {
+        length++;
+      }
+    }
+
+    final boolean[] stable = new boolean[nextSize];
+    for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+      stable[nextIndexes[i]] = true;
+    }
+
+    return stable;
+  }
+
+  /**
+   * Dispatches the operations turning the previous list into the next one. Items are removed from
+   * the end first. Then, walking the next list backwards, every item that is neither stable nor
+   * already present is moved or inserted right before its successor. Changed items are reported
+   * last at their final positions.
+   */
+  void dispatchUpdatesTo(ListUpdateCallback updateCallback) {
+    final int previousSize = mNextIndexes.length;
+    final int nextSize = mPreviousIndexes.length;
+
+    int i = previousSize - 1;
+    while (i >= 0) {
+      if (mNextIndexes[i] >= 0) {
+        i--;
+        continue;
+      }
+
+      final int end = i;
+      while (i >= 0 && mNextIndexes[i] < 0) {
+        i--;
+      }
+      updateCallback.onRemoved(i + 1, end - i);
+    }
+
+    // The previous items left, in their order, are the kept ones. Each of them gets a rank.
+    final int[] keptRanks = new int[previousSize];
+    int keptCount = 0;
+    for (i = 0; i < previousSize; i++) {
+      keptRanks[i] = mNextIndexes[i] >= 0 ? keptCount++ : -1;
+    }
+
+    // Every item that is moved or inserted ends up in a chain right before the next stable item,
+    // or at the end of the list. Slots are laid out rank by rank: first the chain anchored to the
+    // kept item with that rank, then the kept item itself. The order of the slots is the order of
+    // the list at any point, so the position of an item is the number of occupied slots before it.
+    final int[] chainLengths = new int[keptCount + 1];
+    int anchor = keptCount;
+    for (int j = nextSize - 1; j >= 0; j--) {
+      if (isStable(j)) {
+        anchor = keptRanks[mPreviousIndexes[j]];
+      } else {
+        chainLengths[anchor]++;
+      }
+    }
+
+    final int[] chainStarts = new int[keptCount + 1];
+    int slotCount = 0;
+    for (int rank = 0; rank <= keptCount; rank++) {
+      chainStarts[rank] = slotCount;
+      slotCount += chainLengths[rank] + (rank < keptCount ? 1 : 0);
+    }
+
+    final int[] tree = new int[slotCount + 1];
+    for (i = 0; i < previousSize; i++) {
+      if (keptRanks[i] >= 0) {
+        add(tree, keptSlot(chainStarts, chainLengths, keptRanks[i]), 1);
+      }
+    }
+
+    int pendingInsertPosition = -1;
+    int pendingInsertCount = 0;
+    // The chain currently being filled backwards ends right before the next index chainEnd.
+    int chainEnd = nextSize;
+    anchor = keptCount;
+
+    for (int j = nextSize - 1; j >= 0; j--) {
+      final int previousIndex = mPreviousIndexes[j];
+      if (isStable(j)) {
+        chainEnd = j;
+        anchor = keptRanks[previousIndex];
+        continue;
+      }
+
+      final int slot = chainStarts[anchor] + chainLengths[anchor] - (chainEnd - j);
+
+      if (previousIndex < 0) {
+        final int position = prefixSum(tree, slot);
+        add(tree, slot, 1);
+        if (pendingInsertCount > 0 && position == pendingInsertPosition) {
+          pendingInsertCount++;
+        } else {
+          if (pendingInsertCount > 0) {
+            updateCallback.onInserted(pendingInsertPosition, pendingInsertCount);
+          }
+          pendingInsertPosition = position;
+          pendingInsertCount = 1;
+        }
+      } else {
+        if (pendingInsertCount > 0) {
+          updateCallback.onInserted(pendingInsertPosition, pendingInsertCount);
+          pendingInsertCount = 0;
+        }
+
+        final int fromSlot = keptSlot(chainStarts, chainLengths, keptRanks[previousIndex]);
+        final int fromPosition = prefixSum(tree, fromSlot);
+        add(tree, fromSlot, -1);
+        final int toPosition = prefixSum(tree, slot);
+        add(tree, slot, 1);
+        updateCallback.onMoved(fromPosition, toPosition);
+      }
+    }
+
+    if (pendingInsertCount > 0) {
+      updateCallback.onInserted(pendingInsertPosition, pendingInsertCount);
+    }
+
+    int j = 0;
+    while (j < nextSize) {
+      if (!isChanged(j)) {
+        j++;
+        continue;
+      }
+
+      final int start = j;
+      while (j < nextSize && isChanged(j)) {
+        j++;
+      }
+      updateCallback.onChanged(start, j - start, null);
+    }
+  }
+
+  private boolean isStable(int nextIndex) {
+    return mStable[nextIndex] && mPreviousIndexes[nextIndex] >= 0;
+  }
+
+  private boolean isChanged(int nextIndex) {
+    final int previousIndex = mPreviousIndexes[nextIndex];
+    return previousIndex >= 0
+        && !mCallback.areContentsTheSame(
+            mPreviousData.get(previousIndex), mNextData.get(nextIndex));
+  }
+
+  private static int keptSlot(int[] chainStarts, int[] chainLengths, int rank) {
+    return chainStarts[rank] + chainLengths[rank];
+  }
+
+  /** Adds delta to the slot in the binary indexed tree. */
+  private static void add(int[] tree, int slot, int delta) {
+    for (int i = slot + 1; i < tree.length; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /** @return the number of occupied slots before slot in the binary indexed tree. */
+  private static int prefixSum(int[] tree, int slot) {
+    int sum = 0;
+    for (int i = slot; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+}
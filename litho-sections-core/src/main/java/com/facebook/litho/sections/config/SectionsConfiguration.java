@@ -16,6 +16,8 @@
 
 package com.facebook.litho.sections.config;
 
+import android.support.annotation.Nullable;
+import com.facebook.litho.config.LayoutThreadPoolConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import java.util.List;
 
@@ -43,6 +45,38 @@ public class SectionsConfiguration {
    */
   public static boolean trimSameInstancesOnly = false;
 
+  /**
+   * If true, DataDiffSections that don't set the useKeyedDiff prop diff their data by matching the
+   * unique identifiers of the items in linear time instead of using DiffUtil.
+   */
+  public static boolean useKeyedDataDiff = false;
+
+  /**
+   * If true, the changes of a ChangeSet are coalesced into fewer range changes on the thread that
+   * calculated it, before they are applied to the Target on the main thread.
+   */
+  public static boolean coalesceChanges = false;
+
   /** Whether changesets can be applied from a background thread. */
   public static boolean useBackgroundChangeSets = false;
+
+  /**
+   * If true, a group section whose props and tree props are equivalent to the previous tree and
+   * which has no pending state updates in its subtree keeps its previous children instead of
+   * calling createChildren and recursing into them again.
+   */
+  public static boolean reuseUnchangedSectionChildren = false;
+
+  /**
+   * If set, the ChangeSets of sibling sections (and so the diffing of sibling DataDiffSections)
+   * are generated in parallel on a thread pool with this configuration, and merged back in child
+   * order.
+   */
+  @Nullable public static LayoutThreadPoolConfiguration parallelChangeSetGenerationConfig = null;
+
+  /**
+   * Number of background threads that SectionTrees without their own changeSetThreadHandler are
+   * spread across. A given SectionTree always calculates its ChangeSets on the same thread.
+   */
+  public static int changeSetThreadPoolSize = 1;
 }
@@ -21,6 +21,7 @@ import android.support.v7.widget.RecyclerView;
 import com.facebook.litho.ComponentTree;
 import com.facebook.litho.EventHandler;
 import com.facebook.litho.Size;
+import com.facebook.litho.sections.SectionTree.BackgroundChangeSetsTarget;
 import com.facebook.litho.sections.SectionTree.Target;
 import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.widget.Binder;
@@ -35,7 +36,7 @@ import java.util.List;
 /**
  * Implementation of {@link Target} that uses a {@link RecyclerBinder}.
  */
-public class SectionBinderTarget implements Target, Binder<RecyclerView> {
+public class SectionBinderTarget implements BackgroundChangeSetsTarget, Binder<RecyclerView> {
 
   private final RecyclerBinder mRecyclerBinder;
   private final boolean mUseBackgroundChangeSets;
@@ -149,6 +150,11 @@ public class SectionBinderTarget implements Target, Binder<RecyclerView> {
     mRecyclerBinder.notifyChangeSetComplete(isDataChanged, changeSetCompleteCallback);
   }
 
+  @Override
+  public boolean supportsBackgroundChangeSets() {
+    return mUseBackgroundChangeSets;
+  }
+
   @Override
   public void requestFocus(int index) {
     mRecyclerBinder.scrollToPosition(index);
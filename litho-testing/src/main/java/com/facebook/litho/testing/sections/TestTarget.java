@@ -24,7 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 /** A test target that keeps track of operations and changes. */
-public class TestTarget implements SectionTree.Target {
+public class TestTarget implements SectionTree.BackgroundChangeSetsTarget {
   public static final int INSERT = 0;
   public static final int UPDATE = 1;
   public static final int DELETE = 2;
@@ -60,6 +60,15 @@ public class TestTarget implements SectionTree.Target {
   int mFocusTo = -1;
   int mFocusToOffset = -1;
   boolean mWasNotifyChangeSetCompleteCalledWithChangedData = false;
+  private final boolean mSupportsBackgroundChangeSets;
+
+  public TestTarget() {
+    this(false);
+  }
+
+  public TestTarget(boolean supportsBackgroundChangeSets) {
+    mSupportsBackgroundChangeSets = supportsBackgroundChangeSets;
+  }
 
   public List<Operation> getOperations() {
     return mOperations;
@@ -128,6 +137,11 @@ public class TestTarget implements SectionTree.Target {
     changeSetCompleteCallback.onDataBound();
   }
 
+  @Override
+  public boolean supportsBackgroundChangeSets() {
+    return mSupportsBackgroundChangeSets;
+  }
+
   @Override
   public void requestFocus(int index) {
     mFocusTo = index;
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import static android.os.Build.VERSION.SDK_INT;
+import static android.os.Build.VERSION_CODES.JELLY_BEAN_MR1;
+
+import android.support.annotation.UiThread;
+import android.support.annotation.VisibleForTesting;
+import android.view.Display;
+import android.view.View;
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
+
+/**
+ * Time-slices the adapter notifications a {@link RecyclerBinder} issues when applying async
+ * batches, so that a large batch doesn't stall a single frame. Each slice gets a fraction of the
+ * display's frame interval (computed the same way as {@link
+ * com.facebook.litho.DisplayListPrefetcher}); once it's used up the binder stops and the rest of
+ * the work is resumed from a Choreographer frame callback. The binder keeps applying operations
+ * that touch the visible range past the budget, so only offscreen work gets deferred.
+ *
+ * <p>Also keeps counters about the deferred work, see {@link
+ * RecyclerBinder#getAdapterUpdateScheduler()}.
+ */
+@UiThread
+public final class AdapterUpdateScheduler {
+
+  /** Fraction of a frame interval a single slice is allowed to spend notifying the adapter. */
+  static final float FRAME_BUDGET_RATIO = 0.5f;
+
+  private final Runnable mResumeWork;
+  private final ChoreographerCompat.FrameCallback mFrameCallback =
+      new ChoreographerCompat.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          mIsFrameCallbackPosted = false;
+          mFrameStartNs = frameTimeNanos;
+          mIsResumingDeferredWork = true;
+          try {
+            mResumeWork.run();
+          } finally {
+            mFrameStartNs = -1;
+            mIsResumingDeferredWork = false;
+          }
+        }
+      };
+
+  private long mFrameIntervalNs;
+  private long mFrameStartNs = -1;
+  private long mSliceStartNs;
+  private long mDeadlineNs;
+  private int mSliceOperationCount;
+  private boolean mIsFrameCallbackPosted;
+  private boolean mIsResumingDeferredWork;
+
+  private int mDeferredSliceCount;
+  private long mDeferredOperationCount;
+  private long mAppliedOperationCount;
+  private int mMaxOperationsPerSlice;
+  private long mMaxSliceDurationNs;
+
+  AdapterUpdateScheduler(Runnable resumeWork) {
+    mResumeWork = resumeWork;
+  }
+
+  /**
+   * Starts a new slice of work. Within a frame callback the slice is budgeted from the frame's
+   * start time, otherwise from now: the time the current frame started isn't known outside of
+   * Choreographer callbacks.
+   */
+  void beginSlice(View hostingView) {
+    initIfNeeded(hostingView);
+
+    mSliceStartNs = System.nanoTime();
+    final long frameStartNs = mFrameStartNs >= 0 ? mFrameStartNs : mSliceStartNs;
+    mDeadlineNs = frameStartNs + (long) (mFrameIntervalNs * FRAME_BUDGET_RATIO);
+    mSliceOperationCount = 0;
+  }
+
+  /**
+   * @return whether the current slice used up its budget. A slice always gets to apply at least
+   *     one operation so that the work is guaranteed to make progress.
+   */
+  boolean isOverBudget() {
+    return mSliceOperationCount > 0 && System.nanoTime() > mDeadlineNs;
+  }
+
+  void onOperationApplied() {
+    mSliceOperationCount++;
+    mAppliedOperationCount++;
+    if (mIsResumingDeferredWork) {
+      mDeferredOperationCount++;
+    }
+  }
+
+  /**
+   * Ends the current slice. If work is left, it's resumed from the next frame callback.
+   *
+   * @param hasPendingWork whether the slice stopped because it went over budget.
+   */
+  void endSlice(boolean hasPendingWork) {
+    mMaxOperationsPerSlice = Math.max(mMaxOperationsPerSlice, mSliceOperationCount);
+    mMaxSliceDurationNs = Math.max(mMaxSliceDurationNs, System.nanoTime() - mSliceStartNs);
+
+    if (hasPendingWork) {
+      mDeferredSliceCount++;
+      if (!mIsFrameCallbackPosted) {
+        mIsFrameCallbackPosted = true;
+        ChoreographerCompatImpl.getInstance().postFrameCallback(mFrameCallback);
+      }
+    }
+  }
+
+  /** Drops any pending frame callback, e.g. because the remaining work was applied synchronously. */
+  void cancel() {
+    if (mIsFrameCallbackPosted) {
+      mIsFrameCallbackPosted = false;
+      ChoreographerCompatImpl.getInstance().removeFrameCallback(mFrameCallback);
+    }
+  }
+
+  boolean hasPendingFrameCallback() {
+    return mIsFrameCallbackPosted;
+  }
+
+  /** @return the number of slices that ran out of budget and deferred work to a later frame. */
+  public int getDeferredSliceCount() {
+    return mDeferredSliceCount;
+  }
+
+  /** @return the number of operations that were applied in a later frame than first attempted. */
+  public long getDeferredOperationCount() {
+    return mDeferredOperationCount;
+  }
+
+  /** @return the number of operations applied through this scheduler. */
+  public long getAppliedOperationCount() {
+    return mAppliedOperationCount;
+  }
+
+  /** @return the most operations applied within a single slice. */
+  public int getMaxOperationsPerSlice() {
+    return mMaxOperationsPerSlice;
+  }
+
+  /** @return the duration of the longest slice, in nanoseconds. */
+  public long getMaxSliceDurationNs() {
+    return mMaxSliceDurationNs;
+  }
+
+  @VisibleForTesting
+  void setFrameIntervalNs(long frameIntervalNs) {
+    mFrameIntervalNs = frameIntervalNs;
+  }
+
+  private void initIfNeeded(View view) {
+    if (mFrameIntervalNs > 0) {
+      return;
+    }
+
+    // View#getDisplay() is only available from API 17, assume 60Hz before.
+    final Display display = SDK_INT >= JELLY_BEAN_MR1 ? view.getDisplay() : null;
+    float refreshRate = 60.0f;
+    if (!view.isInEditMode() && display != null) {
+      final float displayRefreshRate = display.getRefreshRate();
+      if (displayRefreshRate >= 30.0f) {
+        refreshRate = displayRefreshRate;
+      }
+    }
+
+    mFrameIntervalNs = (long) (1000000000 / refreshRate);
+  }
+}
@@ -23,9 +23,11 @@ import com.facebook.litho.ComponentContext;
 import com.facebook.litho.ComponentTree;
 import com.facebook.litho.ComponentTree.MeasureListener;
 import com.facebook.litho.LayoutHandler;
+import com.facebook.litho.PriorityLayoutHandler;
 import com.facebook.litho.Size;
 import com.facebook.litho.StateHandler;
 import com.facebook.litho.TreeProps;
+import com.facebook.litho.config.ComponentsConfiguration;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
@@ -321,6 +323,16 @@ public class ComponentTreeHolder {
     mRenderInfo = renderInfo;
   }
 
+  /**
+   * Updates the layout priority of this holder's tree, if its layouts are scheduled by a {@link
+   * PriorityLayoutHandler}.
+   */
+  synchronized void updateLayoutPriority(int layoutPriority) {
+    if (mLayoutHandler instanceof PriorityLayoutHandler) {
+      ((PriorityLayoutHandler) mLayoutHandler).setLayoutPriority(layoutPriority);
+    }
+  }
+
   public synchronized void updateLayoutHandler(@Nullable LayoutHandler layoutHandler) {
     mLayoutHandler = layoutHandler;
     if (mComponentTree != null) {
@@ -440,6 +452,8 @@ public class ComponentTreeHolder {
                       : mComponentTreeMeasureListenerFactory.create(this))
               .splitLayoutTag(mSplitLayoutTag)
               .hasMounted(mHasMounted)
+              .warmer(
+                  ComponentsConfiguration.warmUpLayoutStates ? TextureWarmer.getInstance() : null)
               .build();
       if (mPendingNewLayoutListener != null) {
         mComponentTree.setNewLayoutStateReadyListener(mPendingNewLayoutListener);
@@ -31,6 +31,7 @@ import com.facebook.litho.Output;
 import com.facebook.litho.R;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
+import com.facebook.litho.WarmUpPlan;
 import com.facebook.litho.annotations.FromBoundsDefined;
 import com.facebook.litho.annotations.MountSpec;
 import com.facebook.litho.annotations.OnBind;
@@ -154,6 +155,11 @@ class ImageSpec {
       drawableWidth.set(drawable.getIntrinsicWidth());
       drawableHeight.set(drawable.getIntrinsicHeight());
     }
+
+    if (drawable != null) {
+      WarmUpPlan.addDrawable(
+          drawable, layout.getWidth() - horizontalPadding, layout.getHeight() - verticalPadding);
+    }
   }
 
   @OnCreateMountContent
@@ -51,9 +51,11 @@ import com.facebook.litho.ComponentsLogger;
 import com.facebook.litho.ComponentsSystrace;
 import com.facebook.litho.EventHandler;
 import com.facebook.litho.LayoutHandler;
+import com.facebook.litho.LayoutThreadPoolExecutor;
 import com.facebook.litho.LithoView;
 import com.facebook.litho.LithoView.LayoutManagerOverrideParams;
 import com.facebook.litho.MeasureComparisonUtils;
+import com.facebook.litho.PriorityLayoutHandler;
 import com.facebook.litho.RenderCompleteEvent;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
@@ -74,6 +76,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
@@ -83,6 +86,13 @@ import javax.annotation.concurrent.ThreadSafe;
 /**
  * This binder class is used to asynchronously layout Components given a list of {@link Component}
  * and attaching them to a {@link RecyclerSpec}.
+ *
+ * <p>The synchronous mutations (e.g. {@link #insertItemAt(int, RenderInfo)}) must be called on the
+ * main thread. The *Async mutations and {@link #notifyChangeSetComplete(boolean,
+ * ChangeSetCompleteCallback)} may be called from any thread, as long as all of them come from one
+ * thread at a time in the order they should be applied. They update the pending list of items and
+ * start layouts on the calling thread, and only the RecyclerView adapter notifications run on the
+ * main thread.
  */
 @ThreadSafe
 public class RecyclerBinder
@@ -285,6 +295,7 @@ public class RecyclerBinder
         }
       };
 
+  private final @Nullable AdapterUpdateScheduler mAdapterUpdateScheduler;
   private final boolean mIsCircular;
   private final boolean mHasDynamicItemHeight;
   private final boolean mWrapContent;
@@ -297,11 +308,32 @@ public class RecyclerBinder
   private int mCurrentOffset;
   private SmoothScrollAlignmentType mSmoothScrollAlignmentType;
   private @Nullable RangeCalculationResult mRange;
+
+  /**
+   * The [start, end] window of positions the last range computation laid out, used to only visit
+   * the positions entering and leaving the window when the viewport moves. Any change to the
+   * holders or to their size specs invalidates it, which makes the next computation visit every
+   * position.
+   */
+  @GuardedBy("this")
+  private boolean mIsRangeWindowValid;
+
+  @GuardedBy("this")
+  private int mRangeWindowStart;
+
+  @GuardedBy("this")
+  private int mRangeWindowEnd;
   private StickyHeaderController mStickyHeaderController;
   private final boolean mCanPrefetchDisplayLists;
   private final boolean mCanCacheDrawingDisplayLists;
   private final boolean mUseSharedLayoutStateFuture;
   private final LayoutHandler mSharedLayoutStateFutureLayoutHandler;
+  private final @Nullable LayoutThreadPoolConfiguration mParallelViewportFillConfig;
+
+  @GuardedBy("this")
+  private @Nullable ThreadPoolExecutor mParallelViewportFillExecutor;
+
+  private final @Nullable LayoutThreadPoolConfiguration mLayoutPriorityThreadPoolConfig;
   private EventHandler<ReMeasureEvent> mReMeasureEventEventHandler;
   private volatile boolean mHasAsyncOperations = false;
   private volatile boolean mAsyncInsertsShouldWaitForMeasure = true;
@@ -444,7 +476,11 @@ public class RecyclerBinder
     private @Nullable List<ComponentLogParams> invalidStateLogParamsList;
     private RecyclerRangeTraverser recyclerRangeTraverser;
     private LayoutThreadPoolConfiguration threadPoolForSharedLayoutStateFutureConfig;
+    private @Nullable LayoutThreadPoolConfiguration layoutPriorityThreadPoolConfig;
     private boolean asyncInitRange = ComponentsConfiguration.asyncInitRange;
+    private @Nullable LayoutThreadPoolConfiguration parallelViewportFillConfig;
+    private boolean frameBudgetedAdapterUpdates =
+        ComponentsConfiguration.frameBudgetedAdapterUpdates;
 
     /**
      * @param rangeRatio specifies how big a range this binder should try to compute. The range is
@@ -588,6 +624,18 @@ public class RecyclerBinder
       return this;
     }
 
+    /**
+     * If set, layouts of the items will be calculated on a thread pool shared by all the
+     * RecyclerBinders using this option, where visible items are calculated first and the other
+     * items in range are ranked by their distance from the viewport. Pending calculations are
+     * re-ranked as the viewport moves. Takes precedence over the {@link LayoutHandlerFactory}.
+     */
+    public Builder layoutPriorityThreadPoolConfig(
+        @Nullable LayoutThreadPoolConfiguration config) {
+      this.layoutPriorityThreadPoolConfig = config;
+      return this;
+    }
+
     /** Set a custom range traverser */
     public Builder recyclerRangeTraverser(RecyclerRangeTraverser traverser) {
       this.recyclerRangeTraverser = traverser;
@@ -615,6 +663,30 @@ public class RecyclerBinder
       return this;
     }
 
+    /**
+     * If set, filling the viewport on first measure lays out the first item on the calling thread
+     * and then speculatively lays out as many of the following items as {@link
+     * LayoutInfo#approximateRangeSize} estimates are needed on a thread pool with this
+     * configuration. Results are committed in order until the viewport is filled and the surplus
+     * layouts are left for the range. The pool is owned by this binder and shut down on {@link
+     * #unmount}. Ignored with {@link #hasDynamicItemHeight} and {@link #asyncInitRange}, whose
+     * measure listeners need the binder lock held while filling.
+     */
+    public Builder parallelViewportFillConfig(@Nullable LayoutThreadPoolConfiguration config) {
+      this.parallelViewportFillConfig = config;
+      return this;
+    }
+
+    /**
+     * If true, ready async batches are applied to the adapter within a per-frame time budget while
+     * the binder is mounted, and the remaining offscreen operations are resumed on the following
+     * frames. See {@link AdapterUpdateScheduler}.
+     */
+    public Builder frameBudgetedAdapterUpdates(boolean frameBudgetedAdapterUpdates) {
+      this.frameBudgetedAdapterUpdates = frameBudgetedAdapterUpdates;
+      return this;
+    }
+
     /** @param c The {@link ComponentContext} the RecyclerBinder will use. */
     public RecyclerBinder build(ComponentContext c) {
       componentContext = new ComponentContext(c);
@@ -693,6 +765,7 @@ public class RecyclerBinder
     } else {
       mSharedLayoutStateFutureLayoutHandler = null;
     }
+    mLayoutPriorityThreadPoolConfig = builder.layoutPriorityThreadPoolConfig;
 
     mRenderInfoViewCreatorController =
         new RenderInfoViewCreatorController(
@@ -724,16 +797,21 @@ public class RecyclerBinder
     mInvalidStateLogParamsList = builder.invalidStateLogParamsList;
 
     mAsyncInitRange = builder.asyncInitRange;
+
+    mParallelViewportFillConfig =
+        mHasDynamicItemHeight || mAsyncInitRange ? null : builder.parallelViewportFillConfig;
+
+    mAdapterUpdateScheduler =
+        builder.frameBudgetedAdapterUpdates
+            ? new AdapterUpdateScheduler(mApplyReadyBatchesRunnable)
+            : null;
   }
 
   /**
    * Update the item at index position. The {@link RecyclerView} will only be notified of the item
    * being updated after a layout calculation has been completed for the new {@link Component}.
    */
-  @UiThread
   public final void updateItemAtAsync(int position, RenderInfo renderInfo) {
-    ThreadUtils.assertMainThread();
-
     if (SectionsDebug.ENABLED) {
       Log.d(SectionsDebug.TAG, "(" + hashCode() + ") updateItemAtAsync " + position);
     }
@@ -746,10 +824,7 @@ public class RecyclerBinder
    * notified of the item being updated after a layout calculation has been completed for the new
    * {@link Component}.
    */
-  @UiThread
   public final void updateRangeAtAsync(int position, List<RenderInfo> renderInfos) {
-    ThreadUtils.assertMainThread();
-
     if (SectionsDebug.ENABLED) {
       Log.d(
           SectionsDebug.TAG,
@@ -761,11 +836,9 @@ public class RecyclerBinder
     }
   }
 
-  @UiThread
   private void updateItemAtAsyncInner(int position, RenderInfo renderInfo) {
     final ComponentTreeHolder holder;
     final boolean renderInfoWasView;
-    final int indexInComponentTreeHolders;
     synchronized (this) {
       holder = mAsyncComponentTreeHolders.get(position);
       renderInfoWasView = holder.getRenderInfo().rendersView();
@@ -774,21 +847,42 @@ public class RecyclerBinder
       mRenderInfoViewCreatorController.maybeTrackViewCreator(renderInfo);
       updateHolder(holder, renderInfo);
 
-      if (holder.isInserted()) {
-        // If it's inserted, we can just count on the normal range computation re-computing this
-        indexInComponentTreeHolders = mComponentTreeHolders.indexOf(holder);
-        mViewportManager.setShouldUpdate(
-            mViewportManager.updateAffectsVisibleRange(indexInComponentTreeHolders, 1));
-      } else {
-        indexInComponentTreeHolders = -1;
-
+      if (!holder.isInserted()) {
         // TODO(T28668712): Handle updates outside of range
         computeLayoutAsync(holder);
+        return;
+      }
+    }
+
+    if (ThreadUtils.isMainThread()) {
+      onInsertedHolderUpdated(holder, renderInfoWasView);
+    } else {
+      mMainThreadHandler.post(
+          new Runnable() {
+            @Override
+            public void run() {
+              onInsertedHolderUpdated(holder, renderInfoWasView);
+            }
+          });
+    }
+  }
+
+  @UiThread
+  private void onInsertedHolderUpdated(ComponentTreeHolder holder, boolean renderInfoWasView) {
+    final int indexInComponentTreeHolders;
+    synchronized (this) {
+      // If it's inserted, we can just count on the normal range computation re-computing this
+      indexInComponentTreeHolders = mComponentTreeHolders.indexOf(holder);
+      if (indexInComponentTreeHolders < 0) {
+        // It was removed before this update reached the main thread.
+        return;
       }
+
+      mViewportManager.setShouldUpdate(
+          mViewportManager.updateAffectsVisibleRange(indexInComponentTreeHolders, 1));
     }
 
-    if (indexInComponentTreeHolders >= 0
-        && (renderInfoWasView || holder.getRenderInfo().rendersView())) {
+    if (renderInfoWasView || holder.getRenderInfo().rendersView()) {
       mInternalAdapter.notifyItemChanged(indexInComponentTreeHolders);
     }
   }
@@ -797,10 +891,7 @@ public class RecyclerBinder
    * Inserts an item at position. The {@link RecyclerView} will only be notified of the item being
    * inserted after a layout calculation has been completed for the new {@link Component}.
    */
-  @UiThread
   public final void insertItemAtAsync(int position, RenderInfo renderInfo) {
-    ThreadUtils.assertMainThread();
-
     assertNoInsertOperationIfCircular();
 
     assertNotNullRenderInfo(renderInfo);
@@ -828,10 +919,7 @@ public class RecyclerBinder
    * Component}s. There is not a guarantee that the {@link RecyclerView} will be notified about all
    * the items in the range at the same time.
    */
-  @UiThread
   public final void insertRangeAtAsync(int position, List<RenderInfo> renderInfos) {
-    ThreadUtils.assertMainThread();
-
     assertNoInsertOperationIfCircular();
 
     synchronized (this) {
@@ -861,17 +949,36 @@ public class RecyclerBinder
     ThreadUtils.assertMainThread();
 
     synchronized (this) {
+      // Only budget the work when mounted, otherwise there are no frames to protect.
+      final AdapterUpdateScheduler scheduler =
+          mMountedView != null ? mAdapterUpdateScheduler : null;
+      if (scheduler != null) {
+        scheduler.beginSlice(mMountedView);
+      }
+
       boolean appliedBatch = false;
+      boolean isOverBudget = false;
       while (!mAsyncBatches.isEmpty()) {
         final AsyncBatch batch = mAsyncBatches.peekFirst();
         if (!isBatchReady(batch)) {
           break;
         }
 
+        final boolean isBatchApplied = applyBatch(batch, scheduler);
+        appliedBatch |= batch.mIsDataChanged;
+
+        if (!isBatchApplied) {
+          isOverBudget = true;
+          break;
+        }
+
         mAsyncBatches.pollFirst();
-        applyBatch(batch);
+      }
 
-        appliedBatch |= batch.mIsDataChanged;
+      if (scheduler != null) {
+        scheduler.endSlice(isOverBudget);
+      } else if (mAdapterUpdateScheduler != null && mAsyncBatches.isEmpty()) {
+        mAdapterUpdateScheduler.cancel();
       }
 
       if (appliedBatch) {
@@ -880,6 +987,14 @@ public class RecyclerBinder
     }
   }
 
+  /**
+   * @return the {@link AdapterUpdateScheduler} spreading async batches across frames, if enabled
+   *     with {@link Builder#frameBudgetedAdapterUpdates}. Exposes metrics about deferred work.
+   */
+  public @Nullable AdapterUpdateScheduler getAdapterUpdateScheduler() {
+    return mAdapterUpdateScheduler;
+  }
+
   private static boolean isBatchReady(AsyncBatch batch) {
     for (int i = 0, size = batch.mOperations.size(); i < size; i++) {
       final AsyncOperation operation = batch.mOperations.get(i);
@@ -891,11 +1006,26 @@ public class RecyclerBinder
     return true;
   }
 
+  /**
+   * Applies the operations of the batch that haven't been applied yet. With a scheduler, stops
+   * once the slice is over budget unless the next operation touches the visible range.
+   *
+   * @return whether the whole batch was applied.
+   */
   @GuardedBy("this")
   @UiThread
-  private void applyBatch(AsyncBatch batch) {
-    for (int i = 0, size = batch.mOperations.size(); i < size; i++) {
-      final AsyncOperation operation = batch.mOperations.get(i);
+  private boolean applyBatch(AsyncBatch batch, @Nullable AdapterUpdateScheduler scheduler) {
+    for (int size = batch.mOperations.size();
+        batch.mAppliedOperationsCount < size;
+        batch.mAppliedOperationsCount++) {
+      final AsyncOperation operation = batch.mOperations.get(batch.mAppliedOperationsCount);
+
+      if (scheduler != null) {
+        if (scheduler.isOverBudget() && !affectsVisibleRange(operation)) {
+          return false;
+        }
+        scheduler.onOperationApplied();
+      }
 
       switch (operation.mOperation) {
         case Operation.INSERT:
@@ -921,6 +1051,37 @@ public class RecyclerBinder
     batch.mChangeSetCompleteCallback.onDataBound();
     mDataRenderedCallbacks.addLast(batch.mChangeSetCompleteCallback);
     maybeDispatchDataRendered();
+    return true;
+  }
+
+  @GuardedBy("this")
+  private boolean affectsVisibleRange(AsyncOperation operation) {
+    final int first = mCurrentFirstVisiblePosition;
+    final int last = mCurrentLastVisiblePosition;
+    if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION) {
+      // Nothing has been laid out yet, so any of these items might end up on screen.
+      return true;
+    }
+
+    switch (operation.mOperation) {
+      case Operation.INSERT:
+        final int insertPosition = ((AsyncInsertOperation) operation).mPosition;
+        return insertPosition >= first && insertPosition <= last + 1;
+      case Operation.REMOVE:
+        final int removePosition = ((AsyncRemoveOperation) operation).mPosition;
+        return removePosition >= first && removePosition <= last;
+      case Operation.REMOVE_RANGE:
+        final AsyncRemoveRangeOperation removeRangeOperation =
+            (AsyncRemoveRangeOperation) operation;
+        return removeRangeOperation.mPosition <= last
+            && removeRangeOperation.mPosition + removeRangeOperation.mCount > first;
+      case Operation.MOVE:
+        final AsyncMoveOperation moveOperation = (AsyncMoveOperation) operation;
+        return (moveOperation.mFromPosition >= first && moveOperation.mFromPosition <= last)
+            || (moveOperation.mToPosition >= first && moveOperation.mToPosition <= last);
+      default:
+        return true;
+    }
   }
 
   @GuardedBy("this")
@@ -931,6 +1092,7 @@ public class RecyclerBinder
     }
 
     mComponentTreeHolders.add(operation.mPosition, operation.mHolder);
+    mIsRangeWindowValid = false;
     operation.mHolder.setInserted(true);
     mInternalAdapter.notifyItemInserted(operation.mPosition);
     mViewportManager.insertAffectsVisibleRange(
@@ -959,10 +1121,7 @@ public class RecyclerBinder
    * binder this will only be executed when all the operations have been completed (to ensure index
    * consistency).
    */
-  @UiThread
   public final void moveItemAsync(int fromPosition, int toPosition) {
-    ThreadUtils.assertMainThread();
-
     if (SectionsDebug.ENABLED) {
       Log.d(
           SectionsDebug.TAG,
@@ -984,10 +1143,7 @@ public class RecyclerBinder
    * Removes an item from position. If there are other pending operations on this binder this will
    * only be executed when all the operations have been completed (to ensure index consistency).
    */
-  @UiThread
   public final void removeItemAtAsync(int position) {
-    ThreadUtils.assertMainThread();
-
     if (SectionsDebug.ENABLED) {
       Log.d(SectionsDebug.TAG, "(" + hashCode() + ") removeItemAtAsync " + position);
     }
@@ -1006,10 +1162,7 @@ public class RecyclerBinder
    * binder this will only be executed when all the operations have been completed (to ensure index
    * consistency).
    */
-  @UiThread
   public final void removeRangeAtAsync(int position, int count) {
-    ThreadUtils.assertMainThread();
-
     assertNoRemoveOperationIfCircular(count);
 
     if (SectionsDebug.ENABLED) {
@@ -1031,10 +1184,7 @@ public class RecyclerBinder
   }
 
   /** Removes all items in this binder async. */
-  @UiThread
   public final void clearAsync() {
-    ThreadUtils.assertMainThread();
-
     if (SectionsDebug.ENABLED) {
       Log.d(SectionsDebug.TAG, "(" + hashCode() + ") clear");
     }
@@ -1113,6 +1263,7 @@ public class RecyclerBinder
         throw new RuntimeException("Trying to do a sync insert when using asynchronous mutations!");
       }
       mComponentTreeHolders.add(position, holder);
+      mIsRangeWindowValid = false;
       mRenderInfoViewCreatorController.maybeTrackViewCreator(renderInfo);
     }
 
@@ -1179,6 +1330,7 @@ public class RecyclerBinder
               "Trying to do a sync insert when using asynchronous mutations!");
         }
         mComponentTreeHolders.add(position + i, holder);
+        mIsRangeWindowValid = false;
         mRenderInfoViewCreatorController.maybeTrackViewCreator(renderInfo);
       }
     }
@@ -1300,6 +1452,7 @@ public class RecyclerBinder
     synchronized (this) {
       holder = mComponentTreeHolders.remove(fromPosition);
       mComponentTreeHolders.add(toPosition, holder);
+      mIsRangeWindowValid = false;
 
       isNewPositionInRange = mRangeSize > 0 &&
           toPosition >= mCurrentFirstVisiblePosition - (mRangeSize * mRangeRatio) &&
@@ -1332,6 +1485,7 @@ public class RecyclerBinder
     final ComponentTreeHolder holder;
     synchronized (this) {
       holder = mComponentTreeHolders.remove(position);
+      mIsRangeWindowValid = false;
     }
     mInternalAdapter.notifyItemRemoved(position);
 
@@ -1357,6 +1511,7 @@ public class RecyclerBinder
     synchronized (this) {
       for (int i = 0; i < count; i++) {
         final ComponentTreeHolder holder = mComponentTreeHolders.remove(position);
+        mIsRangeWindowValid = false;
         holder.release();
       }
     }
@@ -1367,20 +1522,22 @@ public class RecyclerBinder
 
   /**
    * Called after all the change set operations (inserts, removes, etc.) in a batch have completed.
+   * When called off the main thread, the batch is closed on the calling thread and applied to the
+   * adapter on the main thread.
    */
-  @UiThread
   public void notifyChangeSetComplete(
-      boolean isDataChanged, ChangeSetCompleteCallback changeSetCompleteCallback) {
-    ThreadUtils.assertMainThread();
-
+      final boolean isDataChanged, final ChangeSetCompleteCallback changeSetCompleteCallback) {
     if (SectionsDebug.ENABLED) {
       Log.d(SectionsDebug.TAG, "(" + hashCode() + ") notifyChangeSetComplete");
     }
 
+    if (!ThreadUtils.isMainThread()) {
+      notifyChangeSetCompleteFromBackground(isDataChanged, changeSetCompleteCallback);
+      return;
+    }
+
     if (!mHasAsyncOperations) {
-      changeSetCompleteCallback.onDataBound();
-      mDataRenderedCallbacks.addLast(changeSetCompleteCallback);
-      maybeDispatchDataRendered();
+      dispatchChangeSetComplete(changeSetCompleteCallback);
     } else {
       closeCurrentBatch(isDataChanged, changeSetCompleteCallback);
       applyReadyBatches();
@@ -1391,6 +1548,45 @@ public class RecyclerBinder
     }
   }
 
+  private void notifyChangeSetCompleteFromBackground(
+      final boolean isDataChanged, final ChangeSetCompleteCallback changeSetCompleteCallback) {
+    // The branch is taken and the batch closed on this thread: mutations of the next change set
+    // may follow on it before the main thread gets to run anything.
+    if (!mHasAsyncOperations) {
+      // Nothing was mutated asynchronously, just deliver the callbacks on the main thread.
+      mMainThreadHandler.post(
+          new Runnable() {
+            @Override
+            public void run() {
+              dispatchChangeSetComplete(changeSetCompleteCallback);
+              if (isDataChanged) {
+                maybeUpdateRangeOrRemeasureForMutation();
+              }
+            }
+          });
+      return;
+    }
+
+    closeCurrentBatch(isDataChanged, changeSetCompleteCallback);
+    mMainThreadHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            applyReadyBatches();
+            if (isDataChanged) {
+              maybeUpdateRangeOrRemeasureForMutation();
+            }
+          }
+        });
+  }
+
+  @UiThread
+  private void dispatchChangeSetComplete(ChangeSetCompleteCallback changeSetCompleteCallback) {
+    changeSetCompleteCallback.onDataBound();
+    mDataRenderedCallbacks.addLast(changeSetCompleteCallback);
+    maybeDispatchDataRendered();
+  }
+
   @ThreadConfined(UI)
   private void maybeDispatchDataRendered() {
     ThreadUtils.assertMainThread();
@@ -1763,6 +1959,9 @@ public class RecyclerBinder
 
     mMeasuredSize = new Size(outSize.width, outSize.height);
     mIsMeasured.set(true);
+    synchronized (this) {
+      mIsRangeWindowValid = false;
+    }
 
     updateAsyncInsertOperations();
 
@@ -1873,6 +2072,7 @@ public class RecyclerBinder
 
     int numInserted = 0;
     int index = offset;
+    List<ViewportFillTask> speculativeTasks = null;
     while (filler.wantsMore() && index < holders.size()) {
       final ComponentTreeHolder holder = holders.get(index);
       final RenderInfo renderInfo = holder.getRenderInfo();
@@ -1883,18 +2083,36 @@ public class RecyclerBinder
         break;
       }
 
-      holder.computeLayoutSync(
-          mComponentContext,
-          mLayoutInfo.getChildWidthSpec(widthSpec, renderInfo),
-          mLayoutInfo.getChildHeightSpec(heightSpec, renderInfo),
-          outSize);
+      final int speculativeIndex = index - offset - 1;
+      if (speculativeTasks != null && speculativeIndex < speculativeTasks.size()) {
+        speculativeTasks.get(speculativeIndex).runOrWait(outSize);
+      } else {
+        holder.computeLayoutSync(
+            mComponentContext,
+            mLayoutInfo.getChildWidthSpec(widthSpec, renderInfo),
+            mLayoutInfo.getChildHeightSpec(heightSpec, renderInfo),
+            outSize);
+      }
 
       filler.add(renderInfo, outSize.width, outSize.height);
 
+      if (index == offset && mParallelViewportFillConfig != null) {
+        speculativeTasks =
+            startSpeculativeViewportFill(
+                holders, index + 1, widthSpec, heightSpec, maxWidth, maxHeight, outSize);
+      }
+
       index++;
       numInserted++;
     }
 
+    if (speculativeTasks != null) {
+      // Layouts that already started are kept for the range, the others are left to it.
+      for (int i = index - offset - 1, size = speculativeTasks.size(); i < size; i++) {
+        mParallelViewportFillExecutor.remove(speculativeTasks.get(i));
+      }
+    }
+
     if (outputSize != null) {
       final int fill = filler.getFill();
       if (mLayoutInfo.getScrollDirection() == VERTICAL) {
@@ -1912,6 +2130,141 @@ public class RecyclerBinder
     return numInserted;
   }
 
+  /**
+   * Posts the layouts of the holders from the given index that are estimated to fill the viewport
+   * with items of the given size, stopping at the first item rendering a View.
+   */
+  @GuardedBy("this")
+  private List<ViewportFillTask> startSpeculativeViewportFill(
+      List<ComponentTreeHolder> holders,
+      int startIndex,
+      int widthSpec,
+      int heightSpec,
+      int maxWidth,
+      int maxHeight,
+      Size firstItemSize) {
+    final int estimatedCount =
+        mLayoutInfo.approximateRangeSize(
+            firstItemSize.width, firstItemSize.height, maxWidth, maxHeight);
+    final int endIndex = Math.min(holders.size(), startIndex + Math.max(0, estimatedCount));
+
+    if (mParallelViewportFillExecutor == null) {
+      mParallelViewportFillExecutor =
+          new LayoutThreadPoolExecutor(
+              mParallelViewportFillConfig.getCorePoolSize(),
+              mParallelViewportFillConfig.getMaxPoolSize(),
+              mParallelViewportFillConfig.getThreadPriority());
+      // The fill only needs the workers for the duration of a measure, don't keep them idle.
+      mParallelViewportFillExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    final List<ViewportFillTask> tasks = new ArrayList<>(endIndex - startIndex);
+    for (int i = startIndex; i < endIndex; i++) {
+      final ComponentTreeHolder holder = holders.get(i);
+      final RenderInfo renderInfo = holder.getRenderInfo();
+      if (renderInfo.rendersView()) {
+        break;
+      }
+
+      final ViewportFillTask task =
+          new ViewportFillTask(
+              mComponentContext,
+              holder,
+              mLayoutInfo.getChildWidthSpec(widthSpec, renderInfo),
+              mLayoutInfo.getChildHeightSpec(heightSpec, renderInfo));
+      tasks.add(task);
+      mParallelViewportFillExecutor.execute(task);
+    }
+
+    return tasks;
+  }
+
+  /**
+   * Speculative layout of an item when filling the viewport in parallel. The thread filling the
+   * viewport runs the layout itself if no worker started it by the time it needs the result.
+   */
+  private static class ViewportFillTask implements Runnable {
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+
+    private final ComponentContext mComponentContext;
+    private final ComponentTreeHolder mHolder;
+    private final int mWidthSpec;
+    private final int mHeightSpec;
+    private final Size mSize = new Size();
+
+    @GuardedBy("this")
+    private int mState = STATE_PENDING;
+
+    @GuardedBy("this")
+    private @Nullable Throwable mThrowable;
+
+    ViewportFillTask(
+        ComponentContext componentContext,
+        ComponentTreeHolder holder,
+        int widthSpec,
+        int heightSpec) {
+      mComponentContext = componentContext;
+      mHolder = holder;
+      mWidthSpec = widthSpec;
+      mHeightSpec = heightSpec;
+    }
+
+    @Override
+    public void run() {
+      synchronized (this) {
+        if (mState != STATE_PENDING) {
+          return;
+        }
+        mState = STATE_RUNNING;
+      }
+
+      Throwable throwable = null;
+      try {
+        mHolder.computeLayoutSync(mComponentContext, mWidthSpec, mHeightSpec, mSize);
+      } catch (Throwable t) {
+        throwable = t;
+      } finally {
+        synchronized (this) {
+          mThrowable = throwable;
+          mState = STATE_DONE;
+          notifyAll();
+        }
+      }
+    }
+
+    /** Runs the layout on the calling thread unless it already started, then waits for it. */
+    void runOrWait(Size outSize) {
+      run();
+
+      synchronized (this) {
+        boolean interrupted = false;
+        while (mState != STATE_DONE) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+
+        if (mThrowable instanceof RuntimeException) {
+          throw (RuntimeException) mThrowable;
+        } else if (mThrowable instanceof Error) {
+          throw (Error) mThrowable;
+        }
+
+        outSize.width = mSize.width;
+        outSize.height = mSize.height;
+      }
+    }
+  }
+
   private void logFillViewportInserted(int numInserted, int totalSize) {
     if (SectionsDebug.ENABLED) {
       Log.d(
@@ -1951,6 +2304,7 @@ public class RecyclerBinder
         }
         holder.setInserted(true);
         mComponentTreeHolders.add(i, holder);
+        mIsRangeWindowValid = false;
         mInternalAdapter.notifyItemInserted(i);
       }
 
@@ -2039,6 +2393,7 @@ public class RecyclerBinder
   @GuardedBy("this")
   private void invalidateLayoutData() {
     mRange = null;
+    mIsRangeWindowValid = false;
     for (int i = 0, size = mComponentTreeHolders.size(); i < size; i++) {
       mComponentTreeHolders.get(i).invalidateTree();
     }
@@ -2309,6 +2664,14 @@ public class RecyclerBinder
     }
 
     mLayoutInfo.setRenderInfoCollection(null);
+
+    synchronized (this) {
+      if (mParallelViewportFillExecutor != null) {
+        // Layouts still running are left to finish, a later fill creates a new pool.
+        mParallelViewportFillExecutor.shutdown();
+        mParallelViewportFillExecutor = null;
+      }
+    }
   }
 
   @UiThread
@@ -2476,6 +2839,9 @@ public class RecyclerBinder
     final int rangeStart;
     final int rangeEnd;
     final int treeHoldersSize;
+    final boolean isIncremental;
+    final int previousRangeStart;
+    final int previousRangeEnd;
 
     synchronized (this) {
       if (!mIsMeasured.get() || mRange == null) {
@@ -2494,24 +2860,90 @@ public class RecyclerBinder
         rangeStart = firstVisible - (int) (rangeSize * mRangeRatio);
         rangeEnd = firstVisible + rangeSize + (int) (rangeSize * mRangeRatio);
       }
+
+      isIncremental =
+          ComponentsConfiguration.incrementalRecyclerBinderRange
+              && mIsRangeWindowValid
+              && !mIsCircular;
+      previousRangeStart = mRangeWindowStart;
+      previousRangeEnd = mRangeWindowEnd;
+      mRangeWindowStart = rangeStart;
+      mRangeWindowEnd = rangeEnd;
+      mIsRangeWindowValid = true;
+    }
+
+    final int firstVisibleIndex = firstVisible;
+    final int lastVisibleIndex = lastVisible;
+
+    if (!isIncremental) {
+      mRangeTraverser.traverse(
+          0,
+          treeHoldersSize,
+          firstVisible,
+          lastVisible,
+          new RecyclerRangeTraverser.Processor() {
+            @Override
+            public boolean process(int index) {
+              return computeRangeLayoutAt(
+                  index,
+                  rangeStart,
+                  rangeEnd,
+                  firstVisibleIndex,
+                  lastVisibleIndex,
+                  treeHoldersSize);
+            }
+          });
+      return;
     }
 
+    // Lay out the positions entering the window, in the order of the traverser. Positions that
+    // were already in the window only need to be visited to update their layout priority.
+    final boolean shouldUpdatePriorities = mLayoutPriorityThreadPoolConfig != null;
     mRangeTraverser.traverse(
-        0,
-        treeHoldersSize,
+        Math.max(0, rangeStart),
+        Math.min(treeHoldersSize, rangeEnd + 1),
         firstVisible,
         lastVisible,
         new RecyclerRangeTraverser.Processor() {
           @Override
           public boolean process(int index) {
-            return computeRangeLayoutAt(index, rangeStart, rangeEnd, treeHoldersSize);
+            if (!shouldUpdatePriorities
+                && index >= previousRangeStart
+                && index <= previousRangeEnd) {
+              return true;
+            }
+
+            return computeRangeLayoutAt(
+                index, rangeStart, rangeEnd, firstVisibleIndex, lastVisibleIndex, treeHoldersSize);
           }
         });
+
+    // Release the trees of the positions leaving the window.
+    for (int index = Math.max(0, previousRangeStart),
+            end = Math.min(treeHoldersSize - 1, previousRangeEnd);
+        index <= end;
+        index++) {
+      if ((index < rangeStart || index > rangeEnd)
+          && !computeRangeLayoutAt(
+              index,
+              rangeStart,
+              rangeEnd,
+              firstVisibleIndex,
+              lastVisibleIndex,
+              treeHoldersSize)) {
+        return;
+      }
+    }
   }
 
   /** @return Whether or not to continue layout computation for current range */
   private boolean computeRangeLayoutAt(
-      int index, int rangeStart, int rangeEnd, int treeHoldersSize) {
+      int index,
+      int rangeStart,
+      int rangeEnd,
+      int firstVisible,
+      int lastVisible,
+      int treeHoldersSize) {
 
     final ComponentTreeHolder holder;
     final int childrenWidthSpec, childrenHeightSpec;
@@ -2533,6 +2965,10 @@ public class RecyclerBinder
       childrenHeightSpec = getActualChildrenHeightSpec(holder);
     }
 
+    if (mLayoutPriorityThreadPoolConfig != null) {
+      holder.updateLayoutPriority(getDistanceFromViewport(index, firstVisible, lastVisible));
+    }
+
     if (index >= rangeStart && index <= rangeEnd) {
       if (!holder.isTreeValid()) {
         holder.computeLayoutAsync(mComponentContext, childrenWidthSpec, childrenHeightSpec);
@@ -2548,6 +2984,14 @@ public class RecyclerBinder
     return true;
   }
 
+  private static int getDistanceFromViewport(int index, int firstVisible, int lastVisible) {
+    if (index < firstVisible) {
+      return firstVisible - index;
+    }
+
+    return index > lastVisible ? index - lastVisible : PriorityLayoutHandler.PRIORITY_VISIBLE;
+  }
+
   private Runnable getMaybeAcquireStateAndReleaseTreeRunnable(final ComponentTreeHolder holder) {
     return new Runnable() {
       @Override
@@ -2694,6 +3138,7 @@ public class RecyclerBinder
    */
   private static final class AsyncBatch {
     private final ArrayList<AsyncOperation> mOperations = new ArrayList<>();
+    private int mAppliedOperationsCount;
     private boolean mIsDataChanged;
     private ChangeSetCompleteCallback mChangeSetCompleteCallback;
   }
@@ -2938,11 +3383,18 @@ public class RecyclerBinder
           mSplitLayoutTag);
     }
 
+    final LayoutHandler layoutHandler;
+    if (mLayoutPriorityThreadPoolConfig != null) {
+      layoutHandler = new PriorityLayoutHandler(mLayoutPriorityThreadPoolConfig);
+    } else if (mLayoutHandlerFactory != null) {
+      layoutHandler = mLayoutHandlerFactory.createLayoutCalculationHandler(renderInfo);
+    } else {
+      layoutHandler = null;
+    }
+
     return mComponentTreeHolderFactory.create(
         renderInfo,
-        mLayoutHandlerFactory != null
-            ? mLayoutHandlerFactory.createLayoutCalculationHandler(renderInfo)
-            : null,
+        layoutHandler,
         mCanPrefetchDisplayLists,
         mCanCacheDrawingDisplayLists,
         mUseSharedLayoutStateFuture,
@@ -2953,7 +3405,9 @@ public class RecyclerBinder
   private void updateHolder(ComponentTreeHolder holder, RenderInfo renderInfo) {
     final RenderInfo previousRenderInfo = holder.getRenderInfo();
     holder.setRenderInfo(renderInfo);
-    if (mLayoutHandlerFactory != null
+    mIsRangeWindowValid = false;
+    if (mLayoutPriorityThreadPoolConfig == null
+        && mLayoutHandlerFactory != null
         && mLayoutHandlerFactory.shouldUpdateLayoutHandler(previousRenderInfo, renderInfo)) {
       holder.updateLayoutHandler(mLayoutHandlerFactory.createLayoutCalculationHandler(renderInfo));
     }
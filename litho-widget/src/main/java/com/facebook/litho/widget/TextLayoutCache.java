@@ -0,0 +1,282 @@
+/*
+ * Copyright 2014-present Facebook, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import android.content.res.ColorStateList;
+import android.graphics.Typeface;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.text.TextDirectionHeuristicCompat;
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.Layout.Alignment;
+import android.text.Spanned;
+import android.text.TextUtils.TruncateAt;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.yoga.YogaDirection;
+import java.util.Arrays;
+
+/**
+ * A process-wide, size bounded LRU cache of text {@link Layout}s, so that the same text with the
+ * same style and width spec isn't laid out again by every ComponentTree and on every re-layout. It
+ * can be used from any thread.
+ *
+ * <p>A cached {@link Layout} is shared by every component that produced the same {@link Key}, so
+ * only texts whose layout can't diverge once mounted are cacheable: plain (non {@link Spanned})
+ * text, and colors that don't depend on the drawable state. See {@link #isCacheable}.
+ */
+public final class TextLayoutCache {
+
+  private static TextLayoutCache sInstance;
+
+  private final LruCache<Key, Layout> mCache;
+
+  /**
+   * @return the global {@link TextLayoutCache} instance, or null if disabled with {@link
+   *     ComponentsConfiguration#useTextLayoutCache}.
+   */
+  public static synchronized @Nullable TextLayoutCache getInstance() {
+    if (!ComponentsConfiguration.useTextLayoutCache) {
+      return null;
+    }
+
+    if (sInstance == null) {
+      sInstance = new TextLayoutCache(ComponentsConfiguration.textLayoutCacheSize);
+    }
+
+    return sInstance;
+  }
+
+  @VisibleForTesting
+  TextLayoutCache(int maxSize) {
+    mCache = new LruCache<>(maxSize);
+  }
+
+  /**
+   * @return whether a {@link Layout} for this text and color can be shared between components.
+   *     {@link TextDrawable} writes the color for the current drawable state to the layout's paint,
+   *     so stateful color lists are excluded, as are spans which may carry their own state.
+   */
+  static boolean isCacheable(
+      CharSequence text, int textColor, @Nullable ColorStateList textColorStateList) {
+    if (text instanceof Spanned) {
+      return false;
+    }
+
+    return textColor != 0
+        || textColorStateList == null
+        || textColorStateList == TextSpec.textColorStateList
+        || !textColorStateList.isStateful();
+  }
+
+  @Nullable
+  Layout get(Key key) {
+    return mCache.get(key);
+  }
+
+  void put(Key key, Layout layout) {
+    mCache.put(key, layout);
+  }
+
+  /** Drops every cached {@link Layout}, e.g. when the app is trimming memory. */
+  public void clear() {
+    mCache.evictAll();
+  }
+
+  public int getHitCount() {
+    return mCache.hitCount();
+  }
+
+  public int getMissCount() {
+    return mCache.missCount();
+  }
+
+  /** @return the fraction of lookups that were served from the cache, or 0 without lookups. */
+  public float getHitRate() {
+    final int hits = mCache.hitCount();
+    final int lookups = hits + mCache.missCount();
+    return lookups == 0 ? 0 : (float) hits / lookups;
+  }
+
+  /** Every input of {@link TextSpec}'s text layout that affects the resulting {@link Layout}. */
+  static final class Key {
+
+    private final String mText;
+    private final int mWidthSpec;
+    private final @Nullable TruncateAt mEllipsize;
+    private final boolean mShouldIncludeFontPadding;
+    private final int mMaxLines;
+    private final float mShadowRadius;
+    private final float mShadowDx;
+    private final float mShadowDy;
+    private final int mShadowColor;
+    private final boolean mIsSingleLine;
+    private final int mTextColor;
+    private final @Nullable ColorStateList mTextColorStateList;
+    private final int mLinkColor;
+    private final int mTextSize;
+    private final float mExtraSpacing;
+    private final float mSpacingMultiplier;
+    private final float mLetterSpacing;
+    private final int mTextStyle;
+    private final @Nullable Typeface mTypeface;
+    private final @Nullable Alignment mTextAlignment;
+    private final @Nullable YogaDirection mLayoutDirection;
+    private final int mMinEms;
+    private final int mMaxEms;
+    private final int mMinTextWidth;
+    private final int mMaxTextWidth;
+    private final float mDensity;
+    private final int mBreakStrategy;
+    private final int mHyphenationFrequency;
+    private final int mJustificationMode;
+    private final @Nullable TextDirectionHeuristicCompat mTextDirection;
+    private final int mHashCode;
+
+    Key(
+        CharSequence text,
+        int widthSpec,
+        @Nullable TruncateAt ellipsize,
+        boolean shouldIncludeFontPadding,
+        int maxLines,
+        float shadowRadius,
+        float shadowDx,
+        float shadowDy,
+        int shadowColor,
+        boolean isSingleLine,
+        int textColor,
+        @Nullable ColorStateList textColorStateList,
+        int linkColor,
+        int textSize,
+        float extraSpacing,
+        float spacingMultiplier,
+        float letterSpacing,
+        int textStyle,
+        @Nullable Typeface typeface,
+        @Nullable Alignment textAlignment,
+        @Nullable YogaDirection layoutDirection,
+        int minEms,
+        int maxEms,
+        int minTextWidth,
+        int maxTextWidth,
+        float density,
+        int breakStrategy,
+        int hyphenationFrequency,
+        int justificationMode,
+        @Nullable TextDirectionHeuristicCompat textDirection) {
+      mText = text.toString();
+      mWidthSpec = widthSpec;
+      mEllipsize = ellipsize;
+      mShouldIncludeFontPadding = shouldIncludeFontPadding;
+      mMaxLines = maxLines;
+      mShadowRadius = shadowRadius;
+      mShadowDx = shadowDx;
+      mShadowDy = shadowDy;
+      mShadowColor = shadowColor;
+      mIsSingleLine = isSingleLine;
+      mTextColor = textColor;
+      mTextColorStateList = textColorStateList;
+      mLinkColor = linkColor;
+      mTextSize = textSize;
+      mExtraSpacing = extraSpacing;
+      mSpacingMultiplier = spacingMultiplier;
+      mLetterSpacing = letterSpacing;
+      mTextStyle = textStyle;
+      mTypeface = typeface;
+      mTextAlignment = textAlignment;
+      mLayoutDirection = layoutDirection;
+      mMinEms = minEms;
+      mMaxEms = maxEms;
+      mMinTextWidth = minTextWidth;
+      mMaxTextWidth = maxTextWidth;
+      mDensity = density;
+      mBreakStrategy = breakStrategy;
+      mHyphenationFrequency = hyphenationFrequency;
+      mJustificationMode = justificationMode;
+      mTextDirection = textDirection;
+      mHashCode =
+          Arrays.hashCode(
+              new Object[] {
+                mText,
+                mWidthSpec,
+                mEllipsize,
+                mMaxLines,
+                mTextColor,
+                mTextColorStateList,
+                mTextSize,
+                mTextStyle,
+                mTypeface,
+                mTextAlignment,
+                mLayoutDirection,
+                mDensity,
+                mTextDirection
+              });
+    }
+
+    @Override
+    public int hashCode() {
+      return mHashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      final Key other = (Key) o;
+      return mHashCode == other.mHashCode
+          && mWidthSpec == other.mWidthSpec
+          && mShouldIncludeFontPadding == other.mShouldIncludeFontPadding
+          && mMaxLines == other.mMaxLines
+          && Float.compare(mShadowRadius, other.mShadowRadius) == 0
+          && Float.compare(mShadowDx, other.mShadowDx) == 0
+          && Float.compare(mShadowDy, other.mShadowDy) == 0
+          && mShadowColor == other.mShadowColor
+          && mIsSingleLine == other.mIsSingleLine
+          && mTextColor == other.mTextColor
+          && mLinkColor == other.mLinkColor
+          && mTextSize == other.mTextSize
+          && Float.compare(mExtraSpacing, other.mExtraSpacing) == 0
+          && Float.compare(mSpacingMultiplier, other.mSpacingMultiplier) == 0
+          && Float.compare(mLetterSpacing, other.mLetterSpacing) == 0
+          && mTextStyle == other.mTextStyle
+          && mMinEms == other.mMinEms
+          && mMaxEms == other.mMaxEms
+          && mMinTextWidth == other.mMinTextWidth
+          && mMaxTextWidth == other.mMaxTextWidth
+          && Float.compare(mDensity, other.mDensity) == 0
+          && mBreakStrategy == other.mBreakStrategy
+          && mHyphenationFrequency == other.mHyphenationFrequency
+          && mJustificationMode == other.mJustificationMode
+          && mEllipsize == other.mEllipsize
+          && mTextAlignment == other.mTextAlignment
+          && mLayoutDirection == other.mLayoutDirection
+          && mTextColorStateList == other.mTextColorStateList
+          && mTextDirection == other.mTextDirection
+          && equals(mTypeface, other.mTypeface)
+          && mText.equals(other.mText);
+    }
+
+    private static boolean equals(@Nullable Object a, @Nullable Object b) {
+      return a == null ? b == null : a.equals(b);
+    }
+  }
+}
@@ -59,6 +59,7 @@ import com.facebook.litho.EventHandler;
 import com.facebook.litho.Output;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
+import com.facebook.litho.WarmUpPlan;
 import com.facebook.litho.annotations.FromBoundsDefined;
 import com.facebook.litho.annotations.FromMeasure;
 import com.facebook.litho.annotations.GetExtraAccessibilityNodeAt;
@@ -393,6 +394,48 @@ class TextSpec {
       int hyphenationFrequency,
       int justificationMode,
       TextDirectionHeuristicCompat textDirection) {
+    final TextLayoutCache cache = TextLayoutCache.getInstance();
+    TextLayoutCache.Key cacheKey = null;
+    if (cache != null && TextLayoutCache.isCacheable(text, textColor, textColorStateList)) {
+      cacheKey =
+          new TextLayoutCache.Key(
+              text,
+              widthSpec,
+              ellipsize,
+              shouldIncludeFontPadding,
+              maxLines,
+              shadowRadius,
+              shadowDx,
+              shadowDy,
+              shadowColor,
+              isSingleLine,
+              textColor,
+              textColorStateList,
+              linkColor,
+              textSize,
+              extraSpacing,
+              spacingMultiplier,
+              letterSpacing,
+              textStyle,
+              typeface,
+              textAlignment,
+              layoutDirection,
+              minEms,
+              maxEms,
+              minTextWidth,
+              maxTextWidth,
+              density,
+              breakStrategy,
+              hyphenationFrequency,
+              justificationMode,
+              textDirection);
+
+      final Layout cachedLayout = cache.get(cacheKey);
+      if (cachedLayout != null) {
+        return cachedLayout;
+      }
+    }
+
     Layout newLayout;
 
     TextLayoutBuilder layoutBuilder = sTextLayoutBuilderPool.acquire();
@@ -475,6 +518,10 @@ class TextSpec {
     layoutBuilder.setText(null);
     sTextLayoutBuilderPool.release(layoutBuilder);
 
+    if (cacheKey != null) {
+      cache.put(cacheKey, newLayout);
+    }
+
     if (glyphWarming && !DisplayListUtils.isEligibleForCreatingDisplayLists()) {
       TextureWarmer.getInstance().warmLayout(newLayout);
     }
@@ -642,6 +689,11 @@ class TextSpec {
       }
     }
 
+    if (!glyphWarming) {
+      // Layouts with glyphWarming were already warmed when they were created.
+      WarmUpPlan.addTextLayout(textLayout.get());
+    }
+
     final CharSequence resultText = processedText.get();
     if (resultText instanceof Spanned) {
       Spanned spanned = (Spanned) resultText;
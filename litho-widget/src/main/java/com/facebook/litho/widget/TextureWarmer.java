@@ -29,7 +29,9 @@ import android.os.Message;
 import android.support.annotation.VisibleForTesting;
 import android.text.Layout;
 import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
+import com.facebook.litho.WarmUpPlan;
 import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
 
 /**
  * A class that schedules a background draw of a {@link Layout} or {@link Drawable}. Drawing a
@@ -38,8 +40,12 @@ import java.lang.ref.WeakReference;
  * times for big chunks of text. On the other hand over-using text warming might rotate the glyphs
  * cache too quickly and diminish the optimization. Similarly, for {@link Drawable} starting on art
  * it will be put in a texture cache of RenderNode, which will speed up drawing.
+ *
+ * <p>As a {@link WarmUpPlan.Warmer} it also processes the plans of whole LayoutStates, a few
+ * entries at a time so that plans of different trees interleave. Content that was already warmed is
+ * skipped, and a plan is dropped as soon as its LayoutState is released.
  */
-public class TextureWarmer {
+public class TextureWarmer implements WarmUpPlan.Warmer {
 
   private static final String TAG = TextureWarmer.class.getName();
 
@@ -101,12 +107,40 @@ public class TextureWarmer {
         .sendToTarget();
   }
 
+  /**
+   * Schedules every entry of a {@link WarmUpPlan} to be drawn in the background, in the order of
+   * the plan.
+   */
+  @Override
+  public void warmUp(WarmUpPlan plan) {
+    mHandler.obtainMessage(WarmerHandler.WARM_PLAN, new PlanProgress(plan)).sendToTarget();
+  }
+
+  private static final class PlanProgress {
+    private final WarmUpPlan mPlan;
+    private int mNextIndex;
+
+    private PlanProgress(WarmUpPlan plan) {
+      mPlan = plan;
+    }
+
+    private boolean hasRemaining() {
+      return !mPlan.isCancelled() && mNextIndex < mPlan.size();
+    }
+  }
+
   private static final class WarmerHandler extends Handler {
     public static final int WARM_LAYOUT = 0;
     public static final int WARM_DRAWABLE = 1;
+    public static final int WARM_PLAN = 2;
+
+    private static final int PLAN_BATCH_SIZE = 8;
 
     private final Picture mPicture;
 
+    /** Layouts and drawable constant states that were already warmed by a plan. */
+    private final WeakHashMap<Object, Boolean> mWarmedContent = new WeakHashMap<>();
+
     private WarmerHandler(Looper looper) {
       super(looper);
 
@@ -154,10 +188,58 @@ public class TextureWarmer {
             warmDrawable.drawable.draw(canvas);
             mPicture.endRecording();
             break;
+          case WARM_PLAN:
+            final PlanProgress progress = (PlanProgress) msg.obj;
+            warmPlanBatch(progress);
+
+            if (progress.hasRemaining()) {
+              // Go to the back of the queue so that other plans get a turn.
+              sendMessage(obtainMessage(WARM_PLAN, progress));
+            }
+            break;
         }
       } catch (Exception e) {
         // Nothing to do here. This is a best effort. No real problem if it fails.
       }
     }
+
+    private void warmPlanBatch(PlanProgress progress) {
+      final WarmUpPlan plan = progress.mPlan;
+      final int end = Math.min(progress.mNextIndex + PLAN_BATCH_SIZE, plan.size());
+
+      while (progress.mNextIndex < end && !plan.isCancelled()) {
+        final WarmUpPlan.Entry entry = plan.get(progress.mNextIndex++);
+        final Object content = entry.getContent();
+
+        try {
+          if (content instanceof Layout) {
+            if (mWarmedContent.put(content, Boolean.TRUE) != null) {
+              continue;
+            }
+
+            final Layout layout = (Layout) content;
+            final Canvas canvas =
+                mPicture.beginRecording(layout.getWidth(), LayoutMeasureUtil.getHeight(layout));
+            layout.draw(canvas);
+            mPicture.endRecording();
+          } else if (content instanceof Drawable) {
+            // Draw a copy so that this thread never touches the bounds or state of the mounted
+            // drawable. The copy still shares the bitmap whose texture we want to warm.
+            final Drawable.ConstantState constantState = ((Drawable) content).getConstantState();
+            if (constantState == null || mWarmedContent.put(constantState, Boolean.TRUE) != null) {
+              continue;
+            }
+
+            final Drawable drawable = constantState.newDrawable();
+            drawable.setBounds(0, 0, entry.getWidth(), entry.getHeight());
+            final Canvas canvas = mPicture.beginRecording(entry.getWidth(), entry.getHeight());
+            drawable.draw(canvas);
+            mPicture.endRecording();
+          }
+        } catch (Exception e) {
+          // Best effort, move on to the next entry.
+        }
+      }
+    }
   }
 }